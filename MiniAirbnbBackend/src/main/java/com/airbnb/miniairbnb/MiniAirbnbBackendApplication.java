@@ -2,8 +2,10 @@ package com.airbnb.miniairbnb;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling //joburi periodice (ex. arhivarea rezervarilor)
 public class MiniAirbnbBackendApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,7 @@
+package com.airbnb.miniairbnb.calendar;
+
+import java.time.LocalDate;
+
+//un VEVENT redus la ce conteaza pt disponibilitate: noptile din [start, end)
+public record CalendarEvent(String uid, LocalDate start, LocalDate end) {
+}
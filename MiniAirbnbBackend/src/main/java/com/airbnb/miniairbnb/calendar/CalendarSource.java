@@ -0,0 +1,186 @@
+package com.airbnb.miniairbnb.calendar;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+//descarca fisierele iCal externe: http(s) sau file: din directorul app.calendar-import.file-root (fisiere puse de
+//operatori sau un export local); orice alt fisier de pe server e refuzat. Fisierele mai mari decat max-bytes sunt
+//respinse, ca un URL gresit sa nu umple memoria.
+//URL-urile sunt date de host-uri, deci serverul nu descarca de la adrese interne (loopback, retele private, link-local
+//ca 169.254.169.254): adresa se verifica la salvare si la fiecare redirect, urmarit manual. Exceptie: host-urile din
+//app.calendar-import.allowed-hosts (comparate ca text, deci "localhost" nu acopera si "127.0.0.1")
+@Component
+public class CalendarSource {
+    private static final Set<Integer> REDIRECTS = Set.of(301, 302, 303, 307, 308);
+    private static final int MAX_REDIRECTS = 5;
+
+    private final Path fileRoot;
+    private final int maxBytes;
+    private final Duration timeout;
+    private final Set<String> allowedHosts;
+    private final HttpClient httpClient;
+
+    public CalendarSource(@Value("${app.calendar-import.file-root:./calendars}") String fileRoot,
+                          @Value("${app.calendar-import.max-bytes:5242880}") int maxBytes,
+                          @Value("${app.calendar-import.timeout:PT30S}") Duration timeout,
+                          @Value("${app.calendar-import.allowed-hosts:}") String[] allowedHosts) {
+        this.fileRoot = Path.of(fileRoot).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.timeout = timeout;
+        this.allowedHosts = Arrays.stream(allowedHosts)
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    //verifica un URL inainte sa fie salvat; IllegalArgumentException cu motivul
+    public URI validate(String url) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid calendar URL: " + url);
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        switch (scheme) {
+            case "http", "https" -> {
+                if (uri.getHost() == null) {
+                    throw new IllegalArgumentException("Invalid calendar URL: " + url);
+                }
+                try {
+                    checkAddress(uri);
+                } catch (UnknownHostException e) {
+                    throw new IllegalArgumentException("Unknown calendar host: " + uri.getHost());
+                }
+            }
+            case "file" -> localFile(uri);
+            default -> throw new IllegalArgumentException("Calendar URL must be http(s) or file: " + url);
+        }
+        return uri;
+    }
+
+    public String fetch(String url) throws IOException {
+        URI uri = validate(url);
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            Path file = localFile(uri).toRealPath();
+            if (!file.startsWith(fileRoot.toRealPath())) { //un link simbolic din director spre alt fisier de pe server
+                throw new IOException("Calendar files must be under " + fileRoot);
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                return read(in);
+            }
+        }
+        URI current = uri;
+        for (int redirects = 0; ; redirects++) {
+            checkAddress(current);
+            HttpRequest request = HttpRequest.newBuilder(current)
+                    .timeout(timeout)
+                    .header("Accept", "text/calendar")
+                    .GET()
+                    .build();
+            try {
+                HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream in = response.body()) {
+                    if (REDIRECTS.contains(response.statusCode())) {
+                        if (redirects == MAX_REDIRECTS) {
+                            throw new IOException("Too many redirects from " + uri);
+                        }
+                        current = redirectTarget(current, response);
+                        continue;
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new IOException("HTTP " + response.statusCode() + " from " + current);
+                    }
+                    return read(in);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while downloading " + current, e);
+            }
+        }
+    }
+
+    //redirect-urile raman pe http(s): un server extern nu poate trimite descarcarea spre un file:
+    private static URI redirectTarget(URI from, HttpResponse<?> response) throws IOException {
+        String location = response.headers().firstValue("Location")
+                .orElseThrow(() -> new IOException("HTTP " + response.statusCode() + " without Location from " + from));
+        URI target;
+        try {
+            target = from.resolve(new URI(location.trim()));
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid redirect from " + from + ": " + location);
+        }
+        String scheme = target.getScheme() == null ? "" : target.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || target.getHost() == null) {
+            throw new IOException("Invalid redirect from " + from + ": " + location);
+        }
+        return target;
+    }
+
+    //toate adresele host-ului trebuie sa fie publice. HttpClient rezolva numele din nou la conectare, deci un DNS care
+    //isi schimba raspunsul intre timp nu e acoperit; pt asta e nevoie de un proxy de iesire
+    private void checkAddress(URI uri) throws UnknownHostException {
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (allowedHosts.contains(host)) {
+            return;
+        }
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            if (isInternal(address)) {
+                throw new IllegalArgumentException("Calendar URL must point to a public address");
+            }
+        }
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        return address.isLoopbackAddress()
+                || address.isAnyLocalAddress()
+                || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress()
+                || address.isMulticastAddress()
+                || address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc; //fc00::/7, unique local
+    }
+
+    private Path localFile(URI uri) {
+        Path path;
+        try {
+            path = Path.of(uri).toAbsolutePath().normalize();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid calendar file URL: " + uri);
+        }
+        if (!path.startsWith(fileRoot)) {
+            throw new IllegalArgumentException("Calendar files must be under " + fileRoot);
+        }
+        return path;
+    }
+
+    private String read(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(maxBytes + 1);
+        if (bytes.length > maxBytes) {
+            throw new IOException("Calendar is larger than " + maxBytes + " bytes");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,138 @@
+package com.airbnb.miniairbnb.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//citeste VEVENT-urile dintr-un fisier iCal (RFC 5545) ca intervale de zile: DTSTART/DTEND cu VALUE=DATE sau DATE-TIME
+//(se pastreaza doar data), DTEND lipsa = DURATION sau o zi. Evenimentele CANCELLED sau TRANSPARENT (nu ocupa timp)
+//sunt ignorate; restul proprietatilor (SUMMARY, DESCRIPTION etc.) nu sunt citite. Un fisier fara BEGIN:VCALENDAR (ex. o
+//pagina de eroare HTML) e respins, ca sa nu stearga blocurile existente ca un calendar gol
+public final class ICalendarParser {
+    private static final Pattern DAYS_DURATION = Pattern.compile("P(?:(\\d+)W)?(?:(\\d+)D)?(?:T.*)?");
+
+    private ICalendarParser() {
+    }
+
+    public static List<CalendarEvent> parse(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        List<CalendarEvent> events = new ArrayList<>();
+        boolean calendar = false;
+        Event event = null;
+        String line;
+        String pending = null;
+        while ((line = lines.readLine()) != null || pending != null) {
+            //linie continuata (folding): incepe cu spatiu sau tab si se lipeste de cea anterioara
+            if (line != null && !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                pending = pending == null ? line.substring(1) : pending + line.substring(1);
+                continue;
+            }
+            if (pending != null) {
+                calendar |= pending.trim().equalsIgnoreCase("BEGIN:VCALENDAR");
+                event = handle(pending, event, events);
+            }
+            pending = line;
+        }
+        if (!calendar) {
+            throw new IOException("Not an iCalendar file (BEGIN:VCALENDAR is missing)");
+        }
+        return events;
+    }
+
+    private static Event handle(String line, Event event, List<CalendarEvent> events) {
+        int colon = valueSeparator(line);
+        if (colon < 0) {
+            return event;
+        }
+        String head = line.substring(0, colon);
+        int semicolon = head.indexOf(';');
+        String name = (semicolon < 0 ? head : head.substring(0, semicolon)).trim().toUpperCase(Locale.ROOT);
+        String value = line.substring(colon + 1).trim();
+
+        if (name.equals("BEGIN") && value.equalsIgnoreCase("VEVENT")) {
+            return new Event();
+        }
+        if (event == null) {
+            return null;
+        }
+        switch (name) {
+            case "END" -> {
+                if (value.equalsIgnoreCase("VEVENT")) {
+                    event.finish(events);
+                    return null;
+                }
+            }
+            case "UID" -> event.uid = value;
+            case "DTSTART" -> event.start = date(value);
+            case "DTEND" -> event.end = date(value);
+            case "DURATION" -> event.durationDays = days(value);
+            case "STATUS" -> event.cancelled = value.equalsIgnoreCase("CANCELLED");
+            case "TRANSP" -> event.transparent = value.equalsIgnoreCase("TRANSPARENT");
+            default -> {
+            }
+        }
+        return event;
+    }
+
+    //primul ':' din afara ghilimelelor (valorile parametrilor pot contine ':', ex. TZID sau URL-uri)
+    private static int valueSeparator(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //20250131 sau 20250131T140000[Z]: ora nu conteaza pt noptile ocupate
+    private static LocalDate date(String value) {
+        if (value.length() < 8) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Integer days(String value) {
+        Matcher matcher = DAYS_DURATION.matcher(value.toUpperCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            return null;
+        }
+        int weeks = matcher.group(1) == null ? 0 : Integer.parseInt(matcher.group(1));
+        int days = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+        return weeks * 7 + days;
+    }
+
+    private static class Event {
+        String uid;
+        LocalDate start;
+        LocalDate end;
+        Integer durationDays;
+        boolean cancelled;
+        boolean transparent;
+
+        void finish(List<CalendarEvent> events) {
+            if (start == null || cancelled || transparent) {
+                return; //fara data de inceput evenimentul nu poate fi plasat in calendar
+            }
+            LocalDate last = end != null ? end : durationDays != null ? start.plusDays(durationDays) : null;
+            //o ora in aceeasi zi (sau un interval invers) ocupa totusi ziua respectiva
+            events.add(new CalendarEvent(uid, start, last == null || !last.isAfter(start) ? start.plusDays(1) : last));
+        }
+    }
+}
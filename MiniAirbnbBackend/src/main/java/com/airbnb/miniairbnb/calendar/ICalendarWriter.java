@@ -0,0 +1,47 @@
+package com.airbnb.miniairbnb.calendar;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+//scrie un VCALENDAR (RFC 5545) cu evenimente pe zile intregi. Continutul depinde doar de argumente (DTSTAMP vine de la
+//apelant), asa ca aceeasi versiune a datelor da aceiasi octeti. Fara date personale: doar intervalul si statusul
+public class ICalendarWriter {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final StringBuilder out = new StringBuilder(1024);
+
+    public ICalendarWriter() {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Mini Airbnb//Availability//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+    }
+
+    //end exclusiv (ziua de check-out); tentative = rezervare PENDING, inca neconfirmata de host
+    public ICalendarWriter event(String uid, LocalDate start, LocalDate end, boolean tentative, LocalDateTime stamp) {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + TIMESTAMP.format(stamp.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)));
+        line("DTSTART;VALUE=DATE:" + DATE.format(start));
+        line("DTEND;VALUE=DATE:" + DATE.format(end));
+        line("SUMMARY:" + (tentative ? "Reserved (pending)" : "Reserved"));
+        line("STATUS:" + (tentative ? "TENTATIVE" : "CONFIRMED"));
+        line("TRANSP:OPAQUE");
+        line("END:VEVENT");
+        return this;
+    }
+
+    public String finish() {
+        line("END:VCALENDAR");
+        return out.toString();
+    }
+
+    private void line(String line) {
+        out.append(line).append("\r\n"); //liniile sunt scurte si ASCII, nu trebuie impartite (folding) la 75 de octeti
+    }
+}
@@ -0,0 +1,378 @@
+package com.airbnb.miniairbnb.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+//catalogul proprietatilor active pe coloane: cate un array primitiv pt fiecare atribut filtrabil,
+//orasul si tara codificate intr-un dictionar (int in loc de String). Randurile sunt tinute ordonate dupa id,
+//asa ca un id se gaseste prin cautare binara (fara map id -> rand) si ordinea implicita e chiar ordinea randurilor.
+//Memorie: 45 B/proprietate in coloane (id 8, pret 8, 5 x int 20, createdAt 8, sters 1), plus rezerva de crestere
+//a array-urilor (pana la 2x); la 1M proprietati ~45-90 MB. Stringurile din dictionare sunt neglijabile
+public class ListingCatalog {
+    static final int SCAN_CHUNK = 65_536; //peste atatea randuri scanarea e impartita pe core-uri
+    private static final int INDEX_BITS = 24;
+    private static final long MAX_PACKED_KEY = (1L << (63 - INDEX_BITS)) - 1;
+    private static final int ANY = -1;
+    private static final int UNKNOWN = -2;
+
+    private long[] ids = new long[1024];
+    private long[] priceCents = new long[1024];
+    private int[] bedrooms = new int[1024];
+    private int[] bathrooms = new int[1024];
+    private int[] maxGuests = new int[1024];
+    private int[] cityCodes = new int[1024];
+    private int[] countryCodes = new int[1024];
+    private long[] createdAt = new long[1024]; //secunde epoch (UTC)
+    private boolean[] deleted = new boolean[1024]; //randurile sterse raman pana la compactare
+    private int size; //randuri, inclusiv cele sterse
+    private int largestValue; //cel mai mare numar de dormitoare/bai/oaspeti vazut: dimensiunea numaratorilor pe fatete
+    private int deletedCount;
+
+    private final Dictionary cities = new Dictionary();
+    private final Dictionary countries = new Dictionary();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //adauga sau actualizeaza proprietatea cu id-ul dat
+    public void put(ListingRow listing) {
+        lock.writeLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, listing.id());
+            if (row < 0) {
+                row = -row - 1;
+                insertRow(row); //de obicei la final: id-urile noi sunt mai mari decat cele existente
+                ids[row] = listing.id();
+            } else if (deleted[row]) {
+                deleted[row] = false;
+                deletedCount--;
+            }
+            priceCents[row] = ListingCriteria.priceCents(listing.pricePerNight());
+            bedrooms[row] = listing.bedrooms();
+            bathrooms[row] = listing.bathrooms();
+            maxGuests[row] = listing.maxGuests();
+            largestValue = Math.max(largestValue, Math.max(listing.maxGuests(), Math.max(listing.bedrooms(), listing.bathrooms())));
+            cityCodes[row] = cities.encode(listing.city());
+            countryCodes[row] = countries.encode(listing.country());
+            createdAt[row] = Math.max(0, ListingCriteria.createdAtSeconds(listing.createdAt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            if (row < 0 || deleted[row]) {
+                return;
+            }
+            deleted[row] = true;
+            deletedCount++;
+            if (deletedCount > 1024 && deletedCount > size / 4) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //id-urile proprietatilor care trec de filtru, in ordinea ceruta, cel mult criteria.limit()
+    public long[] query(ListingCriteria criteria) {
+        return query(criteria, null);
+    }
+
+    //la fel, iar daca facets nu e null numara si fatetele tuturor potrivirilor (si ale celor de dupa limit)
+    public long[] query(ListingCriteria criteria, ListingFacets facets) {
+        lock.readLock().lock();
+        try {
+            int city = criteria.city() == null ? ANY : cities.code(criteria.city());
+            int country = criteria.country() == null ? ANY : countries.code(criteria.country());
+            if (city == UNKNOWN || country == UNKNOWN) {
+                return new long[0];
+            }
+            Scan scan = new Scan(criteria, city, country);
+            int[] matches;
+            if (criteria.sort() == ListingSort.ID && facets == null) {
+                //randurile sunt deja in ordinea dupa id: scanarea se opreste la primele limit potriviri
+                matches = scan.rows(0, size, criteria.limit());
+            } else if (size <= SCAN_CHUNK) {
+                matches = scan.rows(0, size, Integer.MAX_VALUE);
+            } else {
+                //bucatile sunt scanate in paralel (ForkJoinPool comun) si concatenate in ordine, deci tot dupa id
+                int chunks = (size + SCAN_CHUNK - 1) / SCAN_CHUNK;
+                int total = size;
+                List<int[]> parts = IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> scan.rows(chunk * SCAN_CHUNK, Math.min(total, (chunk + 1) * SCAN_CHUNK), Integer.MAX_VALUE))
+                        .toList();
+                matches = concat(parts);
+            }
+            if (facets != null) {
+                countFacets(matches, facets);
+            }
+            int[] ordered = criteria.sort() == ListingSort.ID ? matches : sort(matches, criteria.sort(), criteria.limit());
+            int count = Math.min(ordered.length, criteria.limit());
+            long[] result = new long[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = ids[ordered[i]];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //filtrul ca bucla stransa peste coloane
+    private final class Scan {
+        private final long minPrice;
+        private final long maxPrice;
+        private final int minBedrooms;
+        private final int minBathrooms;
+        private final int minGuests;
+        private final int city;
+        private final int country;
+
+        Scan(ListingCriteria criteria, int city, int country) {
+            this.minPrice = criteria.minPriceCents();
+            this.maxPrice = criteria.maxPriceCents();
+            this.minBedrooms = criteria.minBedrooms();
+            this.minBathrooms = criteria.minBathrooms();
+            this.minGuests = criteria.minGuests();
+            this.city = city;
+            this.country = country;
+        }
+
+        //scanarea e limitata de memorie (~29 B/rand citit): orasul/tara (cele mai selective) sunt verificate primele,
+        //ca restul coloanelor sa fie citite doar pt randurile din orasul cerut; celelalte conditii sunt combinate cu &
+        //(fara short-circuit), un singur salt greu de prezis pe rand in loc de unul pe conditie
+        int[] rows(int from, int to, int limit) {
+            long[] price = priceCents;
+            int[] beds = bedrooms;
+            int[] baths = bathrooms;
+            int[] guests = maxGuests;
+            int[] cityColumn = cityCodes;
+            int[] countryColumn = countryCodes;
+            boolean[] removed = deleted;
+            boolean anyCity = city == ANY;
+            boolean anyCountry = country == ANY;
+
+            int[] rows = new int[Math.min(to - from, 256)];
+            int count = 0;
+            for (int row = from; row < to && count < limit; row++) {
+                if (!(anyCity || cityColumn[row] == city) || !(anyCountry || countryColumn[row] == country)) {
+                    continue;
+                }
+                boolean match = !removed[row]
+                        & price[row] >= minPrice & price[row] <= maxPrice
+                        & beds[row] >= minBedrooms & baths[row] >= minBathrooms & guests[row] >= minGuests;
+                if (match) {
+                    if (count == rows.length) {
+                        rows = Arrays.copyOf(rows, count * 2);
+                    }
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+    }
+
+    //fatetele pt toate potrivirile: cate o bucla stransa pe fiecare coloana, cu numaratorile indexate direct
+    //dupa codul din dictionar (oras, tara) sau dupa valoare (dormitoare, bai, oaspeti), fara String-uri si fara map-uri
+    private void countFacets(int[] matches, ListingFacets facets) {
+        facets.addTotal(matches.length);
+        long[] cityCounts = histogram(matches, cityCodes, cities.size());
+        for (int code = 0; code < cityCounts.length; code++) {
+            if (cityCounts[code] > 0) {
+                facets.addCity(cities.value(code), cityCounts[code]);
+            }
+        }
+        long[] countryCounts = histogram(matches, countryCodes, countries.size());
+        for (int code = 0; code < countryCounts.length; code++) {
+            if (countryCounts[code] > 0) {
+                facets.addCountry(countries.value(code), countryCounts[code]);
+            }
+        }
+        long[] priceCounts = new long[ListingFacets.PRICE_EDGES_CENTS.length + 1];
+        long[] price = priceCents;
+        for (int row : matches) {
+            priceCounts[ListingFacets.priceBucket(price[row])]++;
+        }
+        for (int bucket = 0; bucket < priceCounts.length; bucket++) {
+            facets.addPrice(bucket, priceCounts[bucket]);
+        }
+        long[] bedroomCounts = histogram(matches, bedrooms, largestValue + 1);
+        long[] bathroomCounts = histogram(matches, bathrooms, largestValue + 1);
+        long[] guestCounts = histogram(matches, maxGuests, largestValue + 1);
+        for (int value = 0; value <= largestValue; value++) {
+            if (bedroomCounts[value] > 0) {
+                facets.addBedrooms(value, bedroomCounts[value]);
+            }
+            if (bathroomCounts[value] > 0) {
+                facets.addBathrooms(value, bathroomCounts[value]);
+            }
+            if (guestCounts[value] > 0) {
+                facets.addMaxGuests(value, guestCounts[value]);
+            }
+        }
+    }
+
+    private static long[] histogram(int[] matches, int[] column, int values) {
+        long[] counts = new long[values];
+        for (int row : matches) {
+            counts[Math.max(0, column[row])]++;
+        }
+        return counts;
+    }
+
+    //sortare pe long-uri primitive: cheia in bitii de sus, pozitia in matches (deci ordinea dupa id) in cei de jos;
+    //pt o limita mica se pastreaza doar cele mai bune limit chei intr-un heap
+    private int[] sort(int[] matches, ListingSort sort, int limit) {
+        long[] keys = new long[matches.length];
+        boolean packable = matches.length < (1 << INDEX_BITS);
+        for (int i = 0; i < matches.length; i++) {
+            int row = matches[i];
+            long key = switch (sort) {
+                case PRICE -> priceCents[row];
+                case PRICE_DESC -> MAX_PACKED_KEY - priceCents[row];
+                case NEWEST -> MAX_PACKED_KEY - createdAt[row];
+                case ID -> throw new IllegalStateException();
+            };
+            packable &= key >= 0 && key <= MAX_PACKED_KEY;
+            keys[i] = key;
+        }
+        if (!packable) {
+            //preturi uriase (sau peste 16M rezultate): sortare obisnuita pe indecsi
+            Integer[] order = IntStream.range(0, matches.length).boxed().toArray(Integer[]::new);
+            Arrays.sort(order, Comparator.comparingLong((Integer i) -> keys[i]).thenComparingInt(i -> i));
+            return Arrays.stream(order).limit(limit).mapToInt(i -> matches[i]).toArray();
+        }
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys[i] << INDEX_BITS | i;
+        }
+        long[] best;
+        if (limit <= 1024 && limit < keys.length / 8) {
+            PriorityQueue<Long> heap = new PriorityQueue<>(limit, Collections.reverseOrder());
+            for (long key : keys) {
+                if (heap.size() < limit) {
+                    heap.add(key);
+                } else if (key < heap.peek()) {
+                    heap.poll();
+                    heap.add(key);
+                }
+            }
+            best = heap.stream().mapToLong(Long::longValue).sorted().toArray();
+        } else {
+            Arrays.sort(keys);
+            best = keys;
+        }
+        int count = Math.min(best.length, limit);
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = matches[(int) (best[i] & ((1 << INDEX_BITS) - 1))];
+        }
+        return rows;
+    }
+
+    private void insertRow(int row) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            bedrooms = Arrays.copyOf(bedrooms, capacity);
+            bathrooms = Arrays.copyOf(bathrooms, capacity);
+            maxGuests = Arrays.copyOf(maxGuests, capacity);
+            cityCodes = Arrays.copyOf(cityCodes, capacity);
+            countryCodes = Arrays.copyOf(countryCodes, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            deleted = Arrays.copyOf(deleted, capacity);
+        }
+        int tail = size - row;
+        if (tail > 0) {
+            System.arraycopy(ids, row, ids, row + 1, tail);
+            System.arraycopy(priceCents, row, priceCents, row + 1, tail);
+            System.arraycopy(bedrooms, row, bedrooms, row + 1, tail);
+            System.arraycopy(bathrooms, row, bathrooms, row + 1, tail);
+            System.arraycopy(maxGuests, row, maxGuests, row + 1, tail);
+            System.arraycopy(cityCodes, row, cityCodes, row + 1, tail);
+            System.arraycopy(countryCodes, row, countryCodes, row + 1, tail);
+            System.arraycopy(createdAt, row, createdAt, row + 1, tail);
+            System.arraycopy(deleted, row, deleted, row + 1, tail);
+        }
+        deleted[row] = false;
+        size++;
+    }
+
+    //elimina randurile sterse, pastrand ordinea dupa id
+    private void compact() {
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            if (deleted[row]) {
+                continue;
+            }
+            ids[kept] = ids[row];
+            priceCents[kept] = priceCents[row];
+            bedrooms[kept] = bedrooms[row];
+            bathrooms[kept] = bathrooms[row];
+            maxGuests[kept] = maxGuests[row];
+            cityCodes[kept] = cityCodes[row];
+            countryCodes[kept] = countryCodes[row];
+            createdAt[kept] = createdAt[row];
+            deleted[kept] = false;
+            kept++;
+        }
+        Arrays.fill(deleted, kept, size, false);
+        size = kept;
+        deletedCount = 0;
+    }
+
+    private static int[] concat(List<int[]> parts) {
+        int length = parts.stream().mapToInt(part -> part.length).sum();
+        int[] all = new int[length];
+        int offset = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, all, offset, part.length);
+            offset += part.length;
+        }
+        return all;
+    }
+
+    //valorile distincte (orase, tari) si codurile lor; codurile nu se refolosesc
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int code(String value) {
+            return codes.getOrDefault(value, UNKNOWN);
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
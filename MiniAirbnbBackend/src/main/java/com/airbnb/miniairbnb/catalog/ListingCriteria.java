@@ -0,0 +1,76 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.dto.PropertyListingFilter;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.model.Property;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+//filtrul din request, cu preturile in centi; folosit de catalog si, la fallback, pe entitatile din baza de date
+public record ListingCriteria(String city, String country, long minPriceCents, long maxPriceCents,
+                              int minBedrooms, int minBathrooms, int minGuests, ListingSort sort, int limit) {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public static ListingCriteria from(PropertyListingFilter filter) {
+        if (filter.getLimit() != null && (filter.getLimit() < 1 || filter.getLimit() > MAX_LIMIT)) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return new ListingCriteria(
+                blankToNull(filter.getCity()),
+                blankToNull(filter.getCountry()),
+                filter.getMinPrice() == null ? 0 : filterCents(filter.getMinPrice(), RoundingMode.CEILING),
+                filter.getMaxPrice() == null ? Long.MAX_VALUE : filterCents(filter.getMaxPrice(), RoundingMode.FLOOR),
+                filter.getBedrooms() == null ? 0 : filter.getBedrooms(),
+                filter.getBathrooms() == null ? 0 : filter.getBathrooms(),
+                filter.getGuests() == null ? 0 : filter.getGuests(),
+                ListingSort.parse(filter.getSort()),
+                filter.getLimit() == null ? DEFAULT_LIMIT : filter.getLimit());
+    }
+
+    public boolean matches(Property property) {
+        long price = priceCents(property.getPricePerNight());
+        return (city == null || city.equals(property.getCity()))
+                && (country == null || country.equals(property.getCountry()))
+                && price >= minPriceCents && price <= maxPriceCents
+                && property.getBedrooms() >= minBedrooms
+                && property.getBathrooms() >= minBathrooms
+                && property.getMaxGuests() >= minGuests;
+    }
+
+    public Comparator<Property> comparator() {
+        Comparator<Property> byId = Comparator.comparing(Property::getId);
+        return switch (sort) {
+            case ID -> byId;
+            case PRICE -> Comparator.comparing(Property::getPricePerNight).thenComparing(byId);
+            case PRICE_DESC -> Comparator.comparing(Property::getPricePerNight).reversed().thenComparing(byId);
+            case NEWEST -> Comparator.comparingLong((Property property) -> createdAtSeconds(property.getCreatedAt())).reversed()
+                    .thenComparing(byId);
+        };
+    }
+
+    static long priceCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    //pretul din request (ex. maxPrice=1e30) poate depasi un long: il limitam la [0, Long.MAX_VALUE], unde filtrul da acelasi rezultat
+    private static long filterCents(BigDecimal price, RoundingMode roundingMode) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, roundingMode);
+        if (cents.signum() < 0) {
+            return 0;
+        }
+        return cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0 ? Long.MAX_VALUE : cents.longValueExact();
+    }
+
+    static long createdAtSeconds(LocalDateTime createdAt) {
+        return createdAt == null ? 0 : createdAt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.dto.PropertyFacets;
+import com.airbnb.miniairbnb.model.Property;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+//numaratorile pe fatete (oras, tara, interval de pret, dormitoare, bai, capacitate) pt toate proprietatile care trec
+//de filtru, nu doar pt cele din limit. Catalogul le numara pe coloane, peste randurile gasite; fara catalog se numara entitatile
+public class ListingFacets {
+    public static final int MAX_LOCATIONS = 20; //orasele/tarile cu cele mai multe proprietati; restul apar doar in total
+    static final long[] PRICE_EDGES_CENTS = {5_000, 10_000, 20_000, 50_000}; //intervale: sub 50, 50-100, 100-200, 200-500, peste 500
+
+    private long total;
+    private final Map<String, Long> cities = new HashMap<>();
+    private final Map<String, Long> countries = new HashMap<>();
+    private final long[] prices = new long[PRICE_EDGES_CENTS.length + 1];
+    private final Map<Integer, Long> bedrooms = new TreeMap<>();
+    private final Map<Integer, Long> bathrooms = new TreeMap<>();
+    private final Map<Integer, Long> maxGuests = new TreeMap<>();
+
+    public void add(Property property) {
+        total++;
+        cities.merge(property.getCity(), 1L, Long::sum);
+        countries.merge(property.getCountry(), 1L, Long::sum);
+        prices[priceBucket(ListingCriteria.priceCents(property.getPricePerNight()))]++;
+        bedrooms.merge(property.getBedrooms(), 1L, Long::sum);
+        bathrooms.merge(property.getBathrooms(), 1L, Long::sum);
+        maxGuests.merge(property.getMaxGuests(), 1L, Long::sum);
+    }
+
+    //intervalul [edge[i-1], edge[i]) in care cade pretul
+    static int priceBucket(long priceCents) {
+        int bucket = 0;
+        for (long edge : PRICE_EDGES_CENTS) {
+            bucket += priceCents >= edge ? 1 : 0;
+        }
+        return bucket;
+    }
+
+    void addTotal(long count) {
+        total += count;
+    }
+
+    void addCity(String city, long count) {
+        cities.merge(city, count, Long::sum);
+    }
+
+    void addCountry(String country, long count) {
+        countries.merge(country, count, Long::sum);
+    }
+
+    void addPrice(int bucket, long count) {
+        prices[bucket] += count;
+    }
+
+    void addBedrooms(int value, long count) {
+        bedrooms.merge(value, count, Long::sum);
+    }
+
+    void addBathrooms(int value, long count) {
+        bathrooms.merge(value, count, Long::sum);
+    }
+
+    void addMaxGuests(int value, long count) {
+        maxGuests.merge(value, count, Long::sum);
+    }
+
+    public PropertyFacets toFacets() {
+        List<PropertyFacets.PriceRange> priceRanges = new ArrayList<>(prices.length);
+        for (int i = 0; i < prices.length; i++) {
+            BigDecimal min = i == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(PRICE_EDGES_CENTS[i - 1], 2);
+            BigDecimal max = i == PRICE_EDGES_CENTS.length ? null : BigDecimal.valueOf(PRICE_EDGES_CENTS[i], 2);
+            priceRanges.add(new PropertyFacets.PriceRange(min, max, prices[i]));
+        }
+        return new PropertyFacets(total, top(cities), top(countries), priceRanges,
+                new LinkedHashMap<>(bedrooms), new LinkedHashMap<>(bathrooms), new LinkedHashMap<>(maxGuests));
+    }
+
+    //descrescator dupa numar, apoi alfabetic
+    private static Map<String, Long> top(Map<String, Long> counts) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_LOCATIONS)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+}
@@ -0,0 +1,110 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.fields.FieldSelection;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.service.PropertyChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+//raspunsurile GET /api/properties deja serializate, pe cheia normalizata (ListingCriteria + facets + fields): un hit trimite
+//byte-urile direct, fara catalog, fara baza de date si fara Jackson. Dupa commit-ul unei scrieri (PropertyChangedEvent)
+//se sterg doar intrarile care ar putea contine proprietatea: cele pe orasul/tara ei (de dinainte si de dupa scriere) si
+//cele fara oras si tara. Scrierile facute pe alta cale (direct in baza de date) apar dupa ttl
+@Component
+public class ListingResponseCache {
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final Cache<Key, byte[]> cache;
+    private long version; //creste la fiecare invalidare; un raspuns calculat inainte de ea nu mai e pus in cache
+
+    public ListingResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${app.listing-cache.enabled:true}") boolean enabled,
+                                @Value("${app.listing-cache.max-bytes:67108864}") long maxBytes,
+                                @Value("${app.listing-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntryBytes = maxBytes / 16; //listele foarte mari (fara limit) nu au voie sa goleasca tot cache-ul
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, byte[] body) -> body.length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "listing-responses");
+    }
+
+    //JSON-ul pt criteriile date: din cache sau produs de loader si serializat (si pus in cache)
+    public byte[] get(ListingCriteria criteria, boolean facets, FieldSelection fields, Supplier<?> loader) {
+        if (!enabled) {
+            return serialize(loader.get(), fields);
+        }
+        Key key = new Key(criteria, facets, fields);
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long versionBefore;
+        synchronized (this) {
+            versionBefore = version;
+        }
+        byte[] body = serialize(loader.get(), fields);
+        synchronized (this) {
+            if (version == versionBefore && body.length <= maxEntryBytes) {
+                cache.put(key, body);
+            }
+        }
+        return body;
+    }
+
+    //ruleaza dupa PropertyCatalog.onPropertyChanged (acela are @Order(HIGHEST_PRECEDENCE)): un raspuns calculat dupa
+    //invalidare vede deja catalogul actualizat
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Set<String> cities = new HashSet<>();
+        Set<String> countries = new HashSet<>();
+        Property property = event.property();
+        if (property != null) {
+            cities.add(property.getCity());
+            countries.add(property.getCountry());
+        }
+        if (event.previousCity() != null) {
+            cities.add(event.previousCity());
+        }
+        if (event.previousCountry() != null) {
+            countries.add(event.previousCountry());
+        }
+        synchronized (this) {
+            version++;
+            cache.asMap().keySet().removeIf(key -> key.criteria().city() != null ? cities.contains(key.criteria().city())
+                    : key.criteria().country() == null || countries.contains(key.criteria().country()));
+        }
+    }
+
+    private byte[] serialize(Object value, FieldSelection fields) {
+        try {
+            return fields.writer(objectMapper).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(ListingCriteria criteria, boolean facets, FieldSelection fields) {
+    }
+}
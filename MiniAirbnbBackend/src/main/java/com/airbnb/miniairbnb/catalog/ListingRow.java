@@ -0,0 +1,9 @@
+package com.airbnb.miniairbnb.catalog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//coloanele unei proprietati active tinute de catalog (proiectia de la incarcare)
+public record ListingRow(Long id, BigDecimal pricePerNight, Integer bedrooms, Integer bathrooms, Integer maxGuests,
+                         String city, String country, LocalDateTime createdAt) {
+}
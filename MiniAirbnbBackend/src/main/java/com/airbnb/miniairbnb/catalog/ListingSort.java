@@ -0,0 +1,35 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+//ordonarile listei de proprietati; egalitatile sunt departajate dupa id
+public enum ListingSort {
+    ID("id"),
+    PRICE("price"),
+    PRICE_DESC("-price"),
+    NEWEST("newest");
+
+    private final String parameter;
+
+    ListingSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public static ListingSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        return Arrays.stream(values())
+                .filter(sort -> sort.parameter.equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Unknown sort: " + value + " (expected "
+                        + Arrays.stream(values()).map(sort -> sort.parameter).collect(Collectors.joining(", ")) + ")"));
+    }
+}
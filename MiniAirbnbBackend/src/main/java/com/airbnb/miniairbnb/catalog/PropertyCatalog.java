@@ -0,0 +1,109 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+//catalogul proprietatilor active din memorie: construit la pornire, actualizat dupa fiecare commit din
+//PropertyServiceImpl/PropertyImportServiceImpl si reconstruit periodic (prinde si scrierile facute pe alta cale,
+//ex. direct in baza de date). Cat timp nu e incarcat (sau e dezactivat), find() e gol si lista se citeste din baza de date
+@Component
+public class PropertyCatalog implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(PropertyCatalog.class);
+
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile ListingCatalog catalog; //null pana la prima incarcare reusita
+    private List<PropertyChangedEvent> changesDuringRebuild; //modificarile aplicate peste catalogul in constructie
+
+    public PropertyCatalog(PropertyRepository propertyRepository, PlatformTransactionManager transactionManager,
+                           @Value("${app.catalog.enabled:true}") boolean enabled) {
+        this.propertyRepository = propertyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.rebuild-interval-ms:1800000}",
+            initialDelayString = "${app.catalog.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        ListingCatalog fresh = new ListingCatalog();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ListingRow> rows = propertyRepository.streamActiveListings()) {
+                    rows.forEach(fresh::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not load the property catalog, listings are served from the database", e);
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            changesDuringRebuild.forEach(change -> apply(fresh, change));
+            changesDuringRebuild = null;
+            catalog = fresh;
+        }
+        log.info("Loaded {} active properties into the catalog in {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //primul dupa commit: ListingResponseCache invalideaza dupa ce catalogul e deja actualizat
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onPropertyChanged(PropertyChangedEvent event) {
+        if (catalog != null) {
+            apply(catalog, event);
+        }
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+    }
+
+    //id-urile proprietatilor gasite, in ordinea ceruta (si fatetele, daca facets nu e null); gol daca catalogul nu e disponibil
+    public Optional<long[]> find(ListingCriteria criteria, ListingFacets facets) {
+        ListingCatalog current = catalog;
+        return current == null ? Optional.empty() : Optional.of(current.query(criteria, facets));
+    }
+
+    private static void apply(ListingCatalog target, PropertyChangedEvent event) {
+        Property property = event.property();
+        if (event.isDeleted() || !Boolean.TRUE.equals(property.getIsActive())) {
+            target.remove(event.propertyId());
+            return;
+        }
+        target.put(new ListingRow(property.getId(), property.getPricePerNight(), property.getBedrooms(), property.getBathrooms(),
+                property.getMaxGuests(), property.getCity(), property.getCountry(), property.getCreatedAt()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.airbnb.miniairbnb.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//migrarile versionate din classpath:db/migration
+@Configuration
+public class FlywayConfig {
+
+    //bazele create anterior de Hibernate (ddl-auto) nu au istoric Flyway:
+    //sunt marcate cu versiunea 1 (schema initiala) si primesc doar migrarile urmatoare
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchemaCustomizer() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+    }
+}
@@ -0,0 +1,44 @@
+package com.airbnb.miniairbnb.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//insert-uri/update-uri trimise in batch JDBC (id-urile vin din secvente pooled, nu din IDENTITY)
+@Configuration
+public class HibernateBatchConfig {
+
+    @Value("${app.jdbc.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateBatchingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            //grupeaza statement-urile pe tabela, altfel batch-ul se rupe la fiecare alternanta properties/property_images
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+
+    //driverul PostgreSQL rescrie un batch de INSERT-uri intr-un singur INSERT cu mai multe VALUES
+    @Bean
+    public static BeanPostProcessor postgresBatchedInsertsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && hikari.getJdbcUrl() != null
+                        && hikari.getJdbcUrl().startsWith("jdbc:postgresql:")
+                        && !hikari.getDataSourceProperties().containsKey("reWriteBatchedInserts")) {
+                    hikari.addDataSourceProperty("reWriteBatchedInserts", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.airbnb.miniairbnb.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+//second-level cache Hibernate (JCache + Caffeine in-process) pt User, Property si imaginile proprietatilor
+@Configuration
+public class HibernateCacheConfig {
+    //numele regiunilor folosite in @Cache si in hint-urile de query cache
+    public static final String USERS_REGION = "users";
+    public static final String PROPERTIES_REGION = "properties";
+    public static final String PROPERTY_IMAGES_REGION = "property-images";
+    public static final String USER_BY_EMAIL_QUERY_REGION = "user-by-email-query";
+    public static final String PROPERTIES_BY_CITY_QUERY_REGION = "properties-by-city-query";
+    public static final String PROPERTY_VERSION_QUERY_REGION = "property-version-query";
+
+    //regiunile interne Hibernate pt query cache
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${app.cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${app.cache.properties.max-size:20000}")
+    private long propertiesMaxSize;
+
+    @Value("${app.cache.queries.max-size:1000}")
+    private long queriesMaxSize;
+
+    @Value("${app.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        //un CacheManager propriu pt fiecare context Spring (cel implicit e unul singur in tot JVM-ul): contextele de test,
+        //fiecare cu baza lui H2, nu trebuie sa-si vada entitatile unul altuia
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("miniairbnb-" + UUID.randomUUID()),
+                provider.getDefaultClassLoader());
+
+        //fiecare regiune are o limita de marime; statisticile (hit/miss) sunt expuse prin JMX
+        Map<String, Long> regions = new LinkedHashMap<>();
+        regions.put(USERS_REGION, usersMaxSize);
+        regions.put(PROPERTIES_REGION, propertiesMaxSize);
+        regions.put(PROPERTY_IMAGES_REGION, propertiesMaxSize);
+        regions.put(USER_BY_EMAIL_QUERY_REGION, usersMaxSize);
+        regions.put(PROPERTIES_BY_CITY_QUERY_REGION, queriesMaxSize);
+        regions.put(PROPERTY_VERSION_QUERY_REGION, propertiesMaxSize);
+        regions.put(DEFAULT_QUERY_RESULTS_REGION, queriesMaxSize);
+
+        regions.forEach((region, maxSize) -> {
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, regionConfiguration(maxSize, true));
+            }
+        });
+
+        //timestamp-urile de invalidare ale tabelelor nu trebuie sa expire inaintea rezultatelor din query cache
+        if (cacheManager.getCache(UPDATE_TIMESTAMPS_REGION) == null) {
+            cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, regionConfiguration(queriesMaxSize, false));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            //toate regiunile sunt create mai sus, cu limite; o regiune lipsa e o eroare de configurare
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            //Statistics (si metricile hibernate.*) raman oprite implicit: cu ele pornite Hibernate logheaza un bloc
+            //"Session Metrics" la fiecare sesiune; se pornesc cu spring.jpa.properties.hibernate.generate_statistics=true
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(long maxSize, boolean expiring) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (expiring) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        }
+        configuration.setStatisticsEnabled(true);
+        configuration.setManagementEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,22 @@
+package com.airbnb.miniairbnb.config;
+
+import com.airbnb.miniairbnb.fields.EntityFilterIntrospector;
+import com.airbnb.miniairbnb.fields.FieldSelection;
+import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    //entitatile se serializeaza printr-un filtru: implicit scrie tot, iar cu fields= doar campurile cerute (FieldSelection)
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer entityFieldFilter() {
+        return builder -> builder
+                .filters(FieldSelection.defaultFilters())
+                .postConfigurer(mapper -> mapper.setAnnotationIntrospectors(
+                        AnnotationIntrospectorPair.pair(new EntityFilterIntrospector(), mapper.getSerializationConfig().getAnnotationIntrospector()),
+                        mapper.getDeserializationConfig().getAnnotationIntrospector()));
+    }
+}
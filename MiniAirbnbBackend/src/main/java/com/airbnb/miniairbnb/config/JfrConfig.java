@@ -0,0 +1,53 @@
+package com.airbnb.miniairbnb.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+//inregistrare Java Flight Recorder continua (app.jfr.enabled=true), cu setarile "default" ale JDK (overhead ~1%);
+//evenimentele aplicatiei sunt in pachetul jfr. Ultimele max-age/max-size se pastreaza in buffer circular si se scriu
+//in dump-file la oprire; la un spike de latenta se poate face dump oricand cu
+//  jcmd <pid> JFR.dump name=mini-airbnb filename=spike.jfr
+//iar fisierul se rezuma pe endpoint cu JfrRecordingAnalyzer (modulul MiniAirbnbBenchmarks)
+@org.springframework.context.annotation.Configuration
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true")
+public class JfrConfig {
+    private static final Logger log = LoggerFactory.getLogger(JfrConfig.class);
+
+    public static final String RECORDING_NAME = "mini-airbnb";
+
+    @Value("${app.jfr.settings:default}")
+    private String settings; //"profile" aduce mai multe detalii, cu overhead mai mare
+
+    @Value("${app.jfr.max-age:6h}")
+    private Duration maxAge;
+
+    @Value("${app.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.dump-file:mini-airbnb.jfr}")
+    private Path dumpFile;
+
+    @Bean(destroyMethod = "stop") //la oprirea aplicatiei stop() scrie inregistrarea in dump-file
+    public Recording flightRecording() throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.setDestination(dumpFile);
+        recording.setDumpOnExit(true);
+        recording.start();
+        log.info("JFR recording '{}' started ({} settings, max age {}, dump file {})", RECORDING_NAME, settings, maxAge, dumpFile);
+        return recording;
+    }
+}
@@ -0,0 +1,51 @@
+package com.airbnb.miniairbnb.config;
+
+import com.airbnb.miniairbnb.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.cache.CacheManager;
+import java.util.Collections;
+
+//metrici Micrometer expuse prin actuator (/actuator/prometheus):
+//- http.server.requests: latenta pe ruta (Spring MVC, histograma activata in metrics.properties)
+//- app.service: latenta pe metoda de serviciu (@Timed pe clasele *ServiceImpl)
+//- spring.data.repository.invocations: latenta pe metoda de repository (auto-configurat de Spring Boot)
+//- app.security.jwt: timpul petrecut in JwtAuthenticationFilter
+//- app.reservations.bookings: rezultatele rezervarilor (success, conflict, capacity_exceeded, rejected, error)
+//- app.http.sql.statements: statement-uri SQL per request (RequestMetricsFilter, care logheaza si depasirile @SqlBudget)
+//- hikaricp.*, hibernate.*, cache.*: pool-ul de conexiuni, statisticile Hibernate si regiunile second-level cache
+//  (hibernate.* doar cu spring.jpa.properties.hibernate.generate_statistics=true)
+//  (plus cache=listing-responses: raspunsurile GET /api/properties din ListingResponseCache)
+@Configuration
+@PropertySource("classpath:metrics.properties") //valori implicite; application.properties le poate suprascrie
+public class MetricsConfig {
+
+    //necesar pt @Timed pe bean-uri Spring (altfel adnotarea e ignorata in afara controller-elor)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    //hit/miss/evictions pt fiecare regiune din cache-ul Hibernate (CacheManager-ul JCache nu e vazut de Spring Boot)
+    @Bean
+    public MeterBinder hibernateCacheRegionMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), Collections.emptyList());
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.airbnb.miniairbnb.config;
+
+import com.airbnb.miniairbnb.datasource.ReadYourWritesTracker;
+import com.airbnb.miniairbnb.datasource.ReplicaAwareTransactionManager;
+import com.airbnb.miniairbnb.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Clock;
+
+//activ doar cand e configurata o replica (app.datasource.replica.url);
+//altfel Spring Boot creeaza DataSource-ul obisnuit din spring.datasource.*
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.read-your-writes-window-ms:5000}")
+    private long readYourWritesWindowMillis;
+
+    @Value("${app.datasource.replica.retry-after-ms:30000}")
+    private long replicaRetryAfterMillis;
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    //pool-ul primary se construieste din spring.datasource.*, ca in configuratia implicita Spring Boot
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        //pool-ul nu trebuie sa blocheze pornirea aplicatiei daca replica e cazuta
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(readYourWritesWindowMillis, Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, readYourWritesTracker,
+                replicaRetryAfterMillis, Clock.systemUTC());
+        //conexiunea reala e luata abia la primul statement, dupa ce tranzactia si-a setat flag-ul readOnly
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    //cu open-in-view, sesiunea ar pastra conexiunea de pe replica si pt tranzactiile de scriere din acelasi request
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    //inlocuieste JpaTransactionManager-ul din Spring Boot: alege ruta la inceputul tranzactiei si tine sesiunile
+    //de pe replica in afara second-level si query cache-ului (vezi ReplicaAwareTransactionManager)
+    @Bean
+    public PlatformTransactionManager transactionManager(DataSource dataSource,
+                                                         ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers)
+            throws SQLException {
+        ReplicaAwareTransactionManager transactionManager =
+                new ReplicaAwareTransactionManager(dataSource.unwrap(ReplicaRoutingDataSource.class));
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
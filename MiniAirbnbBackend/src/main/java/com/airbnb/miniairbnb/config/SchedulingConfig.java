@@ -0,0 +1,10 @@
+package com.airbnb.miniairbnb.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+//thread-urile pt joburile periodice (ReservationArchiveJob, ExternalCalendarSyncJob, PropertyCatalog, OutboxRelay)
+@Configuration
+@PropertySource("classpath:scheduling.properties") //valori implicite; application.properties le poate suprascrie
+public class SchedulingConfig {
+}
@@ -4,6 +4,7 @@ import com.airbnb.miniairbnb.repository.UserRepository;
 import com.airbnb.miniairbnb.security.CustomUserDetailsService;
 import com.airbnb.miniairbnb.security.JwtAuthenticationFilter;
 import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +23,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.http.HttpMethod;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.Arrays;
@@ -57,8 +59,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService,
+                                                           MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, meterRegistry);
     }
 
     //configurare security filter chain
@@ -79,13 +82,17 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() //permite preflight requests
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() //finalul unui raspuns async (StreamingResponseBody), deja autorizat la request-ul initial
                         .requestMatchers("/api/auth/login", "/api/auth/register").permitAll() //endpoint-uri publice pt autentificare
                         .requestMatchers("/api/auth/become-host").authenticated() //necesita autentificare pt a deveni host
                         .requestMatchers("/api/public/**").permitAll() //alte endpoint-uri publice
                         .requestMatchers(HttpMethod.GET, "/api/properties", "/api/properties/**").permitAll() //permite accesul la proprietati fara autentificare
                         .requestMatchers(HttpMethod.GET, "/api/reservations/property/*/busy-dates").permitAll() //permite accesul public la datele ocupate
                         .requestMatchers("/api/users/**").hasRole("ADMIN") //doar adminul poate accesa utilizatorii
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN") //exporturi si alte operatii administrative
                         .requestMatchers("/uploads/**").permitAll() //permite accesul la poze
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll() //health checks si scraping Prometheus, serviti doar pe portul de management (management.server.port, nepublicat)
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") //restul endpoint-urilor actuator; pe portul aplicatiei /actuator/** raspunde 401
                         .anyRequest().authenticated()) //toate celelalte endpoint-uri necesita autentificare
                 .authenticationProvider(authenticationProvider(
                         userDetailsService(userRepository),
@@ -0,0 +1,10 @@
+package com.airbnb.miniairbnb.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+//setarile serverului web (compresia raspunsurilor)
+@Configuration
+@PropertySource("classpath:server.properties") //valori implicite; application.properties le poate suprascrie
+public class ServerConfig {
+}
@@ -0,0 +1,87 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.dto.ErrorResponse;
+import com.airbnb.miniairbnb.exception.AvailabilityConflictException;
+import com.airbnb.miniairbnb.exception.CapacityExceededException;
+import com.airbnb.miniairbnb.exception.DomainException;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.exception.NotFoundException;
+import com.airbnb.miniairbnb.exception.PermissionDeniedException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//erorile de business aruncate de servicii si validarea @Valid, transformate in ErrorResponse (JSON) cu statusul potrivit;
+//controller-ele nu mai prind RuntimeException, deci o exceptie neasteptata ramane 500
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(NotFoundException e) {
+        return respond(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(PermissionDeniedException.class)
+    public ResponseEntity<ErrorResponse> handlePermissionDenied(PermissionDeniedException e) {
+        return respond(HttpStatus.FORBIDDEN, e);
+    }
+
+    @ExceptionHandler(AvailabilityConflictException.class)
+    public ResponseEntity<ErrorResponse> handleAvailabilityConflict(AvailabilityConflictException e) {
+        return respond(HttpStatus.CONFLICT, e);
+    }
+
+    @ExceptionHandler({CapacityExceededException.class, InvalidRequestException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(DomainException e) {
+        return respond(HttpStatus.BAD_REQUEST, e);
+    }
+
+    //request body invalid (@Valid): primul mesaj pt fiecare camp
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException e) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (FieldError error : e.getBindingResult().getFieldErrors()) {
+            fields.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        return validationFailed(fields);
+    }
+
+    //entitate invalida la salvare (constrangerile din model, ex. o proprietate fara titlu)
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException e) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (ConstraintViolation<?> violation : e.getConstraintViolations()) {
+            fields.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return validationFailed(fields);
+    }
+
+    //id-urile vin din secvente pooled, deci insert-ul (si validarea entitatii) are loc abia la flush, in commit:
+    //ConstraintViolationException ajunge invelita in TransactionSystemException. Orice alta cauza ramane 500
+    @ExceptionHandler(TransactionSystemException.class)
+    public ResponseEntity<ErrorResponse> handleTransactionSystem(TransactionSystemException e) {
+        if (NestedExceptionUtils.getMostSpecificCause(e) instanceof ConstraintViolationException violation) {
+            return handleConstraintViolation(violation);
+        }
+        throw e;
+    }
+
+    private static ResponseEntity<ErrorResponse> validationFailed(Map<String, String> fields) {
+        ErrorResponse body = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "validation_failed", "Request validation failed", fields);
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, DomainException e) {
+        return ResponseEntity.status(status).body(ErrorResponse.of(status.value(), e.getCode(), e.getMessage()));
+    }
+}
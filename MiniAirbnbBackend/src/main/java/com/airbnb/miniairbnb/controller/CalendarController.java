@@ -0,0 +1,98 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.service.CalendarService;
+import com.airbnb.miniairbnb.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+//sincronizarea calendarului cu alte platforme: feed-ul iCal exportat si calendarele iCal importate
+@RestController
+@RequestMapping("/api/properties/{propertyId}")
+public class CalendarController {
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarService calendarService;
+    private final UserService userService;
+    //channel manager-ele interogheaza feed-ul des: fiecare interogare se revalideaza, iar cat timp nu s-a schimbat
+    //nicio rezervare raspunsul e 304 (un singur query pe updated_at)
+    private final CacheControl calendarCacheControl = CacheControl.noCache().cachePublic();
+
+    public CalendarController(CalendarService calendarService, UserService userService) {
+        this.calendarService = calendarService;
+        this.userService = userService;
+    }
+
+    //helper method pt a obtine utilizatorul curent autentificat
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            return userService.findUserByEmail(userDetails.getUsername())
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    // GET /api/properties/{propertyId}/calendar.ics - feed iCal cu perioadele rezervate (public, ca busy-dates)
+    @GetMapping("/calendar.ics")
+    public ResponseEntity<String> getCalendarFeed(@PathVariable Long propertyId, HttpServletRequest request) {
+        Optional<ContentVersion> version = calendarService.findCalendarVersion(propertyId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ConditionalGet.respond(request, version.get(), calendarCacheControl,
+                ok -> ok.contentType(TEXT_CALENDAR).body(calendarService.exportCalendar(propertyId)));
+    }
+
+    // GET /api/properties/{propertyId}/external-calendars - calendarele importate, cu starea ultimei sincronizari (pt host sau admin)
+    @GetMapping("/external-calendars")
+    public ResponseEntity<?> getExternalCalendars(@PathVariable Long propertyId) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        List<ExternalCalendar> calendars = calendarService.findExternalCalendars(propertyId, currentUser);
+        return ResponseEntity.ok(calendars);
+    }
+
+    // POST /api/properties/{propertyId}/external-calendars - {"url": "..."} adauga un calendar iCal de importat (pt host sau admin)
+    @PostMapping("/external-calendars")
+    public ResponseEntity<?> addExternalCalendar(@PathVariable Long propertyId, @RequestBody Map<String, String> body) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        ExternalCalendar calendar = calendarService.addExternalCalendar(propertyId, body.get("url"), currentUser);
+        return ResponseEntity.status(HttpStatus.CREATED).body(calendar);
+    }
+
+    // DELETE /api/properties/{propertyId}/external-calendars/{calendarId} - sterge calendarul si perioadele importate din el
+    @DeleteMapping("/external-calendars/{calendarId}")
+    public ResponseEntity<?> removeExternalCalendar(@PathVariable Long propertyId, @PathVariable Long calendarId) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        calendarService.removeExternalCalendar(propertyId, calendarId, currentUser);
+        return ResponseEntity.ok("Calendar sters cu succes");
+    }
+}
@@ -0,0 +1,35 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.function.Function;
+
+//GET conditional pe id: ETag si Last-Modified vin din ContentVersion (un query pe coloanele updated_at), iar daca
+//If-None-Match / If-Modified-Since se potrivesc raspunsul e 304, fara incarcarea si serializarea entitatilor.
+//Versiunea se citeste inaintea body-ului: un ETag nu e niciodata mai nou decat continutul trimis cu el
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    //ok primeste builder-ul pt 200 (cu ETag, Last-Modified si Cache-Control deja puse) si incarca body-ul
+    static <T> ResponseEntity<T> respond(HttpServletRequest request, ContentVersion version, CacheControl cacheControl,
+                                         Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> ok) {
+        String eTag = version.eTag();
+        if (eTag == null) {
+            return ok.apply(ResponseEntity.ok().cacheControl(cacheControl));
+        }
+        long lastModified = version.lastModifiedMillis();
+        //fara response: doar evalueaza precondition-urile, headerele sunt puse pe ResponseEntity
+        if (new ServletWebRequest(request).checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl)
+                    .eTag(eTag).lastModified(lastModified).build();
+        }
+        return ok.apply(ResponseEntity.ok().cacheControl(cacheControl).eTag(eTag).lastModified(lastModified));
+    }
+}
@@ -0,0 +1,94 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.metrics.SqlBudget;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.service.ExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+//exporturi CSV pt finance/operations (doar ADMIN). Raspunsul e scris pe un thread async (StreamingResponseBody) direct din
+//cursorul bazei de date; cu gzip=true se descarca un fisier .csv.gz. Filtrele de data sunt ISO (2025-01-31), inclusive
+@RestController
+@RequestMapping("/api/admin/exports")
+@PreAuthorize("hasRole('ADMIN')")
+@SqlBudget(maxStatements = SqlBudget.UNLIMITED, maxMillis = SqlBudget.UNLIMITED)
+public class ExportController {
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // GET /api/admin/exports/reservations?from=&to=&status=CONFIRMED&status=COMPLETED&gzip=true - rezervarile dupa check-in
+    @GetMapping("/reservations")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "status", required = false) Set<ReservationStatus> statuses,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build(); //interval invers
+        }
+        return csv("reservations", gzip, writer -> exportService.exportReservationsCsv(from, to, statuses, writer));
+    }
+
+    // GET /api/admin/exports/users?from=&to=&role=ROLE_HOST&gzip=true - utilizatorii dupa data inregistrarii
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "role", required = false) Set<UserRole> roles,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build(); //interval invers
+        }
+        return csv("users", gzip, writer -> exportService.exportUsersCsv(from, to, roles, writer));
+    }
+
+    @FunctionalInterface
+    private interface CsvExport {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    //statusul si header-ele pleaca inainte de primul rand: o eroare la mijlocul exportului lasa fisierul trunchiat
+    private static ResponseEntity<StreamingResponseBody> csv(String name, boolean gzip, CsvExport export) {
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            export.writeTo(writer);
+            writer.flush();
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+        };
+        String filename = name + "-" + LocalDate.now() + (gzip ? ".csv.gz" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,52 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.fields.FieldSelection;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+//listele nelimitate (admin, host) scrise element cu element direct in response, pe masura ce vin din cursorul JDBC
+//(EntityStreamer): nu exista nici lista de entitati, nici JSON-ul intreg in memorie. Raspunsul e chunked; o eroare
+//aparuta dupa primele elemente nu mai poate schimba statusul, deci array-ul nu se inchide si exceptia merge mai departe:
+//Tomcat inchide conexiunea fara chunk-ul final, iar clientul vede un raspuns intrerupt, nu un JSON valid dar incomplet
+final class JsonArrayStream {
+
+    @FunctionalInterface
+    interface Rows<T> {
+        long forEach(Consumer<T> consumer);
+    }
+
+    private JsonArrayStream() {
+    }
+
+    static <T> void write(HttpServletResponse response, ObjectMapper objectMapper, FieldSelection fields, Rows<T> rows)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        //fara flush dupa fiecare element: generatorul trimite cand i se umple buffer-ul
+        ObjectWriter writer = fields.writer(objectMapper).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        //generatorul nu inchide singur array-ul/obiectele deschise si nici stream-ul response-ului (close() pe stream
+        //ar termina raspunsul normal)
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        //la eroare generatorul nu se goleste: daca nimic nu a plecat inca, raspunsul nu e comis si eroarea ajunge la
+        //ApiExceptionHandler/pagina de eroare ca orice alta exceptie
+        rows.forEach(row -> {
+            try {
+                writer.writeValue(generator, row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -1,12 +1,30 @@
 package com.airbnb.miniairbnb.controller;
 
+import com.airbnb.miniairbnb.catalog.ListingCriteria;
+import com.airbnb.miniairbnb.catalog.ListingResponseCache;
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.PropertyImportResult;
+import com.airbnb.miniairbnb.dto.PropertyListingFilter;
+import com.airbnb.miniairbnb.dto.PropertyListingResult;
+import com.airbnb.miniairbnb.dto.PropertySearchResult;
+import com.airbnb.miniairbnb.fields.FieldSelection;
+import com.airbnb.miniairbnb.jfr.PropertySearchEvent;
+import com.airbnb.miniairbnb.metrics.SqlBudget;
 import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.PropertyBookingStats;
 import com.airbnb.miniairbnb.model.User;
 import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.service.PropertyImportService;
 import com.airbnb.miniairbnb.service.PropertyService;
 import com.airbnb.miniairbnb.service.UserService;
+import com.airbnb.miniairbnb.singleflight.PropertyReadCoalescer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,10 +33,16 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,11 +53,27 @@ import java.util.UUID;
 public class PropertyController {
     private final PropertyService propertyService;
     private final UserService userService;
+    private final PropertyImportService propertyImportService;
+    private final ListingResponseCache listingResponseCache;
+    private final PropertyReadCoalescer propertyReadCoalescer;
+    private final CacheControl propertyCacheControl;
+    private final ObjectMapper objectMapper;
 
     public PropertyController(PropertyService propertyService,
-                              UserService userService) {
+                              UserService userService,
+                              PropertyImportService propertyImportService,
+                              ListingResponseCache listingResponseCache,
+                              PropertyReadCoalescer propertyReadCoalescer,
+                              ObjectMapper objectMapper,
+                              @Value("${app.http-cache.property-max-age-seconds:60}") long propertyMaxAgeSeconds) {
         this.propertyService = propertyService;
         this.userService = userService;
+        this.propertyImportService = propertyImportService;
+        this.listingResponseCache = listingResponseCache;
+        this.propertyReadCoalescer = propertyReadCoalescer;
+        this.objectMapper = objectMapper;
+        //date publice: browserul si proxy-urile le pot pastra putin, apoi revalideaza cu ETag (304 daca nu s-a schimbat nimic)
+        this.propertyCacheControl = CacheControl.maxAge(Duration.ofSeconds(propertyMaxAgeSeconds)).cachePublic();
     }
 
     //helper method pt a obtine utilizatorul curent autentificat
@@ -50,34 +90,124 @@ public class PropertyController {
     }
 
     //GET /api/properties - lista cu toate proprietatile active (pt guest)
+    //filtre optionale: city, country, minPrice, maxPrice, bedrooms, bathrooms, guests; sort=price|-price|newest;
+    //limit (implicit 100, maxim 1000)
+    //facets=true: {properties, facets} cu numaratorile pe oras, tara, pret, dormitoare, bai si capacitate
+    //fields=id,title,pricePerNight,host.firstName: doar aceste campuri pt fiecare proprietate (FieldSelection)
     @GetMapping
-    public ResponseEntity<List<Property>> getAllActiveProperties(
-            @RequestParam(required = false) String city,
-            @RequestParam(required = false) String country) {
+    @SqlBudget(maxStatements = 25) //pagina maxima: 2 query-uri dupa id + 20 de loturi de cate 50 de imagini
+    public ResponseEntity<?> getAllActiveProperties(PropertyListingFilter filter) {
+        PropertySearchEvent event = new PropertySearchEvent();
+        event.begin();
+        if (filter.getCity() != null && !filter.getCity().isEmpty()) {
+            event.filter = "city";
+            event.value = filter.getCity();
+        } else if (filter.getCountry() != null && !filter.getCountry().isEmpty()) {
+            event.filter = "country";
+            event.value = filter.getCountry();
+        } else {
+            event.filter = "all";
+        }
 
-        List<Property> properties;
+        try {
+            //raspunsul e deja JSON: din ListingResponseCache sau serializat acolo la miss
+            boolean facets = Boolean.TRUE.equals(filter.getFacets());
+            event.cached = true;
+            FieldSelection fields = FieldSelection.parse(filter.getFields());
+            byte[] body = listingResponseCache.get(ListingCriteria.from(filter), facets, fields, () -> {
+                event.cached = false;
+                if (facets) {
+                    PropertyListingResult result = propertyService.findActivePropertiesWithFacets(filter);
+                    event.resultSize = result.getProperties().size();
+                    return result;
+                }
+                List<Property> properties = propertyService.findActiveProperties(filter);
+                event.resultSize = properties.size();
+                return properties;
+            });
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } finally {
+            event.commit();
+        }
+    }
 
-        if (city != null && !city.isEmpty()) {
-            properties = propertyService.findActivePropertiesByCity(city);
-        } else if (country != null && !country.isEmpty()) {
-            properties = propertyService.findActivePropertiesByCountry(country);
-        } else {
-            properties = propertyService.findAllActiveProperties();
+    //GET /api/properties/search?q=vedere la mare&page=0&size=20 - cautare full-text in titlu, descriere, oras si tara
+    //rezultatele sunt ordonate dupa relevanta (potrivirile din titlu primele)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProperties(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PropertySearchEvent event = new PropertySearchEvent();
+        event.begin();
+        try {
+            PropertySearchResult result = propertyService.searchActiveProperties(query, page, size);
+            event.resultSize = result.getResults().size();
+            return ResponseEntity.ok(result);
+        } finally {
+            event.filter = "text";
+            event.value = query;
+            event.commit();
         }
+    }
 
-        return ResponseEntity.ok(properties);
+    //GET /api/properties/suggest?q=bra&type=city&limit=8 - sugestii pt campurile oras/tara (type optional)
+    //fara diacritice si case-insensitive ("brasov" gaseste Brașov), cele mai multe proprietati active primele
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestLocations(
+            @RequestParam("q") String prefix,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(propertyService.suggestLocations(prefix, type, limit));
+    }
+
+    //GET /api/properties/nearby?lat=44.43&lng=26.10&radiusKm=5&minPrice=100&maxPrice=300&guests=2&limit=50
+    //proprietatile active pe o raza in jurul unui punct, cele mai apropiate primele, cu distanta in km
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyProperties(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(propertyService.findActivePropertiesNearby(lat, lng, radiusKm, minPrice, maxPrice, guests, limit));
+    }
+
+    //GET /api/properties/within?south=44.38&west=26.00&north=44.50&east=26.20&guests=2&limit=500
+    //proprietatile active din viewport-ul hartii (west > east pt un viewport care traverseaza meridianul 180)
+    @GetMapping("/within")
+    public ResponseEntity<?> getPropertiesWithin(
+            @RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(propertyService.findActivePropertiesWithin(south, west, north, east, minPrice, maxPrice, guests, limit));
     }
 
     //GET /api/properties/{id} - gaseste o proprietate dupa id
+    //cu ETag/Last-Modified: If-None-Match / If-Modified-Since potrivite primesc 304 fara incarcarea proprietatii;
+    //request-urile concurente pt acelasi id impart o singura citire (PropertyReadCoalescer)
     @GetMapping("/{id}")
-    public ResponseEntity<Property> getPropertyById(@PathVariable Long id) {
-        Optional<Property> property = propertyService.findPropertyById(id);
-
-        if (property.isPresent()) {
-            return ResponseEntity.ok(property.get());
-        } else {
+    public ResponseEntity<byte[]> getPropertyById(@PathVariable Long id, HttpServletRequest request) {
+        Optional<ContentVersion> version = propertyService.findPropertyVersion(id);
+        if (version.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+
+        return ConditionalGet.respond(request, version.get(), propertyCacheControl, ok -> {
+            Optional<byte[]> property = propertyReadCoalescer.property(id);
+            if (property.isPresent()) {
+                return ok.contentType(MediaType.APPLICATION_JSON).body(property.get());
+            } else {
+                return ResponseEntity.notFound().build(); //stearsa intre timp
+            }
+        });
     }
 
     //GET /api/properties/my-properties - lista cu proprietatile utilizatorului curent (pt host)
@@ -92,14 +222,29 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
 
+    //GET /api/properties/{id}/booking-stats - statisticile rezervarilor unei proprietati (pt host-ul ei sau ADMIN)
+    //agregate din outbox de PropertyBookingStatsConsumer, deci pot intarzia cateva secunde fata de rezervari
+    @GetMapping("/{id}/booking-stats")
+    public ResponseEntity<PropertyBookingStats> getBookingStats(@PathVariable Long id) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(propertyService.findBookingStats(id, currentUser));
+    }
+
     // GET /api/properties/all - lista cu toate proprietatile (doar pt ADMIN)
+    //scrisa in flux, pe masura ce se citeste din baza de date (JsonArrayStream): memoria nu creste cu numarul de proprietati
     @GetMapping("/all")
-    public ResponseEntity<List<Property>> getAllProperties() {
+    @SqlBudget(maxStatements = SqlBudget.UNLIMITED, maxMillis = SqlBudget.UNLIMITED) //imaginile se incarca pe ferestre de cate 50 de proprietati
+    public void getAllProperties(HttpServletResponse response) throws IOException {
         User currentUser = getCurrentUser();
         if (currentUser == null || currentUser.getRole() != UserRole.ROLE_ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
-        return ResponseEntity.ok(propertyService.findAllProperties());
+        JsonArrayStream.write(response, objectMapper, FieldSelection.ALL, propertyService::streamAllProperties);
     }
 
     // GET /api/properties/user/{userId} - lista cu proprietatile unui utilizator specific (doar pt ADMIN)
@@ -159,8 +304,42 @@ public class PropertyController {
             return ResponseEntity.status(HttpStatus.CREATED).body(createdProperty);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error uploading images: " + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // POST /api/properties/import - import in masa din CSV (header cu numele campurilor, imageUrls separate prin |)
+    //body-ul e citit in flux, rand cu rand; raspunsul contine numarul de proprietati create si erorile per rand
+    @PostMapping(value = "/import", consumes = {"text/csv"})
+    @SqlBudget(maxStatements = SqlBudget.UNLIMITED, maxMillis = SqlBudget.UNLIMITED) //numarul de statement-uri creste cu marimea fisierului
+    public ResponseEntity<?> importPropertiesCsv(InputStream body) {
+        return importProperties(body, true);
+    }
+
+    // POST /api/properties/import - import in masa din JSON lines (un obiect Property pe fiecare linie)
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/jsonl"})
+    @SqlBudget(maxStatements = SqlBudget.UNLIMITED, maxMillis = SqlBudget.UNLIMITED)
+    public ResponseEntity<?> importPropertiesJsonLines(InputStream body) {
+        return importProperties(body, false);
+    }
+
+    private ResponseEntity<?> importProperties(InputStream body, boolean csv) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (currentUser.getRole() != UserRole.ROLE_HOST && currentUser.getRole() != UserRole.ROLE_ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Only HOST or ADMIN can import properties");
+        }
+
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            PropertyImportResult result = csv
+                    ? propertyImportService.importCsv(reader, currentUser)
+                    : propertyImportService.importJsonLines(reader, currentUser);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Could not read import file: " + e.getMessage());
         }
     }
 
@@ -207,8 +386,6 @@ public class PropertyController {
             return ResponseEntity.ok(updatedProperty);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error uploading images: " + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
@@ -220,12 +397,8 @@ public class PropertyController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        try {
-            propertyService.deleteProperty(id, currentUser);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+        propertyService.deleteProperty(id, currentUser);
+        return ResponseEntity.noContent().build();
     }
 }
 
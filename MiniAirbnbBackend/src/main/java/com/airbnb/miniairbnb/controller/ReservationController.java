@@ -1,19 +1,32 @@
 package com.airbnb.miniairbnb.controller;
 
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.ReservationBatchRequest;
 import com.airbnb.miniairbnb.dto.ReservationRequest;
+import com.airbnb.miniairbnb.fields.FieldSelection;
+import com.airbnb.miniairbnb.model.ArchivedReservation;
 import com.airbnb.miniairbnb.model.Reservation;
 import com.airbnb.miniairbnb.model.User;
 import com.airbnb.miniairbnb.model.UserRole;
 import com.airbnb.miniairbnb.service.ReservationService;
 import com.airbnb.miniairbnb.service.UserService;
+import com.airbnb.miniairbnb.singleflight.PropertyReadCoalescer;
+import com.airbnb.miniairbnb.metrics.SqlBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,10 +35,17 @@ import java.util.Optional;
 public class ReservationController {
     private final ReservationService reservationService;
     private final UserService userService;
+    private final PropertyReadCoalescer propertyReadCoalescer;
+    private final ObjectMapper objectMapper;
+    //date personale: doar cache-ul browserului, revalidat la fiecare folosire (304 cat timp nu s-a schimbat nimic)
+    private final CacheControl reservationCacheControl = CacheControl.noCache().cachePrivate();
 
-    public ReservationController(ReservationService reservationService, UserService userService) {
+    public ReservationController(ReservationService reservationService, UserService userService,
+                                 PropertyReadCoalescer propertyReadCoalescer, ObjectMapper objectMapper) {
         this.reservationService = reservationService;
         this.userService = userService;
+        this.propertyReadCoalescer = propertyReadCoalescer;
+        this.objectMapper = objectMapper;
     }
 
     //helper method pt a obtine utilizatorul curent autentificat
@@ -47,35 +67,64 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        try {
-            Reservation reservation = reservationService.createReservation(
-                    request.getPropertyId(),
-                    request.getCheckInDate(),
-                    request.getCheckOutDate(),
-                    request.getNumberOfGuests(),
-                    currentUser
-            );
-            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+        Reservation reservation = reservationService.createReservation(
+                request.getPropertyId(),
+                request.getCheckInDate(),
+                request.getCheckOutDate(),
+                request.getNumberOfGuests(),
+                currentUser
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
     }
 
     //GET /api/reservations/my-reservations - lista cu rezervarile utilizatorului curent (pt guest)
+    //listele accepta fields=id,status,checkInDate,property.title: doar aceste campuri pt fiecare rezervare (FieldSelection)
     @GetMapping("/my-reservations")
-    public ResponseEntity<List<Reservation>> getMyReservations() {
+    public ResponseEntity<MappingJacksonValue> getMyReservations(@RequestParam(required = false) String fields) {
         User currentUser = getCurrentUser();
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         List<Reservation> reservations = reservationService.findReservationsByGuest(currentUser);
-        return ResponseEntity.ok(reservations);
+        return ResponseEntity.ok(FieldSelection.parse(fields).wrap(reservations));
     }
 
     // GET /api/reservations/host-reservations - lista cu rezervarile pt proprietatile host-ului (pt host)
     @GetMapping("/host-reservations")
-    public ResponseEntity<List<Reservation>> getHostReservations() {
+    //scrisa in flux, pe masura ce se citeste din baza de date (JsonArrayStream): memoria nu creste cu numarul de rezervari
+    @SqlBudget(maxStatements = SqlBudget.UNLIMITED, maxMillis = SqlBudget.UNLIMITED) //imaginile se incarca pe ferestre de cate 50 de rezervari
+    public void getHostReservations(@RequestParam(required = false) String fields, HttpServletResponse response) throws IOException {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        if (currentUser.getRole() != UserRole.ROLE_HOST && currentUser.getRole() != UserRole.ROLE_ADMIN) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        JsonArrayStream.<Reservation>write(response, objectMapper, FieldSelection.parse(fields),
+                consumer -> reservationService.streamReservationsByHost(currentUser, consumer));
+    }
+
+    // GET /api/reservations/history - rezervarile arhivate ale utilizatorului curent (pt guest)
+    @GetMapping("/history")
+    public ResponseEntity<MappingJacksonValue> getMyReservationHistory(@RequestParam(required = false) String fields) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        List<ArchivedReservation> reservations = reservationService.findArchivedReservationsByGuest(currentUser);
+        return ResponseEntity.ok(FieldSelection.parse(fields).wrap(reservations));
+    }
+
+    // GET /api/reservations/host-history - rezervarile arhivate pt proprietatile host-ului (pt host)
+    @GetMapping("/host-history")
+    public ResponseEntity<MappingJacksonValue> getHostReservationHistory(@RequestParam(required = false) String fields) {
         User currentUser = getCurrentUser();
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -85,8 +134,8 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<Reservation> reservations = reservationService.findReservationsByHost(currentUser);
-        return ResponseEntity.ok(reservations);
+        List<ArchivedReservation> reservations = reservationService.findArchivedReservationsByHost(currentUser);
+        return ResponseEntity.ok(FieldSelection.parse(fields).wrap(reservations));
     }
 
     // PUT /api/reservations/{id}/confirm - confirma o rezervare (pt host sau admin)
@@ -97,12 +146,8 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        try {
-            Reservation reservation = reservationService.confirmReservation(id, currentUser);
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+        Reservation reservation = reservationService.confirmReservation(id, currentUser);
+        return ResponseEntity.ok(reservation);
     }
 
     // PUT /api/reservations/{id}/complete - finalizeaza o rezervare (pt host sau admin)
@@ -113,12 +158,8 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        try {
-            Reservation reservation = reservationService.completeReservation(id, currentUser);
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+        Reservation reservation = reservationService.completeReservation(id, currentUser);
+        return ResponseEntity.ok(reservation);
     }
 
     // PUT /api/reservations/{id}/cancel - anuleaza o rezervare (pt guest, host sau admin)
@@ -129,42 +170,59 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        try {
-            Reservation reservation = reservationService.cancelReservation(id, currentUser);
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        Reservation reservation = reservationService.cancelReservation(id, currentUser);
+        return ResponseEntity.ok(reservation);
+    }
+
+    // PUT /api/reservations/batch - {"transition": "CONFIRM", "ids": [1, 2, 3]} aplica aceeasi tranzitie mai multor rezervari
+    //(CONFIRM/COMPLETE pt host sau admin, CANCEL si pt guest); raspunsul are cate un rezultat pt fiecare id, in ordinea ceruta
+    @PutMapping("/batch")
+    public ResponseEntity<?> transitionReservations(@Valid @RequestBody ReservationBatchRequest request) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+
+        return ResponseEntity.ok(reservationService.transitionReservations(request.getIds(), request.getTransition(), currentUser));
     }
 
     // GET /api/reservations/property/{propertyId} - lista cu rezervarile pentru o proprietate
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<Reservation>> getReservationsByProperty(@PathVariable Long propertyId) {
+    public ResponseEntity<MappingJacksonValue> getReservationsByProperty(@PathVariable Long propertyId,
+                                                                         @RequestParam(required = false) String fields) {
         User currentUser = getCurrentUser();
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         List<Reservation> reservations = reservationService.findReservationsByProperty(propertyId);
-        return ResponseEntity.ok(reservations);
+        return ResponseEntity.ok(FieldSelection.parse(fields).wrap(reservations));
     }
 
     // GET /api/reservations/property/{propertyId}/busy-dates - lista cu perioadele ocupate (public)
+    //request-urile concurente pt aceeasi proprietate impart o singura citire (PropertyReadCoalescer)
     @GetMapping("/property/{propertyId}/busy-dates")
-    public ResponseEntity<List<Reservation>> getBusyDates(@PathVariable Long propertyId) {
-        List<Reservation> busyDates = reservationService.getBusyDatesByProperty(propertyId);
-        return ResponseEntity.ok(busyDates);
+    public ResponseEntity<byte[]> getBusyDates(@PathVariable Long propertyId) {
+        byte[] busyDates = propertyReadCoalescer.busyDates(propertyId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(busyDates);
     }
 
     // GET /api/reservations/{id} - gaseste o rezervare dupa id
+    //cu ETag/Last-Modified: If-None-Match / If-Modified-Since potrivite primesc 304 fara incarcarea rezervarii
     @GetMapping("/{id}")
-    public ResponseEntity<Reservation> getReservationById(@PathVariable Long id) {
-        Optional<Reservation> reservation = reservationService.findReservationById(id);
-
-        if (reservation.isPresent()) {
-            return ResponseEntity.ok(reservation.get());
-        } else {
+    public ResponseEntity<Reservation> getReservationById(@PathVariable Long id, HttpServletRequest request) {
+        Optional<ContentVersion> version = reservationService.findReservationVersion(id);
+        if (version.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+
+        return ConditionalGet.respond(request, version.get(), reservationCacheControl, ok -> {
+            Optional<Reservation> reservation = reservationService.findReservationById(id);
+            if (reservation.isPresent()) {
+                return ok.body(reservation.get());
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
 }
@@ -1,57 +1,57 @@
 package com.airbnb.miniairbnb.controller;
 
+import com.airbnb.miniairbnb.fields.FieldSelection;
 import com.airbnb.miniairbnb.model.User;
 import com.airbnb.miniairbnb.model.UserRole;
 import com.airbnb.miniairbnb.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     // GET /api/users - obtine toti utilizatorii (doar pt ADMIN)
+    //scrisa in flux, pe masura ce se citeste din baza de date (JsonArrayStream): memoria nu creste cu numarul de utilizatori
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.findAllUsers());
+    public void getAllUsers(HttpServletResponse response) throws IOException {
+        JsonArrayStream.write(response, objectMapper, FieldSelection.ALL, userService::streamAllUsers);
     }
 
     // PUT /api/users/{id}/role - schimba rolul unui utilizator (doar pt ADMIN)
     @PutMapping("/{id}/role")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateUserRole(@PathVariable Long id, @RequestBody Map<String, String> roleMap) {
+        UserRole newRole;
         try {
-            String roleName = roleMap.get("role");
-            UserRole newRole = UserRole.valueOf(roleName);
-            User updatedUser = userService.updateUserRole(id, newRole);
-            return ResponseEntity.ok(updatedUser);
-        } catch (IllegalArgumentException e) {
+            newRole = UserRole.valueOf(roleMap.get("role"));
+        } catch (IllegalArgumentException | NullPointerException e) {
             return ResponseEntity.badRequest().body("Rol invalid: " + roleMap.get("role"));
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(404).body(e.getMessage());
         }
+        User updatedUser = userService.updateUserRole(id, newRole); //NotFoundException -> 404 (ApiExceptionHandler)
+        return ResponseEntity.ok(updatedUser);
     }
 
     // DELETE /api/users/{id} - sterge un utilizator (doar pt ADMIN)
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        try {
-            userService.deleteUser(id);
-            return ResponseEntity.ok("Utilizator sters cu succes");
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(400).body(e.getMessage());
-        }
+        userService.deleteUser(id);
+        return ResponseEntity.ok("Utilizator sters cu succes");
     }
 }
 
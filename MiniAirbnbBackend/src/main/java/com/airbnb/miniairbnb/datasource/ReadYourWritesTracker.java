@@ -0,0 +1,41 @@
+package com.airbnb.miniairbnb.datasource;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//tine minte cand a scris ultima data fiecare utilizator,
+//ca citirile lui sa mearga pe primary pana cand replica a prins din urma (read-your-writes)
+public class ReadYourWritesTracker {
+    private final long windowMillis;
+    private final Clock clock;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis, Clock clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    //inregistreaza un commit de scriere facut de utilizator
+    public void recordWrite(String username) {
+        if (username != null) {
+            lastWriteByUser.put(username, clock.millis());
+        }
+    }
+
+    //true daca utilizatorul a scris recent si replica poate fi inca in urma
+    public boolean mustReadFromPrimary(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (clock.millis() - lastWrite < windowMillis) {
+            return true;
+        }
+        lastWriteByUser.remove(username, lastWrite); //fereastra a expirat, nu mai pastram intrarea
+        return false;
+    }
+}
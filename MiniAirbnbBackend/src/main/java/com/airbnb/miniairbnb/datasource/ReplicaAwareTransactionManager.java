@@ -0,0 +1,72 @@
+package com.airbnb.miniairbnb.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+//ruta tranzactiei (primary/replica) se decide la inceputul ei, nu la primul statement: Hibernate isi alege cache mode-ul
+//inainte sa ceara conexiunea. Pe replica sesiunea citeste din second-level cache, dar nu scrie acolo (CacheStoreMode.BYPASS),
+//altfel o entitate veche de pe o replica in urma, citita imediat dupa invalidarea facuta de o scriere pe primary, ar ramane
+//in cache pana la TTL. Query cache-ul nu poate fi protejat la fel (Hibernate 6.5 pune rezultatul in cache la un miss si cu
+//CacheMode.GET), asa ca tranzactiile read-only care folosesc query-uri cacheable au label-ul PRIMARY_LABEL si citesc de pe primary
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+    public static final String PRIMARY_LABEL = "primary";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ThreadLocal<Deque<Object>> previousStoreModes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public ReplicaAwareTransactionManager(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        boolean primaryOnly = definition instanceof TransactionAttribute attribute
+                && attribute.getLabels().contains(PRIMARY_LABEL);
+        boolean replica = routingDataSource.beginTransaction(definition.isReadOnly() && !primaryOnly);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            routingDataSource.endTransaction();
+            throw e;
+        }
+        //setarea JPA, nu Session.setCacheMode: find() isi ia cache mode-ul din proprietatile sesiunii. Cu open-in-view sesiunea e refolosita de tranzactiile urmatoare, deci valoarea e restaurata la sfarsit
+        EntityManager entityManager = currentEntityManager();
+        previousStoreModes.get().push(entityManager.getProperties()
+                .getOrDefault(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.USE));
+        if (replica) {
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            Deque<Object> storeModes = previousStoreModes.get();
+            Object previous = storeModes.pop();
+            if (storeModes.isEmpty()) {
+                previousStoreModes.remove();
+            }
+            EntityManager entityManager = currentEntityManager();
+            if (entityManager.isOpen()) {
+                entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, previous);
+            }
+        } finally {
+            routingDataSource.endTransaction();
+            super.doCleanupAfterCompletion(transaction);
+        }
+    }
+
+    private EntityManager currentEntityManager() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        return holder.getEntityManager();
+    }
+}
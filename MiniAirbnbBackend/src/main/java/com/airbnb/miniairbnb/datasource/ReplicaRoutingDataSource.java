@@ -0,0 +1,139 @@
+package com.airbnb.miniairbnb.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+//trimite tranzactiile @Transactional(readOnly = true) pe replica si restul pe primary
+//trebuie folosit in spatele unui LazyConnectionDataSourceProxy: flag-ul readOnly e setat dupa inceperea tranzactiei
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long replicaRetryAfterMillis;
+    private final Clock clock;
+
+    private volatile long replicaDownUntil = 0; //dupa o eroare de conectare, replica e ocolita o perioada
+
+    //ruta fiecarei tranzactii deschise pe thread (cea curenta in varf), decisa de ReplicaAwareTransactionManager la inceput
+    private final ThreadLocal<Deque<Route>> transactionRoutes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReadYourWritesTracker readYourWritesTracker,
+                                    long replicaRetryAfterMillis, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.replicaRetryAfterMillis = replicaRetryAfterMillis;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    //decide ruta unei tranzactii care incepe; ramane aceeasi pana la endTransaction, chiar daca fereastra
+    //read-your-writes expira intre timp. Intoarce true daca tranzactia citeste de pe replica
+    public boolean beginTransaction(boolean replicaAllowed) {
+        Route route = replicaAllowed ? readRoute(currentUsername()) : Route.PRIMARY;
+        transactionRoutes.get().push(route);
+        return route == Route.REPLICA;
+    }
+
+    public void endTransaction() {
+        Deque<Route> routes = transactionRoutes.get();
+        routes.pop();
+        if (routes.isEmpty()) {
+            transactionRoutes.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Route route = transactionRoutes.get().peek();
+            if (route == null) {
+                route = readRoute(username); //tranzactie pornita de alt transaction manager (ex. DataSourceTransactionManager)
+            }
+            return route == Route.REPLICA && clock.millis() >= replicaDownUntil ? Route.REPLICA : Route.PRIMARY;
+        }
+
+        //scriere: dupa commit, citirile acestui utilizator raman pe primary cat timp replica poate fi in urma
+        if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWritesTracker.recordWrite(username);
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Route.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection(); //fallback pe primary daca replica nu raspunde
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() != Route.REPLICA) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    private Route readRoute(String username) {
+        if (clock.millis() >= replicaDownUntil && !readYourWritesTracker.mustReadFromPrimary(username)) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    private void markReplicaDown(SQLException e) {
+        replicaDownUntil = clock.millis() + replicaRetryAfterMillis;
+        log.warn("Replica unavailable, routing reads to primary for {} ms: {}", replicaRetryAfterMillis, e.getMessage());
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
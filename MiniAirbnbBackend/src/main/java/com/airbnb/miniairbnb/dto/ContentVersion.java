@@ -0,0 +1,39 @@
+package com.airbnb.miniairbnb.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+//versiunea unui raspuns GET pe id: cea mai recenta coloana updated_at dintre entitatile serializate impreuna
+//(ex. proprietatea si host-ul ei), citita cu un singur query, fara entitati. Orice modificare a uneia dintre ele
+//muta valoarea inainte, asa ca ajunge pt ETag si Last-Modified
+public record ContentVersion(LocalDateTime lastModified) {
+
+    public ContentVersion(LocalDateTime entity, LocalDateTime related) {
+        this(latest(entity, related));
+    }
+
+    public ContentVersion(LocalDateTime entity, LocalDateTime first, LocalDateTime second, LocalDateTime third) {
+        this(latest(entity, first, second, third));
+    }
+
+    //weak: acelasi continut, dar nu neaparat aceiasi octeti (ordinea campurilor, compresie)
+    public String eTag() {
+        return lastModified == null ? null : "W/\"" + Long.toHexString(epochMicros()) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private long epochMicros() {
+        Instant instant = lastModified.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    private static LocalDateTime latest(LocalDateTime... timestamps) {
+        return Stream.of(timestamps).filter(Objects::nonNull).max(LocalDateTime::compareTo).orElse(null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+//corpul raspunsurilor de eroare (ApiExceptionHandler): code e stabil pt client, message e textul afisat;
+//fields apare doar la validare, cu mesajul pt fiecare camp invalid din request
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorResponse(int status, String code, String message, Map<String, String> fields) {
+
+    public static ErrorResponse of(int status, String code, String message) {
+        return new ErrorResponse(status, code, message, null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.airbnb.miniairbnb.dto;
+
+//o sugestie pt campurile oras/tara: type e "city" sau "country"; country e completat doar pt orase
+public class LocationSuggestion {
+    private String type;
+    private String name;
+    private String country;
+    private int listings; //numarul de proprietati active
+
+    public LocationSuggestion() {}
+
+    public LocationSuggestion(String type, String name, String country, int listings) {
+        this.type = type;
+        this.name = name;
+        this.country = country;
+        this.listings = listings;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public int getListings() {
+        return listings;
+    }
+
+    public void setListings(int listings) {
+        this.listings = listings;
+    }
+}
@@ -0,0 +1,32 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.Property;
+
+//o proprietate din cautarea dupa raza, cu distanta (in km) fata de punctul cautat
+public class NearbyProperty {
+    private Property property;
+    private double distanceKm;
+
+    public NearbyProperty() {}
+
+    public NearbyProperty(Property property, double distanceKm) {
+        this.property = property;
+        this.distanceKm = distanceKm;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public void setProperty(Property property) {
+        this.property = property;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
@@ -0,0 +1,124 @@
+package com.airbnb.miniairbnb.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+//cate proprietati trec de filtru, pe fiecare valoare a atributelor filtrabile
+public class PropertyFacets {
+    private long total; //toate potrivirile, indiferent de limit
+    private Map<String, Long> cities; //cele mai multe primele, cel mult 20
+    private Map<String, Long> countries;
+    private List<PriceRange> prices;
+    private Map<Integer, Long> bedrooms; //numar exact de dormitoare -> proprietati
+    private Map<Integer, Long> bathrooms;
+    private Map<Integer, Long> maxGuests;
+
+    public PropertyFacets() {}
+
+    public PropertyFacets(long total, Map<String, Long> cities, Map<String, Long> countries, List<PriceRange> prices,
+                          Map<Integer, Long> bedrooms, Map<Integer, Long> bathrooms, Map<Integer, Long> maxGuests) {
+        this.total = total;
+        this.cities = cities;
+        this.countries = countries;
+        this.prices = prices;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.maxGuests = maxGuests;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCities() {
+        return cities;
+    }
+
+    public void setCities(Map<String, Long> cities) {
+        this.cities = cities;
+    }
+
+    public Map<String, Long> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(Map<String, Long> countries) {
+        this.countries = countries;
+    }
+
+    public List<PriceRange> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(List<PriceRange> prices) {
+        this.prices = prices;
+    }
+
+    public Map<Integer, Long> getBedrooms() {
+        return bedrooms;
+    }
+
+    public void setBedrooms(Map<Integer, Long> bedrooms) {
+        this.bedrooms = bedrooms;
+    }
+
+    public Map<Integer, Long> getBathrooms() {
+        return bathrooms;
+    }
+
+    public void setBathrooms(Map<Integer, Long> bathrooms) {
+        this.bathrooms = bathrooms;
+    }
+
+    public Map<Integer, Long> getMaxGuests() {
+        return maxGuests;
+    }
+
+    public void setMaxGuests(Map<Integer, Long> maxGuests) {
+        this.maxGuests = maxGuests;
+    }
+
+    //interval de pret pe noapte [min, max); max lipseste la ultimul interval
+    public static class PriceRange {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+
+        public PriceRange() {}
+
+        public PriceRange(BigDecimal min, BigDecimal max, long count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public BigDecimal getMin() {
+            return min;
+        }
+
+        public void setMin(BigDecimal min) {
+            this.min = min;
+        }
+
+        public BigDecimal getMax() {
+            return max;
+        }
+
+        public void setMax(BigDecimal max) {
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
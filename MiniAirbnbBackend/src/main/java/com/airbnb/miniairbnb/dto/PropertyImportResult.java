@@ -0,0 +1,65 @@
+package com.airbnb.miniairbnb.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PropertyImportResult {
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>(); //primele erori (lista e limitata), failed le numara pe toate
+
+    public PropertyImportResult() {}
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    //eroare pe un rand din fisier (line = linia pe care incepe randul)
+    public static class RowError {
+        private long line;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
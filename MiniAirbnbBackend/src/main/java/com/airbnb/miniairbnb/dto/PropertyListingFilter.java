@@ -0,0 +1,108 @@
+package com.airbnb.miniairbnb.dto;
+
+import java.math.BigDecimal;
+
+//parametrii din GET /api/properties (toti optionali)
+public class PropertyListingFilter {
+    private String city;
+    private String country;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer bedrooms; //minim
+    private Integer bathrooms; //minim
+    private Integer guests; //capacitatea minima
+    private String sort; //price, -price, newest; implicit dupa id
+    private Integer limit; //1..ListingCriteria.MAX_LIMIT; implicit ListingCriteria.DEFAULT_LIMIT
+    private Boolean facets; //true: raspunsul include si numaratorile pe fatete (PropertyListingResult)
+    private String fields; //campurile serializate pt fiecare proprietate (FieldSelection); implicit toate
+
+    public PropertyListingFilter() {}
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getBedrooms() {
+        return bedrooms;
+    }
+
+    public void setBedrooms(Integer bedrooms) {
+        this.bedrooms = bedrooms;
+    }
+
+    public Integer getBathrooms() {
+        return bathrooms;
+    }
+
+    public void setBathrooms(Integer bathrooms) {
+        this.bathrooms = bathrooms;
+    }
+
+    public Integer getGuests() {
+        return guests;
+    }
+
+    public void setGuests(Integer guests) {
+        this.guests = guests;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public Boolean getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Boolean facets) {
+        this.facets = facets;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    public void setFields(String fields) {
+        this.fields = fields;
+    }
+}
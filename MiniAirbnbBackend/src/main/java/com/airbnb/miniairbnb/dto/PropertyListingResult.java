@@ -0,0 +1,34 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.Property;
+
+import java.util.List;
+
+//raspunsul GET /api/properties?facets=true: lista (ca fara facets) plus numaratorile pe fatete
+public class PropertyListingResult {
+    private List<Property> properties;
+    private PropertyFacets facets;
+
+    public PropertyListingResult() {}
+
+    public PropertyListingResult(List<Property> properties, PropertyFacets facets) {
+        this.properties = properties;
+        this.facets = facets;
+    }
+
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(List<Property> properties) {
+        this.properties = properties;
+    }
+
+    public PropertyFacets getFacets() {
+        return facets;
+    }
+
+    public void setFacets(PropertyFacets facets) {
+        this.facets = facets;
+    }
+}
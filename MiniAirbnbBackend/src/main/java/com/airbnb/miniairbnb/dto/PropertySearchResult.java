@@ -0,0 +1,64 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.Property;
+
+import java.util.List;
+
+//o pagina din rezultatele cautarii full-text, ordonate dupa relevanta
+public class PropertySearchResult {
+    private String query;
+    private int page;
+    private int size;
+    private boolean hasNext; //fara numarul total: un count pe toate potrivirile ar costa mai mult decat pagina
+    private List<Property> results;
+
+    public PropertySearchResult() {}
+
+    public PropertySearchResult(String query, int page, int size, boolean hasNext, List<Property> results) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.results = results;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public List<Property> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Property> results) {
+        this.results = results;
+    }
+}
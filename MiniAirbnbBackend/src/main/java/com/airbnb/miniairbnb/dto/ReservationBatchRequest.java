@@ -0,0 +1,38 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.ReservationTransition;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class ReservationBatchRequest {
+    @NotNull(message = "Transition is required")
+    private ReservationTransition transition;
+
+    @NotEmpty(message = "At least one reservation id is required")
+    private List<@NotNull Long> ids;
+
+    public ReservationBatchRequest() {}
+
+    public ReservationBatchRequest(ReservationTransition transition, List<Long> ids) {
+        this.transition = transition;
+        this.ids = ids;
+    }
+
+    public ReservationTransition getTransition() {
+        return transition;
+    }
+
+    public void setTransition(ReservationTransition transition) {
+        this.transition = transition;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
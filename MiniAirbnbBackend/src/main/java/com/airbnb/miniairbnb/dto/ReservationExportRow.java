@@ -0,0 +1,14 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.ReservationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+//un rand din exportul CSV de rezervari: proiectie pe coloane, nu entitati, deci nimic nu ramane in persistence context
+public record ReservationExportRow(Long id, ReservationStatus status, LocalDate checkInDate, LocalDate checkOutDate,
+                                   Integer numberOfGuests, BigDecimal totalPrice, Long propertyId, String propertyTitle,
+                                   String propertyCity, String propertyCountry, Long hostId, String hostEmail,
+                                   Long guestId, String guestEmail, LocalDateTime createdAt) {
+}
@@ -0,0 +1,15 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.ReservationStatus;
+
+//rezultatul pt un id din PUT /api/reservations/batch: status = statusul dupa operatie (null daca rezervarea nu exista)
+public record ReservationTransitionResult(Long id, boolean success, ReservationStatus status, String error) {
+
+    public static ReservationTransitionResult applied(Long id, ReservationStatus status) {
+        return new ReservationTransitionResult(id, true, status, null);
+    }
+
+    public static ReservationTransitionResult rejected(Long id, ReservationStatus status, String error) {
+        return new ReservationTransitionResult(id, false, status, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.ReservationStatus;
+
+import java.math.BigDecimal;
+
+//ce trebuie pt validarea unei tranzitii in batch (statusul si id-urile host-ului si guest-ului) si pt evenimentul din
+//outbox (proprietatea si pretul), fara entitati
+public record ReservationTransitionRow(Long id, ReservationStatus status, Long propertyId, Long hostId, Long guestId,
+                                       BigDecimal totalPrice) {
+}
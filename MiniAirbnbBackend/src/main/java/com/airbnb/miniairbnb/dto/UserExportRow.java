@@ -0,0 +1,10 @@
+package com.airbnb.miniairbnb.dto;
+
+import com.airbnb.miniairbnb.model.UserRole;
+
+import java.time.LocalDateTime;
+
+//un rand din exportul CSV de utilizatori (fara parola)
+public record UserExportRow(Long id, String email, String firstName, String lastName, UserRole role,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,8 @@
+package com.airbnb.miniairbnb.exception;
+
+//409: intervalul cerut se suprapune cu o rezervare sau cu o perioada blocata din calendar
+public class AvailabilityConflictException extends DomainException {
+    public AvailabilityConflictException(String message) {
+        super("availability_conflict", message);
+    }
+}
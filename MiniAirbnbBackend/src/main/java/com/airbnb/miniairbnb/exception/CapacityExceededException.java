@@ -0,0 +1,8 @@
+package com.airbnb.miniairbnb.exception;
+
+//400: mai multi oaspeti decat primeste proprietatea
+public class CapacityExceededException extends DomainException {
+    public CapacityExceededException(String message) {
+        super("capacity_exceeded", message);
+    }
+}
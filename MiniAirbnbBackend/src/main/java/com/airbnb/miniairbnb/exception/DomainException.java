@@ -0,0 +1,17 @@
+package com.airbnb.miniairbnb.exception;
+
+//eroare de business (rezervare suprapusa, lipsa drepturilor, id inexistent ...): e un raspuns normal pt client, nu un bug,
+//deci nu se captureaza stack trace-ul (fillInStackTrace parcurge toata stiva la fiecare throw). ApiExceptionHandler o
+//transforma in ErrorResponse, cu statusul HTTP dat de tipul exceptiei si code-ul de mai jos
+public abstract class DomainException extends RuntimeException {
+    private final String code;
+
+    protected DomainException(String code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,8 @@
+package com.airbnb.miniairbnb.exception;
+
+//400: parametri invalizi sau o operatie care nu e permisa in starea curenta (tranzitie de status, proprietate inactiva ...)
+public class InvalidRequestException extends DomainException {
+    public InvalidRequestException(String message) {
+        super("invalid_request", message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.airbnb.miniairbnb.exception;
+
+//404: entitatea ceruta nu exista
+public class NotFoundException extends DomainException {
+    public NotFoundException(String message) {
+        super("not_found", message);
+    }
+}
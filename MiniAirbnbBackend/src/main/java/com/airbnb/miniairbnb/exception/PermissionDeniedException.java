@@ -0,0 +1,8 @@
+package com.airbnb.miniairbnb.exception;
+
+//403: utilizatorul e autentificat, dar nu are voie sa faca operatia (nu e host-ul proprietatii, rol nepotrivit ...)
+public class PermissionDeniedException extends DomainException {
+    public PermissionDeniedException(String message) {
+        super("permission_denied", message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.airbnb.miniairbnb.fields;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+
+//entitatile (inclusiv proxy-urile Hibernate, generate in acelasi pachet) trec prin filtrul FieldSelection.FILTER_ID fara
+//@JsonFilter pe fiecare clasa; inregistrat doar in ObjectMapper-ul aplicatiei (JacksonConfig)
+public class EntityFilterIntrospector extends NopAnnotationIntrospector {
+    private static final String MODEL_PACKAGE = Property.class.getPackageName();
+
+    @Override
+    public Object findFilterId(Annotated annotated) {
+        if (annotated instanceof AnnotatedClass annotatedClass
+                && MODEL_PACKAGE.equals(annotatedClass.getRawType().getPackageName())) {
+            return FieldSelection.FILTER_ID;
+        }
+        return null;
+    }
+}
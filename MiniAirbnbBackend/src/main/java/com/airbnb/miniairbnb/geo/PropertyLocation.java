@@ -0,0 +1,7 @@
+package com.airbnb.miniairbnb.geo;
+
+import java.math.BigDecimal;
+
+//proiectia folosita la incarcarea indexului geo (fara descriere, imagini, host)
+public record PropertyLocation(Long id, Double latitude, Double longitude, BigDecimal pricePerNight, Integer maxGuests) {
+}
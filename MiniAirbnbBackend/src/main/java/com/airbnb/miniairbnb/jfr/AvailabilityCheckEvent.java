@@ -0,0 +1,24 @@
+package com.airbnb.miniairbnb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//verificarea disponibilitatii unei proprietati (ReservationServiceImpl.isPropertyAvailable)
+@Name(AvailabilityCheckEvent.NAME)
+@Label("Availability Check")
+@Category({"Mini Airbnb", "Reservations"})
+@StackTrace(false)
+public class AvailabilityCheckEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.airbnb.miniairbnb.AvailabilityCheck";
+
+    @Label("Property Id")
+    public long propertyId;
+
+    @Label("Nights")
+    public long nights;
+
+    @Label("Available")
+    public boolean available;
+}
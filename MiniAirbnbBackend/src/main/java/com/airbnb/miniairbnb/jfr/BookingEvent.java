@@ -0,0 +1,30 @@
+package com.airbnb.miniairbnb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//o incercare de rezervare (ReservationServiceImpl.createReservation)
+@Name(BookingEvent.NAME)
+@Label("Booking")
+@Category({"Mini Airbnb", "Reservations"})
+@Description("Reservation attempt and its outcome")
+@StackTrace(false)
+public class BookingEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.airbnb.miniairbnb.Booking";
+
+    @Label("Property Id")
+    public long propertyId;
+
+    @Label("Guest Id")
+    public long guestId;
+
+    @Label("Nights")
+    public long nights;
+
+    @Label("Outcome")
+    @Description("success, conflict, capacity_exceeded, rejected or error")
+    public String outcome;
+}
@@ -0,0 +1,30 @@
+package com.airbnb.miniairbnb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//un request HTTP (emis de RequestMetricsFilter); evenimentele de mai jos din acelasi thread si interval ii apartin
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category({"Mini Airbnb", "HTTP"})
+@Description("HTTP request handled by the backend, with its route and SQL statement count")
+@StackTrace(false)
+public class HttpRequestEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.airbnb.miniairbnb.HttpRequest";
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    @Description("Route pattern, e.g. /api/properties/{id}")
+    public String uri;
+
+    @Label("Status")
+    public int status;
+
+    @Label("SQL Statements")
+    public int sqlStatements;
+}
@@ -0,0 +1,20 @@
+package com.airbnb.miniairbnb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//validarea token-ului si incarcarea utilizatorului (JwtAuthenticationFilter)
+@Name(JwtAuthenticationEvent.NAME)
+@Label("JWT Authentication")
+@Category({"Mini Airbnb", "Security"})
+@StackTrace(false)
+public class JwtAuthenticationEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.airbnb.miniairbnb.JwtAuthentication";
+
+    @Label("Outcome")
+    @Description("authenticated or invalid")
+    public String outcome;
+}
@@ -0,0 +1,31 @@
+package com.airbnb.miniairbnb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//cautarea proprietatilor active (PropertyController.getAllActiveProperties si searchProperties)
+@Name(PropertySearchEvent.NAME)
+@Label("Property Search")
+@Category({"Mini Airbnb", "Properties"})
+@StackTrace(false)
+public class PropertySearchEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.airbnb.miniairbnb.PropertySearch";
+
+    @Label("Filter")
+    @Description("city, country, all or text (full-text search)")
+    public String filter;
+
+    @Label("Value")
+    public String value;
+
+    @Label("Result Size")
+    @Description("0 when the response came from the listing cache")
+    public int resultSize;
+
+    @Label("Cached")
+    @Description("Served from ListingResponseCache without running the search")
+    public boolean cached;
+}
@@ -0,0 +1,111 @@
+package com.airbnb.miniairbnb.metrics;
+
+import com.airbnb.miniairbnb.jfr.HttpRequestEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+//numarul de statement-uri SQL per request, pe ruta (acelasi tag uri ca http.server.requests);
+//ruleaza inaintea filtrelor de securitate, ca sa includa si incarcarea utilizatorului din JWT.
+//request-urile care depasesc bugetul (@SqlBudget pe controller sau valorile implicite) sunt logate
+//impreuna cu statement-urile executate - asa se vad N+1-urile din serializarea relatiilor lazy
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.sql-budget.max-statements:10}")
+    private int defaultMaxStatements;
+
+    @Value("${app.sql-budget.max-millis:1000}")
+    private long defaultMaxMillis;
+
+    //in teste: depasirea bugetului de statement-uri arunca exceptie si pica testul (durata doar se logheaza)
+    @Value("${app.sql-budget.fail-on-violation:false}")
+    private boolean failOnViolation;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        SqlStatementCounter.start();
+        SqlStatementCounter.Recording recording;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recording = SqlStatementCounter.stop();
+            DistributionSummary.builder("app.http.sql.statements")
+                    .description("SQL statements executed per HTTP request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri(request))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(recording.getCount());
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.uri = uri(request);
+                event.status = response.getStatus();
+                event.sqlStatements = recording.getCount();
+                event.commit();
+            }
+        }
+        checkBudget(request, recording, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementCounter.Recording recording, long millis) {
+        SqlBudget budget = budget(request);
+        int maxStatements = budget != null && budget.maxStatements() >= 0 ? budget.maxStatements() : defaultMaxStatements;
+        long maxMillis = budget != null && budget.maxMillis() >= 0 ? budget.maxMillis() : defaultMaxMillis;
+
+        boolean tooManyStatements = recording.getCount() > maxStatements;
+        if (!tooManyStatements && millis <= maxMillis) {
+            return;
+        }
+        String message = String.format("%s %s exceeded its budget: %d SQL statements (max %d), %d ms (max %d)",
+                request.getMethod(), uri(request), recording.getCount(), maxStatements, millis, maxMillis);
+        log.warn("{}; statements:\n{}", message, String.join("\n", recording.getStatements()));
+        if (tooManyStatements && failOnViolation) {
+            throw new IllegalStateException(message + "\n" + String.join("\n", recording.getStatements()));
+        }
+    }
+
+    //@SqlBudget de pe metoda controller-ului care a tratat request-ul, apoi de pe clasa
+    private static SqlBudget budget(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return null;
+        }
+        SqlBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), SqlBudget.class);
+        return budget != null ? budget : AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), SqlBudget.class);
+    }
+
+    //pattern-ul rutei (ex. /api/properties/{id}), nu URL-ul concret: numarul de serii ramane mic
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,20 @@
+package com.airbnb.miniairbnb.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//bugetul unui endpoint: numarul maxim de statement-uri SQL si durata maxima a request-ului;
+//fara adnotare se aplica app.sql-budget.max-statements / app.sql-budget.max-millis (vezi RequestMetricsFilter)
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface SqlBudget {
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    int maxStatements() default -1; //-1 = valoarea implicita din configurare
+
+    long maxMillis() default -1;
+}
@@ -0,0 +1,57 @@
+package com.airbnb.miniairbnb.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//numara statement-urile SQL pregatite de Hibernate pe thread-ul request-ului curent
+//(inregistrat ca hibernate.session_factory.statement_inspector; nu modifica SQL-ul)
+public class SqlStatementCounter implements StatementInspector {
+    //primele statement-uri ale request-ului sunt pastrate pt log-ul de depasire a bugetului
+    static final int MAX_RECORDED_STATEMENTS = 50;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    //incepe numaratoarea pt request-ul de pe thread-ul curent
+    public static void start() {
+        CURRENT.set(new Recording());
+    }
+
+    //opreste numaratoarea si intoarce statement-urile executate (goala daca nu a fost pornita)
+    public static Recording stop() {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        return recording != null ? recording : new Recording();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.add(sql);
+        }
+        return sql;
+    }
+
+    public static class Recording {
+        private int count;
+        private final List<String> statements = new ArrayList<>();
+
+        private void add(String sql) {
+            count++;
+            if (statements.size() < MAX_RECORDED_STATEMENTS) {
+                statements.add(sql);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public List<String> getStatements() {
+            return Collections.unmodifiableList(statements);
+        }
+    }
+}
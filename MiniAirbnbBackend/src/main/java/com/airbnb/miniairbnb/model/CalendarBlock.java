@@ -0,0 +1,41 @@
+package com.airbnb.miniairbnb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+//interval ocupat importat dintr-un ExternalCalendar: noptile din [startDate, endDate) nu pot fi rezervate
+@Entity
+@Table(name = "calendar_blocks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarBlock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendar_blocks_seq")
+    @SequenceGenerator(name = "calendar_blocks_seq", sequenceName = "calendar_blocks_seq", allocationSize = 50) //blocurile unui calendar se insereaza in batch
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "calendar_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ExternalCalendar calendar;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId; //copiat din calendar: verificarea de disponibilitate nu mai face join
+
+    private String uid; //UID-ul evenimentului din fisierul iCal
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate; //exclusiv, ca DTEND din iCal
+}
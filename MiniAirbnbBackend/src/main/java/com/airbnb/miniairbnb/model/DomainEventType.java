@@ -0,0 +1,16 @@
+package com.airbnb.miniairbnb.model;
+
+//tipurile de evenimente scrise in outbox (OutboxEvent.type); aggregateId e id-ul rezervarii sau al proprietatii
+public enum DomainEventType {
+    RESERVATION_CREATED,
+    RESERVATION_CONFIRMED,
+    RESERVATION_COMPLETED,
+    RESERVATION_CANCELLED,
+    PROPERTY_CREATED,
+    PROPERTY_UPDATED,
+    PROPERTY_DELETED;
+
+    public boolean isReservationEvent() {
+        return name().startsWith("RESERVATION_");
+    }
+}
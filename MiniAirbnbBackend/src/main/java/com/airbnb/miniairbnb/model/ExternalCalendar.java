@@ -0,0 +1,49 @@
+package com.airbnb.miniairbnb.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+//un calendar iCal extern al proprietatii (alta platforma de rezervari), importat periodic in CalendarBlock-uri
+@Entity
+@Table(name = "external_calendars")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalCalendar {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "property_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE) //calendarele dispar odata cu proprietatea
+    @JsonIgnore
+    private Property property;
+
+    @Column(nullable = false, length = 2048)
+    @NotBlank(message = "URL is required")
+    @Size(max = 2048, message = "URL must not exceed 2048 characters")
+    private String url; //http(s):// sau file: (doar din directorul app.calendar-import.file-root)
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt; //ultima sincronizare reusita
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError; //eroarea ultimei sincronizari, null daca a reusit
+
+    @Column(name = "created_at", updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
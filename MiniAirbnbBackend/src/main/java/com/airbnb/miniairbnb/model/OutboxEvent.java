@@ -0,0 +1,40 @@
+package com.airbnb.miniairbnb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+//eveniment de domeniu scris in aceeasi tranzactie cu schimbarea pe care o descrie (OutboxPublisher) si livrat
+//ulterior de OutboxRelay; payload e JSON-ul din com.airbnb.miniairbnb.outbox (ReservationEventPayload/PropertyEventPayload)
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50) //un batch de tranzitii scrie mai multe evenimente
+    private Long id;
+
+    @Column(unique = true)
+    private Long position; //ordinea de livrare, data de OutboxRelay dupa commit; null pana atunci
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private DomainEventType type;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
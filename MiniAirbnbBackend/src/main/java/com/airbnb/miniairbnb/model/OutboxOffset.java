@@ -0,0 +1,28 @@
+package com.airbnb.miniairbnb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+//pana unde a procesat un consumator evenimentele din outbox: ultima OutboxEvent.position livrata cu succes
+@Entity
+@Table(name = "outbox_offsets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffset {
+    @Id
+    @Column(length = 100)
+    private String consumer;
+
+    @Column(nullable = false)
+    private Long position;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -7,6 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,6 +17,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "properties")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "properties")
+@BatchSize(size = 50) //proxy-urile neinitializate (ex. Reservation.property) sunt incarcate cate 50 intr-un query
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,7 +27,8 @@ import java.util.List;
 public class Property {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "properties_seq")
+    @SequenceGenerator(name = "properties_seq", sequenceName = "properties_seq", allocationSize = 50) //id-uri alocate in blocuri de 50, permite batch insert
     private Long id;
 
     @Column(unique = false)
@@ -62,6 +69,15 @@ public class Property {
     @Min(value = 1, message = "Max guests must be at least 1")
     private Integer maxGuests;
 
+    //coordonate WGS84 (optionale); proprietatile fara coordonate nu apar in cautarile pe harta
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true; //proprietatea este activa/disponibila
 
@@ -72,6 +88,8 @@ public class Property {
     private User host;
 
     @ElementCollection
+    @BatchSize(size = 50) //la serializarea unei liste, imaginile sunt incarcate pt 50 de proprietati odata, nu una cate una
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "property-images")
     @CollectionTable(name = "property_images", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "image_url")
     private List<String> imageUrls;
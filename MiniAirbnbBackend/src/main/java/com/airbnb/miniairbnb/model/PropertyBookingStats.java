@@ -0,0 +1,46 @@
+package com.airbnb.miniairbnb.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//numarul de rezervari ale unei proprietati pe evenimente si incasarile din cele finalizate, actualizate din outbox
+//(PropertyBookingStatsConsumer), deci cu o mica intarziere fata de rezervari
+@Entity
+@Table(name = "property_booking_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyBookingStats {
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(name = "reservations_created", nullable = false)
+    private long reservationsCreated;
+
+    @Column(name = "reservations_confirmed", nullable = false)
+    private long reservationsConfirmed;
+
+    @Column(name = "reservations_cancelled", nullable = false)
+    private long reservationsCancelled;
+
+    @Column(name = "reservations_completed", nullable = false)
+    private long reservationsCompleted;
+
+    @Column(name = "completed_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal completedRevenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public PropertyBookingStats(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+}
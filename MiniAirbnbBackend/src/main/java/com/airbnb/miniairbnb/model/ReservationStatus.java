@@ -1,8 +1,31 @@
 package com.airbnb.miniairbnb.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+//tabela de tranzitii: PENDING -> CONFIRMED -> COMPLETED, iar PENDING/CONFIRMED -> CANCELLED; CANCELLED si COMPLETED sunt finale
 public enum ReservationStatus {
     PENDING,
     CONFIRMED,
     CANCELLED,
-    COMPLETED
+    COMPLETED;
+
+    public boolean canTransitionTo(ReservationStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == COMPLETED || target == CANCELLED;
+            case CANCELLED, COMPLETED -> false;
+        };
+    }
+
+    //statusurile din care se poate ajunge in target (pt UPDATE ... WHERE status IN)
+    public static Set<ReservationStatus> sourcesOf(ReservationStatus target) {
+        Set<ReservationStatus> sources = EnumSet.noneOf(ReservationStatus.class);
+        for (ReservationStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -0,0 +1,63 @@
+package com.airbnb.miniairbnb.model;
+
+import java.util.Set;
+
+//actiunile asupra unei rezervari: statusul in care ajunge si cine o poate face. Verificarile sunt aceleasi pt
+//PUT /api/reservations/{id}/confirm|complete|cancel si pt PUT /api/reservations/batch
+public enum ReservationTransition {
+    CONFIRM(ReservationStatus.CONFIRMED, DomainEventType.RESERVATION_CONFIRMED, false,
+            "Only property host or ADMIN can confirm reservations"),
+    COMPLETE(ReservationStatus.COMPLETED, DomainEventType.RESERVATION_COMPLETED, false,
+            "Only property host or ADMIN can complete reservations"),
+    CANCEL(ReservationStatus.CANCELLED, DomainEventType.RESERVATION_CANCELLED, true,
+            "You don't have permission to cancel this reservation");
+
+    private final ReservationStatus target;
+    private final DomainEventType eventType; //scris in outbox pt fiecare rezervare schimbata
+    private final boolean guestAllowed;
+    private final String forbiddenMessage;
+    private final Set<ReservationStatus> sources;
+
+    ReservationTransition(ReservationStatus target, DomainEventType eventType, boolean guestAllowed, String forbiddenMessage) {
+        this.target = target;
+        this.eventType = eventType;
+        this.guestAllowed = guestAllowed;
+        this.forbiddenMessage = forbiddenMessage;
+        this.sources = ReservationStatus.sourcesOf(target);
+    }
+
+    public ReservationStatus getTarget() {
+        return target;
+    }
+
+    public DomainEventType getEventType() {
+        return eventType;
+    }
+
+    public Set<ReservationStatus> getSources() {
+        return sources;
+    }
+
+    //daca currentUser poate aplica tranzitia pe o rezervare cu host-ul si guest-ul dat, indiferent de status
+    public boolean isPermitted(Long hostId, Long guestId, User currentUser) {
+        return currentUser.getRole() == UserRole.ROLE_ADMIN
+                || currentUser.getId().equals(hostId)
+                || guestAllowed && currentUser.getId().equals(guestId);
+    }
+
+    //motivul pt care currentUser nu poate aplica tranzitia unei rezervari cu status-ul, host-ul si guest-ul dat; null = permis
+    public String rejection(ReservationStatus status, Long hostId, Long guestId, User currentUser) {
+        if (!isPermitted(hostId, guestId, currentUser)) {
+            return forbiddenMessage;
+        }
+        if (status.canTransitionTo(target)) {
+            return null;
+        }
+        return switch (this) {
+            case CONFIRM -> "Only PENDING reservations can be confirmed";
+            case COMPLETE -> "Only CONFIRMED reservations can be completed";
+            case CANCEL -> status == ReservationStatus.CANCELLED
+                    ? "Reservation is already cancelled" : "Cannot cancel a completed reservation";
+        };
+    }
+}
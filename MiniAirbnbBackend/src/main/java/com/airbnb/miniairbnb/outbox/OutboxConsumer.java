@@ -0,0 +1,15 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.OutboxEvent;
+
+//consumator al evenimentelor din outbox; orice bean care implementeaza interfata e inregistrat in OutboxRelay.
+//Evenimentele vin in ordinea position, in tranzactia in care relay-ul ii avanseaza offset-ul: scrierile in baza de date
+//ale consumatorului se salveaza odata cu offset-ul (o exceptie le anuleaza pe amandoua si lotul se reia). Efectele din
+//afara bazei de date (notificari, apeluri HTTP) pot fi repetate, deci trebuie sa fie idempotente
+public interface OutboxConsumer {
+
+    //cheia offset-ului in outbox_offsets; schimbarea ei reia toate evenimentele pastrate
+    String name();
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,40 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.DomainEventType;
+import com.airbnb.miniairbnb.model.OutboxEvent;
+import com.airbnb.miniairbnb.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+//scrie evenimentele de domeniu in outbox_events; apelat de servicii in tranzactia schimbarii, deci evenimentul exista
+//daca si numai daca schimbarea a facut commit. Insert-ul pleaca la flush, in batch cu celelalte (secventa pooled)
+@Component
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    //MANDATORY: un eveniment scris in afara tranzactiei schimbarii nu ar mai fi atomic cu ea
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " payload", e);
+        }
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,132 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.OutboxEvent;
+import com.airbnb.miniairbnb.model.OutboxOffset;
+import com.airbnb.miniairbnb.repository.OutboxEventRepository;
+import com.airbnb.miniairbnb.repository.OutboxOffsetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//job periodic: livreaza evenimentele din outbox consumatorilor (OutboxConsumer), in afara request-urilor care le-au scris.
+//1. numeroteaza (position) randurile cu commit facut, in ordinea id-ului; position e unic, deci daca doua instante
+//   numeroteaza simultan, una pica la commit si reia la urmatoarea rulare
+//2. pt fiecare consumator: loturi de evenimente dupa offset-ul lui, livrate in tranzactia care avanseaza offset-ul.
+//   O exceptie anuleaza lotul si il reia la urmatoarea rulare (at-least-once); consumatorul ramane pe loc pana trece
+//3. sterge evenimentele livrate tuturor consumatorilor, mai vechi decat app.outbox.retention
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final List<OutboxConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.outbox.retention:P7D}")
+    private Duration retention = Duration.ofDays(7); //evenimentele livrate raman o vreme pt depanare si consumatori noi
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxOffsetRepository outboxOffsetRepository,
+                       List<OutboxConsumer> consumers, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.interval:PT1S}", initialDelayString = "${app.outbox.initial-delay:PT10S}")
+    public void run() {
+        try {
+            int sequenced;
+            do {
+                sequenced = sequence();
+            } while (sequenced == batchSize);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox events were sequenced concurrently, retrying on the next run");
+        }
+        for (OutboxConsumer consumer : consumers) {
+            dispatch(consumer);
+        }
+        deleteDelivered();
+    }
+
+    //un lot de evenimente primeste pozitiile urmatoare dupa cea mai mare existenta
+    private int sequence() {
+        return transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findByPositionIsNullOrderById(Limit.of(batchSize));
+            long position = outboxEventRepository.findMaxPosition();
+            for (OutboxEvent event : events) {
+                event.setPosition(++position);
+            }
+            return events.size();
+        });
+    }
+
+    //loturi pana la capatul outbox-ului sau pana la prima eroare; numarul de evenimente livrate
+    public long dispatch(OutboxConsumer consumer) {
+        long delivered = 0;
+        int batch;
+        do {
+            try {
+                batch = transactionTemplate.execute(status -> dispatchBatch(consumer));
+            } catch (RuntimeException e) {
+                meterRegistry.counter("app.outbox.failures", "consumer", consumer.name()).increment();
+                log.error("Outbox consumer {} failed, the batch will be retried", consumer.name(), e);
+                break;
+            }
+            delivered += batch;
+        } while (batch == batchSize);
+        return delivered;
+    }
+
+    private int dispatchBatch(OutboxConsumer consumer) {
+        OutboxOffset offset = outboxOffsetRepository.findForUpdate(consumer.name())
+                .orElseGet(() -> outboxOffsetRepository.save(new OutboxOffset(consumer.name(), 0L, null)));
+        List<OutboxEvent> events = outboxEventRepository.findByPositionGreaterThanOrderByPosition(offset.getPosition(),
+                Limit.of(batchSize));
+        for (OutboxEvent event : events) {
+            consumer.handle(event);
+        }
+        if (!events.isEmpty()) {
+            offset.setPosition(events.get(events.size() - 1).getPosition());
+            offset.setUpdatedAt(LocalDateTime.now());
+            meterRegistry.counter("app.outbox.delivered", "consumer", consumer.name()).increment(events.size());
+        }
+        return events.size();
+    }
+
+    //pana la cel mai mic offset al consumatorilor inregistrati (un consumator nou porneste de la 0 si le vede pe toate)
+    private void deleteDelivered() {
+        Map<String, Long> offsets = new HashMap<>();
+        outboxOffsetRepository.findAll().forEach(offset -> offsets.put(offset.getConsumer(), offset.getPosition()));
+        long delivered = consumers.stream()
+                .mapToLong(consumer -> offsets.getOrDefault(consumer.name(), 0L))
+                .min()
+                .orElse(Long.MAX_VALUE);
+        if (delivered == 0) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteDelivered(delivered, LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Deleted {} delivered outbox events", deleted);
+        }
+    }
+}
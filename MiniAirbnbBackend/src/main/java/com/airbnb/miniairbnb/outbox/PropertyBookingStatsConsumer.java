@@ -0,0 +1,64 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.DomainEventType;
+import com.airbnb.miniairbnb.model.OutboxEvent;
+import com.airbnb.miniairbnb.model.PropertyBookingStats;
+import com.airbnb.miniairbnb.repository.PropertyBookingStatsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+//agregatele per proprietate din property_booking_stats: se scriu in tranzactia care avanseaza offset-ul, deci un
+//eveniment reluat dupa o eroare nu e numarat de doua ori
+@Component
+public class PropertyBookingStatsConsumer implements OutboxConsumer {
+    private final PropertyBookingStatsRepository statsRepository;
+    private final ObjectMapper objectMapper;
+
+    public PropertyBookingStatsConsumer(PropertyBookingStatsRepository statsRepository, ObjectMapper objectMapper) {
+        this.statsRepository = statsRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "property-booking-stats";
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (event.getType() == DomainEventType.PROPERTY_DELETED) {
+            statsRepository.findById(event.getAggregateId()).ifPresent(statsRepository::delete);
+            return;
+        }
+        if (!event.getType().isReservationEvent()) {
+            return;
+        }
+
+        ReservationEventPayload reservation = read(event);
+        PropertyBookingStats stats = statsRepository.findById(reservation.propertyId())
+                .orElseGet(() -> new PropertyBookingStats(reservation.propertyId()));
+        switch (event.getType()) {
+            case RESERVATION_CREATED -> stats.setReservationsCreated(stats.getReservationsCreated() + 1);
+            case RESERVATION_CONFIRMED -> stats.setReservationsConfirmed(stats.getReservationsConfirmed() + 1);
+            case RESERVATION_CANCELLED -> stats.setReservationsCancelled(stats.getReservationsCancelled() + 1);
+            case RESERVATION_COMPLETED -> {
+                stats.setReservationsCompleted(stats.getReservationsCompleted() + 1);
+                stats.setCompletedRevenue(stats.getCompletedRevenue().add(reservation.totalPrice()));
+            }
+            default -> throw new IllegalStateException(event.getType().name());
+        }
+        stats.setUpdatedAt(LocalDateTime.now());
+        statsRepository.save(stats);
+    }
+
+    private ReservationEventPayload read(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), ReservationEventPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload for outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.Property;
+
+import java.math.BigDecimal;
+
+//payload-ul evenimentelor PROPERTY_*: starea proprietatii dupa schimbare (pt PROPERTY_DELETED, ultima stare)
+public record PropertyEventPayload(Long propertyId, Long hostId, String city, String country, BigDecimal pricePerNight,
+                                   Boolean active) {
+
+    public static PropertyEventPayload of(Property property) {
+        return new PropertyEventPayload(property.getId(), property.getHost().getId(), property.getCity(),
+                property.getCountry(), property.getPricePerNight(), property.getIsActive());
+    }
+}
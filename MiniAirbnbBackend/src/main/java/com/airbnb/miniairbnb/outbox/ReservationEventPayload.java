@@ -0,0 +1,10 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.ReservationStatus;
+
+import java.math.BigDecimal;
+
+//payload-ul evenimentelor RESERVATION_*: previousStatus e null pt o rezervare noua
+public record ReservationEventPayload(Long reservationId, Long propertyId, Long guestId,
+                                      ReservationStatus previousStatus, ReservationStatus status, BigDecimal totalPrice) {
+}
@@ -0,0 +1,38 @@
+package com.airbnb.miniairbnb.repository;
+
+import com.airbnb.miniairbnb.dto.ReservationExportRow;
+import com.airbnb.miniairbnb.model.ArchivedReservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, Long> {
+    List<ArchivedReservation> findByGuestIdOrderByCheckInDateDesc(Long guestId); //istoricul arhivat al unui guest
+
+    //istoricul arhivat pt proprietatile unui host
+    @Query("SELECT a FROM ArchivedReservation a WHERE a.propertyId IN (SELECT p.id FROM Property p WHERE p.host = :host) ORDER BY a.checkInDate DESC")
+    List<ArchivedReservation> findByPropertyHost(@Param("host") User host);
+
+    //partea arhivata a exportului CSV (ca ReservationRepository.streamExportRows); arhiva nu are chei straine,
+    //deci proprietatea si userii sterse intre timp raman cu coloanele goale
+    @Query("SELECT new com.airbnb.miniairbnb.dto.ReservationExportRow(a.id, a.status, a.checkInDate, a.checkOutDate, "
+            + "a.numberOfGuests, a.totalPrice, a.propertyId, p.title, p.city, p.country, h.id, h.email, a.guestId, g.email, a.createdAt) "
+            + "FROM ArchivedReservation a LEFT JOIN Property p ON p.id = a.propertyId LEFT JOIN p.host h "
+            + "LEFT JOIN User g ON g.id = a.guestId "
+            + "WHERE a.checkInDate >= :from AND a.checkInDate <= :to AND a.status IN :statuses ORDER BY a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ReservationExportRow> streamExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                  @Param("statuses") Collection<ReservationStatus> statuses);
+}
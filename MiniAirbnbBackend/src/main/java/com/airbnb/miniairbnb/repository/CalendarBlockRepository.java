@@ -0,0 +1,24 @@
+package com.airbnb.miniairbnb.repository;
+
+import com.airbnb.miniairbnb.model.CalendarBlock;
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CalendarBlockRepository extends JpaRepository<CalendarBlock, Long> {
+    //exista un bloc importat care acopera o noapte din [checkIn, checkOut)? foloseste indexul (property_id, start_date, end_date)
+    boolean existsByPropertyIdAndStartDateLessThanAndEndDateGreaterThan(Long propertyId, LocalDate checkOutDate, LocalDate checkInDate);
+
+    List<CalendarBlock> findByCalendarOrderByStartDate(ExternalCalendar calendar);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CalendarBlock b WHERE b.calendar = :calendar")
+    int deleteByCalendar(@Param("calendar") ExternalCalendar calendar); //un singur DELETE, nu cate unul pe bloc
+}
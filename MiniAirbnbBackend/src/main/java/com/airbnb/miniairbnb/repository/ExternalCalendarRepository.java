@@ -0,0 +1,19 @@
+package com.airbnb.miniairbnb.repository;
+
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExternalCalendarRepository extends JpaRepository<ExternalCalendar, Long> {
+    List<ExternalCalendar> findByPropertyIdOrderById(Long propertyId); //calendarele externe ale unei proprietati
+
+    Optional<ExternalCalendar> findByIdAndPropertyId(Long id, Long propertyId);
+
+    @Query("SELECT c.id FROM ExternalCalendar c ORDER BY c.id")
+    List<Long> findAllIds(); //pt ExternalCalendarSyncJob: fiecare calendar se sincronizeaza in tranzactia lui
+}
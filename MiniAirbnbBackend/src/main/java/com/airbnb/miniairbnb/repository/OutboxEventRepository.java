@@ -0,0 +1,29 @@
+package com.airbnb.miniairbnb.repository;
+
+import com.airbnb.miniairbnb.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    //evenimentele cu commit facut, inca nenumerotate de OutboxRelay (index partial pe id WHERE position IS NULL)
+    List<OutboxEvent> findByPositionIsNullOrderById(Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.position), 0) FROM OutboxEvent e")
+    long findMaxPosition();
+
+    //urmatorul lot pt un consumator, dupa offset-ul lui
+    List<OutboxEvent> findByPositionGreaterThanOrderByPosition(Long position, Limit limit);
+
+    //evenimentele livrate tuturor consumatorilor si mai vechi decat perioada de pastrare
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.position <= :position AND e.createdAt < :before")
+    int deleteDelivered(@Param("position") long position, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,19 @@
+package com.airbnb.miniairbnb.repository;
+
+import com.airbnb.miniairbnb.model.OutboxOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+    //blocheaza offset-ul pe durata lotului: doua instante ale aplicatiei nu livreaza acelasi lot aceluiasi consumator
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffset o WHERE o.consumer = :consumer")
+    Optional<OutboxOffset> findForUpdate(@Param("consumer") String consumer);
+}
@@ -0,0 +1,9 @@
+package com.airbnb.miniairbnb.repository;
+
+import com.airbnb.miniairbnb.model.PropertyBookingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PropertyBookingStatsRepository extends JpaRepository<PropertyBookingStats, Long> {
+}
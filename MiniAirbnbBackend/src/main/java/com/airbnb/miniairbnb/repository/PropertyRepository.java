@@ -1,12 +1,25 @@
 package com.airbnb.miniairbnb.repository;
 
+import com.airbnb.miniairbnb.catalog.ListingRow;
+import com.airbnb.miniairbnb.config.HibernateCacheConfig;
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.geo.PropertyLocation;
 import com.airbnb.miniairbnb.model.Property;
 import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.suggest.ListingPlace;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long> {
@@ -14,9 +27,65 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
 
     List<Property> findByIsActiveTrue(); //gaseste toate proprietatile active
 
-    List<Property> findByCityAndIsActiveTrue(String city); //gaseste proprietati active dintr-un oras
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.PROPERTIES_BY_CITY_QUERY_REGION)
+    })
+    List<Property> findByCityAndIsActiveTrue(String city); //gaseste proprietati active dintr-un oras (query cache)
 
     List<Property> findByCountryAndIsActiveTrue(String country); //gaseste proprietati active dintr-o tara
 
+    //blocheaza randul proprietatii pana la sfarsitul tranzactiei (serializeaza rezervarile aceleiasi proprietati)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id = :id")
+    Optional<Property> findByIdForUpdate(@Param("id") Long id);
+
     Optional<Property> findByIdAndHost(Long id, User host); //gaseste proprietatea dupa id si host (pt verificare ownership)
+
+    //ultima modificare a proprietatii si a host-ului serializat cu ea (ETag/Last-Modified pt GET /api/properties/{id});
+    //in query cache: orice scriere in properties sau users il invalideaza, ca si pe entitatile din second-level cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.PROPERTY_VERSION_QUERY_REGION)
+    })
+    @Query("SELECT new com.airbnb.miniairbnb.dto.ContentVersion(p.updatedAt, h.updatedAt) "
+            + "FROM Property p LEFT JOIN p.host h WHERE p.id = :id")
+    Optional<ContentVersion> findContentVersionById(@Param("id") Long id);
+
+    //toate proprietatile cu host-ul, citite in flux pt GET /api/properties/all (EntityStreamer)
+    @Query("SELECT p FROM Property p JOIN FETCH p.host ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Property> streamAllWithHost();
+
+    //coloanele catalogului din memorie pt proprietatile active, citite in flux si ordonate dupa id
+    @Query("SELECT new com.airbnb.miniairbnb.catalog.ListingRow(p.id, p.pricePerNight, p.bedrooms, p.bathrooms, p.maxGuests, "
+            + "p.city, p.country, p.createdAt) FROM Property p WHERE p.isActive = true ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<ListingRow> streamActiveListings();
+
+    //orasul si tara proprietatilor active, pt sugestiile din campurile de cautare
+    @Query("SELECT new com.airbnb.miniairbnb.suggest.ListingPlace(p.id, p.city, p.country) FROM Property p WHERE p.isActive = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<ListingPlace> streamActivePlaces();
+
+    //locatiile proprietatilor active cu coordonate, citite in flux pt incarcarea indexului geo
+    @Query("SELECT new com.airbnb.miniairbnb.geo.PropertyLocation(p.id, p.latitude, p.longitude, p.pricePerNight, p.maxGuests) "
+            + "FROM Property p WHERE p.isActive = true AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<PropertyLocation> streamActiveLocations();
+
+    //cautare full-text (indexul GIN idx_properties_search din V6, doar PostgreSQL), ordonata dupa relevanta;
+    //websearch_to_tsquery accepta sintaxa obisnuita: cuvinte, "fraze exacte", or, -excludere.
+    //Se ordoneaza cel mult :candidates potriviri: un termen foarte comun (ex. un oras mare) ar cere altfel
+    //calculul relevantei pt sute de mii de randuri; sub acest numar ordonarea e exacta. Peste el raman cele mai
+    //noi :candidates potriviri (id descrescator), aceleasi la fiecare cerere, deci paginile nu se amesteca
+    @Query(value = "SELECT p.* FROM ("
+            + "SELECT m.id FROM properties m "
+            + "WHERE m.is_active AND m.search_vector @@ websearch_to_tsquery('simple', :query) "
+            + "ORDER BY m.id DESC LIMIT :candidates"
+            + ") c JOIN properties p ON p.id = c.id, websearch_to_tsquery('simple', :query) q "
+            + "ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.id "
+            + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Property> searchActive(@Param("query") String query, @Param("candidates") int candidates,
+                                @Param("limit") int limit, @Param("offset") long offset);
 }
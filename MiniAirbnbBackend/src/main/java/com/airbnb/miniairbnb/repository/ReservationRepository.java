@@ -1,23 +1,92 @@
 package com.airbnb.miniairbnb.repository;
 
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.ReservationExportRow;
+import com.airbnb.miniairbnb.dto.ReservationTransitionRow;
 import com.airbnb.miniairbnb.model.Property;
 import com.airbnb.miniairbnb.model.Reservation;
 import com.airbnb.miniairbnb.model.ReservationStatus;
 import com.airbnb.miniairbnb.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+    //listele de rezervari sunt serializate cu proprietatea, host-ul si guest-ul: le incarcam in acelasi query (fara N+1)
+    @EntityGraph(attributePaths = {"property", "property.host", "guest"})
     List<Reservation> findByGuest(User guest); //gaseste toate rezervarile unui guest
 
+    @EntityGraph(attributePaths = {"property", "property.host", "guest"})
     List<Reservation> findByProperty(Property property); //gaseste toate rezervarile pt o proprietate
 
-    List<Reservation> findByPropertyHost(User host); //gaseste rezervarile unui host (prin proprietatile sale)
+    //rezervarile unui host (prin proprietatile sale), citite in flux pt GET /api/reservations/host-reservations (EntityStreamer)
+    @EntityGraph(attributePaths = {"property", "property.host", "guest"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Reservation> streamByPropertyHostOrderById(User host);
+
+    //exportul CSV pt admin (GET /api/admin/exports/reservations): check-in in [from, to], cursor forward-only; intervalul
+    //pe check_in_date limiteaza scanarea la partitiile lunare din interval
+    @Query("SELECT new com.airbnb.miniairbnb.dto.ReservationExportRow(r.id, r.status, r.checkInDate, r.checkOutDate, "
+            + "r.numberOfGuests, r.totalPrice, p.id, p.title, p.city, p.country, h.id, h.email, g.id, g.email, r.createdAt) "
+            + "FROM Reservation r JOIN r.property p JOIN p.host h JOIN r.guest g "
+            + "WHERE r.checkInDate >= :from AND r.checkInDate <= :to AND r.status IN :statuses ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ReservationExportRow> streamExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                  @Param("statuses") Collection<ReservationStatus> statuses);
+
+    @EntityGraph(attributePaths = {"property", "property.host", "guest"})
+    Optional<Reservation> findWithDetailsById(Long id); //rezervarea cu proprietatea, host-ul si guest-ul (verificari de ownership + raspuns)
+
+    //blocheaza randul rezervarii pana la sfarsitul tranzactiei: tranzitiile concurente ale aceleiasi rezervari se
+    //executa pe rand, iar a doua vede statusul lasat de prima (doar randul din reservations, nu si proprietatea/userii)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Reservation r WHERE r.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    //ultima modificare a rezervarii si a entitatilor serializate cu ea (ETag/Last-Modified pt GET /api/reservations/{id})
+    @Query("SELECT new com.airbnb.miniairbnb.dto.ContentVersion(r.updatedAt, p.updatedAt, h.updatedAt, g.updatedAt) "
+            + "FROM Reservation r LEFT JOIN r.property p LEFT JOIN p.host h LEFT JOIN r.guest g WHERE r.id = :id")
+    Optional<ContentVersion> findContentVersionById(@Param("id") Long id);
+
+    //versiunea feed-ului iCal al proprietatii: orice rezervare noua sau schimbata (inclusiv anulata) muta MAX(updated_at)
+    @Query("SELECT new com.airbnb.miniairbnb.dto.ContentVersion(p.updatedAt, MAX(r.updatedAt)) "
+            + "FROM Property p LEFT JOIN Reservation r ON r.property = p WHERE p.id = :propertyId GROUP BY p.id, p.updatedAt")
+    Optional<ContentVersion> findCalendarVersionByPropertyId(@Param("propertyId") Long propertyId);
+
+    //pt feed-ul iCal: doar datele rezervarii, fara proprietate/guest
+    List<Reservation> findByPropertyIdAndStatusInOrderByCheckInDate(Long propertyId, Collection<ReservationStatus> statuses);
+
+    //tranzitii in batch (PUT /api/reservations/batch): toate rezervarile cerute intr-un query, doar coloanele necesare.
+    //Randurile raman blocate pana la commit, ca o tranzitie concurenta sa nu fie raportata (si publicata) de doua ori;
+    //host-ul vine dintr-un subquery, nu dintr-un join, ca lock-ul sa prinda doar randurile din reservations
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.airbnb.miniairbnb.dto.ReservationTransitionRow(r.id, r.status, r.property.id, "
+            + "(SELECT p.host.id FROM Property p WHERE p.id = r.property.id), r.guest.id, r.totalPrice) "
+            + "FROM Reservation r WHERE r.id IN :ids")
+    List<ReservationTransitionRow> findTransitionRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    //un singur UPDATE pt toate rezervarile validate (blocate de findTransitionRowsByIdIn; conditia pe status ramane
+    //ca plasa de siguranta). updated_at se seteaza explicit: UPDATE-ul in masa nu trece prin @PreUpdate (si e versiunea din ETag)
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :target, r.updatedAt = :now WHERE r.id IN :ids AND r.status IN :sources")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("sources") Collection<ReservationStatus> sources,
+                     @Param("target") ReservationStatus target, @Param("now") LocalDateTime now);
 
     List<Reservation> findByStatus(ReservationStatus status); //gaseste rezervari dupa status
 
@@ -25,4 +94,14 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByPropertyAndStatusAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(Property property, ReservationStatus status, LocalDate checkInDate, LocalDate checkOutDate);
 
     Optional<Reservation> findByIdAndGuest(Long id, User guest); //gaseste rezervarea dupa id si guest (pt verificare ownership)
+
+    //exista o rezervare cu unul din statusuri care se suprapune cu [checkInDate, checkOutDate]?
+    //foloseste indexul (property_id, status, check_in_date, check_out_date)
+    boolean existsByPropertyIdAndStatusInAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(
+            Long propertyId, Collection<ReservationStatus> statuses, LocalDate checkOutDate, LocalDate checkInDate);
+
+    @EntityGraph(attributePaths = {"property", "property.host", "guest"})
+    List<Reservation> findByPropertyIdAndStatusIn(Long propertyId, Collection<ReservationStatus> statuses); //rezervarile unei proprietati cu anumite statusuri
+
+    boolean existsByPropertyAndStatusNot(Property property, ReservationStatus status); //exista rezervari ale proprietatii cu alt status decat cel dat?
 }
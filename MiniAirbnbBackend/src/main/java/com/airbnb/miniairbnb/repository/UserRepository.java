@@ -1,20 +1,46 @@
 package com.airbnb.miniairbnb.repository;
 
+import com.airbnb.miniairbnb.config.HibernateCacheConfig;
+import com.airbnb.miniairbnb.dto.UserExportRow;
 import com.airbnb.miniairbnb.model.User;
 import com.airbnb.miniairbnb.model.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email); //metoda pt gasirea utilizatorului dupa email
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.USER_BY_EMAIL_QUERY_REGION)
+    })
+    Optional<User> findByEmail(String email); //metoda pt gasirea utilizatorului dupa email (query cache, apelata la fiecare request)
 
     boolean existsByEmail(String email); //metoda pt verificarea existentei unui email
 
     List<User> findByRole(UserRole role); //metoda pt gasirea tuturor utilizatorilor dupa rol
+
+    //toti utilizatorii, cititi in flux pt GET /api/users (EntityStreamer)
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<User> streamAll();
+
+    //exportul CSV pt admin (GET /api/admin/exports/users): inregistrati in [from, to), cu unul din roluri
+    @Query("SELECT new com.airbnb.miniairbnb.dto.UserExportRow(u.id, u.email, u.firstName, u.lastName, u.role, u.createdAt) "
+            + "FROM User u WHERE u.createdAt >= :from AND u.createdAt < :to AND u.role IN :roles ORDER BY u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserExportRow> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                           @Param("roles") Collection<UserRole> roles);
 }
 
 //extends JpaRepository<User, Long> - User e tipul entitatii si Long e tipul cheii primare
\ No newline at end of file
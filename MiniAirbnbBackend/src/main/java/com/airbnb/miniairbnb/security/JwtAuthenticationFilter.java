@@ -1,5 +1,8 @@
 package com.airbnb.miniairbnb.security;
 
+import com.airbnb.miniairbnb.jfr.JwtAuthenticationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,11 +20,14 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                   UserDetailsService userDetailsService) {
+                                   UserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -39,6 +45,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         //verifica daca token-ul exista si este valid
         if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Timer.Sample sample = Timer.start(meterRegistry); //masoara doar validarea token-ului, nu restul lantului
+            JwtAuthenticationEvent event = new JwtAuthenticationEvent();
+            event.begin();
+            String outcome = "invalid";
             try {
                 String username = jwtTokenProvider.getUsernameFromToken(token); //extrage username din token
 
@@ -55,11 +65,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             );
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication); //seteaza authentication in SecurityContext
+                    outcome = "authenticated";
                 }
             } catch (Exception e) {
                 // Dacă token-ul este invalid sau expirat, curățăm contextul pentru a trata cererea ca anonimă
                 // Rutele permitAll vor funcționa în continuare, cele protejate vor da 401/403 ulterior
                 SecurityContextHolder.clearContext();
+            } finally {
+                sample.stop(Timer.builder("app.security.jwt")
+                        .description("JWT validation and user lookup in JwtAuthenticationFilter")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+                event.outcome = outcome;
+                event.commit();
             }
         }
 
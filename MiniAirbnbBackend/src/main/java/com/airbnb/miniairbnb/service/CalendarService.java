@@ -0,0 +1,25 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.calendar.CalendarEvent;
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import com.airbnb.miniairbnb.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CalendarService {
+    Optional<ContentVersion> findCalendarVersion(Long propertyId); //versiunea feed-ului iCal (ETag), gol daca proprietatea nu exista
+
+    String exportCalendar(Long propertyId); //feed-ul iCal al proprietatii: rezervarile PENDING si CONFIRMED
+
+    List<ExternalCalendar> findExternalCalendars(Long propertyId, User currentUser); //calendarele importate (doar owner-ul sau ADMIN)
+
+    ExternalCalendar addExternalCalendar(Long propertyId, String url, User currentUser); //adauga un calendar de importat (doar owner-ul sau ADMIN)
+
+    void removeExternalCalendar(Long propertyId, Long calendarId, User currentUser); //sterge calendarul si blocurile lui (doar owner-ul sau ADMIN)
+
+    int replaceBlocks(Long calendarId, List<CalendarEvent> events); //inlocuieste blocurile calendarului cu evenimentele importate
+
+    void recordSyncFailure(Long calendarId, String error); //sincronizarea a esuat: blocurile vechi raman
+}
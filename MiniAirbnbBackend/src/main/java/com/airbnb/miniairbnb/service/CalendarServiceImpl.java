@@ -0,0 +1,161 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.calendar.CalendarEvent;
+import com.airbnb.miniairbnb.calendar.CalendarSource;
+import com.airbnb.miniairbnb.calendar.ICalendarWriter;
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.exception.NotFoundException;
+import com.airbnb.miniairbnb.exception.PermissionDeniedException;
+import com.airbnb.miniairbnb.model.CalendarBlock;
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.CalendarBlockRepository;
+import com.airbnb.miniairbnb.repository.ExternalCalendarRepository;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+@Timed(value = "app.service", description = "Service method latency")
+public class CalendarServiceImpl implements CalendarService {
+    private static final Logger log = LoggerFactory.getLogger(CalendarServiceImpl.class);
+
+    private final PropertyRepository propertyRepository;
+    private final ReservationRepository reservationRepository;
+    private final ExternalCalendarRepository externalCalendarRepository;
+    private final CalendarBlockRepository calendarBlockRepository;
+    private final CalendarSource calendarSource;
+
+    @Value("${app.calendar-import.max-calendars-per-property:10}")
+    private int maxCalendarsPerProperty;
+
+    public CalendarServiceImpl(PropertyRepository propertyRepository, ReservationRepository reservationRepository,
+                               ExternalCalendarRepository externalCalendarRepository,
+                               CalendarBlockRepository calendarBlockRepository, CalendarSource calendarSource) {
+        this.propertyRepository = propertyRepository;
+        this.reservationRepository = reservationRepository;
+        this.externalCalendarRepository = externalCalendarRepository;
+        this.calendarBlockRepository = calendarBlockRepository;
+        this.calendarSource = calendarSource;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ContentVersion> findCalendarVersion(Long propertyId) {
+        return reservationRepository.findCalendarVersionByPropertyId(propertyId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String exportCalendar(Long propertyId) {
+        ICalendarWriter calendar = new ICalendarWriter();
+        for (Reservation reservation : reservationRepository.findByPropertyIdAndStatusInOrderByCheckInDate(
+                propertyId, ReservationServiceImpl.BLOCKING_STATUSES)) {
+            LocalDateTime stamp = reservation.getUpdatedAt() != null ? reservation.getUpdatedAt() : reservation.getCreatedAt();
+            calendar.event("reservation-" + reservation.getId() + "@mini-airbnb", reservation.getCheckInDate(),
+                    reservation.getCheckOutDate(), reservation.getStatus() == ReservationStatus.PENDING,
+                    stamp != null ? stamp : reservation.getCheckInDate().atStartOfDay());
+        }
+        return calendar.finish();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExternalCalendar> findExternalCalendars(Long propertyId, User currentUser) {
+        checkCanManage(propertyId, currentUser);
+        return externalCalendarRepository.findByPropertyIdOrderById(propertyId);
+    }
+
+    @Override
+    public ExternalCalendar addExternalCalendar(Long propertyId, String url, User currentUser) {
+        Property property = checkCanManage(propertyId, currentUser);
+        if (url == null || url.isBlank()) {
+            throw new InvalidRequestException("Calendar URL is required");
+        }
+        try {
+            calendarSource.validate(url);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+        if (externalCalendarRepository.findByPropertyIdOrderById(propertyId).size() >= maxCalendarsPerProperty) {
+            throw new InvalidRequestException("A property can import at most " + maxCalendarsPerProperty + " calendars");
+        }
+
+        ExternalCalendar calendar = new ExternalCalendar();
+        calendar.setProperty(property);
+        calendar.setUrl(url.trim());
+        return externalCalendarRepository.save(calendar); //primele blocuri vin la urmatoarea rulare a ExternalCalendarSyncJob
+    }
+
+    @Override
+    public void removeExternalCalendar(Long propertyId, Long calendarId, User currentUser) {
+        checkCanManage(propertyId, currentUser);
+        ExternalCalendar calendar = externalCalendarRepository.findByIdAndPropertyId(calendarId, propertyId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found with id: " + calendarId));
+        calendarBlockRepository.deleteByCalendar(calendar);
+        externalCalendarRepository.delete(calendar);
+    }
+
+    @Override
+    public int replaceBlocks(Long calendarId, List<CalendarEvent> events) {
+        ExternalCalendar calendar = externalCalendarRepository.findById(calendarId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found with id: " + calendarId));
+        Long propertyId = calendar.getProperty().getId();
+        //acelasi lock ca in createReservation: o rezervare nu poate trece de verificare in timp ce blocurile se schimba
+        propertyRepository.findByIdForUpdate(propertyId);
+
+        LocalDate today = LocalDate.now();
+        List<CalendarBlock> blocks = new ArrayList<>();
+        for (CalendarEvent event : events) {
+            if (!event.end().isAfter(today)) {
+                continue; //evenimentele trecute nu mai blocheaza nimic
+            }
+            CalendarBlock block = new CalendarBlock();
+            block.setCalendar(calendar);
+            block.setPropertyId(propertyId);
+            block.setUid(event.uid() != null && event.uid().length() > 255 ? event.uid().substring(0, 255) : event.uid());
+            block.setStartDate(event.start());
+            block.setEndDate(event.end());
+            blocks.add(block);
+        }
+        calendarBlockRepository.deleteByCalendar(calendar);
+        calendarBlockRepository.saveAll(blocks);
+        calendar.setLastSyncedAt(LocalDateTime.now());
+        calendar.setLastError(null);
+        log.debug("Calendar {} of property {} synced: {} blocks", calendarId, propertyId, blocks.size());
+        return blocks.size();
+    }
+
+    @Override
+    public void recordSyncFailure(Long calendarId, String error) {
+        externalCalendarRepository.findById(calendarId).ifPresent(calendar ->
+                calendar.setLastError(error == null || error.length() <= 1000 ? error : error.substring(0, 1000)));
+    }
+
+    //doar host-ul proprietatii sau ADMIN gestioneaza calendarele importate
+    private Property checkCanManage(Long propertyId, User currentUser) {
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
+        if (!property.getHost().getId().equals(currentUser.getId()) && currentUser.getRole() != UserRole.ROLE_ADMIN) {
+            throw new PermissionDeniedException("You don't have permission to manage the calendars of this property");
+        }
+        return property;
+    }
+}
@@ -0,0 +1,64 @@
+package com.airbnb.miniairbnb.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+//scrie CSV (RFC 4180) inregistrare cu inregistrare, perechea lui CsvRecordReader; null devine camp gol, campurile cu
+//virgule, ghilimele sau linii noi sunt puse intre ghilimele. Nu face buffering: writer-ul primit trebuie sa fie buffered.
+//Exporturile se deschid in Excel: un text introdus de utilizatori (titlu, nume, email) care incepe cu = + - @ tab sau CR
+//ar fi executat ca formula, deci primeste prefixul ' si ghilimele. Numerele, datele si enum-urile raman neschimbate
+class CsvRecordWriter {
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final Writer writer;
+
+    CsvRecordWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] instanceof CharSequence text) {
+                writeText(text.toString());
+            } else if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeText(String value) throws IOException {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            writeQuoted("'" + value);
+        } else {
+            writeField(value);
+        }
+    }
+
+    private void writeField(String value) throws IOException {
+        if (needsQuotes(value)) {
+            writeQuoted(value);
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
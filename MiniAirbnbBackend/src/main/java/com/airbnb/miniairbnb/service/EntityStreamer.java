@@ -0,0 +1,54 @@
+package com.airbnb.miniairbnb.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+//trece randurile unui Stream din repository (cursor JDBC forward-only, citit cu fetch size) la consumer in ferestre de
+//WINDOW entitati: fereastra sta in persistence context cat se serializeaza, ca @BatchSize(50) sa incarce colectiile
+//lazy (ex. imaginile) intr-un query pe fereastra, apoi contextul se goleste. Memoria nu creste cu numarul de randuri.
+//Trebuie apelat intr-o tranzactie (PostgreSQL tine cursorul deschis doar cu autocommit oprit)
+@Component
+public class EntityStreamer {
+    static final int WINDOW = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> long forEach(Stream<T> rows, Consumer<? super T> consumer) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE); //o parcurgere completa nu are voie sa scoata din second-level cache datele calde
+        long count = 0;
+        List<T> window = new ArrayList<>(WINDOW);
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) { //hasNext citeste deja randul urmator: se apeleaza doar dupa golirea contextului
+                window.add(iterator.next());
+                if (window.size() == WINDOW) {
+                    count += flush(window, consumer, session);
+                }
+            }
+            count += flush(window, consumer, session);
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        return count;
+    }
+
+    private static <T> int flush(List<T> window, Consumer<? super T> consumer, Session session) {
+        int size = window.size();
+        window.forEach(consumer);
+        window.clear();
+        session.clear();
+        return size;
+    }
+}
@@ -0,0 +1,16 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.UserRole;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.Set;
+
+//exporturile CSV pt admin; intervalele sunt inclusive, null = fara limita, setul gol = toate valorile. Intorc numarul de randuri
+public interface ExportService {
+    long exportReservationsCsv(LocalDate from, LocalDate to, Set<ReservationStatus> statuses, Writer writer) throws IOException; //rezervarile cu check-in in interval, inclusiv cele arhivate
+
+    long exportUsersCsv(LocalDate from, LocalDate to, Set<UserRole> roles, Writer writer) throws IOException; //utilizatorii inregistrati in interval
+}
@@ -0,0 +1,115 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.dto.ReservationExportRow;
+import com.airbnb.miniairbnb.dto.UserExportRow;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.ArchivedReservationRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+//randurile vin dintr-un cursor forward-only ca proiectii (nu entitati) si sunt scrise imediat in writer: memoria nu
+//depinde de numarul de randuri. Tranzactia (read-only, pe replica) tine cursorul deschis pana la ultimul rand
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "app.service", description = "Service method latency")
+public class ExportServiceImpl implements ExportService {
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final LocalDate EARLIEST = LocalDate.EPOCH;
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final ReservationRepository reservationRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final UserRepository userRepository;
+
+    public ExportServiceImpl(ReservationRepository reservationRepository,
+                             ArchivedReservationRepository archivedReservationRepository, UserRepository userRepository) {
+        this.reservationRepository = reservationRepository;
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public long exportReservationsCsv(LocalDate from, LocalDate to, Set<ReservationStatus> statuses, Writer writer)
+            throws IOException {
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        csv.writeRecord("id", "status", "checkInDate", "checkOutDate", "numberOfGuests", "totalPrice", "propertyId",
+                "propertyTitle", "propertyCity", "propertyCountry", "hostId", "hostEmail", "guestId", "guestEmail",
+                "createdAt");
+        //intai rezervarile din tabela activa, apoi cele mutate in reservations_archive de ReservationArchiveJob
+        //(sejururile terminate de peste un an); fiecare parte e ordonata dupa id
+        LocalDate start = orEarliest(from);
+        LocalDate end = orLatest(to);
+        Set<ReservationStatus> included = orAll(statuses, ReservationStatus.class);
+        long count;
+        try (Stream<ReservationExportRow> rows = reservationRepository.streamExportRows(start, end, included)) {
+            count = writeReservationRows(rows, csv);
+        }
+        try (Stream<ReservationExportRow> rows = archivedReservationRepository.streamExportRows(start, end, included)) {
+            count += writeReservationRows(rows, csv);
+        }
+        writer.flush();
+        log.info("Reservation export finished: {} rows", count);
+        return count;
+    }
+
+    private static long writeReservationRows(Stream<ReservationExportRow> rows, CsvRecordWriter csv) throws IOException {
+        long count = 0;
+        Iterator<ReservationExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            ReservationExportRow row = iterator.next();
+            csv.writeRecord(row.id(), row.status(), row.checkInDate(), row.checkOutDate(), row.numberOfGuests(),
+                    row.totalPrice(), row.propertyId(), row.propertyTitle(), row.propertyCity(),
+                    row.propertyCountry(), row.hostId(), row.hostEmail(), row.guestId(), row.guestEmail(),
+                    row.createdAt());
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long exportUsersCsv(LocalDate from, LocalDate to, Set<UserRole> roles, Writer writer) throws IOException {
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        csv.writeRecord("id", "email", "firstName", "lastName", "role", "createdAt");
+        long count = 0;
+        //createdAt e timestamp: ziua "to" intra intreaga
+        try (Stream<UserExportRow> rows = userRepository.streamExportRows(orEarliest(from).atStartOfDay(),
+                orLatest(to).plusDays(1).atStartOfDay(), orAll(roles, UserRole.class))) {
+            Iterator<UserExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                UserExportRow row = iterator.next();
+                csv.writeRecord(row.id(), row.email(), row.firstName(), row.lastName(), row.role(), row.createdAt());
+                count++;
+            }
+        }
+        writer.flush();
+        log.info("User export finished: {} rows", count);
+        return count;
+    }
+
+    private static LocalDate orEarliest(LocalDate date) {
+        return date != null ? date : EARLIEST;
+    }
+
+    private static LocalDate orLatest(LocalDate date) {
+        return date != null ? date : LATEST;
+    }
+
+    private static <E extends Enum<E>> Set<E> orAll(Set<E> values, Class<E> type) {
+        return values == null || values.isEmpty() ? EnumSet.allOf(type) : values;
+    }
+}
@@ -0,0 +1,82 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.calendar.CalendarEvent;
+import com.airbnb.miniairbnb.calendar.CalendarSource;
+import com.airbnb.miniairbnb.calendar.ICalendarParser;
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import com.airbnb.miniairbnb.repository.ExternalCalendarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+//job periodic: descarca fiecare calendar iCal extern si ii inlocuieste blocurile. Descarcarea se face in afara
+//tranzactiei (un server lent nu tine conexiuni si lock-uri); doar inlocuirea blocurilor e o tranzactie, per calendar.
+//Un calendar care nu poate fi citit isi pastreaza blocurile vechi si primeste last_error
+@Component
+public class ExternalCalendarSyncJob {
+    private static final Logger log = LoggerFactory.getLogger(ExternalCalendarSyncJob.class);
+    private static final String DOWNLOAD_FAILED = "Calendar could not be downloaded";
+
+    private final ExternalCalendarRepository externalCalendarRepository;
+    private final CalendarService calendarService;
+    private final CalendarSource calendarSource;
+
+    public ExternalCalendarSyncJob(ExternalCalendarRepository externalCalendarRepository, CalendarService calendarService,
+                                   CalendarSource calendarSource) {
+        this.externalCalendarRepository = externalCalendarRepository;
+        this.calendarService = calendarService;
+        this.calendarSource = calendarSource;
+    }
+
+    @Scheduled(fixedDelayString = "${app.calendar-import.interval:PT15M}",
+            initialDelayString = "${app.calendar-import.initial-delay:PT1M}")
+    public void run() {
+        List<Long> ids = externalCalendarRepository.findAllIds();
+        int synced = 0;
+        for (Long id : ids) {
+            if (sync(id)) {
+                synced++;
+            }
+        }
+        log.info("Synced {} of {} external calendars", synced, ids.size());
+    }
+
+    //true daca blocurile au fost inlocuite
+    public boolean sync(Long calendarId) {
+        Optional<ExternalCalendar> calendar = externalCalendarRepository.findById(calendarId);
+        if (calendar.isEmpty()) {
+            return false; //sters intre timp
+        }
+        String url = calendar.get().getUrl();
+        String content;
+        try {
+            content = calendarSource.fetch(url);
+        } catch (IOException | IllegalArgumentException e) {
+            //last_error e vizibil host-ului: detaliile (adrese, porturi, statusuri HTTP) raman doar in log
+            log.warn("External calendar {} ({}) could not be downloaded: {}", calendarId, url, e.getMessage());
+            calendarService.recordSyncFailure(calendarId, DOWNLOAD_FAILED);
+            return false;
+        }
+        List<CalendarEvent> events;
+        try {
+            events = ICalendarParser.parse(new StringReader(content));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("External calendar {} ({}) could not be parsed: {}", calendarId, url, e.getMessage());
+            calendarService.recordSyncFailure(calendarId, e.getMessage()); //mesajele parser-ului descriu doar continutul
+            return false;
+        }
+        try {
+            calendarService.replaceBlocks(calendarId, events);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("External calendar {} ({}) could not be saved", calendarId, url, e);
+            return false;
+        }
+    }
+}
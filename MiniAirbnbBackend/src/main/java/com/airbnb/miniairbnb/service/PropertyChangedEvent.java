@@ -0,0 +1,26 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.model.Property;
+
+//publicat de PropertyServiceImpl si PropertyImportServiceImpl la fiecare scriere a unei proprietati;
+//indecsii din memorie il primesc dupa commit (@TransactionalEventListener), deci vad doar date salvate.
+//property e null pt o proprietate stearsa; previousCity/previousCountry sunt orasul si tara de dinainte de scriere
+//(null pt o proprietate noua), ca un cache pe oras/tara sa stie si de unde a plecat proprietatea
+public record PropertyChangedEvent(Long propertyId, Property property, String previousCity, String previousCountry) {
+
+    public static PropertyChangedEvent saved(Property property) {
+        return new PropertyChangedEvent(property.getId(), property, null, null);
+    }
+
+    public static PropertyChangedEvent updated(Property property, String previousCity, String previousCountry) {
+        return new PropertyChangedEvent(property.getId(), property, previousCity, previousCountry);
+    }
+
+    public static PropertyChangedEvent deleted(Property property) {
+        return new PropertyChangedEvent(property.getId(), null, property.getCity(), property.getCountry());
+    }
+
+    public boolean isDeleted() {
+        return property == null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.dto.PropertyImportResult;
+import com.airbnb.miniairbnb.model.User;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface PropertyImportService {
+    PropertyImportResult importCsv(Reader reader, User host) throws IOException; //import CSV cu header (coloanele = campurile Property)
+
+    PropertyImportResult importJsonLines(Reader reader, User host) throws IOException; //import JSON lines: un obiect Property pe linie
+}
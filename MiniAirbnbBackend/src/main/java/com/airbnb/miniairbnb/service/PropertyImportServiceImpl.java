@@ -0,0 +1,279 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.dto.PropertyImportResult;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.exception.PermissionDeniedException;
+import com.airbnb.miniairbnb.model.DomainEventType;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.outbox.OutboxPublisher;
+import com.airbnb.miniairbnb.outbox.PropertyEventPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//importul nu foloseste @Transactional pe clasa: fiecare lot de randuri e o tranzactie separata,
+//astfel un fisier mare nu tine o tranzactie (si un persistence context) deschisa pana la final
+@Service
+@Timed(value = "app.service", description = "Service method latency")
+public class PropertyImportServiceImpl implements PropertyImportService {
+    private static final Logger log = LoggerFactory.getLogger(PropertyImportServiceImpl.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("title", "description", "address", "city", "country",
+            "pricePerNight", "bedrooms", "bathrooms", "maxGuests", "latitude", "longitude", "imageUrls");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader propertyReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxPublisher outboxPublisher;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize; //randuri per tranzactie (multiplu de hibernate.jdbc.batch_size)
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public PropertyImportServiceImpl(TransactionTemplate transactionTemplate, Validator validator, ObjectMapper objectMapper,
+                                     ApplicationEventPublisher eventPublisher, OutboxPublisher outboxPublisher) {
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.propertyReader = objectMapper.readerFor(Property.class);
+        this.eventPublisher = eventPublisher;
+        this.outboxPublisher = outboxPublisher;
+    }
+
+    @Override
+    public PropertyImportResult importCsv(Reader reader, User host) throws IOException {
+        checkCanImport(host);
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new InvalidRequestException("CSV file is empty");
+        }
+        String[] columns = resolveColumns(header);
+
+        Import result = new Import(host);
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            long line = csv.getRecordLine();
+            try {
+                result.add(line, propertyFromCsv(columns, record));
+            } catch (IllegalArgumentException e) {
+                result.reject(line, e.getMessage());
+            }
+        }
+        return result.finish();
+    }
+
+    @Override
+    public PropertyImportResult importJsonLines(Reader reader, User host) throws IOException {
+        checkCanImport(host);
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+
+        Import result = new Import(host);
+        String json;
+        long line = 0;
+        while ((json = lines.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            try {
+                result.add(line, propertyReader.readValue(json));
+            } catch (JsonProcessingException e) {
+                result.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return result.finish();
+    }
+
+    private void checkCanImport(User host) {
+        if (host.getRole() != UserRole.ROLE_HOST && host.getRole() != UserRole.ROLE_ADMIN) {
+            throw new PermissionDeniedException("Only HOST or ADMIN can import properties");
+        }
+    }
+
+    //numele coloanelor din header (case-insensitive, ordinea e libera); o coloana necunoscuta respinge tot fisierul
+    private String[] resolveColumns(List<String> header) {
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            columns[i] = CSV_COLUMNS.stream()
+                    .filter(column -> column.equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestException("Unknown CSV column: " + name
+                            + " (expected " + String.join(", ", CSV_COLUMNS) + ")"));
+        }
+        return columns;
+    }
+
+    private Property propertyFromCsv(String[] columns, List<String> record) {
+        if (record.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " columns but found " + record.size());
+        }
+        Property property = new Property();
+        for (int i = 0; i < columns.length; i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue; //campurile obligatorii lipsa sunt raportate de validare
+            }
+            switch (columns[i]) {
+                case "title" -> property.setTitle(value);
+                case "description" -> property.setDescription(value);
+                case "address" -> property.setAddress(value);
+                case "city" -> property.setCity(value);
+                case "country" -> property.setCountry(value);
+                case "pricePerNight" -> property.setPricePerNight(parseDecimal(columns[i], value));
+                case "bedrooms" -> property.setBedrooms(parseInt(columns[i], value));
+                case "bathrooms" -> property.setBathrooms(parseInt(columns[i], value));
+                case "maxGuests" -> property.setMaxGuests(parseInt(columns[i], value));
+                case "latitude" -> property.setLatitude(parseDecimal(columns[i], value).doubleValue());
+                case "longitude" -> property.setLongitude(parseDecimal(columns[i], value).doubleValue());
+                case "imageUrls" -> property.setImageUrls(Arrays.stream(value.split("\\|")) //mai multe url-uri separate prin |
+                        .map(String::trim)
+                        .filter(url -> !url.isEmpty())
+                        .collect(Collectors.toList()));
+                default -> throw new IllegalStateException(columns[i]);
+            }
+        }
+        return property;
+    }
+
+    private static BigDecimal parseDecimal(String column, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + column + ": '" + value + "'");
+        }
+    }
+
+    private static Integer parseInt(String column, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + column + ": '" + value + "'");
+        }
+    }
+
+    //randurile valide sunt strinse in loturi de chunkSize si scrise intr-o tranzactie fiecare
+    private class Import {
+        private final User host;
+        private final PropertyImportResult result = new PropertyImportResult();
+        private final List<Row> pending = new ArrayList<>();
+
+        Import(User host) {
+            this.host = host;
+        }
+
+        void add(long line, Property property) {
+            property.setId(null);
+            property.setHost(host);
+            property.setIsActive(true); //implicit activa, ca la createProperty
+
+            List<String> violations = validator.validate(property).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            if (!violations.isEmpty()) {
+                reject(line, String.join("; ", violations));
+                return;
+            }
+            pending.add(new Row(line, property));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new PropertyImportResult.RowError(line, message));
+            }
+        }
+
+        PropertyImportResult finish() {
+            flush();
+            log.info("Imported {} properties for host {} ({} rows rejected)",
+                    result.getImported(), host.getId(), result.getFailed());
+            return result;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(pending));
+                result.setImported(result.getImported() + pending.size());
+            } catch (RuntimeException e) {
+                //lotul a fost anulat: fiecare rand e reincercat singur ca sa aflam care e problema
+                for (Row row : pending) {
+                    row.property().setId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> persist(List.of(row)));
+                        result.setImported(result.getImported() + 1);
+                    } catch (RuntimeException rowError) {
+                        reject(row.line(), "Could not save row: " + rootMessage(rowError));
+                    }
+                }
+            }
+            pending.clear();
+        }
+
+        private void persist(List<Row> rows) {
+            Session session = entityManager.unwrap(Session.class);
+            //proprietatile importate nu sunt puse in second-level cache: ar goli regiunea de intrarile folosite
+            session.setCacheMode(CacheMode.IGNORE);
+            User hostReference = entityManager.getReference(User.class, host.getId());
+            for (Row row : rows) {
+                row.property().setHost(hostReference);
+                entityManager.persist(row.property());
+                //evenimentul pt outbox intra in acelasi flush (insert-urile sunt grupate pe tabela)
+                outboxPublisher.publish(DomainEventType.PROPERTY_CREATED, row.property().getId(), PropertyEventPayload.of(row.property()));
+            }
+            entityManager.flush(); //insert-urile pleaca in batch-uri de hibernate.jdbc.batch_size
+            entityManager.clear();
+            for (Row row : rows) {
+                eventPublisher.publishEvent(PropertyChangedEvent.saved(row.property())); //livrate doar daca lotul face commit
+            }
+        }
+    }
+
+    private record Row(long line, Property property) {
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
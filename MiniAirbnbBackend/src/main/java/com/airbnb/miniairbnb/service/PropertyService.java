@@ -1,10 +1,19 @@
 package com.airbnb.miniairbnb.service;
 
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.LocationSuggestion;
+import com.airbnb.miniairbnb.dto.NearbyProperty;
+import com.airbnb.miniairbnb.dto.PropertyListingFilter;
+import com.airbnb.miniairbnb.dto.PropertyListingResult;
+import com.airbnb.miniairbnb.dto.PropertySearchResult;
 import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.PropertyBookingStats;
 import com.airbnb.miniairbnb.model.User;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PropertyService {
     Property createProperty(Property property, User host); //creeaza o proprietate noua (doar pt host sau admin)
@@ -13,11 +22,19 @@ public interface PropertyService {
 
     void deleteProperty(Long propertyId, User currentUser); //sterge o proprietate (doar owner-ul sau ADMIN
 
+    PropertyBookingStats findBookingStats(Long propertyId, User currentUser); //agregatele rezervarilor, din outbox (doar owner-ul sau ADMIN)
+
     Optional<Property> findPropertyById(Long id);//gaseste proprietatea dupa id
 
+    Optional<ContentVersion> findPropertyVersion(Long id); //versiunea raspunsului pt id (fara incarcarea entitatii)
+
     List<Property> findAllActiveProperties(); //gaseste toate proprietatile active (pt guest)
 
-    List<Property> findAllProperties(); //gaseste toate proprietatile (pt ADMIN)
+    List<Property> findActiveProperties(PropertyListingFilter filter); //proprietati active filtrate si sortate (din catalogul din memorie)
+
+    PropertyListingResult findActivePropertiesWithFacets(PropertyListingFilter filter); //la fel, plus numaratorile pe oras, pret, dormitoare etc.
+
+    long streamAllProperties(Consumer<Property> consumer); //toate proprietatile, una cate una, fara lista in memorie (pt ADMIN)
 
     List<Property> findPropertiesByHost(User host); //gaseste toate proprietatile unui host
 
@@ -25,5 +42,15 @@ public interface PropertyService {
 
     List<Property> findActivePropertiesByCountry(String country); //filtrare proprietati active dupa tara
 
+    PropertySearchResult searchActiveProperties(String query, int page, int size); //cautare full-text in proprietatile active, paginata
+
+    List<NearbyProperty> findActivePropertiesNearby(double latitude, double longitude, double radiusKm, BigDecimal minPrice,
+                                                    BigDecimal maxPrice, Integer guests, int limit); //proprietati active pe o raza, cele mai apropiate primele
+
+    List<Property> findActivePropertiesWithin(double south, double west, double north, double east, BigDecimal minPrice,
+                                              BigDecimal maxPrice, Integer guests, int limit); //proprietati active din viewport-ul hartii
+
+    List<LocationSuggestion> suggestLocations(String prefix, String type, int limit); //orase/tari care incep cu prefixul, cele mai populare primele
+
     boolean isPropertyOwner(Long propertyId, User user); //verifica daca utilizatorul este owner-ul proprietatii
 }
@@ -1,49 +1,119 @@
 package com.airbnb.miniairbnb.service;
 
+import com.airbnb.miniairbnb.catalog.ListingCriteria;
+import com.airbnb.miniairbnb.catalog.ListingFacets;
+import com.airbnb.miniairbnb.catalog.PropertyCatalog;
+import com.airbnb.miniairbnb.datasource.ReplicaAwareTransactionManager;
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.LocationSuggestion;
+import com.airbnb.miniairbnb.dto.NearbyProperty;
+import com.airbnb.miniairbnb.dto.PropertyListingFilter;
+import com.airbnb.miniairbnb.dto.PropertyListingResult;
+import com.airbnb.miniairbnb.dto.PropertySearchResult;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.exception.NotFoundException;
+import com.airbnb.miniairbnb.exception.PermissionDeniedException;
+import com.airbnb.miniairbnb.geo.GeoGridIndex;
+import com.airbnb.miniairbnb.geo.PropertyGeoIndex;
+import com.airbnb.miniairbnb.model.DomainEventType;
 import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.PropertyBookingStats;
 import com.airbnb.miniairbnb.model.User;
 import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.outbox.OutboxPublisher;
+import com.airbnb.miniairbnb.outbox.PropertyEventPayload;
+import com.airbnb.miniairbnb.repository.PropertyBookingStatsRepository;
 import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.suggest.LocationSuggestIndex;
+import com.airbnb.miniairbnb.suggest.LocationTrie;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
+@Timed(value = "app.service", description = "Service method latency")
 public class PropertyServiceImpl implements PropertyService {
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final double MAX_NEARBY_RADIUS_KM = 200;
+    private static final int MAX_NEARBY_RESULTS = 500;
+    private static final int MAX_VIEWPORT_RESULTS = 2000;
+    private static final int LOAD_CHUNK_SIZE = 500; //id-uri per query IN (PostgreSQL accepta cel mult 65535 parametri)
+
+    @Value("${app.search.max-ranked-matches:5000}")
+    private int maxRankedMatches; //~40 ms pe un core la 1M proprietati, indiferent cat de comun e termenul
+
     private final PropertyRepository propertyRepository;
     private final com.airbnb.miniairbnb.repository.ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PropertyGeoIndex geoIndex;
+    private final PropertyCatalog propertyCatalog;
+    private final LocationSuggestIndex locationSuggestIndex;
+    private final EntityStreamer entityStreamer;
+    private final OutboxPublisher outboxPublisher;
+    private final PropertyBookingStatsRepository bookingStatsRepository;
 
     public PropertyServiceImpl(PropertyRepository propertyRepository, 
-                               com.airbnb.miniairbnb.repository.ReservationRepository reservationRepository) {
+                               com.airbnb.miniairbnb.repository.ReservationRepository reservationRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PropertyGeoIndex geoIndex,
+                               PropertyCatalog propertyCatalog,
+                               LocationSuggestIndex locationSuggestIndex,
+                               EntityStreamer entityStreamer,
+                               OutboxPublisher outboxPublisher,
+                               PropertyBookingStatsRepository bookingStatsRepository) {
         this.propertyRepository = propertyRepository;
         this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.geoIndex = geoIndex;
+        this.propertyCatalog = propertyCatalog;
+        this.locationSuggestIndex = locationSuggestIndex;
+        this.entityStreamer = entityStreamer;
+        this.outboxPublisher = outboxPublisher;
+        this.bookingStatsRepository = bookingStatsRepository;
     }
 
     @Override
     public Property createProperty(Property property, User host){
         //verifica daca utilizatorul este host sau ADMIN
         if(host.getRole() != UserRole.ROLE_HOST && host.getRole() != UserRole.ROLE_ADMIN){
-            throw new RuntimeException("Only HOST or ADMIN can create properties");
+            throw new PermissionDeniedException("Only HOST or ADMIN can create properties");
         }
 
         //seteaza host-ul proprietatii
         property.setHost(host);
         property.setIsActive(true); //Implicit activa
 
-        return propertyRepository.save(property);
+        Property saved = propertyRepository.save(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.saved(saved)); //actualizeaza indecsii din memorie dupa commit
+        outboxPublisher.publish(DomainEventType.PROPERTY_CREATED, saved.getId(), PropertyEventPayload.of(saved));
+        return saved;
     }
 
     @Override
     public Property updateProperty(Long propertyId, Property propertyDetails, User currentUser){
-        Property existingProperty = propertyRepository.findById(propertyId).orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId));
+        Property existingProperty = propertyRepository.findById(propertyId).orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
 
         //verifica ownership sau daca este admin
         if(!isPropertyOwner(propertyId, currentUser) && currentUser.getRole() != UserRole.ROLE_ADMIN){
-            throw new RuntimeException("You don't have permission to update this property");
+            throw new PermissionDeniedException("You don't have permission to update this property");
         }
+        String previousCity = existingProperty.getCity();
+        String previousCountry = existingProperty.getCountry();
 
         //actualizeaza campurile (pastreaza host-ul original)
         if (propertyDetails.getTitle() != null) {
@@ -73,34 +143,51 @@ public class PropertyServiceImpl implements PropertyService {
         if (propertyDetails.getMaxGuests() != null) {
             existingProperty.setMaxGuests(propertyDetails.getMaxGuests());
         }
+        if (propertyDetails.getLatitude() != null && propertyDetails.getLongitude() != null) {
+            existingProperty.setLatitude(propertyDetails.getLatitude());
+            existingProperty.setLongitude(propertyDetails.getLongitude());
+        }
         if (propertyDetails.getIsActive() != null) {
             existingProperty.setIsActive(propertyDetails.getIsActive());
         }
         if (propertyDetails.getImageUrls() != null) {
             existingProperty.setImageUrls(propertyDetails.getImageUrls());
+            existingProperty.setUpdatedAt(LocalDateTime.now()); //schimbarea colectiei nu declanseaza @PreUpdate; updatedAt e versiunea din ETag
         }
 
-        return propertyRepository.save(existingProperty);
+        Property saved = propertyRepository.save(existingProperty);
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(saved, previousCity, previousCountry));
+        outboxPublisher.publish(DomainEventType.PROPERTY_UPDATED, saved.getId(), PropertyEventPayload.of(saved));
+        return saved;
     }
 
     @Override
     public void deleteProperty(Long propertyId, User currentUser){
-        Property property = propertyRepository.findById(propertyId).orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId));
+        Property property = propertyRepository.findById(propertyId).orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
 
         if(!isPropertyOwner(propertyId, currentUser) && currentUser.getRole() != UserRole.ROLE_ADMIN){
-            throw new RuntimeException("You don't have permission to delete this property");
+            throw new PermissionDeniedException("You don't have permission to delete this property");
         }
 
         // Verificăm dacă există rezervări (în afara celor anulate)
-        long activeReservations = reservationRepository.findByProperty(property).stream()
-                .filter(r -> r.getStatus() != com.airbnb.miniairbnb.model.ReservationStatus.CANCELLED)
-                .count();
-
-        if (activeReservations > 0) {
-            throw new RuntimeException("Această proprietate are rezervări active sau finalizate și nu poate fi ștearsă. Poți în schimb să o dezactivezi.");
+        if (reservationRepository.existsByPropertyAndStatusNot(property, com.airbnb.miniairbnb.model.ReservationStatus.CANCELLED)) {
+            throw new InvalidRequestException("Această proprietate are rezervări active sau finalizate și nu poate fi ștearsă. Poți în schimb să o dezactivezi.");
         }
 
         propertyRepository.delete(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.deleted(property));
+        outboxPublisher.publish(DomainEventType.PROPERTY_DELETED, property.getId(), PropertyEventPayload.of(property));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PropertyBookingStats findBookingStats(Long propertyId, User currentUser) {
+        Property property = propertyRepository.findById(propertyId).orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
+        if (!property.getHost().getId().equals(currentUser.getId()) && currentUser.getRole() != UserRole.ROLE_ADMIN) {
+            throw new PermissionDeniedException("You don't have permission to view the statistics of this property");
+        }
+        //fara rand inca: nicio rezervare livrata de outbox
+        return bookingStatsRepository.findById(propertyId).orElseGet(() -> new PropertyBookingStats(propertyId));
     }
 
     @Override
@@ -109,16 +196,60 @@ public class PropertyServiceImpl implements PropertyService {
         return propertyRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true, label = ReplicaAwareTransactionManager.PRIMARY_LABEL) //query cacheable: citit de pe primary, nu de pe replica
+    public Optional<ContentVersion> findPropertyVersion(Long id) {
+        return propertyRepository.findContentVersionById(id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Property> findAllActiveProperties() {
         return propertyRepository.findByIsActiveTrue();
     }
 
+    //filtrarea si sortarea se fac in catalogul din memorie; din baza de date se incarca doar rezultatele, dupa id
+    //(cel mult ListingCriteria.MAX_LIMIT). Fara catalog, lista vine din query-urile dupa oras/tara si e filtrata aici
     @Override
     @Transactional(readOnly = true)
-    public List<Property> findAllProperties() {
-        return propertyRepository.findAll();
+    public List<Property> findActiveProperties(PropertyListingFilter filter) {
+        return listActive(filter, null);
+    }
+
+    //fatetele sunt numarate peste toate potrivirile (nu doar primele limit), din aceeasi cautare ca lista
+    @Override
+    @Transactional(readOnly = true)
+    public PropertyListingResult findActivePropertiesWithFacets(PropertyListingFilter filter) {
+        ListingFacets facets = new ListingFacets();
+        List<Property> properties = listActive(filter, facets);
+        return new PropertyListingResult(properties, facets.toFacets());
+    }
+
+    private List<Property> listActive(PropertyListingFilter filter, ListingFacets facets) {
+        ListingCriteria criteria = ListingCriteria.from(filter);
+        Optional<long[]> ids = propertyCatalog.find(criteria, facets);
+        if (ids.isPresent()) {
+            Map<Long, Property> properties = loadActive(Arrays.stream(ids.get()).boxed().toList());
+            return Arrays.stream(ids.get()).mapToObj(properties::get).filter(Objects::nonNull).toList();
+        }
+
+        //fara findByCityAndIsActiveTrue: listarea poate citi de pe replica, iar rezultatul ei ar ajunge in query cache
+        List<Property> candidates = criteria.country() != null ? propertyRepository.findByCountryAndIsActiveTrue(criteria.country())
+                : propertyRepository.findByIsActiveTrue();
+        List<Property> matches = candidates.stream().filter(criteria::matches).toList();
+        if (facets != null) {
+            matches.forEach(facets::add);
+        }
+        return matches.stream()
+                .sorted(criteria.comparator())
+                .limit(criteria.limit())
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAllProperties(Consumer<Property> consumer) {
+        return entityStreamer.forEach(propertyRepository.streamAllWithHost(), consumer);
     }
 
     @Override
@@ -128,7 +259,7 @@ public class PropertyServiceImpl implements PropertyService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, label = ReplicaAwareTransactionManager.PRIMARY_LABEL) //query cacheable: citit de pe primary, nu de pe replica
     public List<Property> findActivePropertiesByCity(String city) {
         return propertyRepository.findByCityAndIsActiveTrue(city);
     }
@@ -139,6 +270,105 @@ public class PropertyServiceImpl implements PropertyService {
         return propertyRepository.findByCountryAndIsActiveTrue(country);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PropertySearchResult searchActiveProperties(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new InvalidRequestException("Page must be >= 0 and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        //un rand in plus fata de pagina ne spune daca exista pagina urmatoare, fara count
+        List<Property> results = propertyRepository.searchActive(query.trim(), maxRankedMatches, size + 1, (long) page * size);
+        boolean hasNext = results.size() > size;
+        return new PropertySearchResult(query, page, size, hasNext, hasNext ? results.subList(0, size) : results);
+    }
+
+    //zona e rezolvata de indexul geo din memorie; din baza de date se incarca doar proprietatile gasite, dupa id
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyProperty> findActivePropertiesNearby(double latitude, double longitude, double radiusKm, BigDecimal minPrice,
+                                                           BigDecimal maxPrice, Integer guests, int limit) {
+        checkCoordinates(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_NEARBY_RADIUS_KM)) {
+            throw new InvalidRequestException("Radius must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM + " km");
+        }
+        checkLimit(limit, MAX_NEARBY_RESULTS);
+        List<GeoGridIndex.Hit> hits = geoIndex.nearby(latitude, longitude, radiusKm, minPrice, maxPrice, guests, limit);
+        Map<Long, Property> properties = loadActive(hits.stream().map(GeoGridIndex.Hit::id).toList());
+        List<NearbyProperty> results = new ArrayList<>(hits.size());
+        for (GeoGridIndex.Hit hit : hits) {
+            Property property = properties.get(hit.id());
+            if (property != null) {
+                results.add(new NearbyProperty(property, hit.distanceKm()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Property> findActivePropertiesWithin(double south, double west, double north, double east, BigDecimal minPrice,
+                                                     BigDecimal maxPrice, Integer guests, int limit) {
+        checkCoordinates(south, west);
+        checkCoordinates(north, east);
+        if (south > north) {
+            throw new InvalidRequestException("South must not be greater than north");
+        }
+        checkLimit(limit, MAX_VIEWPORT_RESULTS);
+        List<Long> ids = geoIndex.within(south, west, north, east, minPrice, maxPrice, guests, limit);
+        Map<Long, Property> properties = loadActive(ids);
+        return ids.stream().map(properties::get).filter(Objects::nonNull).toList();
+    }
+
+    //din trie-ul din memorie, fara baza de date (de aceea si fara tranzactie)
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LocationSuggestion> suggestLocations(String prefix, String type, int limit) {
+        if (limit < 1 || limit > LocationTrie.MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + LocationTrie.MAX_SUGGESTIONS);
+        }
+        LocationTrie.Type locationType;
+        if (type == null || type.isEmpty()) {
+            locationType = null;
+        } else if (type.equalsIgnoreCase("city")) {
+            locationType = LocationTrie.Type.CITY;
+        } else if (type.equalsIgnoreCase("country")) {
+            locationType = LocationTrie.Type.COUNTRY;
+        } else {
+            throw new InvalidRequestException("Unknown type: " + type + " (expected city or country)");
+        }
+        return locationSuggestIndex.suggest(prefix, locationType, limit);
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new InvalidRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+    }
+
+    private static void checkLimit(int limit, int max) {
+        if (limit < 1 || limit > max) {
+            throw new InvalidRequestException("Limit must be between 1 and " + max);
+        }
+    }
+
+    //indexul e actualizat dupa commit, deci o proprietate dezactivata chiar acum poate fi inca in el.
+    //findAllById face mereu un query IN (nu trece prin second-level cache), deci id-urile se incarca pe bucati
+    private Map<Long, Property> loadActive(List<Long> ids) {
+        Map<Long, Property> properties = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOAD_CHUNK_SIZE, ids.size()));
+            for (Property property : propertyRepository.findAllById(chunk)) {
+                if (Boolean.TRUE.equals(property.getIsActive())) {
+                    properties.put(property.getId(), property);
+                }
+            }
+        }
+        return properties;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean isPropertyOwner(Long propertyId, User user) {
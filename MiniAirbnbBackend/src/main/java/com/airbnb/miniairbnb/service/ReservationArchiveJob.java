@@ -0,0 +1,134 @@
+package com.airbnb.miniairbnb.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+//job zilnic: muta rezervarile terminate vechi in reservations_archive si intretine partitiile lunare
+@Component
+public class ReservationArchiveJob {
+    private static final Logger log = LoggerFactory.getLogger(ReservationArchiveJob.class);
+
+    private static final String COLUMNS = "id, property_id, guest_id, check_in_date, check_out_date, "
+            + "number_of_guests, total_price, status, created_at, updated_at";
+    //check-in-ul e mereu inaintea check-out-ului: conditia pe check_in_date nu schimba rezultatul, dar limiteaza
+    //scanarea la partitiile lunare de dinainte de cutoff (altfel fiecare lot ar citi toate partitiile)
+    static final String BATCH_QUERY = "SELECT id FROM reservations WHERE check_in_date < :cutoff AND check_out_date < :cutoff "
+            + "AND status IN ('CANCELLED', 'COMPLETED') ORDER BY id LIMIT :batchSize";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.reservations.archive.after-months:12}")
+    private int archiveAfterMonths;
+
+    @Value("${app.reservations.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.reservations.partitions.months-ahead:12}")
+    private int partitionMonthsAhead;
+
+    private Boolean partitioned; //partitiile exista doar pe PostgreSQL (migrarea V4)
+
+    public ReservationArchiveJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${app.reservations.archive.cron:0 30 3 * * *}")
+    public void run() {
+        LocalDate cutoff = LocalDate.now().minusMonths(archiveAfterMonths);
+        if (isPartitioned()) {
+            createUpcomingPartitions(YearMonth.now());
+        }
+        int archived = archiveFinishedReservations(cutoff);
+        int dropped = isPartitioned() ? dropEmptyPartitionsBefore(cutoff) : 0;
+        log.info("Archived {} reservations finished before {}, dropped {} empty partitions", archived, cutoff, dropped);
+    }
+
+    //muta in loturi rezervarile CANCELLED/COMPLETED cu check-out inainte de cutoff; fiecare lot e o tranzactie
+    public int archiveFinishedReservations(LocalDate cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private int moveBatch(LocalDate cutoff) {
+        MapSqlParameterSource params = new MapSqlParameterSource("cutoff", cutoff)
+                .addValue("batchSize", batchSize);
+        List<Long> ids = namedJdbcTemplate.queryForList(BATCH_QUERY, params, Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        params.addValue("ids", ids).addValue("archivedAt", LocalDateTime.now());
+        namedJdbcTemplate.update("INSERT INTO reservations_archive (" + COLUMNS + ", archived_at) "
+                + "SELECT " + COLUMNS + ", :archivedAt FROM reservations WHERE id IN (:ids) AND check_in_date < :cutoff", params);
+        namedJdbcTemplate.update("DELETE FROM reservations WHERE id IN (:ids) AND check_in_date < :cutoff", params);
+        return ids.size();
+    }
+
+    //partitiile pt luna curenta si urmatoarele luni, ca rezervarile noi sa nu ajunga in partitia default
+    public void createUpcomingPartitions(YearMonth from) {
+        for (int i = 0; i <= partitionMonthsAhead; i++) {
+            LocalDate monthStart = from.plusMonths(i).atDay(1);
+            try {
+                jdbcTemplate.query("SELECT create_reservation_partition(?)", rs -> { }, monthStart);
+            } catch (DataAccessException e) {
+                //luna ramane in partitia default si e reincercata la urmatoarea rulare (randurile ei sunt mutate atunci)
+                log.warn("Could not create reservation partition for {}: {}", monthStart, e.getMessage());
+            }
+        }
+    }
+
+    //partitiile lunare complet anterioare cutoff-ului, golite de arhivare, sunt detasate si sterse
+    public int dropEmptyPartitionsBefore(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'reservations'::regclass AND c.relname ~ '^reservations_p[0-9]{4}_[0-9]{2}$'",
+                String.class);
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring("reservations_p".length()), PARTITION_SUFFIX);
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("ALTER TABLE reservations DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equals(product);
+        }
+        return partitioned;
+    }
+}
@@ -1,11 +1,16 @@
 package com.airbnb.miniairbnb.service;
 
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.ReservationTransitionResult;
+import com.airbnb.miniairbnb.model.ArchivedReservation;
 import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationTransition;
 import com.airbnb.miniairbnb.model.User;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ReservationService {
     Reservation createReservation(Long propertyId, LocalDate checkInDate, LocalDate checkOutDate,
@@ -17,13 +22,22 @@ public interface ReservationService {
 
     Reservation cancelReservation(Long reservationId, User currentUser); //anuleaza o rezervare (pt guest, host sau admin)
 
+    List<ReservationTransitionResult> transitionReservations(List<Long> reservationIds, ReservationTransition transition,
+                                                             User currentUser); //aplica aceeasi tranzitie mai multor rezervari; rezultat per id
+
     Optional<Reservation> findReservationById(Long id); //gaseste rezervarea dupa id
 
+    Optional<ContentVersion> findReservationVersion(Long id); //versiunea raspunsului pt id (fara incarcarea entitatilor)
+
     List<Reservation> findReservationsByGuest(User guest); //gaseste toate rezervarile unui guest
 
     List<Reservation> findReservationsByProperty(Long propertyId); //gaseste toate rezervarile pt o proprietate
 
-    List<Reservation> findReservationsByHost(User host); //gaseste toate rezervarile unui host (prin proprietatile sale)
+    long streamReservationsByHost(User host, Consumer<Reservation> consumer); //rezervarile unui host (prin proprietatile sale), una cate una
+
+    List<ArchivedReservation> findArchivedReservationsByGuest(User guest); //istoricul arhivat al unui guest
+
+    List<ArchivedReservation> findArchivedReservationsByHost(User host); //istoricul arhivat pt proprietatile unui host
 
     boolean isPropertyAvailable(Long propertyId, LocalDate checkInDate, LocalDate checkOutDate); //verifica disponibilitatea unei proprietati intr-un interbal de date
 
@@ -1,61 +1,138 @@
 package com.airbnb.miniairbnb.service;
 
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.dto.ReservationTransitionResult;
+import com.airbnb.miniairbnb.dto.ReservationTransitionRow;
+import com.airbnb.miniairbnb.exception.AvailabilityConflictException;
+import com.airbnb.miniairbnb.exception.CapacityExceededException;
+import com.airbnb.miniairbnb.exception.DomainException;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.exception.NotFoundException;
+import com.airbnb.miniairbnb.exception.PermissionDeniedException;
+import com.airbnb.miniairbnb.jfr.AvailabilityCheckEvent;
+import com.airbnb.miniairbnb.jfr.BookingEvent;
 import com.airbnb.miniairbnb.model.*;
+import com.airbnb.miniairbnb.outbox.OutboxPublisher;
+import com.airbnb.miniairbnb.outbox.ReservationEventPayload;
+import com.airbnb.miniairbnb.repository.ArchivedReservationRepository;
+import com.airbnb.miniairbnb.repository.CalendarBlockRepository;
 import com.airbnb.miniairbnb.repository.PropertyRepository;
 import com.airbnb.miniairbnb.repository.ReservationRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
+@Timed(value = "app.service", description = "Service method latency")
 public class ReservationServiceImpl implements ReservationService{
+    //statusurile care ocupa calendarul proprietatii (si feed-ul iCal, vezi CalendarServiceImpl)
+    static final List<ReservationStatus> BLOCKING_STATUSES = List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+    //rezultatele createReservation (tag-ul outcome din app.reservations.bookings)
+    private static final String BOOKING_SUCCESS = "success";
+    private static final String BOOKING_CONFLICT = "conflict";
+    private static final String BOOKING_CAPACITY_EXCEEDED = "capacity_exceeded";
+    private static final String BOOKING_REJECTED = "rejected";
+    private static final String BOOKING_ERROR = "error"; //exceptie neasteptata (ex. baza de date indisponibila)
+
     private final ReservationRepository reservationRepository;
     private final PropertyRepository propertyRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final CalendarBlockRepository calendarBlockRepository;
+    private final MeterRegistry meterRegistry;
+    private final EntityStreamer entityStreamer;
+    private final OutboxPublisher outboxPublisher;
+
+    @Value("${app.reservations.batch.max-size:500}")
+    private int maxBatchSize = 500; //id-uri per PUT /api/reservations/batch (lista IN si raspunsul raman mici)
 
     public ReservationServiceImpl(ReservationRepository reservationRepository,
-                                  PropertyRepository propertyRepository) {
+                                  PropertyRepository propertyRepository,
+                                  ArchivedReservationRepository archivedReservationRepository,
+                                  CalendarBlockRepository calendarBlockRepository,
+                                  MeterRegistry meterRegistry,
+                                  EntityStreamer entityStreamer,
+                                  OutboxPublisher outboxPublisher) {
         this.reservationRepository = reservationRepository;
         this.propertyRepository = propertyRepository;
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.calendarBlockRepository = calendarBlockRepository;
+        this.meterRegistry = meterRegistry;
+        this.entityStreamer = entityStreamer;
+        this.outboxPublisher = outboxPublisher;
     }
 
     @Override
     public Reservation createReservation(Long propertyId, LocalDate checkInDate, LocalDate checkOutDate, Integer numberOfGuests, User guest) {
-        //gaseste proprietatea
-        Property property = propertyRepository.findById(propertyId)
-                .orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId));
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        String outcome = BOOKING_ERROR;
+        try {
+            Reservation saved = book(propertyId, checkInDate, checkOutDate, numberOfGuests, guest);
+            outcome = BOOKING_SUCCESS;
+            return saved;
+        } catch (DomainException e) {
+            outcome = bookingOutcome(e);
+            throw e;
+        } finally {
+            countBooking(outcome);
+            if (event.shouldCommit()) {
+                event.propertyId = propertyId;
+                event.guestId = guest.getId();
+                event.nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private Reservation book(Long propertyId, LocalDate checkInDate, LocalDate checkOutDate, Integer numberOfGuests, User guest) {
+        //gaseste proprietatea si o blocheaza: rezervarile concurente pt aceeasi proprietate se executa pe rand
+        //(constrangerea de excludere e per partitie lunara si nu vede suprapunerile intre luni)
+        Property property = propertyRepository.findByIdForUpdate(propertyId)
+                .orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
 
         //verifica daca utilizatorul este host-ul proprietatii
         if (property.getHost().getId().equals(guest.getId())) {
-            throw new RuntimeException("Nu poți închiria deoarece ești host-ul!");
+            throw new PermissionDeniedException("Nu poți închiria deoarece ești host-ul!");
         }
 
         //verifica daca proprietatea este activa
         if (!property.getIsActive()) {
-            throw new RuntimeException("Property is not available");
+            throw new InvalidRequestException("Property is not available");
         }
 
         //validare date
         if (checkInDate.isBefore(LocalDate.now())) {
-            throw new RuntimeException("Check-in date cannot be in the past");
+            throw new InvalidRequestException("Check-in date cannot be in the past");
         }
         if (checkOutDate.isBefore(checkInDate) || checkOutDate.isEqual(checkInDate)) {
-            throw new RuntimeException("Check-out date must be after check-in date");
+            throw new InvalidRequestException("Check-out date must be after check-in date");
         }
 
         //verifica numarul de oaspeti
         if (numberOfGuests > property.getMaxGuests()) {
-            throw new RuntimeException("Number of guests exceeds property capacity");
+            throw new CapacityExceededException("Number of guests exceeds property capacity");
         }
 
         //verifica disponibilitatea
         if (!isPropertyAvailable(propertyId, checkInDate, checkOutDate)) {
-            throw new RuntimeException("Property is not available for the selected dates");
+            throw new AvailabilityConflictException("Property is not available for the selected dates");
         }
 
         BigDecimal totalPrice = calculateTotalPrice(property.getPricePerNight(), checkInDate, checkOutDate); //calculeaza pretul total
@@ -70,77 +147,122 @@ public class ReservationServiceImpl implements ReservationService{
         reservation.setTotalPrice(totalPrice);
         reservation.setStatus(ReservationStatus.PENDING);
 
-        return reservationRepository.save(reservation);
+        Reservation saved;
+        try {
+            //flush imediat: constrangerea de excludere din baza de date respinge o rezervare concurenta suprapusa
+            saved = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new AvailabilityConflictException("Property is not available for the selected dates");
+        }
+        //efectele secundare (statistici, notificari) se executa din outbox, dupa commit, nu in request
+        outboxPublisher.publish(DomainEventType.RESERVATION_CREATED, saved.getId(), new ReservationEventPayload(
+                saved.getId(), propertyId, guest.getId(), null, saved.getStatus(), saved.getTotalPrice()));
+        return saved;
     }
 
-    @Override
-    public Reservation confirmReservation(Long reservationId, User currentUser){
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + reservationId));
-
-        //verifica daca utilizatorul este host-ul proprietatii sau admin
-        if (currentUser.getRole() != UserRole.ROLE_ADMIN &&
-                !reservation.getProperty().getHost().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Only property host or ADMIN can confirm reservations");
+    //tag-ul outcome din app.reservations.bookings si din evenimentul JFR, dupa tipul erorii
+    private static String bookingOutcome(DomainException e) {
+        if (e instanceof AvailabilityConflictException) {
+            return BOOKING_CONFLICT;
         }
-
-        if (reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new RuntimeException("Only PENDING reservations can be confirmed");
+        if (e instanceof CapacityExceededException) {
+            return BOOKING_CAPACITY_EXCEEDED;
         }
+        return BOOKING_REJECTED;
+    }
+
+    private void countBooking(String outcome) {
+        meterRegistry.counter("app.reservations.bookings", "outcome", outcome).increment();
+    }
 
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-        return reservationRepository.save(reservation);
+    @Override
+    public Reservation confirmReservation(Long reservationId, User currentUser){
+        return transition(reservationId, ReservationTransition.CONFIRM, currentUser);
     }
 
     @Override
     public Reservation completeReservation(Long reservationId, User currentUser) {
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + reservationId));
+        return transition(reservationId, ReservationTransition.COMPLETE, currentUser);
+    }
 
-        //verifica daca utilizatorul este host-ul proprietatii sau admin
-        if (currentUser.getRole() != UserRole.ROLE_ADMIN &&
-                !reservation.getProperty().getHost().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Only property host or ADMIN can complete reservations");
-        }
+    @Override
+    public Reservation cancelReservation(Long reservationId, User currentUser){
+        return transition(reservationId, ReservationTransition.CANCEL, currentUser);
+    }
 
-        if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
-            throw new RuntimeException("Only CONFIRMED reservations can be completed");
+    //o singura rezervare: entitatea (cu proprietatea, host-ul si guest-ul din acelasi query) e si raspunsul.
+    //Randul e blocat inainte de citire: doua confirmari concurente nu trec amandoua de verificare (si nu scriu doua
+    //evenimente in outbox)
+    private Reservation transition(Long reservationId, ReservationTransition transition, User currentUser) {
+        Reservation reservation = reservationRepository.lockById(reservationId)
+                .flatMap(reservationRepository::findWithDetailsById)
+                .orElseThrow(() -> new NotFoundException("Reservation not found with id: " + reservationId));
+
+        Long hostId = reservation.getProperty().getHost().getId();
+        Long guestId = reservation.getGuest().getId();
+        String rejection = transition.rejection(reservation.getStatus(), hostId, guestId, currentUser);
+        if (rejection != null) {
+            throw transition.isPermitted(hostId, guestId, currentUser)
+                    ? new InvalidRequestException(rejection) : new PermissionDeniedException(rejection);
         }
 
-        reservation.setStatus(ReservationStatus.COMPLETED);
-        return reservationRepository.save(reservation);
+        ReservationStatus previousStatus = reservation.getStatus();
+        reservation.setStatus(transition.getTarget());
+        Reservation saved = reservationRepository.save(reservation);
+        outboxPublisher.publish(transition.getEventType(), saved.getId(), new ReservationEventPayload(saved.getId(),
+                reservation.getProperty().getId(), guestId, previousStatus, saved.getStatus(), saved.getTotalPrice()));
+        return saved;
     }
 
     @Override
-    public Reservation cancelReservation(Long reservationId, User currentUser){
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + reservationId));
-
-        //verifica daca utilizatorul este guest, host sau admin
-        boolean isGuest = reservation.getGuest().getId().equals(currentUser.getId());
-        boolean isHost = reservation.getProperty().getHost().getId().equals(currentUser.getId());
-        boolean isAdmin = currentUser.getRole() == UserRole.ROLE_ADMIN;
-
-        if (!isGuest && !isHost && !isAdmin) {
-            throw new RuntimeException("You don't have permission to cancel this reservation");
+    public List<ReservationTransitionResult> transitionReservations(List<Long> reservationIds, ReservationTransition transition,
+                                                                    User currentUser) {
+        List<Long> ids = reservationIds.stream().distinct().toList();
+        if (ids.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " reservations can be changed at once");
         }
 
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
-            throw new RuntimeException("Reservation is already cancelled");
+        //un query pt citire (care blocheaza randurile), validarea in memorie, un UPDATE pt toate cele valide
+        Map<Long, ReservationTransitionRow> rows = new HashMap<>();
+        for (ReservationTransitionRow row : reservationRepository.findTransitionRowsByIdIn(ids)) {
+            rows.put(row.id(), row);
         }
-
-        if (reservation.getStatus() == ReservationStatus.COMPLETED) {
-            throw new RuntimeException("Cannot cancel a completed reservation");
+        Map<Long, ReservationTransitionResult> results = new HashMap<>();
+        List<Long> accepted = new ArrayList<>();
+        for (Long id : ids) {
+            ReservationTransitionRow row = rows.get(id);
+            String rejection = row == null ? "Reservation not found with id: " + id
+                    : transition.rejection(row.status(), row.hostId(), row.guestId(), currentUser);
+            if (rejection != null) {
+                results.put(id, ReservationTransitionResult.rejected(id, row == null ? null : row.status(), rejection));
+            } else {
+                accepted.add(id);
+            }
         }
 
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        return reservationRepository.save(reservation);
+        if (!accepted.isEmpty()) {
+            //randurile sunt blocate de la citire, deci UPDATE-ul le gaseste pe toate in statusul validat
+            reservationRepository.updateStatus(accepted, transition.getSources(), transition.getTarget(), LocalDateTime.now());
+            for (Long id : accepted) {
+                results.put(id, ReservationTransitionResult.applied(id, transition.getTarget()));
+                ReservationTransitionRow row = rows.get(id);
+                outboxPublisher.publish(transition.getEventType(), id, new ReservationEventPayload(id, row.propertyId(),
+                        row.guestId(), row.status(), transition.getTarget(), row.totalPrice()));
+            }
+        }
+        return ids.stream().map(results::get).toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Reservation> findReservationById(Long id) {
-        return reservationRepository.findById(id);
+        return reservationRepository.findWithDetailsById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ContentVersion> findReservationVersion(Long id) {
+        return reservationRepository.findContentVersionById(id);
     }
 
     @Override
@@ -153,45 +275,61 @@ public class ReservationServiceImpl implements ReservationService{
     @Transactional(readOnly = true)
     public List<Reservation> findReservationsByProperty(Long propertyId) {
         Property property = propertyRepository.findById(propertyId)
-                .orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId));
+                .orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
         return reservationRepository.findByProperty(property);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Reservation> findReservationsByHost(User host) {
-        return reservationRepository.findByPropertyHost(host);
+    public long streamReservationsByHost(User host, Consumer<Reservation> consumer) {
+        return entityStreamer.forEach(reservationRepository.streamByPropertyHostOrderById(host), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedReservation> findArchivedReservationsByGuest(User guest) {
+        return archivedReservationRepository.findByGuestIdOrderByCheckInDateDesc(guest.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedReservation> findArchivedReservationsByHost(User host) {
+        return archivedReservationRepository.findByPropertyHost(host);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isPropertyAvailable(Long propertyId, LocalDate checkInDate, LocalDate checkOutDate) {
+        AvailabilityCheckEvent event = new AvailabilityCheckEvent();
+        event.begin();
         Property property = propertyRepository.findById(propertyId)
-                .orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId));
-
-        if (!property.getIsActive()) {
-            return false;
+                .orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
+
+        // Caută rezervări CONFIRMED sau PENDING care se suprapun cu intervalul dat (interogare pe index, nu pe tot istoricul)
+        boolean available = property.getIsActive()
+                && !reservationRepository.existsByPropertyIdAndStatusInAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(
+                        propertyId, BLOCKING_STATUSES, checkOutDate, checkInDate)
+                //si intervale ocupate pe alte platforme (calendare iCal importate); blocurile au ziua de final exclusiva
+                && !calendarBlockRepository.existsByPropertyIdAndStartDateLessThanAndEndDateGreaterThan(
+                        propertyId, checkOutDate, checkInDate);
+
+        if (event.shouldCommit()) {
+            event.propertyId = propertyId;
+            event.nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+            event.available = available;
+            event.commit();
         }
-
-        // Găsește rezervări CONFIRMED sau PENDING care se suprapun cu intervalul dat
-        List<Reservation> conflictingReservations = reservationRepository.findByProperty(property).stream()
-                .filter(res -> (res.getStatus() == ReservationStatus.CONFIRMED || res.getStatus() == ReservationStatus.PENDING) &&
-                        !(checkOutDate.isBefore(res.getCheckInDate()) || checkInDate.isAfter(res.getCheckOutDate())))
-                .toList();
-
-        return conflictingReservations.isEmpty();
+        return available;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Reservation> getBusyDatesByProperty(Long propertyId) {
-        Property property = propertyRepository.findById(propertyId)
-                .orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId));
-        
+        propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new NotFoundException("Property not found with id: " + propertyId));
+
         // Returnăm doar rezervările CONFIRMED sau PENDING care blochează calendarul
-        return reservationRepository.findByProperty(property).stream()
-                .filter(res -> res.getStatus() == ReservationStatus.CONFIRMED || res.getStatus() == ReservationStatus.PENDING)
-                .toList();
+        return reservationRepository.findByPropertyIdAndStatusIn(propertyId, BLOCKING_STATUSES);
     }
 
     @Override
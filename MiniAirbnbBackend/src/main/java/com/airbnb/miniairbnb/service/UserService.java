@@ -5,6 +5,7 @@ import com.airbnb.miniairbnb.model.UserRole;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
     User registerUser(String email, String password, String firstName, String lastName, UserRole role); //inregistrare utilizator nou
@@ -17,7 +18,7 @@ public interface UserService {
 
     boolean emailExists(String email); //verifica daca un email exista deja
 
-    List<User> findAllUsers(); //gaseste toti utilizatorii, doar adminul
+    long streamAllUsers(Consumer<User> consumer); //toti utilizatorii, unul cate unul, fara lista in memorie (doar adminul)
 
     User updateUserRole(Long userId, UserRole newRole);
 
@@ -1,32 +1,40 @@
 package com.airbnb.miniairbnb.service;
 
+import com.airbnb.miniairbnb.datasource.ReplicaAwareTransactionManager;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.exception.NotFoundException;
 import com.airbnb.miniairbnb.model.User;
 import com.airbnb.miniairbnb.model.UserRole;
 import com.airbnb.miniairbnb.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
+@Timed(value = "app.service", description = "Service method latency")
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; //hash parola inainte de salvare
+    private final EntityStreamer entityStreamer;
 
     //constructor injection
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, EntityStreamer entityStreamer) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.entityStreamer = entityStreamer;
     }
 
     @Override
     public User registerUser(String email, String password, String firstName, String lastName, UserRole role){
         //verifica daca email-ul exista deja
         if(userRepository.existsByEmail(email)){
-            throw new RuntimeException("Email already exists: " + email);
+            throw new InvalidRequestException("Email already exists: " + email);
         }
 
         //creeaza utilizatorul nou
@@ -41,7 +49,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional(readOnly = true) //pt metodele de citire, asigura consistenta datelor pt operatiile de scriere
+    @Transactional(readOnly = true, label = ReplicaAwareTransactionManager.PRIMARY_LABEL) //query cacheable: citit de pe primary, nu de pe replica
     public Optional<User> findUserByEmail(String email){
         return userRepository.findByEmail(email);
     }
@@ -66,14 +74,14 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> findAllUsers(){
-        return userRepository.findAll();
+    public long streamAllUsers(Consumer<User> consumer){
+        return entityStreamer.forEach(userRepository.streamAll(), consumer);
     }
 
     @Override
     public User updateUserRole(Long userId, UserRole newRole) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
 
         user.setRole(newRole);
         return userRepository.save(user);
@@ -82,7 +90,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long userId) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
         
         // Nu permitem stergerea ultimului Admin (optional, dar recomandat)
         if (user.getRole() == UserRole.ROLE_ADMIN) {
@@ -90,7 +98,7 @@ public class UserServiceImpl implements UserService {
                     .filter(u -> u.getRole() == UserRole.ROLE_ADMIN)
                     .count();
             if (adminCount <= 1) {
-                throw new RuntimeException("Nu se poate sterge ultimul administrator!");
+                throw new InvalidRequestException("Nu se poate sterge ultimul administrator!");
             }
         }
         
@@ -0,0 +1,66 @@
+package com.airbnb.miniairbnb.singleflight;
+
+import com.airbnb.miniairbnb.service.PropertyService;
+import com.airbnb.miniairbnb.service.ReservationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+//GET /api/properties/{id} si busy-dates pt aceeasi proprietate, cerute in acelasi timp (o proprietate "virala" pe
+//cache rece), fac o singura citire din baza de date. Se imparte JSON-ul serializat de leader, nu entitatile: acestea
+//sunt legate de sesiunea Hibernate (open-in-view) a request-ului care le-a incarcat si nu pot fi folosite din alt thread
+//Merge pt busy-dates; pt detaliul proprietatii coalescing-ul e ineficient: citirea dureaza ~3 ms, deci request-urile
+//se suprapun rar (la testul de incarcare doar 1-3% au fost impartite, iar citirile din baza au urmat rata request-urilor)
+@Component
+public class PropertyReadCoalescer {
+    private static final byte[] NOT_FOUND = new byte[0];
+
+    private final PropertyService propertyService;
+    private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final SingleFlight<Long, byte[]> propertyReads;
+    private final SingleFlight<Long, byte[]> busyDateReads;
+
+    public PropertyReadCoalescer(PropertyService propertyService, ReservationService reservationService,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${app.single-flight.enabled:true}") boolean enabled) {
+        this.propertyService = propertyService;
+        this.reservationService = reservationService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.propertyReads = new SingleFlight<>("property", meterRegistry);
+        this.busyDateReads = new SingleFlight<>("busy-dates", meterRegistry);
+    }
+
+    //JSON-ul proprietatii; gol daca nu exista
+    public Optional<byte[]> property(Long id) {
+        byte[] json = enabled ? propertyReads.load(id, () -> loadProperty(id)) : loadProperty(id);
+        return json == NOT_FOUND ? Optional.empty() : Optional.of(json);
+    }
+
+    public byte[] busyDates(Long propertyId) {
+        return enabled ? busyDateReads.load(propertyId, () -> loadBusyDates(propertyId)) : loadBusyDates(propertyId);
+    }
+
+    private byte[] loadProperty(Long id) {
+        return propertyService.findPropertyById(id).map(this::serialize).orElse(NOT_FOUND);
+    }
+
+    private byte[] loadBusyDates(Long propertyId) {
+        return serialize(reservationService.getBusyDatesByProperty(propertyId));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
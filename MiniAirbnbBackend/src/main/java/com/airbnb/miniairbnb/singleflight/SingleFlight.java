@@ -0,0 +1,61 @@
+package com.airbnb.miniairbnb.singleflight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+//lecturi identice concurente impart o singura incarcare: primul apel pt o cheie (leader) ruleaza loader-ul, apelurile
+//sosite cat timp acesta e in curs asteapta si primesc acelasi rezultat (sau aceeasi exceptie). Nimic nu ramane in
+//memorie dupa incarcare: un apel venit dupa ce leader-ul a terminat incarca din nou, deci nu e un cache.
+//Un apel care se alatura vede datele de la inceputul incarcarii in curs (cel mult cat dureaza aceasta)
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter shared;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("app.single-flight.calls").tag("name", name).tag("result", "loaded")
+                .description("Calls that ran the load themselves").register(meterRegistry);
+        this.shared = Counter.builder("app.single-flight.calls").tag("name", name).tag("result", "shared")
+                .description("Calls that waited for a load already in flight").register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            //exceptia leader-ului, neschimbata (ex. NotFoundException-ul pt o proprietate inexistenta ajunge la fel la toti)
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
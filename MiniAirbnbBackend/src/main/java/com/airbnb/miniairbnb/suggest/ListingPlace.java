@@ -0,0 +1,5 @@
+package com.airbnb.miniairbnb.suggest;
+
+//orasul si tara unei proprietati active (proiectia de la incarcarea sugestiilor)
+public record ListingPlace(Long id, String city, String country) {
+}
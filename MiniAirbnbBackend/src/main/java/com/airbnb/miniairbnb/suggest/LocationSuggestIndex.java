@@ -0,0 +1,58 @@
+package com.airbnb.miniairbnb.suggest;
+
+import com.airbnb.miniairbnb.dto.LocationSuggestion;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+//sugestiile pt orase si tari, incarcate la pornire (inainte ca serverul web sa accepte cereri)
+//si actualizate dupa fiecare commit care modifica o proprietate
+@Component
+public class LocationSuggestIndex implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(LocationSuggestIndex.class);
+
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LocationTrie trie = new LocationTrie();
+
+    public LocationSuggestIndex(PropertyRepository propertyRepository, PlatformTransactionManager transactionManager) {
+        this.propertyRepository = propertyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ListingPlace> places = propertyRepository.streamActivePlaces()) {
+                places.forEach(place -> trie.put(place.id(), place.city(), place.country()));
+            }
+        });
+        log.info("Loaded city and country suggestions in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Property property = event.property();
+        if (event.isDeleted() || !Boolean.TRUE.equals(property.getIsActive())) {
+            trie.remove(event.propertyId());
+        } else {
+            trie.put(property.getId(), property.getCity(), property.getCountry());
+        }
+    }
+
+    public List<LocationSuggestion> suggest(String prefix, LocationTrie.Type type, int limit) {
+        return trie.suggest(prefix, type, limit);
+    }
+}
@@ -0,0 +1,290 @@
+package com.airbnb.miniairbnb.suggest;
+
+import com.airbnb.miniairbnb.dto.LocationSuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+//trie-uri de prefixe (unul pt orase, unul pt tari), cu numele normalizate (litere mici, fara diacritice: "brașov" si "Brasov" sunt
+//acelasi oras). Fiecare nod tine cele mai populare MAX_SUGGESTIONS locatii din subarborele lui, deci o cautare
+//e doar coborarea pe prefix. Cand se schimba numarul de proprietati al unei locatii se recalculeaza doar
+//nodurile de pe drumurile ei. Un nume cu mai multe cuvinte e gasit si dupa fiecare cuvant ("napoca" -> Cluj-Napoca).
+//Memorie: trie-ul depinde doar de numarul de locatii distincte; per proprietate se tine doar locatia ei (~70 B)
+public class LocationTrie {
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Comparator<Location> BY_POPULARITY = Comparator.comparingInt((Location location) -> location.listings)
+            .reversed()
+            .thenComparing(location -> location.key);
+
+    private final Map<Type, Node> roots = new EnumMap<>(Map.of(Type.CITY, new Node(), Type.COUNTRY, new Node()));
+    private final Map<String, Location> locations = new HashMap<>();
+    private final Map<Long, Place> placeById = new HashMap<>(); //ca o mutare sau stergere sa scada locatia veche
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public enum Type {
+        CITY, COUNTRY
+    }
+
+    //proprietatea activa id se afla in city, country (adaugare sau mutare)
+    public void put(long id, String city, String country) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            Location countryLocation = location(Type.COUNTRY, country, null);
+            Location cityLocation = location(Type.CITY, city, countryLocation);
+            add(countryLocation, country, 1);
+            add(cityLocation, city, 1);
+            placeById.put(id, new Place(cityLocation, countryLocation, city, country));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //proprietatea id nu mai e activa
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //cele mai populare locatii care incep cu prefix (sau au un cuvant care incepe cu prefix); type null = ambele
+    public List<LocationSuggestion> suggest(String prefix, Type type, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Location> matches = new ArrayList<>();
+            for (Map.Entry<Type, Node> root : roots.entrySet()) {
+                if (type != null && root.getKey() != type) {
+                    continue;
+                }
+                Node node = root.getValue();
+                for (int i = 0; i < key.length() && node != null; i++) {
+                    node = node.child(key.charAt(i));
+                }
+                if (node != null) {
+                    matches.addAll(Arrays.asList(node.top));
+                }
+            }
+            return matches.stream()
+                    .sorted(BY_POPULARITY)
+                    .limit(limit)
+                    .map(Location::toSuggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //litere mici, fara diacritice (NFD + eliminarea semnelor combinate), spatii comprimate
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return SPACES.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ");
+    }
+
+    //un oras e identificat de nume si tara (pot exista orase cu acelasi nume in tari diferite)
+    private Location location(Type type, String name, Location country) {
+        String key = country == null ? normalize(name) : normalize(name) + "|" + country.key;
+        return locations.computeIfAbsent(type + ":" + key, k -> new Location(type, key, normalize(name), country));
+    }
+
+    private void removeUnlocked(long id) {
+        Place place = placeById.remove(id);
+        if (place != null) {
+            add(place.city(), place.cityName(), -1);
+            add(place.country(), place.countryName(), -1);
+        }
+    }
+
+    //modifica numarul de proprietati al locatiei (si al scrierii folosite) si actualizeaza nodurile afectate
+    private void add(Location location, String spelling, int delta) {
+        boolean isNew = location.listings == 0;
+        location.listings += delta;
+        location.spellings.merge(spelling.trim(), delta, Integer::sum);
+        location.spellings.values().removeIf(count -> count <= 0);
+        location.refreshDisplayName();
+
+        for (String word : location.words()) {
+            List<Node> path = new ArrayList<>(word.length() + 1);
+            Node node = roots.get(location.type);
+            path.add(node);
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childOrCreate(word.charAt(i));
+                path.add(node);
+            }
+            if (isNew && delta > 0) {
+                node.addTerminal(location);
+            } else if (location.listings == 0) {
+                node.removeTerminal(location);
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                if (delta > 0) {
+                    path.get(i).promote(location);
+                } else {
+                    path.get(i).demote(location);
+                }
+            }
+        }
+        if (location.listings == 0) {
+            locations.values().remove(location);
+        }
+    }
+
+    private record Place(Location city, Location country, String cityName, String countryName) {
+    }
+
+    private static final class Location {
+        private final Type type;
+        private final String key;
+        private final String normalizedName;
+        private final Location country; //doar pt orase
+        private final Map<String, Integer> spellings = new HashMap<>(); //scrierile originale si cate proprietati o folosesc
+        private String displayName; //scrierea cea mai folosita
+        private int listings;
+
+        Location(Type type, String key, String normalizedName, Location country) {
+            this.type = type;
+            this.key = key;
+            this.normalizedName = normalizedName;
+            this.country = country;
+        }
+
+        //numele complet si fiecare sufix care incepe un cuvant nou (dupa spatiu sau cratima)
+        List<String> words() {
+            List<String> words = new ArrayList<>();
+            words.add(normalizedName);
+            for (int i = 1; i < normalizedName.length(); i++) {
+                char previous = normalizedName.charAt(i - 1);
+                if ((previous == ' ' || previous == '-') && normalizedName.charAt(i) != ' ') {
+                    words.add(normalizedName.substring(i));
+                }
+            }
+            return words;
+        }
+
+        void refreshDisplayName() {
+            displayName = spellings.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .orElse(displayName);
+        }
+
+        LocationSuggestion toSuggestion() {
+            return new LocationSuggestion(type == Type.CITY ? "city" : "country", displayName,
+                    country == null ? null : country.displayName, listings);
+        }
+    }
+
+    private static final class Node {
+        private static final Location[] NONE = new Location[0];
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Location[] terminals = NONE; //locatiile al caror nume (sau cuvant) se termina aici
+        private Location[] top = NONE; //cele mai populare MAX_SUGGESTIONS din subarbore
+
+        Node child(char label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char label) {
+            Node child = child(label);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                labels[labels.length - 1] = label;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        void addTerminal(Location location) {
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = location;
+        }
+
+        void removeTerminal(Location location) {
+            terminals = Arrays.stream(terminals).filter(terminal -> terminal != location).toArray(Location[]::new);
+        }
+
+        //locatia a castigat proprietati: poate urca in top sau intra in locul ultimei (restul topului nu se schimba)
+        void promote(Location location) {
+            int index = indexInTop(location);
+            if (index < 0) {
+                if (top.length == MAX_SUGGESTIONS && BY_POPULARITY.compare(location, top[top.length - 1]) >= 0) {
+                    return;
+                }
+                top = top.length == MAX_SUGGESTIONS ? top.clone() : Arrays.copyOf(top, top.length + 1);
+                index = top.length - 1;
+                top[index] = location;
+            }
+            //insertion sort: doar locatia modificata e (eventual) in afara ordinii
+            while (index > 0 && BY_POPULARITY.compare(top[index], top[index - 1]) < 0) {
+                Location previous = top[index - 1];
+                top[index - 1] = top[index];
+                top[index] = previous;
+                index--;
+            }
+        }
+
+        //locatia a pierdut proprietati: daca era intr-un top plin, locul ei poate fi luat de o locatie din afara
+        void demote(Location location) {
+            if (indexInTop(location) >= 0) {
+                recomputeTop();
+            }
+        }
+
+        private int indexInTop(Location location) {
+            for (int i = 0; i < top.length; i++) {
+                if (top[i] == location) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        //din locatiile proprii si top-urile copiilor (o locatie poate aparea pe mai multe drumuri, o data in top)
+        void recomputeTop() {
+            Set<Location> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Location terminal : terminals) {
+                candidates.add(terminal);
+            }
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            top = candidates.stream()
+                    .filter(location -> location.listings > 0)
+                    .sorted(BY_POPULARITY)
+                    .limit(MAX_SUGGESTIONS)
+                    .toArray(Location[]::new);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- Partitia default (rezervari cu check-in dincolo de partitiile lunare create) nu avea constrangerea de excludere
+-- a celorlalte partitii, deci acolo doua rezervari active suprapuse ale aceleiasi proprietati erau acceptate.
+ALTER TABLE reservations_default ADD CONSTRAINT reservations_default_no_overlap EXCLUDE USING gist (
+    property_id WITH =, daterange(check_in_date, check_out_date, '[]') WITH &&
+) WHERE (status IN ('PENDING', 'CONFIRMED'));
+
+-- CREATE TABLE ... PARTITION OF esua daca partitia default avea deja rezervari din luna respectiva. Partitia se
+-- creeaza acum separat, primeste randurile lunii mutate din default si abia apoi e atasata (ATTACH verifica
+-- partitia default, care nu mai are randuri din interval); totul in tranzactia apelantului
+CREATE OR REPLACE FUNCTION create_reservation_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::DATE;
+    next_month DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'reservations_p' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE reservations INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM reservations_default WHERE check_in_date >= %L AND check_in_date < %L '
+                       || 'RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                   first_day, next_month, partition_name);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist ('
+                       || 'property_id WITH =, daterange(check_in_date, check_out_date, ''[]'') WITH &&'
+                       || ') WHERE (status IN (''PENDING'', ''CONFIRMED''))',
+                   partition_name, partition_name || '_no_overlap');
+    EXECUTE format('ALTER TABLE reservations ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day, next_month);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,2 @@
+-- exportul CSV al rezervarilor citeste si arhiva dupa intervalul de check-in
+CREATE INDEX idx_reservations_archive_check_in ON reservations_archive (check_in_date);
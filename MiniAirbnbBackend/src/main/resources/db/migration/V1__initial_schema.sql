@@ -0,0 +1,48 @@
+-- Schema initiala, echivalenta cu ce genera Hibernate din entitati (ddl-auto).
+-- Bazele existente create de Hibernate sunt marcate direct cu versiunea 1 (baseline) si sar peste acest script.
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    role       VARCHAR(255) NOT NULL CHECK (role IN ('ROLE_ADMIN', 'ROLE_HOST', 'ROLE_GUEST')),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE properties (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title           VARCHAR(255),
+    description     VARCHAR(2000),
+    address         VARCHAR(255)   NOT NULL,
+    city            VARCHAR(255)   NOT NULL,
+    country         VARCHAR(255)   NOT NULL,
+    price_per_night NUMERIC(10, 2) NOT NULL,
+    bedrooms        INTEGER        NOT NULL,
+    bathrooms       INTEGER        NOT NULL,
+    max_guests      INTEGER        NOT NULL,
+    is_active       BOOLEAN        NOT NULL,
+    host_id         BIGINT         NOT NULL REFERENCES users (id),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6)
+);
+
+CREATE TABLE property_images (
+    property_id BIGINT NOT NULL REFERENCES properties (id),
+    image_url   VARCHAR(255)
+);
+
+CREATE TABLE reservations (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    property_id      BIGINT         NOT NULL REFERENCES properties (id),
+    guest_id         BIGINT         NOT NULL REFERENCES users (id),
+    check_in_date    DATE           NOT NULL,
+    check_out_date   DATE           NOT NULL,
+    number_of_guests INTEGER        NOT NULL,
+    total_price      NUMERIC(10, 2) NOT NULL,
+    status           VARCHAR(255)   NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED')),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6)
+);
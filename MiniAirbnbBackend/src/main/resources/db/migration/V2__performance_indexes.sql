@@ -0,0 +1,21 @@
+-- Indecsi pt interogarile din ReservationRepository si PropertyRepository
+
+-- verificarea disponibilitatii si busy-dates: egalitate pe proprietate si status, interval pe date
+CREATE INDEX IF NOT EXISTS idx_reservations_property_status_dates
+    ON reservations (property_id, status, check_in_date, check_out_date);
+
+-- rezervarile unui guest (my-reservations)
+CREATE INDEX IF NOT EXISTS idx_reservations_guest
+    ON reservations (guest_id);
+
+-- proprietatile unui host (my-properties, host-reservations)
+CREATE INDEX IF NOT EXISTS idx_properties_host
+    ON properties (host_id);
+
+-- listarea proprietatilor active, optional filtrate dupa oras
+CREATE INDEX IF NOT EXISTS idx_properties_active_city
+    ON properties (is_active, city);
+
+-- incarcarea colectiei imageUrls
+CREATE INDEX IF NOT EXISTS idx_property_images_property
+    ON property_images (property_id);
@@ -0,0 +1,12 @@
+-- Doua rezervari active (PENDING/CONFIRMED) ale aceleiasi proprietati nu se pot suprapune.
+-- Intervalul e inchis ('[]'), la fel ca in ReservationServiceImpl.isPropertyAvailable:
+-- o rezervare care incepe in ziua in care alta se termina este considerata suprapusa.
+-- btree_gist permite egalitatea pe property_id in acelasi index GiST cu intervalul de date.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_no_overlap
+        EXCLUDE USING gist (
+            property_id WITH =,
+            daterange(check_in_date, check_out_date, '[]') WITH &&
+        ) WHERE (status IN ('PENDING', 'CONFIRMED'));
@@ -0,0 +1,95 @@
+-- Tabela reservations devine partitionata lunar dupa check_in_date.
+-- Rezervarile terminate (CANCELLED/COMPLETED) mai vechi de N luni sunt mutate de ReservationArchiveJob
+-- in reservations_archive, iar partitiile vechi ramase goale sunt sterse, asa ca interogarile
+-- uzuale (findByGuest, findByProperty, findByPropertyHost) lucreaza doar pe partitiile recente.
+
+ALTER TABLE reservations RENAME TO reservations_unpartitioned;
+ALTER TABLE reservations_unpartitioned DROP CONSTRAINT reservations_no_overlap;
+ALTER INDEX idx_reservations_property_status_dates RENAME TO idx_reservations_unpartitioned_property_status_dates;
+ALTER INDEX idx_reservations_guest RENAME TO idx_reservations_unpartitioned_guest;
+
+CREATE SEQUENCE reservations_seq;
+SELECT setval('reservations_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM reservations_unpartitioned), false);
+
+-- cheia primara a unei tabele partitionate trebuie sa contina cheia de partitionare
+CREATE TABLE reservations (
+    id               BIGINT         NOT NULL DEFAULT nextval('reservations_seq'),
+    property_id      BIGINT         NOT NULL REFERENCES properties (id),
+    guest_id         BIGINT         NOT NULL REFERENCES users (id),
+    check_in_date    DATE           NOT NULL,
+    check_out_date   DATE           NOT NULL,
+    number_of_guests INTEGER        NOT NULL,
+    total_price      NUMERIC(10, 2) NOT NULL,
+    status           VARCHAR(255)   NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED')),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    PRIMARY KEY (id, check_in_date)
+) PARTITION BY RANGE (check_in_date);
+
+ALTER SEQUENCE reservations_seq OWNED BY reservations.id;
+
+CREATE INDEX idx_reservations_property_status_dates
+    ON reservations (property_id, status, check_in_date, check_out_date);
+CREATE INDEX idx_reservations_guest
+    ON reservations (guest_id);
+
+-- PostgreSQL nu permite constrangeri de excludere pe tabela partitionata, doar pe fiecare partitie;
+-- suprapunerile intre luni diferite sunt prevenite de lock-ul pe proprietate din createReservation.
+CREATE FUNCTION create_reservation_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := 'reservations_p' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF reservations FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day, (first_day + INTERVAL '1 month')::DATE);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist ('
+                       || 'property_id WITH =, daterange(check_in_date, check_out_date, ''[]'') WITH &&'
+                       || ') WHERE (status IN (''PENDING'', ''CONFIRMED''))',
+                   partition_name, partition_name || '_no_overlap');
+END;
+$$ LANGUAGE plpgsql;
+
+-- partitii de la prima rezervare existenta pana la 12 luni in viitor
+DO $$
+DECLARE
+    month DATE := date_trunc('month', LEAST(CURRENT_DATE,
+            COALESCE((SELECT MIN(check_in_date) FROM reservations_unpartitioned), CURRENT_DATE)))::DATE;
+BEGIN
+    WHILE month <= date_trunc('month', CURRENT_DATE + INTERVAL '12 months')::DATE LOOP
+        PERFORM create_reservation_partition(month);
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+-- rezervarile cu check-in dincolo de partitiile create (foarte departe in viitor)
+CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+
+INSERT INTO reservations (id, property_id, guest_id, check_in_date, check_out_date, number_of_guests,
+                          total_price, status, created_at, updated_at)
+SELECT id, property_id, guest_id, check_in_date, check_out_date, number_of_guests,
+       total_price, status, created_at, updated_at
+FROM reservations_unpartitioned;
+
+DROP TABLE reservations_unpartitioned;
+
+-- arhiva rece: fara chei straine, ca istoricul sa supravietuiasca stergerii proprietatii sau a utilizatorului
+CREATE TABLE reservations_archive (
+    id               BIGINT         PRIMARY KEY,
+    property_id      BIGINT         NOT NULL,
+    guest_id         BIGINT         NOT NULL,
+    check_in_date    DATE           NOT NULL,
+    check_out_date   DATE           NOT NULL,
+    number_of_guests INTEGER        NOT NULL,
+    total_price      NUMERIC(10, 2) NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    archived_at      TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX idx_reservations_archive_guest ON reservations_archive (guest_id);
+CREATE INDEX idx_reservations_archive_property ON reservations_archive (property_id);
@@ -0,0 +1,13 @@
+-- Property si Reservation folosesc generatorul pooled al Hibernate (allocationSize = 50):
+-- un singur nextval rezerva 50 de id-uri, iar insert-urile pot fi trimise in batch JDBC
+-- (cu IDENTITY, Hibernate trebuie sa execute fiecare insert imediat ca sa afle id-ul).
+-- setval la MAX(id) + 50: primul bloc alocat incepe dupa cel mai mare id existent.
+
+CREATE SEQUENCE properties_seq INCREMENT BY 50;
+SELECT setval('properties_seq', (SELECT COALESCE(MAX(id), 0) FROM properties) + 50);
+ALTER TABLE properties ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE properties ALTER COLUMN id SET DEFAULT nextval('properties_seq');
+ALTER SEQUENCE properties_seq OWNED BY properties.id;
+
+ALTER SEQUENCE reservations_seq INCREMENT BY 50;
+SELECT setval('reservations_seq', (SELECT COALESCE(MAX(id), 0) FROM reservations) + 50);
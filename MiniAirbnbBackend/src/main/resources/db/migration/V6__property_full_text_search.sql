@@ -0,0 +1,17 @@
+-- Cautare full-text in proprietati (PropertyRepository.searchActive).
+-- search_vector e calculat de PostgreSQL la fiecare INSERT/UPDATE, deci indexul e mereu sincronizat cu randul.
+-- Ponderi: titlul (A) conteaza mai mult decat orasul/tara (B), iar acestea mai mult decat descrierea (C).
+-- Configuratia 'simple' (fara stemming pe o limba anume): anunturile sunt scrise in romana si engleza.
+ALTER TABLE properties
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(city, '') || ' ' || coalesce(country, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+    ) STORED;
+
+-- doar proprietatile active sunt cautate; fastupdate=off: proprietatile se scriu rar si se cauta des,
+-- iar lista de intrari in asteptare a GIN ar trebui parcursa secvential la fiecare cautare pana la vacuum
+CREATE INDEX idx_properties_search
+    ON properties USING gin (search_vector)
+    WITH (fastupdate = off)
+    WHERE is_active;
@@ -0,0 +1,8 @@
+-- Coordonatele proprietatii (WGS84, grade zecimale), pt harta si cautarea dupa distanta.
+-- Cautarile geografice sunt servite din indexul grid din memorie (PropertyGeoIndex), nu din PostgreSQL;
+-- proprietatile mai vechi raman fara coordonate pana le completeaza host-ul.
+ALTER TABLE properties
+    ADD COLUMN latitude double precision,
+    ADD COLUMN longitude double precision,
+    ADD CONSTRAINT properties_latitude_range CHECK (latitude BETWEEN -90 AND 90),
+    ADD CONSTRAINT properties_longitude_range CHECK (longitude BETWEEN -180 AND 180);
@@ -0,0 +1,32 @@
+-- Calendare iCal externe (alte platforme pe care host-ul isi listeaza proprietatea), importate periodic de
+-- ExternalCalendarSyncJob. Fiecare eveniment importat devine un interval blocat pt rezervari, [start_date, end_date)
+-- ca in iCal (end_date = prima zi libera). La fiecare sincronizare blocurile unui calendar sunt inlocuite complet.
+CREATE TABLE external_calendars (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    property_id    BIGINT        NOT NULL REFERENCES properties (id) ON DELETE CASCADE,
+    url            VARCHAR(2048) NOT NULL,
+    last_synced_at TIMESTAMP(6),
+    last_error     VARCHAR(1000),
+    created_at     TIMESTAMP(6)
+);
+
+CREATE INDEX idx_external_calendars_property ON external_calendars (property_id);
+
+-- blocurile se insereaza in batch (generator pooled, ca la rezervari)
+CREATE SEQUENCE calendar_blocks_seq INCREMENT BY 50;
+
+CREATE TABLE calendar_blocks (
+    id          BIGINT       NOT NULL DEFAULT nextval('calendar_blocks_seq') PRIMARY KEY,
+    calendar_id BIGINT       NOT NULL REFERENCES external_calendars (id) ON DELETE CASCADE,
+    property_id BIGINT       NOT NULL REFERENCES properties (id) ON DELETE CASCADE,
+    uid         VARCHAR(255),
+    start_date  DATE         NOT NULL,
+    end_date    DATE         NOT NULL,
+    CONSTRAINT calendar_blocks_range CHECK (end_date > start_date)
+);
+
+ALTER SEQUENCE calendar_blocks_seq OWNED BY calendar_blocks.id;
+
+-- verificarea de disponibilitate din createReservation: blocuri ale proprietatii care se suprapun cu sejurul
+CREATE INDEX idx_calendar_blocks_property_dates ON calendar_blocks (property_id, start_date, end_date);
+CREATE INDEX idx_calendar_blocks_calendar ON calendar_blocks (calendar_id);
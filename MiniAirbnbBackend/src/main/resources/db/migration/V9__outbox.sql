@@ -0,0 +1,39 @@
+-- Outbox: fiecare schimbare de stare a unei rezervari sau proprietati scrie un rand aici, in aceeasi tranzactie cu
+-- schimbarea. OutboxRelay le livreaza apoi consumatorilor din aplicatie (at-least-once), in afara request-ului.
+-- id-ul vine din secventa la insert, deci ordinea id-urilor nu e ordinea commit-urilor: o tranzactie lunga poate face
+-- commit cu un id mai mic dupa ce relay-ul a trecut de el. De aceea relay-ul numeroteaza randurile deja vizibile
+-- (position, unic si crescator) si consumatorii avanseaza dupa position, nu dupa id
+CREATE SEQUENCE outbox_events_seq INCREMENT BY 50;
+
+CREATE TABLE outbox_events (
+    id           BIGINT        NOT NULL DEFAULT nextval('outbox_events_seq') PRIMARY KEY,
+    position     BIGINT        UNIQUE,
+    type         VARCHAR(40)   NOT NULL,
+    aggregate_id BIGINT        NOT NULL,
+    payload      VARCHAR(4000) NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL
+);
+
+ALTER SEQUENCE outbox_events_seq OWNED BY outbox_events.id;
+
+-- randurile inca nenumerotate de relay (putine, la orice moment)
+CREATE INDEX idx_outbox_events_unsequenced ON outbox_events (id) WHERE position IS NULL;
+
+-- ultima pozitie procesata de fiecare consumator (OutboxConsumer.name())
+CREATE TABLE outbox_offsets (
+    consumer   VARCHAR(100) PRIMARY KEY,
+    position   BIGINT       NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+-- agregatele per proprietate construite din evenimentele de rezervare (PropertyBookingStatsConsumer). Fara cheie
+-- straina: un eveniment pt o proprietate stearsa intre timp nu trebuie sa blocheze consumatorul
+CREATE TABLE property_booking_stats (
+    property_id            BIGINT        PRIMARY KEY,
+    reservations_created   BIGINT        NOT NULL,
+    reservations_confirmed BIGINT        NOT NULL,
+    reservations_cancelled BIGINT        NOT NULL,
+    reservations_completed BIGINT        NOT NULL,
+    completed_revenue      NUMERIC(14, 2) NOT NULL,
+    updated_at             TIMESTAMP(6)
+);
@@ -0,0 +1,166 @@
+package com.airbnb.miniairbnb;
+
+import com.airbnb.miniairbnb.config.HibernateCacheConfig;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HibernateCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private Statistics statistics;
+    private Property property;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User host = new User();
+        host.setEmail("host-" + UUID.randomUUID() + "@test.com");
+        host.setPassword("parola-secreta");
+        host.setFirstName("Ana");
+        host.setLastName("Pop");
+        host.setRole(UserRole.ROLE_HOST);
+        host = userRepository.save(host);
+
+        property = new Property();
+        property.setTitle("Loft cu vedere la mare");
+        property.setAddress("Str. Faleza 1");
+        property.setCity("Constanta");
+        property.setCountry("Romania");
+        property.setPricePerNight(new BigDecimal("250.00"));
+        property.setBedrooms(2);
+        property.setBathrooms(1);
+        property.setMaxGuests(4);
+        property.setHost(host);
+        property.setImageUrls(List.of("http://localhost:8080/uploads/a.png", "http://localhost:8080/uploads/b.png"));
+        property = propertyRepository.save(property);
+
+        token = jwtTokenProvider.generateToken(userDetailsService.loadUserByUsername(host.getEmail()));
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions(); //pornim cu cache-ul rece
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    void repeatedPropertyRequestIsServedFromSecondLevelCache() throws Exception {
+        long coldStatements = statementsForPropertyRequest();
+        long warmStatements = statementsForPropertyRequest();
+
+        //request rece: user dupa email (JWT filter), proprietatea, host-ul si imaginile
+        assertThat(coldStatements).isGreaterThanOrEqualTo(3);
+        //request cald: totul vine din second-level cache si query cache
+        assertThat(warmStatements).isLessThan(coldStatements);
+        assertThat(warmStatements).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void cityQueryIsCachedUntilPropertiesChange() {
+        statistics.clear();
+        propertyRepository.findByCityAndIsActiveTrue("Constanta");
+        propertyRepository.findByCityAndIsActiveTrue("Constanta");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        //orice scriere in tabela properties invalideaza rezultatele din query cache
+        property.setTitle("Loft renovat");
+        propertyRepository.save(property);
+        statistics.clear();
+        List<Property> properties = propertyRepository.findByCityAndIsActiveTrue("Constanta");
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(properties).extracting(Property::getTitle).contains("Loft renovat");
+    }
+
+    //CacheManager-ul implicit al provider-ului e unul pe JVM: contextele de test (fiecare cu baza lui H2) si-ar vedea
+    //entitatile unul altuia sub aceleasi id-uri
+    @Test
+    void secondLevelCacheBelongsToThisContext() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        assertThat(hibernateCacheManager.getURI()).isNotEqualTo(provider.getDefaultURI());
+        assertThat(hibernateCacheManager).isNotSameAs(provider.getCacheManager());
+        assertThat(hibernateCacheManager.getCacheNames()).contains(HibernateCacheConfig.USERS_REGION);
+    }
+
+    //un al doilea context (baza H2 proprie, deci aceleasi id-uri pt alte randuri) nu trebuie sa aduca in acest context
+    //userii tinuti in cache-ul lui
+    @Test
+    void separateContextsDoNotShareCachedEntities() {
+        try (ConfigurableApplicationContext other = new SpringApplicationBuilder(MiniAirbnbBackendApplication.class)
+                .web(WebApplicationType.NONE).profiles("test").run()) {
+            UserRepository otherUsers = other.getBean(UserRepository.class);
+            User cached = new User();
+            cached.setEmail("other-context-" + UUID.randomUUID() + "@test.com");
+            cached.setPassword("parola-secreta");
+            cached.setFirstName("Ion");
+            cached.setLastName("Alt");
+            cached.setRole(UserRole.ROLE_GUEST);
+            cached = otherUsers.save(cached);
+            assertThat(otherUsers.findById(cached.getId())).isPresent();
+
+            String email = cached.getEmail();
+            assertThat(userRepository.findById(cached.getId()).map(User::getEmail)).isNotEqualTo(Optional.of(email));
+        }
+    }
+
+    private long statementsForPropertyRequest() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/properties/" + property.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
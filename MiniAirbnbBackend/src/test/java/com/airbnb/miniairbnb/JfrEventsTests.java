@@ -0,0 +1,118 @@
+package com.airbnb.miniairbnb;
+
+import com.airbnb.miniairbnb.jfr.AvailabilityCheckEvent;
+import com.airbnb.miniairbnb.jfr.BookingEvent;
+import com.airbnb.miniairbnb.jfr.HttpRequestEvent;
+import com.airbnb.miniairbnb.jfr.JwtAuthenticationEvent;
+import com.airbnb.miniairbnb.jfr.PropertySearchEvent;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.token;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JfrEventsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    void bookingSearchAndAuthenticationAreRecorded(@TempDir Path dir) throws Exception {
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+        User guest = userRepository.save(user(UserRole.ROLE_GUEST));
+        Property listing = property(host, "Oras-" + UUID.randomUUID());
+        listing.setImageUrls(List.of("http://localhost:8080/uploads/d.png"));
+        Property property = propertyRepository.save(listing);
+        String token = token(jwtTokenProvider, userDetailsService, guest);
+        LocalDate checkIn = LocalDate.now().plusDays(20);
+
+        Path file = dir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of(HttpRequestEvent.NAME, BookingEvent.NAME, AvailabilityCheckEvent.NAME,
+                    PropertySearchEvent.NAME, JwtAuthenticationEvent.NAME)) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.start();
+
+            mockMvc.perform(get("/api/properties").param("city", property.getCity()))
+                    .andExpect(status().isOk());
+            mockMvc.perform(post("/api/reservations")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"propertyId\":" + property.getId() + ",\"checkInDate\":\"" + checkIn
+                                    + "\",\"checkOutDate\":\"" + checkIn.plusDays(3) + "\",\"numberOfGuests\":2}"))
+                    .andExpect(status().isCreated());
+
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(PropertySearchEvent.NAME);
+            assertThat(event.getString("filter")).isEqualTo("city");
+            assertThat(event.getInt("resultSize")).isEqualTo(1);
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(BookingEvent.NAME);
+            assertThat(event.getLong("propertyId")).isEqualTo(property.getId());
+            assertThat(event.getLong("nights")).isEqualTo(3);
+            assertThat(event.getString("outcome")).isEqualTo("success");
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(AvailabilityCheckEvent.NAME);
+            assertThat(event.getBoolean("available")).isTrue();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(JwtAuthenticationEvent.NAME);
+            assertThat(event.getString("outcome")).isEqualTo("authenticated");
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(HttpRequestEvent.NAME);
+            assertThat(event.getString("uri")).isEqualTo("/api/reservations");
+            assertThat(event.getInt("status")).isEqualTo(201);
+            assertThat(event.getInt("sqlStatements")).isPositive();
+        });
+    }
+}
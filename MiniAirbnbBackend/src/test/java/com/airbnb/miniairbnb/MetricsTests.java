@@ -0,0 +1,158 @@
+package com.airbnb.miniairbnb;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.token;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//actuator-ul pe portul de management (separat, ca in productie); restul prin MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false) //in teste Spring Boot inlocuieste altfel registry-ul Prometheus cu unul simplu
+@ActiveProfiles("test")
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private Property property;
+    private String guestToken;
+
+    @BeforeEach
+    void setUp() {
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+        User guest = userRepository.save(user(UserRole.ROLE_GUEST));
+
+        property = property(host, "Sinaia");
+        property.setMaxGuests(3);
+        property.setImageUrls(List.of("http://localhost:8080/uploads/c.png"));
+        property = propertyRepository.save(property);
+
+        guestToken = token(jwtTokenProvider, userDetailsService, guest);
+    }
+
+    @Test
+    void bookingOutcomesAreCounted() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        book(checkIn, checkIn.plusDays(2), 2);
+        book(checkIn.plusDays(1), checkIn.plusDays(3), 2); //suprapusa
+        book(checkIn.plusDays(10), checkIn.plusDays(12), 5); //peste capacitate
+
+        assertThat(bookings("success")).isEqualTo(1);
+        assertThat(bookings("conflict")).isEqualTo(1);
+        assertThat(bookings("capacity_exceeded")).isEqualTo(1);
+    }
+
+    @Test
+    void prometheusEndpointExposesRouteServiceSqlPoolAndCacheMetrics() throws Exception {
+        mockMvc.perform(get("/api/properties/" + property.getId())
+                        .header("Authorization", "Bearer " + guestToken))
+                .andExpect(status().isOk());
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        String scrape = response.body();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/api/properties/{id}\"")
+                .contains("app_service_seconds_bucket{")
+                .contains("method=\"findPropertyById\"")
+                .contains("app_security_jwt_seconds_count{")
+                .contains("outcome=\"authenticated\"")
+                .contains("app_http_sql_statements_count{")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("hikaricp_connections_active{")
+                .contains("hikaricp_connections_pending{")
+                .contains("cache=\"properties\"")
+                .contains("hibernate_statements_total{");
+    }
+
+    //pe portul aplicatiei actuator-ul nu e servit (nici health/prometheus, publice pe portul de management)
+    @Test
+    void actuatorIsNotServedOnTheApplicationPort() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (String path : List.of("/actuator/prometheus", "/actuator/health")) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).as(path).isEqualTo(401);
+            assertThat(response.body()).as(path).doesNotContain("jvm_memory");
+        }
+        HttpResponse<String> health = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/health")).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(health.statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void sqlStatementsAreCountedPerRoute() throws Exception {
+        mockMvc.perform(get("/api/properties/" + property.getId())).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("app.http.sql.statements")
+                .tag("uri", "/api/properties/{id}")
+                .summary().count()).isPositive();
+    }
+
+    private void book(LocalDate checkIn, LocalDate checkOut, int guests) throws Exception {
+        mockMvc.perform(post("/api/reservations")
+                .header("Authorization", "Bearer " + guestToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"propertyId\":" + property.getId() + ",\"checkInDate\":\"" + checkIn
+                        + "\",\"checkOutDate\":\"" + checkOut + "\",\"numberOfGuests\":" + guests + "}"));
+    }
+
+    private double bookings(String outcome) {
+        return meterRegistry.counter("app.reservations.bookings", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,188 @@
+package com.airbnb.miniairbnb;
+
+import com.airbnb.miniairbnb.metrics.RequestMetricsFilter;
+import com.airbnb.miniairbnb.metrics.SqlBudget;
+import com.airbnb.miniairbnb.metrics.SqlStatementCounter;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//numarul de statement-uri al listelor nu trebuie sa creasca odata cu numarul de elemente (fara N+1)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private String country;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        country = "Tara-" + UUID.randomUUID();
+    }
+
+    @Test
+    void propertyListDoesNotQueryHostsAndImagesPerProperty() throws Exception {
+        addProperties(2);
+        long few = statements(() -> mockMvc.perform(get("/api/properties").param("country", country))
+                .andExpect(status().isOk()));
+
+        addProperties(10);
+        long many = statements(() -> mockMvc.perform(get("/api/properties").param("country", country))
+                .andExpect(status().isOk()));
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void hostReservationListDoesNotQueryPropertiesAndGuestsPerReservation() throws Exception {
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+        String token = bearer(jwtTokenProvider, userDetailsService, host);
+
+        addReservations(host, 2);
+        long few = statements(() -> mockMvc.perform(get("/api/reservations/host-reservations")
+                        .header("Authorization", token))
+                .andExpect(status().isOk()));
+
+        addReservations(host, 10);
+        long many = statements(() -> mockMvc.perform(get("/api/reservations/host-reservations")
+                        .header("Authorization", token))
+                .andExpect(status().isOk()));
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void requestOverStatementBudgetFailsWithTheOffendingStatements() throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "defaultMaxStatements", 2);
+        ReflectionTestUtils.setField(filter, "defaultMaxMillis", 1000L);
+        ReflectionTestUtils.setField(filter, "failOnViolation", true);
+        SqlStatementCounter inspector = new SqlStatementCounter();
+        FilterChain threeStatements = (request, response) -> {
+            for (int i = 1; i <= 3; i++) {
+                inspector.inspect("select * from property_images where property_id=" + i);
+            }
+        };
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/properties"),
+                new MockHttpServletResponse(), threeStatements))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("3 SQL statements (max 2)")
+                .hasMessageContaining("property_id=3");
+
+        //un endpoint cu @SqlBudget mai mare nu e raportat
+        MockHttpServletRequest annotated = new MockHttpServletRequest("GET", "/api/properties");
+        annotated.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new BudgetedHandler(), BudgetedHandler.class.getMethod("handle")));
+        assertThatCode(() -> filter.doFilter(annotated, new MockHttpServletResponse(), threeStatements))
+                .doesNotThrowAnyException();
+    }
+
+    static class BudgetedHandler {
+        @SqlBudget(maxStatements = 5)
+        public void handle() {
+        }
+    }
+
+    private interface Request {
+        void perform() throws Exception;
+    }
+
+    //statement-urile unui request cu second-level cache-ul gol
+    private long statements(Request request) throws Exception {
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        request.perform();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addProperties(int count) {
+        for (int i = 0; i < count; i++) {
+            propertyRepository.save(listing(userRepository.save(user(UserRole.ROLE_HOST))));
+        }
+    }
+
+    private void addReservations(User host, int count) {
+        for (int i = 0; i < count; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setProperty(propertyRepository.save(listing(host)));
+            reservation.setGuest(userRepository.save(user(UserRole.ROLE_GUEST)));
+            reservation.setCheckInDate(LocalDate.now().plusDays(10));
+            reservation.setCheckOutDate(LocalDate.now().plusDays(12));
+            reservation.setNumberOfGuests(1);
+            reservation.setTotalPrice(new BigDecimal("200.00"));
+            reservation.setStatus(ReservationStatus.PENDING);
+            reservationRepository.save(reservation);
+        }
+    }
+
+    //proprietatile testului sunt in tara lui, fiecare cu o imagine (listarea incarca imaginile)
+    private Property listing(User host) {
+        Property property = property(host, "Brasov");
+        property.setCountry(country);
+        property.setImageUrls(List.of("http://localhost:8080/uploads/" + UUID.randomUUID() + ".png"));
+        return property;
+    }
+}
@@ -0,0 +1,53 @@
+package com.airbnb.miniairbnb;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+//entitatile folosite de mai multe clase de teste; sunt intoarse nesalvate, iar fiecare test seteaza in plus
+//doar campurile care conteaza pt el
+public final class TestFixtures {
+    private TestFixtures() {
+    }
+
+    //user cu email unic (testele din acelasi context Spring impart baza de date)
+    public static User user(UserRole role) {
+        User user = new User();
+        user.setEmail(role.name().toLowerCase() + "-" + UUID.randomUUID() + "@test.com");
+        user.setPassword("parola-secreta");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setRole(role);
+        return user;
+    }
+
+    //proprietate activa, valida, a host-ului dat
+    public static Property property(User host, String city) {
+        Property property = new Property();
+        property.setTitle("Apartament");
+        property.setAddress("Str. Principala 1");
+        property.setCity(city);
+        property.setCountry("Romania");
+        property.setPricePerNight(new BigDecimal("100.00"));
+        property.setBedrooms(1);
+        property.setBathrooms(1);
+        property.setMaxGuests(2);
+        property.setHost(host);
+        property.setIsActive(true);
+        return property;
+    }
+
+    //header-ul Authorization pt user-ul dat (user-ul trebuie sa fie salvat)
+    public static String bearer(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService, User user) {
+        return "Bearer " + token(jwtTokenProvider, userDetailsService, user);
+    }
+
+    public static String token(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService, User user) {
+        return jwtTokenProvider.generateToken(userDetailsService.loadUserByUsername(user.getEmail()));
+    }
+}
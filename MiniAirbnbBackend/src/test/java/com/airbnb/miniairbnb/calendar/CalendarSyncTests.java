@@ -0,0 +1,300 @@
+package com.airbnb.miniairbnb.calendar;
+
+import com.airbnb.miniairbnb.model.ExternalCalendar;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.CalendarBlockRepository;
+import com.airbnb.miniairbnb.repository.ExternalCalendarRepository;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.service.CalendarService;
+import com.airbnb.miniairbnb.service.ExternalCalendarSyncJob;
+import com.airbnb.miniairbnb.service.ReservationService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.calendar-import.file-root=target/test-calendars",
+        "app.calendar-import.allowed-hosts=127.0.0.1", //serverul stub din teste; "localhost" ramane blocat
+        "app.calendar-import.initial-delay=PT1H" //testele pornesc sincronizarea explicit
+})
+class CalendarSyncTests {
+    private static final DateTimeFormatter ICAL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ExternalCalendarRepository externalCalendarRepository;
+
+    @Autowired
+    private CalendarBlockRepository calendarBlockRepository;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ExternalCalendarSyncJob syncJob;
+
+    private User host;
+    private User guest;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        guest = userRepository.save(user(UserRole.ROLE_GUEST));
+        property = propertyRepository.save(property(host, "Sinaia"));
+    }
+
+    @Test
+    void feedListsBlockingReservationsAndRevalidatesWithETag() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(10);
+        Reservation confirmed = reservation(start, start.plusDays(3), ReservationStatus.CONFIRMED);
+        reservation(start.plusDays(5), start.plusDays(7), ReservationStatus.PENDING);
+        reservation(start.plusDays(20), start.plusDays(22), ReservationStatus.CANCELLED);
+
+        String url = "/api/properties/" + property.getId() + "/calendar.ics";
+        String feed = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/calendar;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(feed).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n")
+                .contains("UID:reservation-" + confirmed.getId() + "@mini-airbnb")
+                .contains("DTSTART;VALUE=DATE:" + ICAL_DATE.format(start))
+                .contains("DTEND;VALUE=DATE:" + ICAL_DATE.format(start.plusDays(3)))
+                .contains("STATUS:TENTATIVE")
+                .doesNotContain(guest.getEmail());
+        assertThat(ICalendarParser.parse(new StringReader(feed))).hasSize(2); //cea anulata lipseste
+
+        String eTag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        reservationService.cancelReservation(confirmed.getId(), host);
+        String changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(ICalendarParser.parse(new StringReader(changed))).hasSize(1);
+
+        mockMvc.perform(get("/api/properties/" + Long.MAX_VALUE + "/calendar.ics")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void importedFileBlocksReservationsUntilTheEndDate() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(30);
+        Path file = Path.of("target/test-calendars", UUID.randomUUID() + ".ics");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "VERSION:2.0",
+                "BEGIN:VEVENT",
+                "UID:booking-1@other-platf",
+                " orm.example", //linie continuata
+                "DTSTART;VALUE=DATE:" + ICAL_DATE.format(start),
+                "DTEND;VALUE=DATE:" + ICAL_DATE.format(start.plusDays(4)),
+                "SUMMARY:Not available",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:booking-2",
+                "DTSTART;TZID=\"Europe/Bucharest\":" + ICAL_DATE.format(start.plusDays(10)) + "T150000",
+                "DURATION:P2D",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "UID:booking-3",
+                "DTSTART;VALUE=DATE:" + ICAL_DATE.format(start.plusDays(20)),
+                "DTEND;VALUE=DATE:" + ICAL_DATE.format(start.plusDays(22)),
+                "STATUS:CANCELLED",
+                "END:VEVENT",
+                "END:VCALENDAR", ""));
+
+        ExternalCalendar calendar = calendarService.addExternalCalendar(property.getId(), file.toUri().toString(), host);
+        assertThat(syncJob.sync(calendar.getId())).isTrue();
+
+        assertThat(calendarBlockRepository.findByCalendarOrderByStartDate(calendar))
+                .extracting(block -> block.getUid() + " " + block.getStartDate() + " " + block.getEndDate())
+                .containsExactly("booking-1@other-platform.example " + start + " " + start.plusDays(4),
+                        "booking-2 " + start.plusDays(10) + " " + start.plusDays(12));
+
+        assertThatThrownBy(() -> book(start.minusDays(2), start.plusDays(1)))
+                .hasMessageContaining("not available");
+        assertThatThrownBy(() -> book(start.plusDays(3), start.plusDays(5)))
+                .hasMessageContaining("not available");
+        assertThat(book(start.plusDays(4), start.plusDays(6)).getId()).isNotNull(); //check-in in ziua DTEND
+        assertThat(book(start.plusDays(20), start.plusDays(22)).getId()).isNotNull(); //evenimentul anulat nu blocheaza
+
+        //stergerea calendarului elibereaza perioada
+        calendarService.removeExternalCalendar(property.getId(), calendar.getId(), host);
+        assertThat(reservationService.isPropertyAvailable(property.getId(), start, start.plusDays(2))).isTrue();
+    }
+
+    @Test
+    void stubServerFeedIsSyncedAndFailuresKeepTheOldBlocks() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(40);
+        AtomicInteger status = new AtomicInteger(200);
+        String ics = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:x\r\nDTSTART;VALUE=DATE:" + ICAL_DATE.format(start)
+                + "\r\nDTEND;VALUE=DATE:" + ICAL_DATE.format(start.plusDays(2)) + "\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feed.ics", exchange -> {
+            byte[] body = (status.get() == 200 ? ics : "<html>maintenance</html>").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/feed.ics";
+            ExternalCalendar calendar = calendarService.addExternalCalendar(property.getId(), url, host);
+            assertThat(syncJob.sync(calendar.getId())).isTrue();
+            assertThat(reservationService.isPropertyAvailable(property.getId(), start, start.plusDays(1))).isFalse();
+
+            status.set(503);
+            assertThat(syncJob.sync(calendar.getId())).isFalse();
+            assertThat(externalCalendarRepository.findById(calendar.getId()).orElseThrow().getLastError())
+                    .isEqualTo("Calendar could not be downloaded");
+            status.set(200);
+            server.removeContext("/feed.ics");
+            server.createContext("/feed.ics", exchange -> {
+                byte[] body = "<html>not a calendar</html>".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            assertThat(syncJob.sync(calendar.getId())).isFalse();
+
+            ExternalCalendar failed = externalCalendarRepository.findById(calendar.getId()).orElseThrow();
+            assertThat(failed.getLastError()).contains("BEGIN:VCALENDAR");
+            assertThat(failed.getLastSyncedAt()).isNotNull();
+            assertThat(reservationService.isPropertyAvailable(property.getId(), start, start.plusDays(1))).isFalse();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void internalAddressesAreRejectedOnSaveAndOnEveryRedirect() throws Exception {
+        for (String url : List.of("http://169.254.169.254/latest/meta-data/", "http://localhost:8080/actuator/health",
+                "http://10.0.0.12/a.ics", "http://[::1]/a.ics", "http://0.0.0.0:5432/")) {
+            assertThatThrownBy(() -> calendarService.addExternalCalendar(property.getId(), url, host))
+                    .hasMessage("Calendar URL must point to a public address");
+        }
+
+        LocalDate start = LocalDate.now().plusDays(50);
+        String ics = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:r\r\nDTSTART;VALUE=DATE:" + ICAL_DATE.format(start)
+                + "\r\nDTEND;VALUE=DATE:" + ICAL_DATE.format(start.plusDays(1)) + "\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        int port = server.getAddress().getPort();
+        server.createContext("/moved.ics", exchange -> redirect(exchange, "/feed.ics"));
+        server.createContext("/internal.ics", exchange -> redirect(exchange, "http://localhost:" + port + "/feed.ics"));
+        server.createContext("/feed.ics", exchange -> {
+            byte[] body = ics.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            ExternalCalendar moved = calendarService.addExternalCalendar(property.getId(),
+                    "http://127.0.0.1:" + port + "/moved.ics", host);
+            assertThat(syncJob.sync(moved.getId())).isTrue();
+
+            //redirect-ul spre localhost e refuzat, iar host-ul vede doar un mesaj generic
+            ExternalCalendar internal = calendarService.addExternalCalendar(property.getId(),
+                    "http://127.0.0.1:" + port + "/internal.ics", host);
+            assertThat(syncJob.sync(internal.getId())).isFalse();
+            assertThat(externalCalendarRepository.findById(internal.getId()).orElseThrow().getLastError())
+                    .isEqualTo("Calendar could not be downloaded");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void onlyTheOwnerCanAddCalendarsAndLocalFilesMustBeUnderTheRoot() {
+        assertThatThrownBy(() -> calendarService.addExternalCalendar(property.getId(), "https://example.com/a.ics", guest))
+                .hasMessageContaining("permission");
+        assertThatThrownBy(() -> calendarService.addExternalCalendar(property.getId(), "file:///etc/passwd", host))
+                .hasMessageContaining("must be under");
+        assertThatThrownBy(() -> calendarService.addExternalCalendar(property.getId(), "ftp://example.com/a.ics", host))
+                .hasMessageContaining("http(s) or file");
+        assertThat(calendarService.findExternalCalendars(property.getId(), host)).isEmpty();
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private Reservation book(LocalDate checkIn, LocalDate checkOut) {
+        return reservationService.createReservation(property.getId(), checkIn, checkOut, 2, guest);
+    }
+
+    private Reservation reservation(LocalDate checkIn, LocalDate checkOut, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setProperty(property);
+        reservation.setGuest(guest);
+        reservation.setCheckInDate(checkIn);
+        reservation.setCheckOutDate(checkOut);
+        reservation.setNumberOfGuests(2);
+        reservation.setTotalPrice(new BigDecimal("400.00"));
+        reservation.setStatus(status);
+        return reservationRepository.save(reservation);
+    }
+}
@@ -0,0 +1,114 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//catalogul ramane oprit (profilul de test): un miss citeste din baza de date, asa ca o proprietate salvata direct prin
+//repository (fara PropertyChangedEvent) apare doar daca raspunsul nu vine din cache
+@SpringBootTest(properties = "app.listing-cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListingResponseCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User host;
+    private String city;
+    private String otherCity;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        city = "Oras-" + UUID.randomUUID();
+        otherCity = "Oras-" + UUID.randomUUID();
+    }
+
+    @Test
+    void writesInvalidateOnlyTheirCityAndCountry() throws Exception {
+        propertyService.createProperty(property(host, city), host);
+        Property elsewhere = propertyService.createProperty(property(host, otherCity), host);
+        expectListed(city, 1);
+
+        propertyRepository.save(property(host, city)); //ocoleste serviciul: cache-ul nu afla
+        expectListed(city, 1);
+        mockMvc.perform(get("/api/properties").param("city", city).param("sort", "price"))
+                .andExpect(jsonPath("$", hasSize(2))); //alta cheie, alt raspuns
+
+        Property update = new Property();
+        update.setPricePerNight(new BigDecimal("99.00"));
+        propertyService.updateProperty(elsewhere.getId(), update, host);
+        expectListed(city, 1); //scrierea din alt oras nu atinge intrarea
+
+        update = new Property();
+        update.setCity(city);
+        propertyService.updateProperty(elsewhere.getId(), update, host);
+        expectListed(city, 3);
+        expectListed(otherCity, 0);
+
+        propertyService.deleteProperty(elsewhere.getId(), host);
+        expectListed(city, 2);
+    }
+
+    @Test
+    void listingWithoutLocationIsInvalidatedByAnyWrite() throws Exception {
+        String country = "Tara-" + UUID.randomUUID();
+        Property property = property(host, city);
+        property.setCountry(country);
+        propertyService.createProperty(property, host);
+        mockMvc.perform(get("/api/properties").param("country", country).param("facets", "true"))
+                .andExpect(jsonPath("$.facets.total").value(1));
+        mockMvc.perform(get("/api/properties").param("minPrice", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        Property expensive = property(host, otherCity);
+        expensive.setCountry(country);
+        expensive.setPricePerNight(new BigDecimal("1500.00"));
+        propertyService.createProperty(expensive, host);
+
+        mockMvc.perform(get("/api/properties").param("minPrice", "1000"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/properties").param("country", country).param("facets", "true"))
+                .andExpect(jsonPath("$.facets.total").value(2));
+    }
+
+    private void expectListed(String city, int count) throws Exception {
+        mockMvc.perform(get("/api/properties").param("city", city))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(count)));
+    }
+}
@@ -0,0 +1,239 @@
+package com.airbnb.miniairbnb.catalog;
+
+import com.airbnb.miniairbnb.dto.PropertyListingFilter;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.catalog.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PropertyCatalogTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyCatalog propertyCatalog;
+
+    private User host;
+    private String city;
+
+    @BeforeEach
+    void setUp() {
+        host = new User();
+        host.setEmail("host-" + UUID.randomUUID() + "@catalog.test");
+        host.setPassword("parola-secreta");
+        host.setFirstName("Cata");
+        host.setLastName("Log");
+        host.setRole(UserRole.ROLE_HOST);
+        host = userRepository.save(host);
+        city = "Oras-" + UUID.randomUUID();
+    }
+
+    //scanarea pe coloane (inclusiv in paralel, peste SCAN_CHUNK randuri) trebuie sa dea exact ce da filtrarea entitatilor
+    @Test
+    void columnarScanMatchesEntityFilter() {
+        Random random = new Random(7);
+        String[] cities = {"Cluj", "Iasi", "Sibiu"};
+        int count = ListingCatalog.SCAN_CHUNK * 2 + 1000;
+        ListingCatalog catalog = new ListingCatalog();
+        List<Property> properties = IntStream.range(0, count).mapToObj(i -> {
+            Property property = new Property();
+            property.setId((long) (count - i)); //inserate in ordine inversa: randurile raman ordonate dupa id
+            property.setCity(cities[random.nextInt(cities.length)]);
+            property.setCountry("Romania");
+            property.setPricePerNight(BigDecimal.valueOf(5_000 + random.nextInt(30_000), 2));
+            property.setBedrooms(1 + random.nextInt(4));
+            property.setBathrooms(1 + random.nextInt(3));
+            property.setMaxGuests(1 + random.nextInt(8));
+            property.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(100_000)));
+            return property;
+        }).toList();
+        properties.forEach(property -> catalog.put(row(property)));
+        List<Property> remaining = properties.stream().filter(property -> property.getId() % 5 != 0).toList();
+        properties.stream().filter(property -> property.getId() % 5 == 0).forEach(property -> catalog.remove(property.getId()));
+        assertThat(catalog.size()).isEqualTo(remaining.size());
+
+        for (ListingSort sort : ListingSort.values()) {
+            for (int limit : new int[]{10, ListingCriteria.MAX_LIMIT}) {
+                PropertyListingFilter filter = new PropertyListingFilter();
+                filter.setCity("Cluj");
+                filter.setMinPrice(new BigDecimal("100"));
+                filter.setMaxPrice(new BigDecimal("250.50"));
+                filter.setBedrooms(2);
+                filter.setGuests(3);
+                filter.setSort(sort.getParameter());
+                filter.setLimit(limit);
+                ListingCriteria criteria = ListingCriteria.from(filter);
+
+                long[] expected = remaining.stream().filter(criteria::matches).sorted(criteria.comparator())
+                        .limit(limit).mapToLong(Property::getId).toArray();
+                assertThat(expected).isNotEmpty();
+                assertThat(catalog.query(criteria)).as(sort + " limit " + limit).containsExactly(expected);
+            }
+        }
+
+        //fatetele numarate pe coloane (si pe bucati, in paralel) = numaratoarea pe entitati, indiferent de limit
+        for (String cityFilter : new String[]{"Iasi", null}) {
+            for (ListingSort sort : new ListingSort[]{ListingSort.ID, ListingSort.PRICE}) {
+                PropertyListingFilter filter = new PropertyListingFilter();
+                filter.setCity(cityFilter);
+                filter.setMaxPrice(new BigDecimal("200"));
+                filter.setSort(sort.getParameter());
+                filter.setLimit(10);
+                ListingCriteria criteria = ListingCriteria.from(filter);
+
+                ListingFacets expected = new ListingFacets();
+                remaining.stream().filter(criteria::matches).forEach(expected::add);
+                ListingFacets facets = new ListingFacets();
+                assertThat(catalog.query(criteria, facets)).as(cityFilter + " " + sort)
+                        .containsExactly(catalog.query(criteria));
+                assertThat(facets.toFacets()).as(cityFilter + " " + sort)
+                        .usingRecursiveComparison().isEqualTo(expected.toFacets());
+            }
+        }
+    }
+
+    @Test
+    void listingIsServedFromCatalogAndFollowsWrites() throws Exception {
+        Property cheap = create("80.00", 2);
+        Property large = create("200.00", 6);
+        create("500.00", 4);
+
+        mockMvc.perform(get("/api/properties").param("city", city).param("maxPrice", "300").param("sort", "-price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(large.getId()))
+                .andExpect(jsonPath("$[1].id").value(cheap.getId()));
+
+        Property update = new Property();
+        update.setIsActive(false);
+        propertyService.updateProperty(large.getId(), update, host);
+        mockMvc.perform(get("/api/properties").param("city", city).param("guests", "4"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].pricePerNight").value(500.0));
+
+        mockMvc.perform(get("/api/properties").param("city", city).param("limit", "1").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.properties", hasSize(1)))
+                .andExpect(jsonPath("$.facets.total").value(2))
+                .andExpect(jsonPath("$.facets.cities['" + city + "']").value(2))
+                .andExpect(jsonPath("$.facets.prices[1].min").value(50.0))
+                .andExpect(jsonPath("$.facets.prices[1].count").value(1))
+                .andExpect(jsonPath("$.facets.prices[4].max").doesNotExist())
+                .andExpect(jsonPath("$.facets.prices[4].count").value(1))
+                .andExpect(jsonPath("$.facets.maxGuests['2']").value(1))
+                .andExpect(jsonPath("$.facets.maxGuests['4']").value(1));
+
+        mockMvc.perform(get("/api/properties").param("city", city).param("sort", "cheapest"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("invalid_request"))
+                .andExpect(jsonPath("$.message").value("Unknown sort: cheapest (expected id, price, -price, newest)"));
+    }
+
+    //preturile din afara unui long sunt limitate, nu dau eroare
+    @Test
+    void outOfRangePricesAreClamped() throws Exception {
+        Property property = create("80.00", 2);
+
+        mockMvc.perform(get("/api/properties").param("city", city).param("maxPrice", "1e30").param("minPrice", "-1e30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(property.getId()));
+        mockMvc.perform(get("/api/properties").param("city", city).param("minPrice", "1e30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    //fara limit lista are o pagina implicita; o pagina mare e incarcata din baza de date pe bucati de id-uri
+    @Test
+    void listingPagesAreBounded() throws Exception {
+        int count = 601;
+        propertyRepository.saveAll(IntStream.range(0, count).mapToObj(i -> {
+            Property property = new Property();
+            fill(property, "100.00", 2);
+            property.setHost(host);
+            return property;
+        }).toList());
+        propertyCatalog.rebuild();
+
+        mockMvc.perform(get("/api/properties").param("city", city))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ListingCriteria.DEFAULT_LIMIT)));
+        mockMvc.perform(get("/api/properties").param("city", city).param("limit", String.valueOf(ListingCriteria.MAX_LIMIT)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(count)));
+        mockMvc.perform(get("/api/properties").param("city", city).param("limit", String.valueOf(ListingCriteria.MAX_LIMIT + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("invalid_request"));
+    }
+
+    //scrierile care ocolesc PropertyService apar dupa reconstruirea periodica
+    @Test
+    void rebuildPicksUpWritesMadeOutsideTheService() throws Exception {
+        Property property = new Property();
+        fill(property, "120.00", 2);
+        property.setHost(host);
+        propertyRepository.save(property);
+
+        mockMvc.perform(get("/api/properties").param("city", city)).andExpect(jsonPath("$", hasSize(0)));
+        propertyCatalog.rebuild();
+        mockMvc.perform(get("/api/properties").param("city", city)).andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    private Property create(String price, int maxGuests) {
+        Property property = new Property();
+        fill(property, price, maxGuests);
+        return propertyService.createProperty(property, host);
+    }
+
+    private void fill(Property property, String price, int maxGuests) {
+        property.setTitle("Apartament");
+        property.setAddress("Str. Catalogului 1");
+        property.setCity(city);
+        property.setCountry("Romania");
+        property.setPricePerNight(new BigDecimal(price));
+        property.setBedrooms(1);
+        property.setBathrooms(1);
+        property.setMaxGuests(maxGuests);
+        property.setIsActive(true);
+    }
+
+    private static ListingRow row(Property property) {
+        return new ListingRow(property.getId(), property.getPricePerNight(), property.getBedrooms(), property.getBathrooms(),
+                property.getMaxGuests(), property.getCity(), property.getCountry(), property.getCreatedAt());
+    }
+}
@@ -0,0 +1,158 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.exception.AvailabilityConflictException;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import com.airbnb.miniairbnb.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ApiExceptionHandlerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User host;
+    private User guest;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        guest = userRepository.save(user(UserRole.ROLE_GUEST));
+
+        property = property(host, "Brasov");
+        property.setTitle("Garsoniera");
+        property = propertyRepository.save(property);
+    }
+
+    @Test
+    void bookingFailuresMapToTheirStatus() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(20);
+        book(guest, checkIn, checkIn.plusDays(3), 2).andExpect(status().isCreated());
+
+        book(guest, checkIn.plusDays(1), checkIn.plusDays(2), 1)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.code").value("availability_conflict"))
+                .andExpect(jsonPath("$.message").value("Property is not available for the selected dates"))
+                .andExpect(jsonPath("$.fields").doesNotExist());
+
+        book(guest, checkIn.plusDays(10), checkIn.plusDays(12), 5)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("capacity_exceeded"));
+
+        book(host, checkIn.plusDays(10), checkIn.plusDays(12), 1)
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("permission_denied"));
+    }
+
+    @Test
+    void missingEntitiesAndInvalidBodiesAreReported() throws Exception {
+        mockMvc.perform(put("/api/reservations/" + Long.MAX_VALUE + "/cancel").header("Authorization", bearer(jwtTokenProvider, userDetailsService, guest)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("not_found"))
+                .andExpect(jsonPath("$.message").value("Reservation not found with id: " + Long.MAX_VALUE));
+
+        mockMvc.perform(delete("/api/properties/" + property.getId()).header("Authorization", bearer(jwtTokenProvider, userDetailsService, guest)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("You don't have permission to delete this property"));
+
+        mockMvc.perform(post("/api/reservations").header("Authorization", bearer(jwtTokenProvider, userDetailsService, guest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"propertyId\":" + property.getId() + ",\"checkInDate\":\"2020-01-01\","
+                                + "\"checkOutDate\":\"2020-01-03\",\"numberOfGuests\":0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("validation_failed"))
+                .andExpect(jsonPath("$.fields.checkInDate").exists())
+                .andExpect(jsonPath("$.fields.numberOfGuests").value("Number of guests must be at least 1"));
+    }
+
+    //entitatea e validata abia la commit (TransactionSystemException), dar raspunsul e tot 400 cu campurile invalide
+    @Test
+    void invalidPropertyIsRejectedOnCreateAndUpdate() throws Exception {
+        MockMultipartFile invalid = new MockMultipartFile("property", "", MediaType.APPLICATION_JSON_VALUE,
+                ("{\"title\":\" \",\"address\":\"Str. Noua 1\",\"city\":\"Sibiu\",\"country\":\"Romania\","
+                        + "\"pricePerNight\":100,\"bedrooms\":1,\"bathrooms\":1,\"maxGuests\":2}").getBytes(StandardCharsets.UTF_8));
+        long before = propertyRepository.count();
+
+        mockMvc.perform(multipart("/api/properties").file(invalid).header("Authorization", bearer(jwtTokenProvider, userDetailsService, host)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("validation_failed"))
+                .andExpect(jsonPath("$.fields.title").value("Title is required"));
+        assertThat(propertyRepository.count()).isEqualTo(before);
+
+        mockMvc.perform(multipart(HttpMethod.PUT, "/api/properties/" + property.getId()).file(invalid).header("Authorization", bearer(jwtTokenProvider, userDetailsService, host)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fields.title").value("Title is required"));
+        assertThat(propertyRepository.findById(property.getId()).orElseThrow().getTitle()).isEqualTo("Garsoniera");
+    }
+
+    //conflictul e un raspuns obisnuit: exceptia nu are stack trace
+    @Test
+    void domainExceptionsHaveNoStackTrace() {
+        LocalDate checkIn = LocalDate.now().plusDays(40);
+        reservationService.createReservation(property.getId(), checkIn, checkIn.plusDays(2), 1, guest);
+
+        Throwable conflict = catchThrowable(() ->
+                reservationService.createReservation(property.getId(), checkIn, checkIn.plusDays(2), 1, guest));
+
+        assertThat(conflict).isInstanceOf(AvailabilityConflictException.class);
+        assertThat(conflict.getStackTrace()).isEmpty();
+    }
+
+    private ResultActions book(User user, LocalDate checkIn, LocalDate checkOut, int guests) throws Exception {
+        return mockMvc.perform(post("/api/reservations")
+                .header("Authorization", bearer(jwtTokenProvider, userDetailsService, user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"propertyId\":" + property.getId() + ",\"checkInDate\":\"" + checkIn
+                        + "\",\"checkOutDate\":\"" + checkOut + "\",\"numberOfGuests\":" + guests + "}"));
+    }
+}
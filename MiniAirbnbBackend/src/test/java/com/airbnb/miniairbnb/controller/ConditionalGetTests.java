@@ -0,0 +1,146 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import com.airbnb.miniairbnb.service.PropertyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User host;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        property = property(host, "Sibiu");
+        property.setImageUrls(List.of("http://localhost:8080/uploads/a.png"));
+        property = propertyService.createProperty(property, host);
+    }
+
+    @Test
+    void propertyIsRevalidatedWithoutLoadingTheEntity() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/api/properties/" + property.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse();
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/\"");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/properties/" + property.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andExpect(content().bytes(new byte[0]));
+        assertThat(statistics.getPrepareStatementCount()).isZero(); //versiunea vine din query cache
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        mockMvc.perform(get("/api/properties/" + property.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, first.getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        //o schimbare doar in imagini muta si ea versiunea
+        Property update = new Property();
+        update.setImageUrls(new ArrayList<>(List.of("http://localhost:8080/uploads/b.png")));
+        propertyService.updateProperty(property.getId(), update, host);
+        String newETag = mockMvc.perform(get("/api/properties/" + property.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+
+        mockMvc.perform(get("/api/properties/" + Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void reservationIsPrivateAndChangesVersionWithItsStatus() throws Exception {
+        User guest = userRepository.save(user(UserRole.ROLE_GUEST));
+        String token = bearer(jwtTokenProvider, userDetailsService, guest);
+        Reservation reservation = new Reservation();
+        reservation.setProperty(property);
+        reservation.setGuest(guest);
+        reservation.setCheckInDate(LocalDate.now().plusDays(10));
+        reservation.setCheckOutDate(LocalDate.now().plusDays(12));
+        reservation.setNumberOfGuests(2);
+        reservation.setTotalPrice(new BigDecimal("300.00"));
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservation = reservationRepository.save(reservation);
+
+        String eTag = mockMvc.perform(get("/api/reservations/" + reservation.getId()).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/reservations/" + reservation.getId()).header("Authorization", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/reservations/" + reservation.getId() + "/cancel").header("Authorization", token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/reservations/" + reservation.getId()).header("Authorization", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+}
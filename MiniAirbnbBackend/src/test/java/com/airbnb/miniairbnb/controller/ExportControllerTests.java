@@ -0,0 +1,199 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import com.airbnb.miniairbnb.service.ReservationArchiveJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportControllerTests {
+    private static final LocalDate FROM = LocalDate.of(2031, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2031, 3, 31);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationArchiveJob archiveJob;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User admin;
+    private User host;
+    private User guest;
+    private Property property;
+    private List<Long> inRange;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(user(UserRole.ROLE_ADMIN));
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        guest = userRepository.save(user(UserRole.ROLE_GUEST));
+
+        property = property(host, "Sibiu");
+        property.setTitle("Casa \"Mare\", Sibiu");
+        property = propertyRepository.save(property);
+
+        inRange = new ArrayList<>();
+        inRange.add(reservation(property, FROM, ReservationStatus.CONFIRMED).getId());
+        inRange.add(reservation(property, TO, ReservationStatus.COMPLETED).getId());
+        reservation(property, FROM.plusDays(10), ReservationStatus.CANCELLED); //alt status
+        reservation(property, TO.plusDays(1), ReservationStatus.CONFIRMED); //in afara intervalului
+    }
+
+    @Test
+    void reservationsAreExportedAsCsvWithFilters() throws Exception {
+        MockHttpServletResponse response = export("/reservations?from=" + FROM + "&to=" + TO
+                + "&status=CONFIRMED&status=COMPLETED");
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("reservations-").contains(".csv");
+
+        List<String> lines = lines(response.getContentAsString(StandardCharsets.UTF_8));
+        assertThat(lines.get(0)).startsWith("id,status,checkInDate,checkOutDate,numberOfGuests,totalPrice,propertyId");
+        assertThat(lines.subList(1, lines.size()).stream().map(line -> Long.parseLong(line.substring(0, line.indexOf(',')))))
+                .containsExactlyElementsOf(inRange);
+        assertThat(lines.get(1))
+                .startsWith(inRange.get(0) + ",CONFIRMED," + FROM + "," + FROM.plusDays(2) + ",2,300.00,")
+                .contains(",\"Casa \"\"Mare\"\", Sibiu\",Sibiu,Romania," + host.getId() + "," + host.getEmail() + ",")
+                .contains("," + guest.getId() + "," + guest.getEmail() + ",");
+    }
+
+    //sejururile terminate de peste un an sunt mutate in reservations_archive, dar raman in export
+    @Test
+    void archivedReservationsAreExported() throws Exception {
+        LocalDate checkIn = LocalDate.of(1999, 3, 10);
+        Long archived = reservation(property, checkIn, ReservationStatus.COMPLETED).getId();
+        assertThat(archiveJob.archiveFinishedReservations(LocalDate.of(1999, 4, 1))).isEqualTo(1);
+        assertThat(reservationRepository.findById(archived)).isEmpty();
+
+        MockHttpServletResponse response = export("/reservations?from=1999-03-01&to=1999-03-31");
+        List<String> lines = lines(response.getContentAsString(StandardCharsets.UTF_8));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(1))
+                .startsWith(archived + ",COMPLETED," + checkIn + "," + checkIn.plusDays(2) + ",2,300.00," + property.getId() + ",")
+                .contains("," + host.getId() + "," + host.getEmail() + ",")
+                .contains("," + guest.getId() + "," + guest.getEmail() + ",");
+    }
+
+    @Test
+    void usersAreExportedGzippedWithoutPasswords() throws Exception {
+        MockHttpServletResponse response = export("/users?role=ROLE_HOST&from=" + LocalDate.now() + "&gzip=true");
+        assertThat(response.getContentType()).isEqualTo("application/gzip");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains(".csv.gz");
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = lines(csv);
+        assertThat(lines.get(0)).isEqualTo("id,email,firstName,lastName,role,createdAt");
+        assertThat(lines).anyMatch(line -> line.startsWith(host.getId() + "," + host.getEmail() + ",Test,User,ROLE_HOST,"));
+        assertThat(lines).noneMatch(line -> line.contains(guest.getEmail()) || line.contains(admin.getEmail()));
+        assertThat(csv).doesNotContain("parola-secreta");
+    }
+
+    //textul introdus de utilizatori nu ajunge in Excel ca formula
+    @Test
+    void formulaLikeTextIsEscaped() throws Exception {
+        User attacker = user(UserRole.ROLE_HOST);
+        attacker.setFirstName("=HYPERLINK(\"http://evil.example\",\"Click\")");
+        attacker.setLastName("@SUM(A1:A9)");
+        attacker = userRepository.save(attacker);
+
+        Long id = attacker.getId();
+        MockHttpServletResponse response = export("/users?role=ROLE_HOST&from=" + LocalDate.now());
+        String line = lines(response.getContentAsString(StandardCharsets.UTF_8)).stream()
+                .filter(row -> row.startsWith(id + ","))
+                .findFirst().orElseThrow();
+        assertThat(line).startsWith(id + "," + attacker.getEmail()
+                + ",\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"Click\"\")\",\"'@SUM(A1:A9)\",ROLE_HOST,");
+    }
+
+    @Test
+    void exportsAreOnlyForAdmins() throws Exception {
+        mockMvc.perform(get("/api/admin/exports/users").header("Authorization", bearer(jwtTokenProvider, userDetailsService, host)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/exports/users"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/exports/reservations?from=" + TO + "&to=" + FROM).header("Authorization", bearer(jwtTokenProvider, userDetailsService, admin)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletResponse export(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/exports" + path).header("Authorization", bearer(jwtTokenProvider, userDetailsService, admin)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION))
+                .andReturn().getResponse();
+    }
+
+    private static List<String> lines(String csv) {
+        assertThat(csv).endsWith("\r\n");
+        return Arrays.asList(csv.split("\r\n"));
+    }
+
+    private Reservation reservation(Property property, LocalDate checkIn, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setProperty(property);
+        reservation.setGuest(guest);
+        reservation.setCheckInDate(checkIn);
+        reservation.setCheckOutDate(checkIn.plusDays(2));
+        reservation.setNumberOfGuests(2);
+        reservation.setTotalPrice(new BigDecimal("300.00"));
+        reservation.setStatus(status);
+        return reservationRepository.save(reservation);
+    }
+}
@@ -0,0 +1,181 @@
+package com.airbnb.miniairbnb.controller;
+
+import com.airbnb.miniairbnb.fields.FieldSelection;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//listele scrise in flux trec prin mai multe ferestre ale EntityStreamer: relatiile si imaginile trebuie sa fie complete
+//si dupa golirea persistence context-ului
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JsonArrayStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void hostReservationsAreStreamedAcrossWindows() throws Exception {
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+        User guest = userRepository.save(user(UserRole.ROLE_GUEST));
+        Property property = listing(host);
+        int count = 2 * 50 + 7;
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setProperty(property);
+            reservation.setGuest(guest);
+            reservation.setCheckInDate(LocalDate.now().plusDays(10 + 3L * i));
+            reservation.setCheckOutDate(LocalDate.now().plusDays(11 + 3L * i));
+            reservation.setNumberOfGuests(1);
+            reservation.setTotalPrice(new BigDecimal("80.00"));
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservations.add(reservation);
+        }
+        reservationRepository.saveAll(reservations);
+
+        JsonNode body = list("/api/reservations/host-reservations", host);
+        assertThat(body).hasSize(count);
+        assertThat(ids(body)).isSorted();
+        for (JsonNode reservation : body) {
+            assertThat(reservation.path("guest").path("email").asText()).isEqualTo(guest.getEmail());
+            assertThat(reservation.path("property").path("host").path("email").asText()).isEqualTo(host.getEmail());
+            assertThat(reservation.path("property").path("imageUrls")).hasSize(1);
+        }
+
+        JsonNode sparse = list("/api/reservations/host-reservations?fields=id,property.city", host);
+        assertThat(sparse.get(count - 1).size()).isEqualTo(2);
+        assertThat(sparse.get(count - 1).path("property").path("city").asText()).isEqualTo("Brasov");
+    }
+
+    @Test
+    void adminListsAreStreamedAndStillForbiddenForOthers() throws Exception {
+        User admin = userRepository.save(user(UserRole.ROLE_ADMIN));
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            created.add(listing(host).getId());
+        }
+
+        JsonNode properties = list("/api/properties/all", admin);
+        assertThat(ids(properties)).isSorted().containsAll(created);
+        for (JsonNode property : properties) {
+            if (created.contains(property.path("id").asLong())) {
+                assertThat(property.path("host").path("email").asText()).isEqualTo(host.getEmail());
+                assertThat(property.path("imageUrls")).hasSize(1);
+            }
+        }
+
+        JsonNode users = list("/api/users", admin);
+        assertThat(ids(users)).isSorted().contains(admin.getId(), host.getId());
+        assertThat(users.get(0).has("password")).isFalse();
+
+        mockMvc.perform(get("/api/properties/all").header("Authorization", bearer(jwtTokenProvider, userDetailsService, host)))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(""));
+    }
+
+    //o eroare la mijlocul listei nu trebuie sa produca un array inchis: clientul ar lua JSON-ul trunchiat drept complet
+    @Test
+    void failureAfterFlushLeavesTheArrayOpen() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThatThrownBy(() -> JsonArrayStream.write(response, objectMapper, FieldSelection.ALL, failingAfter(2000)))
+                .isInstanceOf(IllegalStateException.class);
+
+        String body = response.getContentAsString();
+        assertThat(body).startsWith("[{\"id\":0").doesNotEndWith("]");
+        assertThatThrownBy(() -> objectMapper.readTree(body)).isInstanceOf(JsonProcessingException.class);
+    }
+
+    //inainte de primul flush nimic nu e trimis: raspunsul ramane necomis si eroarea poate fi raportata cu un status
+    @Test
+    void failureBeforeFlushWritesNothing() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThatThrownBy(() -> JsonArrayStream.write(response, objectMapper, FieldSelection.ALL, failingAfter(2)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private static JsonArrayStream.Rows<Row> failingAfter(int rows) {
+        return consumer -> {
+            for (int i = 0; i < rows; i++) {
+                consumer.accept(new Row(i, "Proprietatea " + i));
+            }
+            throw new IllegalStateException("cursor closed");
+        };
+    }
+
+    private record Row(int id, String title) {
+    }
+
+    private JsonNode list(String url, User user) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(
+                        get(url).header("Authorization", bearer(jwtTokenProvider, userDetailsService, user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+    }
+
+    private static List<Long> ids(JsonNode array) {
+        return StreamSupport.stream(array.spliterator(), false).map(node -> node.path("id").asLong()).toList();
+    }
+
+    //proprietate salvata, cu o imagine (listele o serializeaza impreuna cu host-ul)
+    private Property listing(User host) {
+        Property property = property(host, "Brasov");
+        property.setImageUrls(List.of("http://localhost:8080/uploads/s.png"));
+        return propertyRepository.save(property);
+    }
+}
@@ -0,0 +1,108 @@
+package com.airbnb.miniairbnb.datasource;
+
+import com.airbnb.miniairbnb.dto.ContentVersion;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.service.PropertyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+//replica e o a doua baza H2, copiata din primary doar la cerere (LaggingReplica.catchUp): intre copii ramane in urma
+@SpringBootTest(properties = "app.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@ActiveProfiles("test")
+class ReplicaCacheTests {
+
+    @Autowired
+    private LaggingReplica replica;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    //o citire de pe replica in urma, facuta imediat dupa o scriere pe primary, nu ramane in second-level cache,
+    //iar query-urile cacheable (versiunea pt ETag, proprietatile dintr-un oras) citesc de pe primary
+    @Test
+    void staleReplicaReadsAreNotCached() {
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+        Property property = propertyRepository.save(property(host, "Brasov"));
+        replica.catchUp();
+        ContentVersion original = propertyService.findPropertyVersion(property.getId()).orElseThrow();
+
+        property.setTitle("Apartament renovat");
+        propertyRepository.save(property);
+
+        //replica nu are inca scrierea: findPropertyById o vede veche, dar nu o pune in cache
+        entityManagerFactory.getCache().evict(Property.class, property.getId());
+        assertThat(propertyService.findPropertyById(property.getId())).get().extracting(Property::getTitle).isEqualTo("Apartament");
+        assertThat(entityManagerFactory.getCache().contains(Property.class, property.getId())).isFalse();
+
+        ContentVersion version = propertyService.findPropertyVersion(property.getId()).orElseThrow();
+        assertThat(version).isNotEqualTo(original)
+                .isEqualTo(new TransactionTemplate(transactionManager)
+                        .execute(status -> propertyRepository.findContentVersionById(property.getId()).orElseThrow()));
+        assertThat(propertyService.findActivePropertiesByCity("Brasov")).extracting(Property::getTitle)
+                .containsExactly("Apartament renovat");
+
+        replica.catchUp();
+        assertThat(propertyService.findPropertyById(property.getId())).get().extracting(Property::getTitle).isEqualTo("Apartament renovat");
+    }
+
+    @TestConfiguration
+    static class ReplicaConfiguration {
+        //depinde de EntityManagerFactory: schema e deja creata in primary, iar indexurile care citesc la pornire
+        //(afterSingletonsInstantiated) gasesc tabelele si pe replica
+        @Bean
+        LaggingReplica laggingReplica(@Qualifier("primaryDataSource") DataSource primary,
+                                      @Qualifier("replicaDataSource") DataSource replica,
+                                      EntityManagerFactory entityManagerFactory) {
+            LaggingReplica laggingReplica = new LaggingReplica(new JdbcTemplate(primary), new JdbcTemplate(replica));
+            laggingReplica.catchUp();
+            return laggingReplica;
+        }
+    }
+
+    static class LaggingReplica {
+        private final JdbcTemplate primary;
+        private final JdbcTemplate replica;
+
+        LaggingReplica(JdbcTemplate primary, JdbcTemplate replica) {
+            this.primary = primary;
+            this.replica = replica;
+        }
+
+        //replica primeste o copie a primary-ului de acum
+        void catchUp() {
+            replica.execute("DROP ALL OBJECTS");
+            primary.queryForList("SCRIPT", String.class).forEach(replica::execute);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.airbnb.miniairbnb.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//doua baze H2 in memorie tin locul bazelor primary si replica
+class ReplicaRoutingDataSourceTests {
+    private static final long READ_YOUR_WRITES_WINDOW_MS = 5_000;
+
+    private MutableClock clock;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        useDataSources(primary, replica);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertThat(databaseUsedBy(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(databaseUsedBy(writeTransaction)).isEqualTo("primary");
+        assertThat(currentDatabase()).isEqualTo("primary"); //fara tranzactie: primary
+    }
+
+    @Test
+    void userWhoJustWroteReadsFromPrimaryUntilWindowExpires() {
+        authenticateAs("ana@test.com");
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO marker (name) VALUES ('written')"));
+
+        assertThat(databaseUsedBy(readOnlyTransaction)).isEqualTo("primary");
+
+        //alt utilizator nu e afectat de scrierea Anei
+        authenticateAs("ion@test.com");
+        assertThat(databaseUsedBy(readOnlyTransaction)).isEqualTo("replica");
+
+        authenticateAs("ana@test.com");
+        clock.advance(Duration.ofMillis(READ_YOUR_WRITES_WINDOW_MS));
+        assertThat(databaseUsedBy(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinUserToPrimary() {
+        authenticateAs("ana@test.com");
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO marker (name) VALUES ('discarded')");
+            status.setRollbackOnly();
+        });
+
+        assertThat(databaseUsedBy(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaIsDown() {
+        DataSource unreachableReplica = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/replica", "sa", "");
+        useDataSources(database("primary"), unreachableReplica);
+
+        assertThat(databaseUsedBy(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    private void useDataSources(DataSource primary, DataSource replica) {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(READ_YOUR_WRITES_WINDOW_MS, clock);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, tracker, 30_000, clock));
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String databaseUsedBy(TransactionTemplate transaction) {
+        return transaction.execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM marker WHERE name IN ('primary', 'replica')", String.class);
+        return names.get(0);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticateAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.airbnb.miniairbnb.fields;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//compresia e facuta de Tomcat, deci o parte din teste merge pe serverul pornit, nu prin MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FieldSelectionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @LocalServerPort
+    private int port;
+
+    private User host;
+    private String city;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        city = "Oras-" + UUID.randomUUID();
+    }
+
+    @Test
+    void listingSerializesOnlyRequestedFields() throws Exception {
+        listing("120.00");
+
+        mockMvc.perform(get("/api/properties").param("city", city).param("fields", "id, title,host.firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", aMapWithSize(3)))
+                .andExpect(jsonPath("$[0].title").value("Apartament"))
+                .andExpect(jsonPath("$[0].host", aMapWithSize(1)))
+                .andExpect(jsonPath("$[0].host.firstName").value(host.getFirstName()));
+
+        //un camp obiect cerut intreg vine cu tot continutul lui; fatetele nu sunt filtrate
+        mockMvc.perform(get("/api/properties").param("city", city).param("facets", "true").param("fields", "host"))
+                .andExpect(jsonPath("$.properties[0]", aMapWithSize(1)))
+                .andExpect(jsonPath("$.properties[0].host.email").value(host.getEmail()))
+                .andExpect(jsonPath("$.facets.total").value(1));
+
+        mockMvc.perform(get("/api/properties").param("city", city))
+                .andExpect(jsonPath("$[0].pricePerNight").value(120.0))
+                .andExpect(jsonPath("$[0].host.lastName").value(host.getLastName()));
+    }
+
+    @Test
+    void reservationListsSerializeOnlyRequestedFields() throws Exception {
+        User guest = userRepository.save(user(UserRole.ROLE_GUEST));
+        Reservation reservation = new Reservation();
+        reservation.setProperty(listing("150.00"));
+        reservation.setGuest(guest);
+        reservation.setCheckInDate(LocalDate.now().plusDays(3));
+        reservation.setCheckOutDate(LocalDate.now().plusDays(5));
+        reservation.setNumberOfGuests(2);
+        reservation.setTotalPrice(new BigDecimal("300.00"));
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservationRepository.save(reservation);
+
+        mockMvc.perform(get("/api/reservations/my-reservations").param("fields", "status,property.city")
+                        .header("Authorization", bearer(jwtTokenProvider, userDetailsService, guest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", aMapWithSize(2)))
+                .andExpect(jsonPath("$[0].status").value("PENDING"))
+                .andExpect(jsonPath("$[0].property", aMapWithSize(1)))
+                .andExpect(jsonPath("$[0].property.city").value(city));
+
+        mockMvc.perform(get("/api/reservations/host-reservations").header("Authorization", bearer(jwtTokenProvider, userDetailsService, host)))
+                .andExpect(jsonPath("$[0].guest.email").value(guest.getEmail()))
+                .andExpect(jsonPath("$[0].totalPrice").value(300.0));
+    }
+
+    @Test
+    void largeListsAreCompressed() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            listing("99.00");
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<byte[]> plain = client.send(request().build(), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> gzip = client.send(request().header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(gzip.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+            assertThat(body.readAllBytes()).isEqualTo(plain.body());
+        }
+        assertThat(gzip.body().length).isLessThan(plain.body().length / 4);
+    }
+
+    private HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/properties?city=" + city));
+    }
+
+    //proprietate salvata in orasul testului (listarile filtreaza dupa el)
+    private Property listing(String price) {
+        Property property = property(host, city);
+        property.setPricePerNight(new BigDecimal(price));
+        property.setImageUrls(List.of("http://localhost:8080/uploads/f.png"));
+        return propertyRepository.save(property);
+    }
+}
@@ -0,0 +1,185 @@
+package com.airbnb.miniairbnb.geo;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PropertyGeoSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User host;
+
+    @BeforeEach
+    void setUp() {
+        host = new User();
+        host.setEmail("host-" + UUID.randomUUID() + "@geo.test");
+        host.setPassword("parola-secreta");
+        host.setFirstName("Geo");
+        host.setLastName("Host");
+        host.setRole(UserRole.ROLE_HOST);
+        host = userRepository.save(host);
+    }
+
+    //gridul trebuie sa dea exact rezultatele unei parcurgeri complete, inclusiv langa poli si meridianul 180
+    @Test
+    void gridIndexMatchesFullScan() {
+        Random random = new Random(42);
+        double[][] centers = {{44.43, 26.10}, {-33.9, 151.2}, {0.0, 179.98}, {89.95, 10.0}, {51.5, -0.12}};
+        int count = 20_000;
+        double[] lat = new double[count];
+        double[] lng = new double[count];
+        long[] price = new long[count];
+        int[] guests = new int[count];
+        GeoGridIndex index = new GeoGridIndex(0.05);
+        for (int i = 0; i < count; i++) {
+            double[] center = centers[i % centers.length];
+            lat[i] = Math.max(-90, Math.min(90, center[0] + random.nextGaussian() * 0.2));
+            lng[i] = wrap(center[1] + random.nextGaussian() * 0.3);
+            price[i] = 5_000 + random.nextInt(50_000);
+            guests[i] = 1 + random.nextInt(8);
+            index.put(i, lat[i], lng[i], price[i], guests[i]);
+        }
+        GeoGridIndex.Filter filter = new GeoGridIndex.Filter(10_000, 30_000, 3);
+
+        for (double[] center : centers) {
+            List<GeoGridIndex.Hit> hits = index.nearby(center[0], center[1], 8, filter, 20);
+            List<Long> expected = IntStream.range(0, count)
+                    .filter(i -> filter.matches(price[i], guests[i]))
+                    .filter(i -> GeoGridIndex.distanceKm(center[0], center[1], lat[i], lng[i]) <= 8)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> GeoGridIndex.distanceKm(center[0], center[1], lat[i], lng[i]))
+                            .thenComparingInt(i -> i))
+                    .limit(20)
+                    .map(Integer::longValue)
+                    .toList();
+            assertThat(expected).isNotEmpty();
+            assertThat(hits).extracting(GeoGridIndex.Hit::id).containsExactlyElementsOf(expected);
+        }
+
+        //viewport care traverseaza meridianul 180
+        List<Long> within = index.within(-0.1, 179.9, 0.1, -179.9, filter, Integer.MAX_VALUE);
+        List<Long> expected = IntStream.range(0, count)
+                .filter(i -> filter.matches(price[i], guests[i]))
+                .filter(i -> lat[i] >= -0.1 && lat[i] <= 0.1 && (lng[i] >= 179.9 || lng[i] <= -179.9))
+                .mapToObj(i -> (long) i)
+                .toList();
+        assertThat(expected).isNotEmpty();
+        assertThat(within).containsExactlyInAnyOrderElementsOf(expected);
+
+        //lumea intreaga: se parcurg celulele existente, nu tot gridul
+        assertThat(index.within(-90, -180, 90, 180, GeoGridIndex.Filter.NONE, Integer.MAX_VALUE)).hasSize(count);
+    }
+
+    @Test
+    void nearbyReturnsClosestFirstWithDistanceAndFilters() throws Exception {
+        Property far = create(10.0, 10.03, "100.00", 2); //~3.3 km
+        Property close = create(10.0, 10.01, "150.00", 4); //~1.1 km
+        create(10.0, 10.2, "100.00", 2); //~22 km, in afara razei
+        create(10.0, 10.005, "400.00", 2); //prea scumpa
+
+        mockMvc.perform(get("/api/properties/nearby").param("lat", "10.0").param("lng", "10.0")
+                        .param("radiusKm", "5").param("maxPrice", "300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].property.id").value(close.getId()))
+                .andExpect(jsonPath("$[0].distanceKm").value(closeTo(1.1, 0.05)))
+                .andExpect(jsonPath("$[1].property.id").value(far.getId()));
+
+        mockMvc.perform(get("/api/properties/nearby").param("lat", "10.0").param("lng", "10.0")
+                        .param("radiusKm", "5").param("maxPrice", "300").param("guests", "3"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].property.id").value(close.getId()));
+
+        mockMvc.perform(get("/api/properties/nearby").param("lat", "95").param("lng", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("invalid_request"))
+                .andExpect(jsonPath("$.message").value("Latitude must be between -90 and 90 and longitude between -180 and 180"));
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() throws Exception {
+        Property property = create(-20.0, -40.0, "100.00", 2);
+        assertWithin(-20.1, -40.1, -19.9, -39.9, property.getId());
+
+        Property moved = new Property();
+        moved.setLatitude(-21.0);
+        moved.setLongitude(-41.0);
+        propertyService.updateProperty(property.getId(), moved, host);
+        assertWithin(-20.1, -40.1, -19.9, -39.9);
+        assertWithin(-21.1, -41.1, -20.9, -40.9, property.getId());
+
+        Property deactivated = new Property();
+        deactivated.setIsActive(false);
+        propertyService.updateProperty(property.getId(), deactivated, host);
+        assertWithin(-21.1, -41.1, -20.9, -40.9);
+
+        Property other = create(-21.0, -41.0, "100.00", 2);
+        assertWithin(-21.1, -41.1, -20.9, -40.9, other.getId());
+        propertyService.deleteProperty(other.getId(), host);
+        assertWithin(-21.1, -41.1, -20.9, -40.9);
+    }
+
+    private void assertWithin(double south, double west, double north, double east, Long... ids) throws Exception {
+        var result = mockMvc.perform(get("/api/properties/within")
+                        .param("south", String.valueOf(south)).param("west", String.valueOf(west))
+                        .param("north", String.valueOf(north)).param("east", String.valueOf(east)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ids.length)));
+        for (int i = 0; i < ids.length; i++) {
+            result.andExpect(jsonPath("$[" + i + "].id").value(ids[i]));
+        }
+    }
+
+    private Property create(double latitude, double longitude, String price, int maxGuests) {
+        Property property = new Property();
+        property.setTitle("Casa pe harta");
+        property.setAddress("Str. Geo 1");
+        property.setCity("Geo");
+        property.setCountry("Geo");
+        property.setPricePerNight(new BigDecimal(price));
+        property.setBedrooms(1);
+        property.setBathrooms(1);
+        property.setMaxGuests(maxGuests);
+        property.setLatitude(latitude);
+        property.setLongitude(longitude);
+        return propertyService.createProperty(property, host);
+    }
+
+    private static double wrap(double longitude) {
+        return longitude > 180 ? longitude - 360 : longitude < -180 ? longitude + 360 : longitude;
+    }
+}
@@ -0,0 +1,162 @@
+package com.airbnb.miniairbnb.outbox;
+
+import com.airbnb.miniairbnb.model.OutboxEvent;
+import com.airbnb.miniairbnb.model.OutboxOffset;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.PropertyBookingStats;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.OutboxEventRepository;
+import com.airbnb.miniairbnb.repository.OutboxOffsetRepository;
+import com.airbnb.miniairbnb.repository.PropertyBookingStatsRepository;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import com.airbnb.miniairbnb.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OutboxRelayTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private PropertyBookingStatsRepository statsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User host;
+    private User guest;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        guest = userRepository.save(user(UserRole.ROLE_GUEST));
+
+        property = propertyRepository.save(property(host, "Busteni"));
+    }
+
+    @Test
+    void reservationChangesAreAggregatedOncePerEvent() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        Reservation completed = reservationService.createReservation(property.getId(), checkIn, checkIn.plusDays(3), 2, guest);
+        reservationService.confirmReservation(completed.getId(), host);
+        reservationService.completeReservation(completed.getId(), host);
+        Reservation cancelled = reservationService.createReservation(property.getId(), checkIn.plusDays(5), checkIn.plusDays(6), 1, guest);
+        reservationService.cancelReservation(cancelled.getId(), guest);
+
+        //evenimentele exista deja, scrise in tranzactiile rezervarilor; agregatul apare abia dupa relay
+        assertThat(statsRepository.findById(property.getId())).isEmpty();
+        relay.run();
+        relay.run(); //a doua rulare nu mai are ce livra
+
+        PropertyBookingStats stats = statsRepository.findById(property.getId()).orElseThrow();
+        assertThat(stats.getReservationsCreated()).isEqualTo(2);
+        assertThat(stats.getReservationsConfirmed()).isEqualTo(1);
+        assertThat(stats.getReservationsCompleted()).isEqualTo(1);
+        assertThat(stats.getReservationsCancelled()).isEqualTo(1);
+        assertThat(stats.getCompletedRevenue()).isEqualByComparingTo(completed.getTotalPrice());
+        assertThat(outboxOffsetRepository.findById("property-booking-stats").orElseThrow().getPosition())
+                .isEqualTo(outboxEventRepository.findMaxPosition());
+
+        mockMvc.perform(get("/api/properties/" + property.getId() + "/booking-stats").header("Authorization", bearer(jwtTokenProvider, userDetailsService, host)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationsCreated").value(2))
+                .andExpect(jsonPath("$.completedRevenue").value(completed.getTotalPrice().doubleValue()));
+        mockMvc.perform(get("/api/properties/" + property.getId() + "/booking-stats").header("Authorization", bearer(jwtTokenProvider, userDetailsService, guest)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("permission_denied"));
+    }
+
+    //un consumator care pica ramane pe offset-ul dinaintea lotului si primeste din nou evenimentele lui
+    @Test
+    void failedBatchIsRedeliveredFromTheLastOffset() {
+        LocalDate checkIn = LocalDate.now().plusDays(60);
+        Reservation reservation = reservationService.createReservation(property.getId(), checkIn, checkIn.plusDays(2), 1, guest);
+        relay.run();
+
+        FlakyConsumer consumer = new FlakyConsumer(reservation.getId());
+        relay.dispatch(consumer);
+        assertThat(outboxOffsetRepository.findById(consumer.name()).map(OutboxOffset::getPosition).orElse(0L))
+                .isLessThan(outboxEventRepository.findMaxPosition());
+        assertThat(consumer.delivered).doesNotContain(reservation.getId());
+
+        consumer.failing = false;
+        relay.dispatch(consumer);
+        assertThat(outboxOffsetRepository.findById(consumer.name()).orElseThrow().getPosition())
+                .isEqualTo(outboxEventRepository.findMaxPosition());
+        assertThat(consumer.delivered).containsOnlyOnce(reservation.getId());
+    }
+
+    private static class FlakyConsumer implements OutboxConsumer {
+        private final Long failOn;
+        private final List<Long> delivered = new ArrayList<>();
+        private boolean failing = true;
+
+        FlakyConsumer(Long failOn) {
+            this.failOn = failOn;
+        }
+
+        @Override
+        public String name() {
+            return "flaky-" + failOn;
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            if (!event.getType().isReservationEvent()) {
+                return;
+            }
+            if (failing && failOn.equals(event.getAggregateId())) {
+                throw new IllegalStateException("consumer unavailable");
+            }
+            delivered.add(event.getAggregateId());
+        }
+    }
+}
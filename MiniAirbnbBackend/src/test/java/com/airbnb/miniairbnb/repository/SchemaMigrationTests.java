@@ -0,0 +1,152 @@
+package com.airbnb.miniairbnb.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//migrarile Flyway pe un PostgreSQL real (embedded, pornit din binarele descarcate de Maven)
+class SchemaMigrationTests {
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.update("INSERT INTO users (email, password, first_name, last_name, role) "
+                + "SELECT 'user' || i || '@test.com', 'x', 'U', 'U', 'ROLE_HOST' FROM generate_series(1, 2000) i");
+        //id-uri explicite: secventa properties_seq are pas 50 (generator pooled)
+        jdbc.update("INSERT INTO properties (id, title, address, city, country, price_per_night, bedrooms, bathrooms, max_guests, is_active, host_id) "
+                + "SELECT i, 'P' || i, 'Addr', 'City' || (i % 50), 'RO', 100, 1, 1, 2, i % 10 <> 0, 1 + i % 2000 FROM generate_series(1, 20000) i");
+        jdbc.execute("SELECT create_reservation_partition(DATE '2020-01-01')");
+        jdbc.execute("SELECT create_reservation_partition(DATE '2030-06-01')");
+        //istoric lung: fiecare proprietate are rezervari consecutive, fara suprapuneri
+        jdbc.update("INSERT INTO reservations (property_id, guest_id, check_in_date, check_out_date, number_of_guests, total_price, status) "
+                + "SELECT 1 + i % 20000, 1 + i % 2000, DATE '2020-01-01' + (i / 20000) * 3, DATE '2020-01-01' + (i / 20000) * 3 + 1, 1, 100, "
+                + "(ARRAY['PENDING','CONFIRMED','CANCELLED','COMPLETED'])[1 + (i / 20000) % 4] FROM generate_series(0, 199999) i");
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    //partitiile goale pot aparea cu Seq Scan (cost zero); conteaza partitia populata
+
+    @Test
+    void availabilityCheckUsesReservationRangeIndex() {
+        assertThat(plan("SELECT 1 FROM reservations r WHERE r.property_id = 42 AND r.status IN ('PENDING', 'CONFIRMED') "
+                + "AND r.check_in_date <= DATE '2020-02-10' AND r.check_out_date >= DATE '2020-02-01' FETCH FIRST 1 ROWS ONLY"))
+                .contains("property_id_status_check_in_date")
+                .doesNotContain("Seq Scan on reservations_p2020_01");
+    }
+
+    @Test
+    void busyDatesUseReservationRangeIndex() {
+        assertThat(plan("SELECT * FROM reservations r WHERE r.property_id = 42 AND r.status IN ('PENDING', 'CONFIRMED')"))
+                .contains("property_id_status_check_in_date")
+                .doesNotContain("Seq Scan on reservations_p2020_01");
+    }
+
+    @Test
+    void guestReservationsUseGuestIndex() {
+        assertThat(plan("SELECT * FROM reservations r WHERE r.guest_id = 7"))
+                .contains("guest_id_idx")
+                .doesNotContain("Seq Scan on reservations_p2020_01");
+    }
+
+    @Test
+    void hostPropertiesUseHostIndex() {
+        assertThat(plan("SELECT * FROM properties p WHERE p.host_id = 7"))
+                .contains("idx_properties_host")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void activePropertiesByCityUseActiveCityIndex() {
+        assertThat(plan("SELECT * FROM properties p WHERE p.city = 'City7' AND p.is_active = true"))
+                .contains("idx_properties_active_city")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void fullTextSearchUsesGinIndex() {
+        assertThat(plan("SELECT p.* FROM (SELECT m.id, ts_rank_cd(m.search_vector, q) AS rank "
+                + "FROM properties m, websearch_to_tsquery('simple', 'P7') q WHERE m.is_active AND m.search_vector @@ q LIMIT 5000) r "
+                + "JOIN properties p ON p.id = r.id ORDER BY r.rank DESC, p.id LIMIT 21"))
+                .contains("idx_properties_search")
+                .doesNotContain("Seq Scan on properties");
+    }
+
+    @Test
+    void checkInDateFilterPrunesPartitions() {
+        assertThat(plan("SELECT * FROM reservations r WHERE r.guest_id = 7 AND r.check_in_date >= DATE '2030-06-01'"))
+                .contains("reservations_p2030_06")
+                .doesNotContain("reservations_p2020_01");
+    }
+
+    @Test
+    void overlappingActiveReservationIsRejectedByDatabase() {
+        insertReservation(1, "2030-06-01", "2030-06-05", "CONFIRMED");
+
+        assertThatThrownBy(() -> insertReservation(1, "2030-06-04", "2030-06-08", "PENDING"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("reservations_p2030_06_no_overlap");
+        //rezervarile anulate nu ocupa calendarul
+        insertReservation(1, "2030-06-04", "2030-06-08", "CANCELLED");
+        //alta proprietate, aceleasi date
+        insertReservation(2, "2030-06-01", "2030-06-05", "CONFIRMED");
+    }
+
+    //o luna fara partitie ajunge in partitia default: si acolo suprapunerile sunt respinse, iar partitia creata
+    //ulterior pt luna respectiva preia rezervarile deja existente
+    @Test
+    void defaultPartitionRejectsOverlapsAndHandsRowsToTheNewMonthPartition() {
+        insertReservation(3, "2031-03-10", "2031-03-12", "CONFIRMED");
+        assertThatThrownBy(() -> insertReservation(3, "2031-03-11", "2031-03-14", "PENDING"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("reservations_default_no_overlap");
+        assertThat(partitionOf(3, "2031-03-10")).isEqualTo("reservations_default");
+
+        jdbc.execute("SELECT create_reservation_partition(DATE '2031-03-01')");
+
+        assertThat(partitionOf(3, "2031-03-10")).isEqualTo("reservations_p2031_03");
+        assertThatThrownBy(() -> insertReservation(3, "2031-03-11", "2031-03-14", "PENDING"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("reservations_p2031_03_no_overlap");
+        assertThat(plan("SELECT * FROM reservations r WHERE r.property_id = 3 AND r.status IN ('PENDING', 'CONFIRMED') "
+                + "AND r.check_in_date >= DATE '2031-03-01' AND r.check_in_date < DATE '2031-04-01'"))
+                .contains("reservations_p2031_03")
+                .doesNotContain("reservations_default");
+    }
+
+    private static String partitionOf(long propertyId, String checkIn) {
+        return jdbc.queryForObject("SELECT tableoid::regclass::text FROM reservations WHERE property_id = ? AND check_in_date = CAST(? AS DATE)",
+                String.class, propertyId, checkIn);
+    }
+
+    private static void insertReservation(long propertyId, String checkIn, String checkOut, String status) {
+        jdbc.update("INSERT INTO reservations (property_id, guest_id, check_in_date, check_out_date, number_of_guests, total_price, status) "
+                + "VALUES (?, 1, CAST(? AS DATE), CAST(? AS DATE), 1, 100, ?)", propertyId, checkIn, checkOut, status);
+    }
+
+    private static String plan(String sql) {
+        List<String> lines = jdbc.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
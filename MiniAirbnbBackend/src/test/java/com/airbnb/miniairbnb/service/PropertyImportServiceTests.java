@@ -0,0 +1,123 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.dto.PropertyImportResult;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "app.import.chunk-size=100")
+@ActiveProfiles("test")
+class PropertyImportServiceTests {
+
+    @Autowired
+    private PropertyImportService propertyImportService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User host;
+
+    @BeforeEach
+    void setUp() {
+        host = new User();
+        host.setEmail("import-" + UUID.randomUUID() + "@test.com");
+        host.setPassword("parola-secreta");
+        host.setFirstName("Ion");
+        host.setLastName("Ionescu");
+        host.setRole(UserRole.ROLE_HOST);
+        host = userRepository.save(host);
+    }
+
+    @Test
+    void csvRowsAreInsertedInBatchesAndInvalidRowsAreReported() throws Exception {
+        StringBuilder csv = new StringBuilder("title,city,country,address,pricePerNight,bedrooms,bathrooms,maxGuests,imageUrls\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("Casa ").append(i).append(",Brasov,Romania,\"Str. Lunga 1, ap. ").append(i)
+                    .append("\",120.50,2,1,4,http://img/a.png|http://img/b.png\n");
+        }
+        csv.append(",Brasov,Romania,Str. X,100,1,1,2,\n");        //linia 252: fara titlu
+        csv.append("Casa rea,Brasov,Romania,Str. Y,gratis,1,1,2,\n"); //linia 253: pret invalid
+        csv.append("\"Casa \"\"veche\"\"\nrenovata\",Sibiu,Romania,Str. Z,90,1,1,2,\n"); //camp pe doua linii
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        PropertyImportResult result = propertyImportService.importCsv(new StringReader(csv.toString()), host);
+
+        assertThat(result.getImported()).isEqualTo(251);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(PropertyImportResult.RowError::getLine).containsExactly(252L, 253L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Title is required");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Invalid value for pricePerNight: 'gratis'");
+
+        //251 proprietati (+ 251 evenimente PROPERTY_CREATED in outbox) + 502 imagini, dar statement-urile sunt refolosite
+        //in batch-uri (3 loturi x insert-uri + secvente)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2 * 251);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+
+        List<Property> imported = propertyRepository.findByHost(host);
+        assertThat(imported).hasSize(251);
+        assertThat(imported).extracting(Property::getTitle).contains("Casa \"veche\"\nrenovata");
+        assertThat(imported).allSatisfy(property -> assertThat(property.getIsActive()).isTrue());
+    }
+
+    @Test
+    void jsonLinesAreImportedWithPerLineErrors() throws Exception {
+        String jsonLines = """
+                {"title":"Studio","address":"Str. A","city":"Iasi","country":"Romania","pricePerNight":80,"bedrooms":1,"bathrooms":1,"maxGuests":2}
+
+                {"title":"Studio 2","address":"Str. B","city":"Iasi","country":"Romania","pricePerNight":-5,"bedrooms":1,"bathrooms":1,"maxGuests":2}
+                {"title":
+                {"id":999999,"title":"Vila","address":"Str. C","city":"Iasi","country":"Romania","pricePerNight":300,"bedrooms":4,"bathrooms":2,"maxGuests":8,"isActive":false}
+                """;
+
+        PropertyImportResult result = propertyImportService.importJsonLines(new StringReader(jsonLines), host);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(PropertyImportResult.RowError::getLine).containsExactly(3L, 4L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Price must be greater than 0");
+        assertThat(result.getErrors().get(1).getMessage()).startsWith("Invalid JSON");
+        //id-ul si starea din fisier sunt ignorate
+        assertThat(propertyRepository.findByHost(host))
+                .extracting(Property::getTitle, Property::getIsActive)
+                .containsExactlyInAnyOrder(tuple("Studio", true), tuple("Vila", true));
+        assertThat(propertyRepository.findById(999999L)).isEmpty();
+    }
+
+    @Test
+    void unknownCsvColumnRejectsTheFile() {
+        assertThatThrownBy(() -> propertyImportService.importCsv(new StringReader("title,stars\nCasa,5\n"), host))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Unknown CSV column: stars");
+    }
+
+    @Test
+    void guestsCannotImport() {
+        host.setRole(UserRole.ROLE_GUEST);
+        assertThatThrownBy(() -> propertyImportService.importCsv(new StringReader("title\nCasa\n"), host))
+                .hasMessage("Only HOST or ADMIN can import properties");
+    }
+}
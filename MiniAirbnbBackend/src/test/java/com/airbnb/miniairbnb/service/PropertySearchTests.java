@@ -0,0 +1,156 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.dto.PropertySearchResult;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//cautarea full-text ruleaza pe PostgreSQL (tsvector + GIN), cu schema creata de Flyway
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PropertySearchTests {
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static boolean seeded;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeAll
+    static void resetSeed() {
+        seeded = false;
+    }
+
+    private void seed() {
+        if (seeded) {
+            return;
+        }
+        User host = userRepository.save(user(UserRole.ROLE_HOST));
+
+        propertyRepository.save(listing(host, "Loft cu vedere la mare", "Aproape de plaja", "Constanta", true));
+        propertyRepository.save(listing(host, "Apartament central", "Balcon cu vedere la mare si parcare", "Mamaia", true));
+        propertyRepository.save(listing(host, "Loft cu vedere la mare inchis", "Nu mai e disponibil", "Constanta", false));
+        propertyRepository.save(listing(host, "Cabana la munte", "Vedere spre brazi", "Sinaia", true));
+        for (int i = 0; i < 25; i++) {
+            propertyRepository.save(listing(host, "Studio " + i, "Studio mic in centru", "Cluj", true));
+        }
+        seeded = true;
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatchesAndInactiveAreExcluded() {
+        seed();
+        PropertySearchResult result = propertyService.searchActiveProperties("vedere la mare", 0, 10);
+
+        assertThat(result.getResults()).extracting(Property::getTitle)
+                .containsExactly("Loft cu vedere la mare", "Apartament central");
+        assertThat(result.isHasNext()).isFalse();
+    }
+
+    @Test
+    void cityAndWebSearchSyntaxAreSupported() {
+        seed();
+        assertThat(propertyService.searchActiveProperties("constanta", 0, 10).getResults())
+                .extracting(Property::getTitle).containsExactly("Loft cu vedere la mare");
+        assertThat(propertyService.searchActiveProperties("vedere -mare", 0, 10).getResults())
+                .extracting(Property::getTitle).containsExactly("Cabana la munte");
+    }
+
+    @Test
+    void resultsArePaginated() {
+        seed();
+        List<String> titles = new ArrayList<>();
+        PropertySearchResult page;
+        int pageNumber = 0;
+        do {
+            page = propertyService.searchActiveProperties("studio", pageNumber++, 10);
+            page.getResults().forEach(property -> titles.add(property.getTitle()));
+        } while (page.isHasNext());
+
+        assertThat(pageNumber).isEqualTo(3);
+        assertThat(titles).hasSize(25).doesNotHaveDuplicates();
+        assertThatThrownBy(() -> propertyService.searchActiveProperties(" ", 0, 10))
+                .hasMessage("Search query is required");
+    }
+
+    //peste plafonul de potriviri ordonate se pastreaza mereu aceleasi (cele mai noi), nu ce citeste planificatorul primul
+    @Test
+    void rankingCapKeepsTheNewestMatches() {
+        seed();
+        List<Property> capped = propertyRepository.searchActive("studio", 5, 100, 0);
+
+        assertThat(capped).extracting(Property::getTitle)
+                .containsExactly("Studio 20", "Studio 21", "Studio 22", "Studio 23", "Studio 24");
+        assertThat(propertyRepository.searchActive("studio", 5, 100, 0)).extracting(Property::getId)
+                .isEqualTo(capped.stream().map(Property::getId).toList());
+    }
+
+    @Test
+    void searchEndpointReturnsRankedPage() throws Exception {
+        seed();
+        mockMvc.perform(get("/api/properties/search").param("q", "loft mare").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].title").value("Loft cu vedere la mare"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(get("/api/properties/search").param("q", "mare").param("size", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Property listing(User host, String title, String description, String city, boolean active) {
+        Property property = property(host, city);
+        property.setTitle(title);
+        property.setDescription(description);
+        property.setIsActive(active);
+        return property;
+    }
+}
@@ -0,0 +1,101 @@
+package com.airbnb.miniairbnb.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationArchiveJobTests {
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static ReservationArchiveJob job;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        job = new ReservationArchiveJob(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "partitionMonthsAhead", 3);
+
+        jdbc.update("INSERT INTO users (email, password, first_name, last_name, role) VALUES ('guest@test.com', 'x', 'G', 'G', 'ROLE_GUEST')");
+        jdbc.update("INSERT INTO properties (id, title, address, city, country, price_per_night, bedrooms, bathrooms, max_guests, is_active, host_id) "
+                + "VALUES (1, 'P', 'Addr', 'Cluj', 'RO', 100, 1, 1, 2, true, 1)");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void finishedOldReservationsMoveToArchiveAndEmptyPartitionsAreDropped() {
+        jdbc.execute("SELECT create_reservation_partition(DATE '2022-03-01')");
+        jdbc.execute("SELECT create_reservation_partition(DATE '2022-04-01')");
+        insertReservation("2022-03-02", "2022-03-05", "COMPLETED");
+        insertReservation("2022-03-10", "2022-03-12", "CANCELLED");
+        insertReservation("2022-03-20", "2022-03-22", "COMPLETED");
+        insertReservation("2022-04-02", "2022-04-05", "CONFIRMED"); //niciodata finalizata: ramane in tabela activa
+        insertReservation(LocalDate.now().plusDays(3).toString(), LocalDate.now().plusDays(5).toString(), "PENDING");
+
+        int archived = job.archiveFinishedReservations(LocalDate.of(2023, 1, 1));
+        int dropped = job.dropEmptyPartitionsBefore(LocalDate.of(2023, 1, 1));
+
+        assertThat(archived).isEqualTo(3); //doua loturi: 2 + 1
+        assertThat(jdbc.queryForList("SELECT status FROM reservations_archive ORDER BY check_in_date", String.class))
+                .containsExactly("COMPLETED", "CANCELLED", "COMPLETED");
+        assertThat(jdbc.queryForList("SELECT status FROM reservations ORDER BY check_in_date", String.class))
+                .containsExactly("CONFIRMED", "PENDING");
+        assertThat(dropped).isEqualTo(1);
+        assertThat(partitions()).doesNotContain("reservations_p2022_03").contains("reservations_p2022_04");
+    }
+
+    //lotul citeste doar partitiile lunare de dinainte de cutoff (si partitia default, care poate avea luni vechi)
+    @Test
+    void batchQueryOnlyScansPartitionsBeforeTheCutoff() {
+        jdbc.execute("SELECT create_reservation_partition(DATE '2021-05-01')");
+        jdbc.execute("SELECT create_reservation_partition(DATE '2021-06-01')");
+
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + ReservationArchiveJob.BATCH_QUERY
+                .replace(":cutoff", "DATE '2021-06-01'").replace(":batchSize", "2"), String.class));
+
+        assertThat(plan).contains("reservations_p2021_05").doesNotContain("reservations_p2021_06");
+    }
+
+    @Test
+    void upcomingPartitionsAreCreatedAhead() {
+        YearMonth start = YearMonth.now().plusYears(2);
+        job.createUpcomingPartitions(start);
+        job.createUpcomingPartitions(start); //idempotent
+
+        assertThat(partitions()).contains(
+                "reservations_p" + start.toString().replace('-', '_'),
+                "reservations_p" + start.plusMonths(3).toString().replace('-', '_'));
+    }
+
+    private static void insertReservation(String checkIn, String checkOut, String status) {
+        jdbc.update("INSERT INTO reservations (property_id, guest_id, check_in_date, check_out_date, number_of_guests, total_price, status) "
+                + "VALUES (1, 1, CAST(? AS DATE), CAST(? AS DATE), 1, 100, ?)", checkIn, checkOut, status);
+    }
+
+    private static List<String> partitions() {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'reservations'::regclass", String.class);
+    }
+}
@@ -0,0 +1,229 @@
+package com.airbnb.miniairbnb.service;
+
+import com.airbnb.miniairbnb.dto.ReservationTransitionResult;
+import com.airbnb.miniairbnb.exception.InvalidRequestException;
+import com.airbnb.miniairbnb.model.DomainEventType;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.Reservation;
+import com.airbnb.miniairbnb.model.ReservationStatus;
+import com.airbnb.miniairbnb.model.ReservationTransition;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.OutboxEventRepository;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.security.CustomUserDetailsService;
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.airbnb.miniairbnb.TestFixtures.bearer;
+import static com.airbnb.miniairbnb.TestFixtures.property;
+import static com.airbnb.miniairbnb.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReservationTransitionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private User host;
+    private User guest;
+    private Property property;
+    private int nextCheckIn = 10;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user(UserRole.ROLE_HOST));
+        guest = userRepository.save(user(UserRole.ROLE_GUEST));
+        property = propertyRepository.save(property(host, "Iasi"));
+    }
+
+    @Test
+    void transitionTableAllowsOnlyForwardMoves() {
+        assertThat(ReservationStatus.PENDING.canTransitionTo(ReservationStatus.CONFIRMED)).isTrue();
+        assertThat(ReservationStatus.CONFIRMED.canTransitionTo(ReservationStatus.COMPLETED)).isTrue();
+        assertThat(ReservationStatus.PENDING.canTransitionTo(ReservationStatus.COMPLETED)).isFalse();
+        assertThat(ReservationStatus.COMPLETED.canTransitionTo(ReservationStatus.CANCELLED)).isFalse();
+        assertThat(ReservationTransition.CANCEL.getSources())
+                .containsExactlyInAnyOrder(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+    }
+
+    @Test
+    void batchIsValidatedPerIdAndAppliedInOneUpdate() {
+        Reservation first = reservation(property, ReservationStatus.PENDING);
+        Reservation second = reservation(property, ReservationStatus.PENDING);
+        Reservation confirmed = reservation(property, ReservationStatus.CONFIRMED);
+        Reservation foreign = reservation(propertyRepository.save(property(userRepository.save(user(UserRole.ROLE_HOST)), "Iasi")),
+                ReservationStatus.PENDING);
+        List<Long> ids = List.of(first.getId(), confirmed.getId(), foreign.getId(), Long.MAX_VALUE, second.getId(), first.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ReservationTransitionResult> results = reservationService.transitionReservations(ids, ReservationTransition.CONFIRM, host);
+        //un SELECT, un UPDATE si un INSERT grupat in outbox, indiferent de numarul de id-uri
+        //(plus, o data la 50 de evenimente, urmatorul bloc din outbox_events_seq)
+        assertThat(statistics.getPrepareStatementCount()).isBetween(3L, 4L);
+
+        assertThat(results).containsExactly(
+                ReservationTransitionResult.applied(first.getId(), ReservationStatus.CONFIRMED),
+                ReservationTransitionResult.rejected(confirmed.getId(), ReservationStatus.CONFIRMED, "Only PENDING reservations can be confirmed"),
+                ReservationTransitionResult.rejected(foreign.getId(), ReservationStatus.PENDING, "Only property host or ADMIN can confirm reservations"),
+                ReservationTransitionResult.rejected(Long.MAX_VALUE, null, "Reservation not found with id: " + Long.MAX_VALUE),
+                ReservationTransitionResult.applied(second.getId(), ReservationStatus.CONFIRMED));
+
+        Reservation reloaded = reservationRepository.findById(first.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(reloaded.getUpdatedAt()).isAfter(first.getUpdatedAt()); //ETag-ul rezervarii se schimba
+        assertThat(reservationRepository.findById(foreign.getId()).orElseThrow().getStatus()).isEqualTo(ReservationStatus.PENDING);
+
+        //guest-ul poate anula, dar nu si confirma
+        assertThat(reservationService.transitionReservations(List.of(first.getId()), ReservationTransition.CANCEL, guest))
+                .containsExactly(ReservationTransitionResult.applied(first.getId(), ReservationStatus.CANCELLED));
+        assertThat(reservationService.transitionReservations(List.of(confirmed.getId()), ReservationTransition.COMPLETE, guest).get(0).error())
+                .isEqualTo("Only property host or ADMIN can complete reservations");
+    }
+
+    @Test
+    void singleTransitionsKeepTheirMessages() {
+        Reservation reservation = reservation(property, ReservationStatus.PENDING);
+        assertThat(reservationService.cancelReservation(reservation.getId(), guest).getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+        assertThatThrownBy(() -> reservationService.cancelReservation(reservation.getId(), host))
+                .hasMessage("Reservation is already cancelled");
+        assertThatThrownBy(() -> reservationService.confirmReservation(reservation.getId(), host))
+                .hasMessage("Only PENDING reservations can be confirmed");
+    }
+
+    //confirmari concurente ale aceleiasi rezervari, prin batch si individual: una singura e aplicata si scrie un singur
+    //eveniment in outbox (altfel statisticile din PropertyBookingStatsConsumer ar numara confirmarea de doua ori)
+    @Test
+    void concurrentTransitionsAreAppliedOnce() throws Exception {
+        Reservation pending = reservation(property, ReservationStatus.PENDING);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> confirmations = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                boolean batch = i % 2 == 0;
+                confirmations.add(executor.submit(() -> {
+                    start.await();
+                    return batch ? confirmInBatch(pending) : confirmSingle(pending);
+                }));
+            }
+            start.countDown();
+            int applied = 0;
+            for (Future<Boolean> confirmation : confirmations) {
+                applied += confirmation.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertThat(applied).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getType() == DomainEventType.RESERVATION_CONFIRMED
+                        && pending.getId().equals(event.getAggregateId()))
+                .hasSize(1);
+    }
+
+    private boolean confirmInBatch(Reservation reservation) {
+        return reservationService.transitionReservations(List.of(reservation.getId()), ReservationTransition.CONFIRM, host)
+                .get(0).success();
+    }
+
+    private boolean confirmSingle(Reservation reservation) {
+        try {
+            reservationService.confirmReservation(reservation.getId(), host);
+            return true;
+        } catch (InvalidRequestException e) {
+            return false; //deja confirmata de alt thread
+        }
+    }
+
+    @Test
+    void batchEndpointReturnsOneResultPerId() throws Exception {
+        Reservation pending = reservation(property, ReservationStatus.PENDING);
+        String token = bearer(jwtTokenProvider, userDetailsService, host);
+
+        mockMvc.perform(put("/api/reservations/batch").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transition\": \"CONFIRM\", \"ids\": [" + pending.getId() + ", " + Long.MAX_VALUE + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$[1].success").value(false));
+
+        mockMvc.perform(put("/api/reservations/batch").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transition\": \"CONFIRM\", \"ids\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("validation_failed"))
+                .andExpect(jsonPath("$.fields.ids").exists());
+    }
+
+    private Reservation reservation(Property property, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setProperty(property);
+        reservation.setGuest(guest);
+        reservation.setCheckInDate(LocalDate.now().plusDays(nextCheckIn));
+        reservation.setCheckOutDate(LocalDate.now().plusDays(nextCheckIn + 2));
+        reservation.setNumberOfGuests(2);
+        reservation.setTotalPrice(new BigDecimal("300.00"));
+        reservation.setStatus(status);
+        nextCheckIn += 3;
+        return reservationRepository.save(reservation);
+    }
+}
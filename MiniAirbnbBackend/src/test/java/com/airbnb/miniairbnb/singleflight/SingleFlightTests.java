@@ -0,0 +1,107 @@
+package com.airbnb.miniairbnb.singleflight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+    private static final int CALLERS = 16;
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight<Long, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", registry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    //incarcarea e tinuta in loc pana cand toti ceilalti s-au alaturat: o singura citire pt toti
+    @Test
+    void concurrentCallsForTheSameKeyShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.load(42L, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "property-42";
+            })));
+        }
+        waitUntilShared(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("property-42");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("loaded")).isEqualTo(1);
+
+        //dupa incarcare nu ramane nimic: apelul urmator citeste din nou
+        assertThat(singleFlight.load(42L, () -> "property-42 v2")).isEqualTo("property-42 v2");
+        assertThat(singleFlight.load(7L, () -> "property-7")).isEqualTo("property-7");
+        assertThat(calls("loaded")).isEqualTo(3);
+    }
+
+    @Test
+    void failureReachesEveryWaitingCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.load(1L, () -> {
+                await(release);
+                throw new RuntimeException("Property not found with id: 1");
+            })));
+        }
+        waitUntilShared(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(RuntimeException.class)
+                    .hasRootCauseMessage("Property not found with id: 1");
+        }
+        assertThat(singleFlight.load(1L, () -> "found")).isEqualTo("found");
+    }
+
+    private void waitUntilShared(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls("shared") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(calls("shared")).isEqualTo(expected);
+    }
+
+    private double calls(String result) {
+        return registry.get("app.single-flight.calls").tag("name", "test").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
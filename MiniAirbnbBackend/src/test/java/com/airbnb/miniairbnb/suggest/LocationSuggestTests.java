@@ -0,0 +1,154 @@
+package com.airbnb.miniairbnb.suggest;
+
+import com.airbnb.miniairbnb.dto.LocationSuggestion;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.airbnb.miniairbnb.repository.UserRepository;
+import com.airbnb.miniairbnb.service.PropertyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LocationSuggestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void suggestionsAreFoldedAndOrderedByListingCount() {
+        LocationTrie trie = new LocationTrie();
+        trie.put(1, "Brașov", "România");
+        trie.put(2, "Brașov", "România");
+        trie.put(3, "BRASOV", "Romania");
+        trie.put(4, "Bratislava", "Slovakia");
+        trie.put(5, "Cluj-Napoca", "România");
+        trie.put(6, "Brăila", "România");
+        trie.put(7, "Brăila", "România");
+
+        //scrierea cea mai folosita e afisata; "bra" se potriveste cu "Bră" si "Bra"
+        assertThat(trie.suggest("bra", null, 10))
+                .extracting(LocationSuggestion::getName, LocationSuggestion::getCountry, LocationSuggestion::getListings)
+                .containsExactly(tuple("Brașov", "România", 3), tuple("Brăila", "România", 2), tuple("Bratislava", "Slovakia", 1));
+        assertThat(trie.suggest("  NAPO", LocationTrie.Type.CITY, 10)).extracting(LocationSuggestion::getName)
+                .containsExactly("Cluj-Napoca");
+        assertThat(trie.suggest("r", LocationTrie.Type.COUNTRY, 10))
+                .extracting(LocationSuggestion::getName, LocationSuggestion::getListings)
+                .containsExactly(tuple("România", 6));
+        assertThat(trie.suggest("", null, 10)).isEmpty();
+
+        //mutarea si stergerea scad locatia veche; o locatie fara proprietati dispare
+        trie.put(4, "Sibiu", "România");
+        trie.remove(6);
+        trie.remove(7);
+        assertThat(trie.suggest("bra", null, 10)).extracting(LocationSuggestion::getName).containsExactly("Brașov");
+        assertThat(trie.suggest("s", null, 10)).extracting(LocationSuggestion::getName, LocationSuggestion::getType)
+                .containsExactly(tuple("Sibiu", "city"));
+        assertThat(trie.suggest("ro", LocationTrie.Type.COUNTRY, 10)).extracting(LocationSuggestion::getListings)
+                .containsExactly(5);
+    }
+
+    //topurile actualizate incremental trebuie sa fie cele calculate de la zero
+    @Test
+    void incrementalTopsMatchRecount() {
+        LocationTrie trie = new LocationTrie();
+        Random random = new Random(3);
+        String[] cities = IntStream.range(0, 40).mapToObj(i -> "Sat" + (char) ('a' + i % 7) + (char) ('a' + i / 7)).toArray(String[]::new);
+        Map<Long, String> cityById = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                trie.remove(id);
+                cityById.remove(id);
+            } else {
+                String city = cities[(int) Math.min(cities.length - 1, Math.abs(random.nextGaussian()) * 12)];
+                trie.put(id, city, "Tara");
+                cityById.put(id, city);
+            }
+            if (step % 50 == 0) {
+                for (String prefix : List.of("s", "sata", "satb", "satc")) {
+                    Map<String, Long> counts = cityById.values().stream()
+                            .filter(city -> LocationTrie.normalize(city).startsWith(prefix))
+                            .collect(Collectors.groupingBy(city -> city, Collectors.counting()));
+                    List<String> expected = counts.entrySet().stream()
+                            .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                                    .thenComparing(entry -> LocationTrie.normalize(entry.getKey()) + "|tara"))
+                            .limit(LocationTrie.MAX_SUGGESTIONS)
+                            .map(Map.Entry::getKey)
+                            .toList();
+                    assertThat(trie.suggest(prefix, LocationTrie.Type.CITY, LocationTrie.MAX_SUGGESTIONS))
+                            .extracting(LocationSuggestion::getName)
+                            .as("step %d, prefix %s", step, prefix)
+                            .containsExactlyElementsOf(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void suggestEndpointFollowsPropertyWrites() throws Exception {
+        User host = new User();
+        host.setEmail("host-" + UUID.randomUUID() + "@suggest.test");
+        host.setPassword("parola-secreta");
+        host.setFirstName("Sug");
+        host.setLastName("Gest");
+        host.setRole(UserRole.ROLE_HOST);
+        host = userRepository.save(host);
+        String city = "Zărnești" + UUID.randomUUID().toString().substring(0, 8);
+
+        Property property = new Property();
+        property.setTitle("Cabana");
+        property.setAddress("Str. Muntelui 1");
+        property.setCity(city);
+        property.setCountry("România");
+        property.setPricePerNight(new BigDecimal("150.00"));
+        property.setBedrooms(2);
+        property.setBathrooms(1);
+        property.setMaxGuests(4);
+        property = propertyService.createProperty(property, host);
+
+        mockMvc.perform(get("/api/properties/suggest").param("q", "zarnesti").param("type", "city"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value(city))
+                .andExpect(jsonPath("$[0].country").value("România"))
+                .andExpect(jsonPath("$[0].listings").value(1));
+
+        Property deactivated = new Property();
+        deactivated.setIsActive(false);
+        propertyService.updateProperty(property.getId(), deactivated, host);
+        mockMvc.perform(get("/api/properties/suggest").param("q", "zarnesti"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/api/properties/suggest").param("q", "z").param("type", "street"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,96 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+//compara doua fisiere de rezultate JMH (JSON), ex. de pe doua commit-uri:
+//  java -cp ... BenchmarkComparator results/baseline.json results/current.json [prag-procente]
+//iese cu codul 1 daca un benchmark e mai lent decat pragul (implicit 10%) si diferenta depaseste eroarea masurata
+public class BenchmarkComparator {
+    private static final String PACKAGE_PREFIX = BenchmarkComparator.class.getPackageName() + ".";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparator <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double thresholdPercent = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : new TreeMap<>(current).entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", entry.getKey(), "-", after.format(), "new");
+                continue;
+            }
+            //pozitiv = mai lent (timp mai mare in avgt/sample/ss, throughput mai mic in thrpt)
+            double change = (after.value - before.value) / before.value * 100.0;
+            if (before.higherIsBetter()) {
+                change = -change;
+            }
+            boolean outsideError = Math.abs(after.value - before.value) > before.error + after.error;
+            boolean regression = change > thresholdPercent && outsideError;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", entry.getKey(), before.format(), after.format(), change,
+                    regression ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .sorted()
+                .forEach(key -> System.out.printf("%-70s %14s %14s %9s%n", key, baseline.get(key).format(), "-", "removed"));
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + thresholdPercent + "%");
+            System.exit(1);
+        }
+    }
+
+    //cheia = numele benchmark-ului + parametrii (ex. ReservationAvailabilityBenchmark.availableRange{historySize=1000})
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText().replace(PACKAGE_PREFIX, ""));
+            JsonNode params = result.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                key.append('{');
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (fields.hasNext()) {
+                        key.append(',');
+                    }
+                }
+                key.append('}');
+            }
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0.0);
+            scores.put(key.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0.0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(String mode, double value, double error, String unit) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        String format() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
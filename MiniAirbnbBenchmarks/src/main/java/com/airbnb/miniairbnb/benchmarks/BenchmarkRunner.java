@@ -0,0 +1,76 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+//ruleaza benchmark-urile JMH si scrie rezultatele in results/<data>-<commit>.json;
+//doua fisiere de rezultate se compara cu BenchmarkComparator
+public class BenchmarkRunner {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args); //argumentele JMH obisnuite (filtru, -f, -wi, -i, -p ...)
+
+        Path resultsDir = Path.of(System.getProperty("benchmark.results.dir", "results"));
+        Files.createDirectories(resultsDir);
+        Path resultFile = commandLine.getResult().hasValue()
+                ? Path.of(commandLine.getResult().get())
+                : resultsDir.resolve(LocalDateTime.now().format(TIMESTAMP) + "-" + gitCommit() + ".json");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString());
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*");
+        }
+        new Runner(options.build()).run();
+        System.out.println("Benchmark results written to " + resultFile.toAbsolutePath());
+    }
+
+    //commit-ul curent (cu sufixul -dirty daca exista modificari necomise); "local" in afara unui repo git
+    private static String gitCommit() {
+        String commit = git("rev-parse", "--short", "HEAD");
+        if (commit == null) {
+            return "local";
+        }
+        String status = git("status", "--porcelain", "--untracked-files=no");
+        return status != null && !status.isEmpty() ? commit + "-dirty" : commit;
+    }
+
+    private static String git(String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append('\n');
+                }
+            }
+            return process.waitFor() == 0 ? output.toString().trim() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
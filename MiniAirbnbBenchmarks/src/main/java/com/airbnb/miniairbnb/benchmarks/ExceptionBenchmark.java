@@ -0,0 +1,116 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.exception.AvailabilityConflictException;
+import com.airbnb.miniairbnb.exception.DomainException;
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.repository.CalendarBlockRepository;
+import com.airbnb.miniairbnb.repository.PropertyRepository;
+import com.airbnb.miniairbnb.repository.ReservationRepository;
+import com.airbnb.miniairbnb.service.ReservationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+//calea de conflict a unei rezervari: exceptiile de business (fara stack trace) fata de o RuntimeException obisnuita,
+//aruncate la stackDepth cadre sub cel care le prinde (un request trece prin ~100 de cadre de filtre, proxy-uri si
+//controller pana ajunge in serviciu); conflictBooking e ReservationServiceImpl.createReservation cu repository-uri
+//in memorie, deci masoara doar validarea, exceptia, metrica si evenimentul JFR
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionBenchmark {
+    private static final String MESSAGE = "Property is not available for the selected dates";
+
+    @Param({"10", "100"})
+    public int stackDepth;
+
+    private ReservationServiceImpl reservationService;
+    private User guest;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @Setup
+    public void setUp() {
+        User host = new User();
+        host.setId(1L);
+        guest = new User();
+        guest.setId(2L);
+
+        Property property = new Property();
+        property.setId(1L);
+        property.setHost(host);
+        property.setIsActive(true);
+        property.setMaxGuests(4);
+        property.setPricePerNight(new BigDecimal("150.00"));
+
+        //proprietatea exista, iar orice interval se suprapune cu o rezervare (nu si cu un calendar importat)
+        PropertyRepository properties = stub(PropertyRepository.class, Optional.of(property));
+        ReservationRepository reservations = stub(ReservationRepository.class, true);
+        CalendarBlockRepository calendarBlocks = stub(CalendarBlockRepository.class, false);
+        reservationService = new ReservationServiceImpl(reservations, properties, null, calendarBlocks, new SimpleMeterRegistry(), null, null);
+
+        checkIn = LocalDate.now().plusDays(30);
+        checkOut = checkIn.plusDays(3);
+    }
+
+    @Benchmark
+    public String throwWithStackTrace() {
+        try {
+            throwAt(stackDepth, true);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String throwStackless() {
+        try {
+            throwAt(stackDepth, false);
+            return null;
+        } catch (DomainException e) {
+            return e.getCode();
+        }
+    }
+
+    @Benchmark
+    public String conflictBooking() {
+        try {
+            return nested(stackDepth, () -> reservationService.createReservation(1L, checkIn, checkOut, 2, guest)).toString();
+        } catch (DomainException e) {
+            return e.getCode();
+        }
+    }
+
+    private static void throwAt(int depth, boolean withStackTrace) {
+        nested(depth, () -> {
+            throw withStackTrace ? new RuntimeException(MESSAGE) : new AvailabilityConflictException(MESSAGE);
+        });
+    }
+
+    private static <T> T nested(int depth, Supplier<T> action) {
+        return depth == 0 ? action.get() : nested(depth - 1, action);
+    }
+
+    //findById/findByIdForUpdate/existsBy... intorc result; restul metodelor nu sunt folosite pe calea de conflict
+    @SuppressWarnings("unchecked")
+    private static <R> R stub(Class<R> repository, Object result) {
+        return (R) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("findById") || name.startsWith("exists")) {
+                return result;
+            }
+            throw new UnsupportedOperationException(name);
+        });
+    }
+}
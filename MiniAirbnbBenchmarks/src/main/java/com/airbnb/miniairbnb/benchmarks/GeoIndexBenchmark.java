@@ -0,0 +1,121 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.geo.GeoGridIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//GeoGridIndex cu un milion de proprietati grupate in jurul a 40 de orase (ca la DatasetGenerator):
+//raza de 5 km si un viewport de oras, ambele cu filtru de pret si capacitate, comparate cu o parcurgere completa
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class GeoIndexBenchmark {
+    private static final int CITIES = 40;
+    private static final GeoGridIndex.Filter FILTER = new GeoGridIndex.Filter(15_000, 35_000, 2); //150-350 pe noapte, 2+ oaspeti
+
+    @Param({"1000000"})
+    public int points;
+
+    @Param({"0.01", "0.05", "0.2"})
+    public double cellDegrees;
+
+    private GeoGridIndex index;
+    private double[] cityLat;
+    private double[] cityLng;
+    private double[] lat;
+    private double[] lng;
+    private long[] priceCents;
+    private int[] maxGuests;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        cityLat = new double[CITIES];
+        cityLng = new double[CITIES];
+        double[] weights = new double[CITIES];
+        double total = 0;
+        for (int i = 0; i < CITIES; i++) {
+            cityLat[i] = 36 + random.nextDouble() * 24; //Europa
+            cityLng[i] = -9 + random.nextDouble() * 38;
+            weights[i] = 1 / Math.pow(i + 1, 1.07); //Zipf: primul oras are ~25% din proprietati
+            total += weights[i];
+        }
+
+        index = new GeoGridIndex(cellDegrees);
+        lat = new double[points];
+        lng = new double[points];
+        priceCents = new long[points];
+        maxGuests = new int[points];
+        for (int i = 0; i < points; i++) {
+            double pick = random.nextDouble() * total;
+            int city = 0;
+            while (pick > weights[city] && city < CITIES - 1) {
+                pick -= weights[city++];
+            }
+            lat[i] = cityLat[city] + random.nextGaussian() * 0.04;
+            lng[i] = cityLng[city] + random.nextGaussian() * 0.04 / Math.cos(Math.toRadians(lat[i]));
+            priceCents[i] = Math.round(25_000 * Math.exp(random.nextGaussian() * 0.35));
+            maxGuests[i] = 1 + random.nextInt(8);
+            index.put(i, lat[i], lng[i], priceCents[i], maxGuests[i]);
+        }
+    }
+
+    //centrele oraselor, pe rand: primele sunt cele mai dense
+    private int nextCity() {
+        query = (query + 1) % CITIES;
+        return query;
+    }
+
+    @Benchmark
+    public List<GeoGridIndex.Hit> nearby5km() {
+        int city = nextCity();
+        return index.nearby(cityLat[city], cityLng[city], 5, FILTER, 50);
+    }
+
+    //viewport ~11 x 12 km in jurul centrului
+    @Benchmark
+    public List<Long> viewport() {
+        int city = nextCity();
+        return index.within(cityLat[city] - 0.05, cityLng[city] - 0.08, cityLat[city] + 0.05, cityLng[city] + 0.08, FILTER, 500);
+    }
+
+    //aceeasi cautare pe raza, fara index: distanta pt fiecare punct care trece de filtru
+    @Benchmark
+    public List<Long> nearby5kmFullScan() {
+        int city = nextCity();
+        PriorityQueue<long[]> closest = new PriorityQueue<>(Comparator.comparingLong((long[] hit) -> hit[1]).reversed());
+        for (int i = 0; i < points; i++) {
+            if (priceCents[i] < FILTER.minPriceCents() || priceCents[i] > FILTER.maxPriceCents() || maxGuests[i] < FILTER.guests()) {
+                continue;
+            }
+            double distance = distanceKm(cityLat[city], cityLng[city], lat[i], lng[i]);
+            if (distance <= 5) {
+                closest.add(new long[]{i, Math.round(distance * 1_000_000)});
+                if (closest.size() > 50) {
+                    closest.poll();
+                }
+            }
+        }
+        List<Long> ids = new ArrayList<>(closest.size());
+        closest.forEach(hit -> ids.add(hit[0]));
+        return ids;
+    }
+
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * 6371.0088 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,161 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.jfr.AvailabilityCheckEvent;
+import com.airbnb.miniairbnb.jfr.BookingEvent;
+import com.airbnb.miniairbnb.jfr.HttpRequestEvent;
+import com.airbnb.miniairbnb.jfr.JwtAuthenticationEvent;
+import com.airbnb.miniairbnb.jfr.PropertySearchEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+//rezuma o inregistrare JFR a backend-ului (app.jfr.enabled=true sau jcmd <pid> JFR.dump):
+//  java -cp ... JfrRecordingAnalyzer mini-airbnb.jfr [numar-request-uri-lente]
+//latenta pe endpoint, evenimentele de rezervare/cautare/autentificare pe rezultat si cele mai lente request-uri,
+//fiecare cu evenimentele aplicatiei din acelasi thread si pauzele GC suprapuse (pt corelarea spike-urilor)
+public class JfrRecordingAnalyzer {
+    private static final String GC_EVENT = "jdk.GarbageCollection";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JfrRecordingAnalyzer <recording.jfr> [slowest-requests]");
+            System.exit(2);
+        }
+        int slowest = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        List<RecordedEvent> requests = new ArrayList<>();
+        List<RecordedEvent> appEvents = new ArrayList<>();
+        List<RecordedEvent> gcEvents = new ArrayList<>();
+        Map<String, Durations> byEndpoint = new TreeMap<>();
+        Map<String, Durations> byFlow = new TreeMap<>();
+
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals(HttpRequestEvent.NAME)) {
+                    requests.add(event);
+                    byEndpoint.computeIfAbsent(event.getString("method") + " " + event.getString("uri"), key -> new Durations())
+                            .add(event, event.getInt("sqlStatements"), event.getInt("status") >= 500);
+                } else if (type.equals(GC_EVENT)) {
+                    gcEvents.add(event);
+                } else if (flow(event) != null) {
+                    appEvents.add(event);
+                    byFlow.computeIfAbsent(flow(event), key -> new Durations())
+                            .add(event, type.equals(PropertySearchEvent.NAME) ? event.getInt("resultSize") : 0, false);
+                }
+            }
+        }
+
+        System.out.printf("%-55s %8s %9s %9s %9s %9s %8s %6s%n", "Endpoint", "Count", "p50 ms", "p90 ms", "p99 ms", "max ms", "avg SQL", "5xx");
+        byEndpoint.forEach((endpoint, durations) -> System.out.printf("%-55s %8d %9.2f %9.2f %9.2f %9.2f %8.1f %6d%n",
+                endpoint, durations.count(), durations.percentile(50), durations.percentile(90), durations.percentile(99),
+                durations.percentile(100), durations.averageValue(), durations.errors));
+
+        System.out.println();
+        System.out.printf("%-55s %8s %9s %9s %9s %9s %8s%n", "Flow", "Count", "p50 ms", "p90 ms", "p99 ms", "max ms", "avg size");
+        byFlow.forEach((flow, durations) -> System.out.printf("%-55s %8d %9.2f %9.2f %9.2f %9.2f %8s%n",
+                flow, durations.count(), durations.percentile(50), durations.percentile(90), durations.percentile(99),
+                durations.percentile(100), flow.startsWith("search") ? String.format("%.1f", durations.averageValue()) : "-"));
+
+        System.out.println();
+        System.out.println("Slowest requests:");
+        requests.sort(Comparator.comparing(RecordedEvent::getDuration, Comparator.reverseOrder()));
+        for (RecordedEvent request : requests.subList(0, Math.min(slowest, requests.size()))) {
+            System.out.printf("  %s %-8.2f %s %s -> %d (%d SQL) [%s]%n", request.getStartTime(), millis(request.getDuration()),
+                    request.getString("method"), request.getString("uri"), request.getInt("status"),
+                    request.getInt("sqlStatements"), threadName(request));
+            for (RecordedEvent event : appEvents) {
+                if (sameThread(event, request) && within(event, request)) {
+                    System.out.printf("      %-40s %8.2f ms%n", flow(event), millis(event.getDuration()));
+                }
+            }
+            for (RecordedEvent gc : gcEvents) {
+                if (overlaps(gc, request)) {
+                    System.out.printf("      GC %-37s %8.2f ms (longest pause)%n", gc.getString("name"),
+                            millis(gc.getDuration("longestPause")));
+                }
+            }
+        }
+    }
+
+    //cheia de grupare pt evenimentele aplicatiei; null pt alte tipuri de evenimente
+    private static String flow(RecordedEvent event) {
+        return switch (event.getEventType().getName()) {
+            case BookingEvent.NAME -> "booking " + event.getString("outcome");
+            case AvailabilityCheckEvent.NAME -> "availability " + (event.getBoolean("available") ? "available" : "unavailable");
+            case PropertySearchEvent.NAME -> "search by " + event.getString("filter");
+            case JwtAuthenticationEvent.NAME -> "jwt " + event.getString("outcome");
+            default -> null;
+        };
+    }
+
+    private static boolean sameThread(RecordedEvent a, RecordedEvent b) {
+        RecordedThread first = a.getThread();
+        RecordedThread second = b.getThread();
+        return first != null && second != null && first.getJavaThreadId() == second.getJavaThreadId();
+    }
+
+    private static boolean within(RecordedEvent inner, RecordedEvent outer) {
+        return !inner.getStartTime().isBefore(outer.getStartTime()) && !inner.getEndTime().isAfter(outer.getEndTime());
+    }
+
+    private static boolean overlaps(RecordedEvent a, RecordedEvent b) {
+        Instant start = a.getStartTime().isAfter(b.getStartTime()) ? a.getStartTime() : b.getStartTime();
+        Instant end = a.getEndTime().isBefore(b.getEndTime()) ? a.getEndTime() : b.getEndTime();
+        return start.isBefore(end);
+    }
+
+    private static String threadName(RecordedEvent event) {
+        return event.getThread() != null ? event.getThread().getJavaName() : "?";
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    //duratele unui grup de evenimente si o valoare numerica asociata (statement-uri SQL, marimea rezultatului)
+    private static class Durations {
+        private final List<Duration> durations = new ArrayList<>();
+        private long valueSum;
+        private long errors;
+        private boolean sorted;
+
+        void add(RecordedEvent event, long value, boolean error) {
+            durations.add(event.getDuration());
+            valueSum += value;
+            if (error) {
+                errors++;
+            }
+            sorted = false;
+        }
+
+        int count() {
+            return durations.size();
+        }
+
+        double averageValue() {
+            return durations.isEmpty() ? 0 : (double) valueSum / durations.size();
+        }
+
+        //percentila (0-100) in milisecunde
+        double percentile(double percentile) {
+            if (!sorted) {
+                durations.sort(Comparator.naturalOrder());
+                sorted = true;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * durations.size()) - 1;
+            return millis(durations.get(Math.max(0, Math.min(durations.size() - 1, index))));
+        }
+    }
+}
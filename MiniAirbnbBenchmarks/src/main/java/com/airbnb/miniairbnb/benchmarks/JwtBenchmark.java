@@ -0,0 +1,60 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//JwtTokenProvider: generarea si validarea token-ului (validarea ruleaza la fiecare request autentificat)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+    static final String SECRET = "YmVuY2htYXJrLXNlY3JldC1rZXktcGVudHJ1LW1pbmktYWlyYm5iLWptaC0xMjM0NTY=";
+
+    private AnnotationConfigApplicationContext context;
+    private JwtTokenProvider jwtTokenProvider;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("jwt",
+                Map.of("jwt.secret", SECRET, "jwt.expiration", "86400000")));
+        context.register(JwtTokenProvider.class);
+        context.refresh();
+        jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+
+        userDetails = User.withUsername("guest@bench.com").password("x").roles("GUEST").build();
+        token = jwtTokenProvider.generateToken(userDetails);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenProvider.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public Boolean generateAndValidate() {
+        return jwtTokenProvider.validateToken(jwtTokenProvider.generateToken(userDetails), userDetails);
+    }
+}
@@ -0,0 +1,108 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.catalog.ListingCatalog;
+import com.airbnb.miniairbnb.catalog.ListingCriteria;
+import com.airbnb.miniairbnb.catalog.ListingFacets;
+import com.airbnb.miniairbnb.catalog.ListingRow;
+import com.airbnb.miniairbnb.dto.PropertyListingFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//ListingCatalog.query pe un catalog de un milion de proprietati in 40 de orase (distributie Zipf, ca la DatasetGenerator):
+//orasul cel mai mare (~25% din catalog) si unul mic, cu filtre de pret/capacitate si sortare dupa pret, cu si fara fatete
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ListingCatalogBenchmark {
+    private static final int CITIES = 40;
+
+    @Param({"1000000"})
+    public int listings;
+
+    @Param({"City0", "City30"})
+    public String city;
+
+    private ListingCatalog catalog;
+    private ListingCriteria filtered;
+    private ListingCriteria cheapestFirst;
+    private ListingCriteria wholeCatalog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] weights = new double[CITIES];
+        double total = 0;
+        for (int i = 0; i < CITIES; i++) {
+            weights[i] = 1 / Math.pow(i + 1, 1.07);
+            total += weights[i];
+        }
+        catalog = new ListingCatalog();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (long id = 1; id <= listings; id++) {
+            double pick = random.nextDouble() * total;
+            int cityIndex = 0;
+            while (pick > weights[cityIndex] && cityIndex < CITIES - 1) {
+                pick -= weights[cityIndex++];
+            }
+            int bedrooms = 1 + random.nextInt(5);
+            catalog.put(new ListingRow(id, BigDecimal.valueOf(Math.round(25_000 * Math.exp(random.nextGaussian() * 0.35)), 2),
+                    bedrooms, 1 + random.nextInt(bedrooms), bedrooms * 2, "City" + cityIndex, "Country" + cityIndex % 10,
+                    start.plusMinutes(random.nextInt(500_000))));
+        }
+
+        PropertyListingFilter filter = new PropertyListingFilter();
+        filter.setCity(city);
+        filter.setMinPrice(new BigDecimal("150"));
+        filter.setMaxPrice(new BigDecimal("350"));
+        filter.setGuests(4);
+        filter.setLimit(50);
+        filtered = ListingCriteria.from(filter);
+        filter.setSort("price");
+        cheapestFirst = ListingCriteria.from(filter);
+
+        PropertyListingFilter all = new PropertyListingFilter();
+        all.setSort("-price");
+        all.setLimit(50);
+        wholeCatalog = ListingCriteria.from(all);
+    }
+
+    //filtrul pe oras, pret si capacitate, primele 50 dupa id
+    @Benchmark
+    public long[] cityFilter() {
+        return catalog.query(filtered);
+    }
+
+    //acelasi filtru, cele mai ieftine 50
+    @Benchmark
+    public long[] cityFilterSortedByPrice() {
+        return catalog.query(cheapestFirst);
+    }
+
+    //tot catalogul sortat descrescator dupa pret (nu depinde de oras)
+    @Benchmark
+    public long[] allSortedByPriceDesc() {
+        return catalog.query(wholeCatalog);
+    }
+
+    //sortarea dupa pret plus fatetele tuturor potrivirilor
+    @Benchmark
+    public ListingFacets cityFilterSortedByPriceWithFacets() {
+        ListingFacets facets = new ListingFacets();
+        catalog.query(cheapestFirst, facets);
+        return facets;
+    }
+
+    @Benchmark
+    public ListingFacets allSortedByPriceDescWithFacets() {
+        ListingFacets facets = new ListingFacets();
+        catalog.query(wholeCatalog, facets);
+        return facets;
+    }
+}
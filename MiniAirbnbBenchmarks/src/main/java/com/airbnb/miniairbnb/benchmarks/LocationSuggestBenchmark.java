@@ -0,0 +1,59 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.dto.LocationSuggestion;
+import com.airbnb.miniairbnb.suggest.LocationTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//LocationTrie.suggest cu un milion de proprietati in 20.000 de orase generate (distributie Zipf) din 50 de tari,
+//pt prefixe de 1-4 litere: un prefix scurt are mii de orase sub el, dar top-ul e deja calculat in nod
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LocationSuggestBenchmark {
+    private static final String SYLLABLES[] = {"bra", "sov", "cluj", "na", "po", "ca", "ti", "mi", "șoa", "ra", "ia", "și",
+            "con", "stan", "ța", "de", "va", "lu", "go", "ar"};
+    private static final int CITIES = 20_000;
+
+    @Param({"b", "bra", "bras"})
+    public String prefix;
+
+    private LocationTrie trie;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] names = new String[CITIES];
+        double[] weights = new double[CITIES];
+        double total = 0;
+        for (int i = 0; i < CITIES; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int s = 0, n = 2 + random.nextInt(3); s < n; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            names[i] = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            weights[i] = 1 / Math.pow(i + 1, 1.07);
+            total += weights[i];
+        }
+        trie = new LocationTrie();
+        for (long id = 1; id <= 1_000_000; id++) {
+            double pick = random.nextDouble() * total;
+            int city = 0;
+            while (pick > weights[city] && city < CITIES - 1) {
+                pick -= weights[city++];
+            }
+            trie.put(id, names[city], "Country" + city % 50);
+        }
+    }
+
+    @Benchmark
+    public List<LocationSuggestion> suggest() {
+        return trie.suggest(prefix, null, 8);
+    }
+}
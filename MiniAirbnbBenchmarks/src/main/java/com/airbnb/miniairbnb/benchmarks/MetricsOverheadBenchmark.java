@@ -0,0 +1,71 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+//costul instrumentarii adaugate pe calea unui request, comparat cu un apel neinstrumentat (baseline):
+//timer cu histograma (ca app.service si http.server.requests), contorul de rezervari,
+//inregistrarea app.http.sql.statements si StatementInspector-ul apelat pt fiecare statement SQL
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsOverheadBenchmark {
+    private static final String SQL = "select p1_0.id from properties p1_0 where p1_0.id=?";
+
+    private PrometheusMeterRegistry registry;
+    private Timer timer;
+    private Counter counter;
+    private DistributionSummary statements;
+    private SqlStatementCounter statementCounter;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timer = Timer.builder("app.service").tag("class", "Bench").tag("method", "work")
+                .publishPercentileHistogram().register(registry);
+        counter = registry.counter("app.reservations.bookings", "outcome", "success");
+        statements = DistributionSummary.builder("app.http.sql.statements").tag("uri", "/api/properties/{id}")
+                .publishPercentileHistogram().register(registry);
+        statementCounter = new SqlStatementCounter();
+    }
+
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        blackhole.consume(work());
+    }
+
+    @Benchmark
+    public void timedWithHistogram(Blackhole blackhole) {
+        blackhole.consume(timer.record(MetricsOverheadBenchmark::work));
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void sqlStatementCountingPerRequest(Blackhole blackhole) {
+        SqlStatementCounter.start();
+        for (int i = 0; i < 5; i++) {
+            blackhole.consume(statementCounter.inspect(SQL));
+        }
+        statements.record(SqlStatementCounter.stop().getCount());
+    }
+
+    private static long work() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,40 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.service.ReservationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+//ReservationServiceImpl.calculateTotalPrice (nu foloseste repository-urile)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1", "7", "365"})
+    public int nights;
+
+    private ReservationServiceImpl reservationService;
+    private BigDecimal pricePerNight;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @Setup
+    public void setUp() {
+        reservationService = new ReservationServiceImpl(null, null, null, null, new SimpleMeterRegistry(), null, null);
+        pricePerNight = new BigDecimal("249.99");
+        checkIn = LocalDate.of(2030, 1, 1);
+        checkOut = checkIn.plusDays(nights);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalPrice() {
+        return reservationService.calculateTotalPrice(pricePerNight, checkIn, checkOut);
+    }
+}
@@ -0,0 +1,72 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.model.Property;
+import com.airbnb.miniairbnb.model.User;
+import com.airbnb.miniairbnb.model.UserRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//serializarea Jackson a listelor de Property, ca in raspunsurile GET /api/properties
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertySerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<Property> properties;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); //aceeasi configurare ca ObjectMapper-ul din Spring MVC
+
+        User host = new User();
+        host.setId(1L);
+        host.setEmail("host@bench.com");
+        host.setPassword("x");
+        host.setFirstName("Ana");
+        host.setLastName("Pop");
+        host.setRole(UserRole.ROLE_HOST);
+        host.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        properties = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Property property = new Property();
+            property.setId((long) i);
+            property.setTitle("Apartament " + i);
+            property.setDescription("Apartament luminos, aproape de centru. ".repeat(5));
+            property.setAddress("Str. Exemplu " + i);
+            property.setCity("Cluj-Napoca");
+            property.setCountry("Romania");
+            property.setPricePerNight(new BigDecimal("180.00"));
+            property.setBedrooms(2);
+            property.setBathrooms(1);
+            property.setMaxGuests(4);
+            property.setIsActive(true);
+            property.setHost(host);
+            property.setImageUrls(List.of("http://localhost:8080/uploads/" + i + "_a.png",
+                    "http://localhost:8080/uploads/" + i + "_b.png"));
+            property.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+            property.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+            properties.add(property);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePropertyList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(properties);
+    }
+}
@@ -0,0 +1,99 @@
+package com.airbnb.miniairbnb.benchmarks;
+
+import com.airbnb.miniairbnb.MiniAirbnbBackendApplication;
+import com.airbnb.miniairbnb.service.ReservationService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+//ReservationServiceImpl.isPropertyAvailable pe PostgreSQL cu schema Flyway,
+//pt o proprietate cu historySize rezervari in ultimii 3 ani
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationAvailabilityBenchmark {
+    private static final long PROPERTY_ID = 1L;
+    private static final int HISTORY_DAYS = 3 * 365;
+    private static final LocalDate HISTORY_START = LocalDate.now().minusDays(HISTORY_DAYS);
+
+    @Param({"10", "1000", "100000"})
+    public int historySize;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+
+    private LocalDate freeCheckIn;
+    private LocalDate freeCheckOut;
+    private LocalDate busyCheckIn;
+    private LocalDate busyCheckOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(MiniAirbnbBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "jwt.secret=" + JwtBenchmark.SECRET,
+                        "jwt.expiration=86400000",
+                        "logging.level.root=WARN")
+                .run();
+        reservationService = context.getBean(ReservationService.class);
+        seed(context.getBean(JdbcTemplate.class));
+
+        //ultima rezervare CONFIRMED din istoric se suprapune cu intervalul "busy"; intervalul liber e dupa istoric
+        int confirmed = Math.min(historySize, HISTORY_DAYS / 2);
+        busyCheckIn = HISTORY_START.plusDays(2L * (confirmed - 1));
+        busyCheckOut = busyCheckIn.plusDays(1);
+        freeCheckIn = HISTORY_START.plusDays(HISTORY_DAYS + 10);
+        freeCheckOut = freeCheckIn.plusDays(4);
+    }
+
+    //istoricul acopera HISTORY_DAYS zile: primele HISTORY_DAYS / 2 rezervari sunt CONFIRMED, din doua in doua zile
+    //(fara suprapuneri, cum cere constrangerea de excludere), restul sunt COMPLETED/CANCELLED peste aceleasi zile
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (email, password, first_name, last_name, role) VALUES ('host@bench.com', 'x', 'H', 'H', 'ROLE_HOST')");
+        jdbc.update("INSERT INTO properties (id, title, address, city, country, price_per_night, bedrooms, bathrooms, max_guests, is_active, host_id) "
+                + "VALUES (?, 'Bench', 'Addr', 'Cluj', 'RO', 100, 1, 1, 2, true, 1)", PROPERTY_ID);
+        //partitiile lunare pt tot istoricul (V4 le creeaza doar pt datele existente la migrare)
+        jdbc.query("SELECT create_reservation_partition(CAST(m AS DATE)) FROM generate_series("
+                        + "date_trunc('month', CAST(? AS DATE)), date_trunc('month', CAST(? AS DATE) + ?), INTERVAL '1 month') m",
+                rs -> { }, HISTORY_START, HISTORY_START, HISTORY_DAYS);
+        jdbc.update("INSERT INTO reservations (property_id, guest_id, check_in_date, check_out_date, number_of_guests, total_price, status) "
+                        + "SELECT ?, 1, CAST(? AS DATE) + (i * 2) % ?, CAST(? AS DATE) + (i * 2) % ? + 1, 1, 100, "
+                        + "CASE WHEN i < ? / 2 THEN 'CONFIRMED' WHEN i % 2 = 0 THEN 'COMPLETED' ELSE 'CANCELLED' END "
+                        + "FROM generate_series(0, ? - 1) i",
+                PROPERTY_ID, HISTORY_START, HISTORY_DAYS, HISTORY_START, HISTORY_DAYS, HISTORY_DAYS, historySize);
+        jdbc.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public boolean availableRange() {
+        return reservationService.isPropertyAvailable(PROPERTY_ID, freeCheckIn, freeCheckOut);
+    }
+
+    @Benchmark
+    public boolean conflictingRange() {
+        return reservationService.isPropertyAvailable(PROPERTY_ID, busyCheckIn, busyCheckOut);
+    }
+}
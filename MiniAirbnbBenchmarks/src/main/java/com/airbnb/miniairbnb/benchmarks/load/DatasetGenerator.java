@@ -0,0 +1,345 @@
+package com.airbnb.miniairbnb.benchmarks.load;
+
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.SplittableRandom;
+
+//umple o baza PostgreSQL locala cu un set de date sintetic, determinist (acelasi seed => aceleasi randuri):
+//  java -cp ... DatasetGenerator --url=jdbc:postgresql://localhost:5432/miniairbnb --username=postgres --password=...
+//      [--hosts=10000] [--guests=100000] [--properties=50000] [--history-months=12] [--seed=42] [--truncate=true]
+//orasele au popularitate Zipf (cateva orase mari, coada lunga de orase mici), la fel marimea portofoliului host-ilor;
+//gradul de ocupare al unei proprietati creste cu popularitatea orasului.
+//Toti utilizatorii au parola LoadDriver.PASSWORD: host{i}@load.test si guest{i}@load.test, folositi de LoadDriver.
+public class DatasetGenerator {
+    static final String EMAIL_DOMAIN = "@load.test";
+
+    //oras, tara, pret mediu pe noapte, latitudine, longitudine (centrul); ordinea = popularitatea (rangul din distributia Zipf)
+    static final String[][] CITIES = {
+            {"Bucuresti", "Romania", "220", "44.4268", "26.1025"}, {"Paris", "France", "480", "48.8566", "2.3522"},
+            {"London", "United Kingdom", "520", "51.5074", "-0.1278"}, {"Barcelona", "Spain", "360", "41.3874", "2.1686"},
+            {"Roma", "Italy", "340", "41.9028", "12.4964"}, {"Cluj-Napoca", "Romania", "200", "46.7712", "23.6236"},
+            {"Amsterdam", "Netherlands", "450", "52.3676", "4.9041"}, {"Lisboa", "Portugal", "280", "38.7223", "-9.1393"},
+            {"Berlin", "Germany", "300", "52.5200", "13.4050"}, {"Praga", "Czech Republic", "240", "50.0755", "14.4378"},
+            {"Viena", "Austria", "310", "48.2082", "16.3738"}, {"Budapesta", "Hungary", "210", "47.4979", "19.0402"},
+            {"Brasov", "Romania", "190", "45.6427", "25.5887"}, {"Atena", "Greece", "230", "37.9838", "23.7275"},
+            {"Madrid", "Spain", "300", "40.4168", "-3.7038"}, {"Milano", "Italy", "380", "45.4642", "9.1900"},
+            {"Constanta", "Romania", "170", "44.1598", "28.6348"}, {"Munchen", "Germany", "360", "48.1351", "11.5820"},
+            {"Sibiu", "Romania", "180", "45.7983", "24.1256"}, {"Porto", "Portugal", "240", "41.1579", "-8.6291"},
+            {"Iasi", "Romania", "150", "47.1585", "27.6014"}, {"Cracovia", "Poland", "170", "50.0647", "19.9450"},
+            {"Dubrovnik", "Croatia", "330", "42.6507", "18.0944"}, {"Timisoara", "Romania", "160", "45.7489", "21.2087"},
+            {"Sevilla", "Spain", "250", "37.3891", "-5.9845"}, {"Florenta", "Italy", "350", "43.7696", "11.2558"},
+            {"Nisa", "France", "400", "43.7102", "7.2620"}, {"Copenhaga", "Denmark", "470", "55.6761", "12.5683"},
+            {"Oradea", "Romania", "140", "47.0465", "21.9189"}, {"Varsovia", "Poland", "190", "52.2297", "21.0122"},
+            {"Sofia", "Bulgaria", "140", "42.6977", "23.3219"}, {"Salzburg", "Austria", "290", "47.8095", "13.0550"},
+            {"Napoli", "Italy", "230", "40.8518", "14.2681"}, {"Bruges", "Belgium", "260", "51.2093", "3.2247"},
+            {"Sighisoara", "Romania", "130", "46.2197", "24.7964"}, {"Split", "Croatia", "270", "43.5081", "16.4402"},
+            {"Ljubljana", "Slovenia", "200", "46.0569", "14.5058"}, {"Tallinn", "Estonia", "190", "59.4370", "24.7536"},
+            {"Sinaia", "Romania", "210", "45.3500", "25.5514"}, {"Vama Veche", "Romania", "160", "43.7517", "28.5731"}
+    };
+    private static final String[] KINDS = {"Apartament", "Studio", "Casa", "Vila", "Loft", "Cabana", "Penthouse"};
+    private static final String[] ADJECTIVES = {"Luminos", "Modern", "Cochet", "Spatios", "Linistit", "Central", "Renovat"};
+    private static final String[] STREETS = {"Republicii", "Unirii", "Libertatii", "Florilor", "Mihai Eminescu",
+            "Victoriei", "Independentei", "Garii", "Teilor", "Morii"};
+
+    private final Arguments arguments;
+    private final long seed;
+    private final int hosts;
+    private final int guests;
+    private final int properties;
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate historyStart;
+    private final LocalDate horizon;
+
+    //pastrate intre treceri: rezervarile au nevoie de orasul, pretul si capacitatea fiecarei proprietati
+    private int[] propertyCity;
+    private int[] propertyPriceCents;
+    private byte[] propertyMaxGuests;
+
+    DatasetGenerator(Arguments arguments) {
+        this.arguments = arguments;
+        this.seed = arguments.longValue("seed", 42);
+        this.hosts = arguments.integer("hosts", 10_000);
+        this.guests = arguments.integer("guests", 100_000);
+        this.properties = arguments.integer("properties", 50_000);
+        this.historyStart = today.minusMonths(arguments.integer("history-months", 12)).withDayOfMonth(1);
+        this.horizon = today.plusMonths(6);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        new DatasetGenerator(new Arguments(args)).run();
+    }
+
+    void run() throws SQLException {
+        String url = arguments.string("url", "jdbc:postgresql://localhost:5432/miniairbnb");
+        String username = arguments.string("username", "postgres");
+        String password = arguments.string("password", "postgres");
+
+        //schema reala a aplicatiei (aceleasi migrari ca la pornirea backend-ului)
+        Flyway.configure().dataSource(url, username, password)
+                .baselineOnMigrate(true).baselineVersion("1")
+                .load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            prepare(connection);
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            long started = System.nanoTime();
+            report("users", copyUsers(copyManager), started);
+            started = System.nanoTime();
+            report("properties", copyProperties(copyManager), started);
+            started = System.nanoTime();
+            report("property_images", copyImages(copyManager), started);
+            started = System.nanoTime();
+            report("reservations", copyReservations(copyManager), started);
+
+            finish(connection);
+        }
+    }
+
+    private void prepare(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (arguments.flag("truncate")) {
+                statement.execute("TRUNCATE reservations, reservations_archive, property_images, properties, users RESTART IDENTITY CASCADE");
+            } else {
+                try (ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM users)")) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        throw new IllegalStateException("Database is not empty; run with --truncate=true to replace its data");
+                    }
+                }
+            }
+        }
+        //partitiile lunare pt tot intervalul generat, altfel rezervarile ar ajunge in reservations_default
+        try (PreparedStatement statement = connection.prepareStatement("SELECT create_reservation_partition(?)")) {
+            for (YearMonth month = YearMonth.from(historyStart); !month.isAfter(YearMonth.from(horizon).plusMonths(1)); month = month.plusMonths(1)) {
+                statement.setObject(1, month.atDay(1));
+                statement.execute();
+            }
+        }
+    }
+
+    //id-uri 1..hosts pt host-i, apoi guest-ii; toti cu aceeasi parola (un singur hash BCrypt)
+    private long copyUsers(CopyManager copyManager) throws SQLException {
+        String passwordHash = new BCryptPasswordEncoder().encode(LoadDriver.PASSWORD);
+        SplittableRandom random = random(1);
+        try (CopyWriter users = new CopyWriter(copyManager, "users",
+                "id, email, password, first_name, last_name, role, created_at, updated_at")) {
+            for (int id = 1; id <= hosts + guests; id++) {
+                boolean host = id <= hosts;
+                LocalDateTime createdAt = historyStart.atStartOfDay().minusDays(random.nextInt(365));
+                users.column(id)
+                        .column(host ? "host" + id + EMAIL_DOMAIN : "guest" + (id - hosts) + EMAIL_DOMAIN)
+                        .column(passwordHash)
+                        .column(host ? "Host" : "Guest")
+                        .column(String.valueOf(id))
+                        .column(host ? "ROLE_HOST" : "ROLE_GUEST")
+                        .column(createdAt)
+                        .column(createdAt);
+                users.endRow();
+            }
+            return users.rows();
+        }
+    }
+
+    private long copyProperties(CopyManager copyManager) throws SQLException {
+        SplittableRandom random = random(2);
+        SplittableRandom location = random(5); //flux separat: coordonatele nu schimba restul datelor generate
+        double[] cityWeights = zipf(CITIES.length, 1.07);
+        double[] hostWeights = zipf(hosts, 0.9); //cativa host-i cu portofolii mari, multi cu 1-2 proprietati
+        propertyCity = new int[properties + 1];
+        propertyPriceCents = new int[properties + 1];
+        propertyMaxGuests = new byte[properties + 1];
+
+        try (CopyWriter writer = new CopyWriter(copyManager, "properties", "id, title, description, address, city, country, "
+                + "price_per_night, bedrooms, bathrooms, max_guests, latitude, longitude, is_active, host_id, created_at, updated_at")) {
+            for (int id = 1; id <= properties; id++) {
+                int city = sample(cityWeights, random);
+                int bedrooms = 1 + (int) Math.min(5, Math.floor(-Math.log(1 - random.nextDouble()) * 1.2));
+                int maxGuests = Math.min(16, bedrooms * 2 + random.nextInt(2));
+                //pret log-normal in jurul mediei orasului, mai mare pt proprietatile mai mari
+                double price = Integer.parseInt(CITIES[city][2]) * (0.6 + 0.2 * bedrooms) * Math.exp(random.nextGaussian() * 0.35);
+                int priceCents = (int) Math.max(3000, Math.round(price * 100));
+                String kind = KINDS[random.nextInt(KINDS.length)];
+                LocalDateTime createdAt = historyStart.atStartOfDay().plusDays(random.nextInt(30));
+                //imprastiate in jurul centrului orasului (sigma ~4 km), mai dens in centru
+                double latitude = Double.parseDouble(CITIES[city][3]) + location.nextGaussian() * 0.04;
+                double longitude = Double.parseDouble(CITIES[city][4])
+                        + location.nextGaussian() * 0.04 / Math.cos(Math.toRadians(latitude));
+
+                propertyCity[id] = city;
+                propertyPriceCents[id] = priceCents;
+                propertyMaxGuests[id] = (byte) maxGuests;
+
+                writer.column(id)
+                        .column(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + kind.toLowerCase() + " in " + CITIES[city][0])
+                        .column(kind + " cu " + bedrooms + " dormitoare, " + maxGuests + " oaspeti. Aproape de centru si de transportul public.")
+                        .column("Str. " + STREETS[random.nextInt(STREETS.length)] + " " + (1 + random.nextInt(200)))
+                        .column(CITIES[city][0])
+                        .column(CITIES[city][1])
+                        .column(BigDecimal.valueOf(priceCents, 2))
+                        .column(bedrooms)
+                        .column(Math.max(1, bedrooms - random.nextInt(2)))
+                        .column(maxGuests)
+                        .column(BigDecimal.valueOf(latitude).setScale(6, RoundingMode.HALF_UP))
+                        .column(BigDecimal.valueOf(longitude).setScale(6, RoundingMode.HALF_UP))
+                        .column(random.nextInt(100) < 95)
+                        .column(1 + sample(hostWeights, random))
+                        .column(createdAt)
+                        .column(createdAt);
+                writer.endRow();
+            }
+            return writer.rows();
+        }
+    }
+
+    private long copyImages(CopyManager copyManager) throws SQLException {
+        SplittableRandom random = random(3);
+        try (CopyWriter writer = new CopyWriter(copyManager, "property_images", "property_id, image_url")) {
+            for (int id = 1; id <= properties; id++) {
+                int images = 1 + random.nextInt(8);
+                for (int i = 0; i < images; i++) {
+                    writer.column(id).column("https://img.load.test/p/" + id + "/" + i + ".jpg");
+                    writer.endRow();
+                }
+            }
+            return writer.rows();
+        }
+    }
+
+    //rezervarile fiecarei proprietati sunt generate in ordine cronologica, cu cel putin o zi intre ele:
+    //constrangerea de excludere foloseste intervale inchise ([check-in, check-out])
+    private long copyReservations(CopyManager copyManager) throws SQLException {
+        SplittableRandom random = random(4);
+        double[] cityWeights = zipf(CITIES.length, 1.07);
+        int days = (int) (horizon.toEpochDay() - historyStart.toEpochDay());
+
+        try (CopyWriter writer = new CopyWriter(copyManager, "reservations", "id, property_id, guest_id, check_in_date, "
+                + "check_out_date, number_of_guests, total_price, status, created_at, updated_at")) {
+            long id = 0;
+            for (int property = 1; property <= properties; property++) {
+                //ocupare intre ~20% (orase mici) si ~85% (orasele de top)
+                double popularity = weight(cityWeights, propertyCity[property]) / weight(cityWeights, 0);
+                double occupancy = Math.min(0.85, 0.2 + 0.65 * popularity + random.nextGaussian() * 0.05);
+                double meanStay = 3.0;
+                double meanGap = Math.max(1.0, meanStay * (1 - occupancy) / Math.max(0.05, occupancy));
+
+                int day = (int) geometric(random, meanGap);
+                while (true) {
+                    int nights = (int) Math.min(21, geometric(random, meanStay));
+                    if (day + nights > days) {
+                        break;
+                    }
+                    LocalDate checkIn = historyStart.plusDays(day);
+                    LocalDate checkOut = checkIn.plusDays(nights);
+                    //calendarul viitor e tot mai gol cu cat data e mai departe (rezervarile vin treptat)
+                    long daysAhead = checkIn.toEpochDay() - today.toEpochDay();
+                    if (daysAhead > 0 && random.nextDouble() < daysAhead / 200.0) {
+                        day += nights + (int) geometric(random, meanGap);
+                        continue;
+                    }
+                    String status = status(random, checkIn, checkOut);
+                    LocalDateTime createdAt = checkIn.minusDays(1 + random.nextInt(60)).atTime(12, 0);
+
+                    writer.column(++id)
+                            .column(property)
+                            .column(hosts + 1 + random.nextInt(guests))
+                            .column(checkIn)
+                            .column(checkOut)
+                            .column(1 + random.nextInt(propertyMaxGuests[property]))
+                            .column(BigDecimal.valueOf((long) propertyPriceCents[property] * nights, 2))
+                            .column(status)
+                            .column(createdAt)
+                            .column(createdAt);
+                    writer.endRow();
+
+                    day += nights + (int) geometric(random, meanGap);
+                }
+            }
+            return writer.rows();
+        }
+    }
+
+    private String status(SplittableRandom random, LocalDate checkIn, LocalDate checkOut) {
+        int roll = random.nextInt(100);
+        if (checkOut.isBefore(today)) {
+            return roll < 88 ? "COMPLETED" : "CANCELLED";
+        }
+        if (checkIn.isAfter(today)) {
+            return roll < 70 ? "CONFIRMED" : roll < 90 ? "PENDING" : "CANCELLED";
+        }
+        return "CONFIRMED"; //sejur in desfasurare
+    }
+
+    private void finish(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            //id-urile au fost scrise explicit: secventele continua dupa ele (cele pooled cu un bloc de 50 in plus)
+            statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users))");
+            statement.execute("SELECT setval('properties_seq', (SELECT COALESCE(MAX(id), 0) FROM properties) + 50)");
+            statement.execute("SELECT setval('reservations_seq', (SELECT COALESCE(MAX(id), 0) FROM reservations) + 50)");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 1_000_003L + stream); //fiecare tabela are fluxul ei, independent de celelalte
+    }
+
+    //ponderi cumulate Zipf: rangul k are ponderea 1 / k^exponent
+    static double[] zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+        return cumulative;
+    }
+
+    //ponderea rangului k (necumulata) dintr-un tabel zipf(), proportionala cu 1 / (k+1)^exponent
+    static double weight(double[] cumulative, int k) {
+        return k == 0 ? cumulative[0] : cumulative[k] - cumulative[k - 1];
+    }
+
+    static int sample(double[] cumulative, SplittableRandom random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    //valoare >= 1 cu media aproximativ mean
+    private static long geometric(SplittableRandom random, double mean) {
+        double p = 1.0 / mean;
+        return 1 + (long) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - Math.min(0.999, p)));
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        long millis = (System.nanoTime() - startedNanos) / 1_000_000;
+        System.out.printf("%-16s %,12d rows in %,8d ms%n", table, rows, millis);
+    }
+}
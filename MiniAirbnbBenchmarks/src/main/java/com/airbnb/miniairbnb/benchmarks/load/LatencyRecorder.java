@@ -0,0 +1,63 @@
+package com.airbnb.miniairbnb.benchmarks.load;
+
+import java.util.Arrays;
+
+//latentele (in microsecunde) unui endpoint, inregistrate de un singur thread; rezultatele se combina la final
+class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private long failures; //erori de retea si raspunsuri 5xx
+    private long rejected; //raspunsuri 4xx (ex. date deja rezervate)
+    private long bytes; //body-urile primite, asa cum au venit pe fir
+
+    void record(long micros, int status, int bodyBytes) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = micros;
+        bytes += bodyBytes;
+        if (status >= 500 || status < 0) {
+            failures++;
+        } else if (status >= 400) {
+            rejected++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, count + other.count);
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        failures += other.failures;
+        rejected += other.rejected;
+        bytes += other.bytes;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long failures() {
+        return failures;
+    }
+
+    long rejected() {
+        return rejected;
+    }
+
+    long averageBytes() {
+        return count == 0 ? 0 : bytes / count;
+    }
+
+    //percentila (0-100) prin sortarea esantioanelor
+    long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
@@ -0,0 +1,337 @@
+package com.airbnb.miniairbnb.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+//trimite un amestec browse/search/book/confirm catre backend-ul pornit local, pe datele din DatasetGenerator:
+//  java -cp ... LoadDriver --base-url=http://localhost:8080 --threads=16 --duration=60s --warmup=10s
+//      [--guests=100000] [--seed=7] [--output=results/load.json] [--hot-property=42]
+//      [--gzip] [--fields=id,title,pricePerNight,maxGuests,host.email]
+//cu --hot-property toate citirile de detalii si de date ocupate merg pe aceeasi proprietate (listing viral); cate ajung
+//in baza de date se vede in app.single-flight.calls{result=loaded} fata de result=shared (comparatie: app.single-flight.enabled=false)
+//fiecare thread e un guest autentificat; rezervarile create sunt confirmate ulterior de host-ul proprietatii.
+//La final se afiseaza, pe endpoint: numarul de request-uri, throughput, p50/p90/p99/max, octetii medii ai body-ului
+//(asa cum vin pe fir: comprimati cu --gzip) si erorile. --fields se adauga la listari (trebuie sa contina id, maxGuests
+//si host.email, folosite mai departe de driver).
+public class LoadDriver {
+    static final String PASSWORD = "password123";
+
+    //ponderile operatiilor din amestec (procente)
+    private static final int BROWSE = 45;
+    private static final int VIEW = 25;
+    private static final int BUSY_DATES = 12;
+    private static final int BOOK = 12;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int guests;
+    private final long seed;
+    private final long hotProperty;
+    private final boolean gzip;
+    private final String fields;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final double[] cityWeights = DatasetGenerator.zipf(DatasetGenerator.CITIES.length, 1.07);
+
+    //proprietati descoperite prin browse (id + email-ul host-ului), pe oras
+    private final Map<Integer, List<Listing>> listingsByCity = new ConcurrentHashMap<>();
+    private final Queue<Booking> pendingBookings = new ConcurrentLinkedQueue<>();
+    private final Map<String, String> hostTokens = new ConcurrentHashMap<>();
+    private final List<Map<String, LatencyRecorder>> recorders = new CopyOnWriteArrayList<>();
+
+    private volatile long measureFromNanos;
+    private volatile long measureUntilNanos;
+
+    LoadDriver(Arguments arguments) {
+        this.baseUrl = arguments.string("base-url", "http://localhost:8080");
+        this.threads = arguments.integer("threads", 16);
+        this.duration = arguments.duration("duration", Duration.ofSeconds(60));
+        this.warmup = arguments.duration("warmup", Duration.ofSeconds(10));
+        this.guests = arguments.integer("guests", 100_000);
+        this.seed = arguments.longValue("seed", 7);
+        this.hotProperty = arguments.longValue("hot-property", 0);
+        this.gzip = arguments.flag("gzip");
+        this.fields = arguments.string("fields", null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Arguments arguments = new Arguments(args);
+        LoadDriver driver = new LoadDriver(arguments);
+        Map<String, LatencyRecorder> results = driver.run();
+        driver.print(results);
+        String output = arguments.string("output", null);
+        if (output != null) {
+            driver.write(results, Path.of(output));
+        }
+    }
+
+    Map<String, LatencyRecorder> run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        measureUntilNanos = measureFromNanos + duration.toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread worker = new Thread(() -> runVirtualUser(index), "load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        for (Map<String, LatencyRecorder> threadRecorders : recorders) {
+            threadRecorders.forEach((endpoint, recorder) ->
+                    merged.computeIfAbsent(endpoint, key -> new LatencyRecorder()).merge(recorder));
+        }
+        return merged;
+    }
+
+    private void runVirtualUser(int index) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + index);
+        Map<String, LatencyRecorder> mine = new LinkedHashMap<>();
+        recorders.add(mine);
+        VirtualUser user = new VirtualUser(random, mine);
+        try {
+            user.token = login("guest" + (1 + random.nextInt(guests)) + DatasetGenerator.EMAIL_DOMAIN, mine);
+            while (System.nanoTime() < measureUntilNanos) {
+                user.step();
+            }
+        } catch (IOException e) {
+            System.err.println(Thread.currentThread().getName() + " stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class VirtualUser {
+        private final SplittableRandom random;
+        private final Map<String, LatencyRecorder> recorders;
+        private String token;
+
+        VirtualUser(SplittableRandom random, Map<String, LatencyRecorder> recorders) {
+            this.random = random;
+            this.recorders = recorders;
+        }
+
+        void step() throws IOException, InterruptedException {
+            int roll = random.nextInt(100);
+            int city = DatasetGenerator.sample(cityWeights, random);
+            List<Listing> known = listingsByCity.get(city);
+            if (roll < BROWSE || known == null || known.isEmpty()) {
+                browse(city);
+            } else if (roll < BROWSE + VIEW) {
+                send("GET /api/properties/{id}", get("/api/properties/" + viewed(known)));
+            } else if (roll < BROWSE + VIEW + BUSY_DATES) {
+                send("GET /api/reservations/property/{id}/busy-dates",
+                        get("/api/reservations/property/" + viewed(known) + "/busy-dates"));
+            } else if (roll < BROWSE + VIEW + BUSY_DATES + BOOK || pendingBookings.isEmpty()) {
+                book(pick(known));
+            } else {
+                confirm();
+            }
+        }
+
+        private void browse(int city) throws IOException, InterruptedException {
+            String name = DatasetGenerator.CITIES[city][0];
+            HttpResponse<byte[]> response = send("GET /api/properties?city",
+                    get("/api/properties?city=" + URLEncoder.encode(name, StandardCharsets.UTF_8)
+                            + (fields != null ? "&fields=" + URLEncoder.encode(fields, StandardCharsets.UTF_8) : "")));
+            //prima cautare intr-un oras populeaza lista de proprietati cunoscute (max 500)
+            if (response != null && response.statusCode() == 200 && !listingsByCity.containsKey(city)) {
+                List<Listing> listings = new ArrayList<>();
+                for (JsonNode property : JSON.readTree(body(response))) {
+                    listings.add(new Listing(property.path("id").asLong(), property.path("host").path("email").asText(null),
+                            property.path("maxGuests").asInt(1)));
+                    if (listings.size() == 500) {
+                        break;
+                    }
+                }
+                listingsByCity.putIfAbsent(city, listings);
+            }
+        }
+
+        private void book(Listing listing) throws IOException, InterruptedException {
+            LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(270));
+            ObjectNode body = JSON.createObjectNode()
+                    .put("propertyId", listing.propertyId())
+                    .put("checkInDate", checkIn.toString())
+                    .put("checkOutDate", checkIn.plusDays(1 + random.nextInt(7)).toString())
+                    .put("numberOfGuests", 1 + random.nextInt(Math.max(1, listing.maxGuests())));
+            HttpResponse<byte[]> response = send("POST /api/reservations", request("/api/reservations", token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+            if (response != null && response.statusCode() == 201 && listing.hostEmail() != null) {
+                pendingBookings.add(new Booking(JSON.readTree(body(response)).path("id").asLong(), listing.hostEmail()));
+            }
+        }
+
+        private void confirm() throws IOException, InterruptedException {
+            Booking booking = pendingBookings.poll();
+            if (booking == null) {
+                return;
+            }
+            String hostToken = hostTokens.get(booking.hostEmail());
+            if (hostToken == null) {
+                hostToken = login(booking.hostEmail(), recorders);
+                hostTokens.put(booking.hostEmail(), hostToken);
+            }
+            send("PUT /api/reservations/{id}/confirm", request("/api/reservations/" + booking.reservationId() + "/confirm", hostToken)
+                    .PUT(HttpRequest.BodyPublishers.noBody()));
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return request(path, token).GET();
+        }
+
+        private long viewed(List<Listing> known) {
+            return hotProperty > 0 ? hotProperty : pick(known).propertyId();
+        }
+
+        private Listing pick(List<Listing> listings) {
+            return listings.get(random.nextInt(listings.size()));
+        }
+
+        private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+            return LoadDriver.this.send(endpoint, request, recorders);
+        }
+    }
+
+    private String login(String email, Map<String, LatencyRecorder> recorders) throws IOException, InterruptedException {
+        String body = JSON.createObjectNode().put("email", email).put("password", PASSWORD).toString();
+        HttpResponse<byte[]> response = send("POST /api/auth/login", request("/api/auth/login", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), recorders);
+        if (response == null || response.statusCode() != 200) {
+            throw new IOException("Login failed for " + email + (response != null ? ": HTTP " + response.statusCode() : ""));
+        }
+        return JSON.readTree(body(response)).path("token").asText();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder;
+    }
+
+    //masoara request-ul; in warmup raspunsul e folosit, dar latenta nu e inregistrata
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder request,
+                                      Map<String, LatencyRecorder> recorders) throws InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response = null;
+        int status;
+        int bytes = 0;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            bytes = response.body().length;
+        } catch (IOException e) {
+            status = -1;
+        }
+        long finished = System.nanoTime();
+        if (started >= measureFromNanos && finished <= measureUntilNanos) {
+            recorders.computeIfAbsent(endpoint, key -> new LatencyRecorder()).record((finished - started) / 1_000, status, bytes);
+        }
+        return response;
+    }
+
+    //body-ul decomprimat (HttpClient nu decomprima singur)
+    private static byte[] body(HttpResponse<byte[]> response) throws IOException {
+        if (!"gzip".equals(response.headers().firstValue("Content-Encoding").orElse(null))) {
+            return response.body();
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return in.readAllBytes();
+        }
+    }
+
+    void print(Map<String, LatencyRecorder> results) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%-48s %9s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "Endpoint", "Requests", "Req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "B/req", "4xx", "Errors");
+        LatencyRecorder total = new LatencyRecorder();
+        results.forEach((endpoint, recorder) -> {
+            printRow(endpoint, recorder, seconds);
+            total.merge(recorder);
+        });
+        printRow("TOTAL", total, seconds);
+    }
+
+    private static void printRow(String endpoint, LatencyRecorder recorder, double seconds) {
+        System.out.printf("%-48s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9d %7d %7d%n", endpoint, recorder.count(),
+                recorder.count() / seconds, recorder.percentile(50) / 1000.0, recorder.percentile(90) / 1000.0,
+                recorder.percentile(99) / 1000.0, recorder.percentile(100) / 1000.0, recorder.averageBytes(),
+                recorder.rejected(), recorder.failures());
+    }
+
+    //acelasi raport in JSON, pt comparatii intre rulari
+    void write(Map<String, LatencyRecorder> results, Path file) throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        ObjectNode root = JSON.createObjectNode()
+                .put("baseUrl", baseUrl)
+                .put("threads", threads)
+                .put("durationSeconds", seconds)
+                .put("seed", seed)
+                .put("gzip", gzip)
+                .put("fields", fields);
+        ObjectNode endpoints = root.putObject("endpoints");
+        results.forEach((endpoint, recorder) -> endpoints.putObject(endpoint)
+                .put("requests", recorder.count())
+                .put("throughput", recorder.count() / seconds)
+                .put("p50Micros", recorder.percentile(50))
+                .put("p90Micros", recorder.percentile(90))
+                .put("p99Micros", recorder.percentile(99))
+                .put("maxMicros", recorder.percentile(100))
+                .put("averageBytes", recorder.averageBytes())
+                .put("rejected", recorder.rejected())
+                .put("errors", recorder.failures()));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        JSON.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    private record Listing(long propertyId, String hostEmail, int maxGuests) {
+    }
+
+    private record Booking(long reservationId, String hostEmail) {
+    }
+}
@@ -136,7 +136,7 @@ const AdminDashboard = () => {
           showToast("Utilizator șters.", "info");
           await loadUsers();
         } catch (err: any) {
-          showToast(err.response?.data || "Eroare la ștergerea utilizatorului.", "error");
+          showToast(err.response?.data?.message || err.response?.data || "Eroare la ștergerea utilizatorului.", "error");
         } finally {
           setProcessingId(null);
         }
@@ -161,7 +161,7 @@ const AdminDashboard = () => {
             loadAllProperties();
           }
         } catch (err: any) {
-          const errorMessage = err.response?.data || "Eroare la ștergerea proprietății.";
+          const errorMessage = err.response?.data?.message || err.response?.data || "Eroare la ștergerea proprietății.";
           showToast(errorMessage, "error");
         } finally {
           setProcessingId(null);
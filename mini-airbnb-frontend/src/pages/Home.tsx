@@ -5,7 +5,7 @@ import { Link, useNavigate } from "react-router-dom";
 import { authService } from "../services/authService";
 import { propertyService } from "../services/propertyService";
 import { UserRole } from "../types";
-import type { Property } from "../types";
+import type { LocationSuggestion, Property } from "../types";
 import ConfirmationModal from "../components/ConfirmationModal";
 
 const Home = () => {
@@ -28,6 +28,17 @@ const Home = () => {
     minBathrooms: "",
     maxGuests: "",
   });
+  //orasul/tara trimise la server: actualizate doar dupa o pauza in tastare, nu la fiecare tasta
+  const [locationFilters, setLocationFilters] = useState({
+    city: "",
+    country: "",
+  });
+  const [citySuggestions, setCitySuggestions] = useState<LocationSuggestion[]>(
+    []
+  );
+  const [countrySuggestions, setCountrySuggestions] = useState<
+    LocationSuggestion[]
+  >([]);
 
   // State pentru modal
   const [modalConfig, setModalConfig] = useState<{
@@ -119,13 +130,20 @@ const Home = () => {
     });
   };
 
+  useEffect(() => {
+    const timeout = setTimeout(() => {
+      setLocationFilters({ city: filters.city, country: filters.country });
+    }, 300);
+    return () => clearTimeout(timeout);
+  }, [filters.city, filters.country]);
+
   useEffect(() => {
     const loadProperties = async () => {
       try {
         setLoading(true);
         const data = await propertyService.getAllProperties(
-          filters.city || undefined,
-          filters.country || undefined
+          locationFilters.city || undefined,
+          locationFilters.country || undefined
         );
         setProperties(data);
       } catch (error) {
@@ -138,7 +156,44 @@ const Home = () => {
 
     loadProperties();
     setIsVisible(true);
-  }, [filters.city, filters.country]);
+  }, [locationFilters.city, locationFilters.country]);
+
+  //sugestiile sunt cerute dupa o pauza scurta; un raspuns intarziat pt un text vechi e ignorat
+  useEffect(() => {
+    if (!filters.city.trim()) {
+      setCitySuggestions([]);
+      return;
+    }
+    let cancelled = false;
+    const timeout = setTimeout(() => {
+      propertyService
+        .suggestLocations(filters.city, "city")
+        .then((data) => !cancelled && setCitySuggestions(data))
+        .catch(() => !cancelled && setCitySuggestions([]));
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timeout);
+    };
+  }, [filters.city]);
+
+  useEffect(() => {
+    if (!filters.country.trim()) {
+      setCountrySuggestions([]);
+      return;
+    }
+    let cancelled = false;
+    const timeout = setTimeout(() => {
+      propertyService
+        .suggestLocations(filters.country, "country")
+        .then((data) => !cancelled && setCountrySuggestions(data))
+        .catch(() => !cancelled && setCountrySuggestions([]));
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timeout);
+    };
+  }, [filters.country]);
 
   const handleFilterChange = (name: string, value: string) => {
     setFilters((prev) => ({
@@ -860,6 +915,7 @@ const Home = () => {
                 </label>
                 <input
                   type="text"
+                  list="city-suggestions"
                   value={filters.city}
                   onChange={(e) => handleFilterChange("city", e.target.value)}
                   placeholder="Ex: București"
@@ -879,6 +935,13 @@ const Home = () => {
                     e.currentTarget.style.borderColor = "#ddd";
                   }}
                 />
+                <datalist id="city-suggestions">
+                  {citySuggestions.map((s) => (
+                    <option key={`${s.name}-${s.country}`} value={s.name}>
+                      {`${s.country} · ${s.listings} proprietăți`}
+                    </option>
+                  ))}
+                </datalist>
               </div>
               <div>
                 <label
@@ -894,6 +957,7 @@ const Home = () => {
                 </label>
                 <input
                   type="text"
+                  list="country-suggestions"
                   value={filters.country}
                   onChange={(e) =>
                     handleFilterChange("country", e.target.value)
@@ -915,6 +979,13 @@ const Home = () => {
                     e.currentTarget.style.borderColor = "#ddd";
                   }}
                 />
+                <datalist id="country-suggestions">
+                  {countrySuggestions.map((s) => (
+                    <option key={s.name} value={s.name}>
+                      {`${s.listings} proprietăți`}
+                    </option>
+                  ))}
+                </datalist>
               </div>
               <div>
                 <label
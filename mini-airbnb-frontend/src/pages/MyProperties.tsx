@@ -76,7 +76,7 @@ const MyProperties = () => {
           setProperties(properties.filter((p) => p.id !== id));
           showToast("Proprietatea a fost ștearsă.", "info");
         } catch (err: any) {
-          const errorMessage = err.response?.data || "Eroare la ștergerea proprietății.";
+          const errorMessage = err.response?.data?.message || err.response?.data || "Eroare la ștergerea proprietății.";
           showToast(errorMessage, "error");
         } finally {
           setDeletingId(null);
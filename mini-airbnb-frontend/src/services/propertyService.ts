@@ -1,5 +1,5 @@
 import api from "./api";
-import type { Property } from "../types";
+import type { LocationSuggestion, Property } from "../types";
 
 export const propertyService = {
   //obtine toate proprietatile active
@@ -17,6 +17,20 @@ export const propertyService = {
     return response.data;
   },
 
+  //sugestii de orase/tari pt un prefix (fara diacritice, cele mai populare primele)
+  suggestLocations: async (
+    query: string,
+    type?: "city" | "country"
+  ): Promise<LocationSuggestion[]> => {
+    const params = new URLSearchParams({ q: query });
+    if (type) params.append("type", type);
+
+    const response = await api.get<LocationSuggestion[]>(
+      `/properties/suggest?${params.toString()}`
+    );
+    return response.data;
+  },
+
   //obtine o proprietate dupa id
   getPropertyById: async (id: number): Promise<Property> => {
     const response = await api.get<Property>(`/properties/${id}`);
@@ -34,6 +34,14 @@ export interface Property {
   updatedAt: string;
 }
 
+//sugestii pt campurile oras/tara (GET /properties/suggest)
+export interface LocationSuggestion {
+  type: "city" | "country";
+  name: string;
+  country: string | null;
+  listings: number;
+}
+
 //reservation types
 export interface Reservation {
   id: number;